@@ -0,0 +1,7 @@
+-- 业务库（表结构由应用启动时的迁移创建，经复制同步到从库）
+CREATE DATABASE IF NOT EXISTS museum DEFAULT CHARSET utf8mb4;
+
+-- 复制账号
+CREATE USER IF NOT EXISTS 'repl'@'%' IDENTIFIED BY 'repl123';
+GRANT REPLICATION SLAVE ON *.* TO 'repl'@'%';
+FLUSH PRIVILEGES;
@@ -1,4 +1,5 @@
 import http from './http'
+import { getToken, getTokenName } from '@/utils/auth'
 
 // 消息分类枚举
 export enum NoticeCategory {
@@ -106,3 +107,32 @@ export function deleteNotice(id: number): Promise<boolean> {
 export function markAllAsRead(): Promise<boolean> {
   return http.post<boolean>('/api/notice/read-all') as any
 }
+
+/**
+ * 获取未读消息数
+ */
+export function getUnreadCount(): Promise<number> {
+  return http.get<number>('/api/notice/unread-count') as any
+}
+
+/**
+ * 订阅消息推送（SSE），连接建立后先收到 unread，之后每条新消息收到 notice
+ * EventSource 断线会自动重连；用户关闭推送时连接被拒绝，需回退为手动刷新
+ * @param onNotice 新消息回调
+ * @param onUnread 未读数回调
+ * @returns 关闭订阅的函数
+ */
+export function subscribeNotices(
+  onNotice: (notice: UserNoticeVO) => void,
+  onUnread: (count: number) => void
+): () => void {
+  const baseURL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'
+  const tokenName = getTokenName() || 'satoken'
+  const token = getToken() || ''
+  const source = new EventSource(
+    `${baseURL}/api/notice/stream?${encodeURIComponent(tokenName)}=${encodeURIComponent(token)}`
+  )
+  source.addEventListener('notice', (e) => onNotice(JSON.parse((e as MessageEvent).data)))
+  source.addEventListener('unread', (e) => onUnread(Number((e as MessageEvent).data)))
+  return () => source.close()
+}
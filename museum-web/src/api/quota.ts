@@ -24,10 +24,10 @@ export interface QuotaUpdateRequest {
 }
 
 /**
- * 获取指定日期的库存信息
+ * 获取指定日期的库存信息（GET，可命中浏览器与 CDN 缓存）
  */
 export function getQuotaInfo(visitDate: string): Promise<QuotaInfo> {
-  return http.post<QuotaInfo>('/api/quota/info', { visitDate }) as any
+  return http.get<QuotaInfo>('/api/quota/info', { params: { visitDate } }) as any
 }
 
 /**
@@ -43,3 +43,56 @@ export function updateQuota(data: QuotaUpdateRequest): Promise<boolean> {
 export function createFutureQuota(days: number): Promise<string> {
   return http.post<string>('/api/quota/create', null, { params: { days } }) as any
 }
+
+// 时段余量
+export interface TimeslotAvailability {
+  id: number
+  visitDate: string
+  startTime: string
+  endTime: string
+  capacity: number
+  reservedCount: number
+  remainingCount: number
+  status: number
+}
+
+// 单日余量
+export interface QuotaAvailability {
+  visitDate: string
+  capacity: number
+  remainingCount: number
+  status: number
+  slots?: TimeslotAvailability[]
+}
+
+// 预约日历（全量或增量）
+export interface QuotaCalendar {
+  version: number
+  refreshedAt: string
+  days: QuotaAvailability[]
+}
+
+/**
+ * 获取预约日历余量（可预约范围内每天的剩余名额）
+ */
+export function getQuotaAvailability(): Promise<QuotaCalendar> {
+  return http.get<QuotaCalendar>('/api/quota/availability') as any
+}
+
+/**
+ * 订阅余量变化（SSE），连接建立后先收到 calendar（全量），之后收到 quota（仅变化的日期）
+ * EventSource 断线会自动重连，重连后重新收到全量
+ * @param onCalendar 全量回调
+ * @param onChange 增量回调
+ * @returns 关闭订阅的函数
+ */
+export function subscribeQuota(
+  onCalendar: (calendar: QuotaCalendar) => void,
+  onChange: (delta: QuotaCalendar) => void
+): () => void {
+  const baseURL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'
+  const source = new EventSource(`${baseURL}/api/quota/stream`)
+  source.addEventListener('calendar', (e) => onCalendar(JSON.parse((e as MessageEvent).data)))
+  source.addEventListener('quota', (e) => onChange(JSON.parse((e as MessageEvent).data)))
+  return () => source.close()
+}
@@ -0,0 +1,61 @@
+package com.design.museum.admission;
+
+/**
+ * 令牌桶
+ * 按固定速率补充令牌，桶容量即允许的突发量；取令牌不阻塞，取不到直接返回 false
+ */
+public class TokenBucket {
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private double tokens;
+
+    private long lastRefillNanos;
+
+    /**
+     * @param ratePerSecond 每秒补充令牌数
+     * @param burst         桶容量
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("ratePerSecond 和 burst 必须大于 0");
+        }
+        this.capacity = burst;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 尝试取一个令牌
+     *
+     * @return 是否取到
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 当前可用令牌数（向下取整）
+     */
+    public synchronized int available() {
+        refill();
+        return (int) tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
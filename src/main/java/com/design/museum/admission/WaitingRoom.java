@@ -0,0 +1,277 @@
+package com.design.museum.admission;
+
+import com.design.museum.common.ErrorCode;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.vo.QueueTicketVO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 预约虚拟候场室
+ * 令牌桶限定进入预约流程的速率；无人排队且有令牌时直接放行，否则发放排队序号立即返回，
+ * 由后台按令牌速率先到先得地放行。放行后的用户在有效期内重新提交即可进入预约流程。
+ * 每个登录用户同时只持有一个序号；长时间不再轮询的序号视为放弃，不占用放行名额。
+ */
+@Slf4j
+@Component
+public class WaitingRoom {
+
+    @Getter
+    @Value("${museum.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${museum.admission.rate-per-second:50}")
+    private double ratePerSecond;
+
+    @Value("${museum.admission.burst:100}")
+    private int burst;
+
+    @Value("${museum.admission.max-waiting:20000}")
+    private int maxWaiting;
+
+    @Value("${museum.admission.idle-timeout-seconds:30}")
+    private int idleTimeoutSeconds;
+
+    @Value("${museum.admission.admit-ttl-seconds:60}")
+    private int admitTtlSeconds;
+
+    @Value("${museum.admission.drain-interval-ms:100}")
+    private long drainIntervalMs;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private TokenBucket bucket;
+
+    /**
+     * 放行线程：放行间隔很短，不与其他定时任务共用调度线程，避免被慢任务拖住
+     */
+    private ScheduledExecutorService drainer;
+
+    /**
+     * 排队中的序号（先到先得）
+     */
+    private final Queue<Ticket> waitingQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已放行、等待用户重新提交的序号（按放行顺序，用于清理超时）
+     */
+    private final Queue<Ticket> admittedQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 用户ID -> 序号
+     */
+    private final Map<Long, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private final AtomicLong issuedSeq = new AtomicLong();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile long admittedSeq;
+
+    private final LongAdder direct = new LongAdder();
+
+    private final LongAdder queued = new LongAdder();
+
+    private final LongAdder admitted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder abandoned = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        bucket = new TokenBucket(ratePerSecond, burst);
+
+        registerCounter("direct", direct);
+        registerCounter("queued", queued);
+        registerCounter("admitted", admitted);
+        registerCounter("rejected", rejected);
+        registerCounter("abandoned", abandoned);
+        Gauge.builder("museum.admission.waiting", waiting, AtomicInteger::get)
+                .description("预约候场室排队人数")
+                .register(meterRegistry);
+
+        drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "admission-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(() -> {
+            try {
+                drain();
+            } catch (Exception e) {
+                // 异常会终止后续调度，这里吞掉只记录
+                log.error("候场室放行失败", e);
+            }
+        }, drainIntervalMs, drainIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        drainer.shutdownNow();
+    }
+
+    /**
+     * 尝试进入预约流程
+     *
+     * @param userId 登录用户ID
+     * @return null 表示放行；否则为排队凭证
+     */
+    public QueueTicketVO tryEnter(Long userId) {
+        long now = System.currentTimeMillis();
+
+        Ticket ticket = tickets.get(userId);
+        if (ticket != null) {
+            if (ticket.admittedAt == 0) {
+                // 仍在排队，刷新活跃时间并返回当前排位
+                ticket.lastSeen = now;
+                return toVO(ticket);
+            }
+            tickets.remove(userId, ticket);
+            if (now - ticket.admittedAt <= admitTtlSeconds * 1000L) {
+                return null;
+            }
+            // 放行后超时未提交，重新排队
+        }
+
+        // 无人排队时直接取令牌，避免空闲期也要轮询
+        if (waiting.get() == 0 && bucket.tryAcquire()) {
+            direct.increment();
+            return null;
+        }
+
+        if (waiting.get() >= maxWaiting) {
+            rejected.increment();
+            throw new BusinessException(ErrorCode.BOOKING_QUEUE_FULL);
+        }
+
+        Ticket created = new Ticket(issuedSeq.incrementAndGet(), userId, now);
+        Ticket existing = tickets.putIfAbsent(userId, created);
+        if (existing != null) {
+            // 同一用户并发提交，沿用已有序号
+            return toVO(existing);
+        }
+        waiting.incrementAndGet();
+        waitingQueue.offer(created);
+        queued.increment();
+        return toVO(created);
+    }
+
+    /**
+     * 查询当前用户的排队状态（同时视为一次轮询）
+     *
+     * @param userId 登录用户ID
+     * @return 排队凭证
+     */
+    public QueueTicketVO status(Long userId) {
+        Ticket ticket = tickets.get(userId);
+        if (ticket == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "当前未在排队中");
+        }
+        ticket.lastSeen = System.currentTimeMillis();
+        return toVO(ticket);
+    }
+
+    /**
+     * 按令牌速率放行排队用户，并清理放弃或放行超时的序号
+     */
+    public void drain() {
+        long now = System.currentTimeMillis();
+        long idleTimeout = idleTimeoutSeconds * 1000L;
+
+        Ticket head;
+        while ((head = waitingQueue.peek()) != null) {
+            if (now - head.lastSeen > idleTimeout) {
+                // 长时间未轮询，视为放弃，不消耗令牌
+                removeHead(head);
+                tickets.remove(head.userId, head);
+                abandoned.increment();
+                continue;
+            }
+            if (!bucket.tryAcquire()) {
+                break;
+            }
+            removeHead(head);
+            head.admittedAt = now;
+            admittedQueue.offer(head);
+            admitted.increment();
+        }
+
+        long admitTtl = admitTtlSeconds * 1000L;
+        while ((head = admittedQueue.peek()) != null && now - head.admittedAt > admitTtl) {
+            admittedQueue.poll();
+            tickets.remove(head.userId, head);
+        }
+    }
+
+    private void removeHead(Ticket head) {
+        waitingQueue.poll();
+        waiting.decrementAndGet();
+        admittedSeq = head.seq;
+    }
+
+    private QueueTicketVO toVO(Ticket ticket) {
+        QueueTicketVO vo = new QueueTicketVO();
+        vo.setTicketNo(ticket.seq);
+        vo.setAdmitTtlSeconds(admitTtlSeconds);
+        if (ticket.admittedAt > 0) {
+            vo.setReady(true);
+            vo.setPosition(0L);
+            vo.setEstimatedWaitSeconds(0L);
+        } else {
+            // 排位按序号差估算，已放弃的序号被跳过后会略有高估
+            long position = Math.max(ticket.seq - admittedSeq, 1);
+            vo.setReady(false);
+            vo.setPosition(position);
+            vo.setEstimatedWaitSeconds((long) Math.ceil(position / ratePerSecond));
+        }
+        return vo;
+    }
+
+    private void registerCounter(String result, LongAdder adder) {
+        FunctionCounter.builder("museum.admission.requests", adder, LongAdder::sum)
+                .description("预约候场室请求数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 排队序号
+     */
+    private static class Ticket {
+
+        private final long seq;
+
+        private final Long userId;
+
+        private volatile long lastSeen;
+
+        private volatile long admittedAt;
+
+        private Ticket(long seq, Long userId, long now) {
+            this.seq = seq;
+            this.userId = userId;
+            this.lastSeen = now;
+        }
+    }
+}
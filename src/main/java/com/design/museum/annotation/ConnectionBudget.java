@@ -0,0 +1,30 @@
+package com.design.museum.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 数据库连接预算注解
+ * 同一预算下同时执行的方法数不超过许可数，超出时排队等待，等待超时则拒绝；
+ * 预算在事务开启前占用，保证一类业务最多占用固定数量的连接，其余连接留给目录浏览等轻量查询。
+ * 许可数可通过 museum.db.budgets.&lt;name&gt; 覆盖
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConnectionBudget {
+
+    /**
+     * 预算名称，同时用作指标标签与配置覆盖的键
+     */
+    String value();
+
+    /**
+     * 默认许可数
+     */
+    int permits() default 10;
+
+    /**
+     * 等待许可的最长时间（毫秒），小于 0 时使用 museum.db.budget-wait-ms
+     */
+    long waitMillis() default -1;
+}
@@ -0,0 +1,19 @@
+package com.design.museum.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 幂等接口注解
+ * 请求携带 Idempotency-Key 头时，同一用户同一键的重复请求直接返回首次的响应，不再执行业务。
+ * 未携带该头的请求按普通请求处理
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+
+    /**
+     * 接口范围，同一个键在不同接口上互不影响
+     */
+    String scope();
+}
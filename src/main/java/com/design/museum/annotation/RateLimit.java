@@ -0,0 +1,45 @@
+package com.design.museum.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 接口限流注解
+ * 按登录用户和客户端 IP 分别计数（滑动窗口），任一维度超限即拒绝。
+ * 阈值可通过 museum.rate-limit.rules.&lt;name&gt;=次数/秒数[/IP次数] 覆盖
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimit {
+
+    /**
+     * 规则名称，同时用作统计与配置覆盖的键
+     */
+    String name();
+
+    /**
+     * 窗口内允许的请求数
+     */
+    int limit() default 10;
+
+    /**
+     * 同一 IP 窗口内允许的请求数；NAT、代理后的多个用户共用出口 IP，应明显大于 limit。
+     * 0 表示 limit × museum.rate-limit.ip-limit-multiplier
+     */
+    int ipLimit() default 0;
+
+    /**
+     * 窗口长度（秒）
+     */
+    int windowSeconds() default 60;
+
+    /**
+     * 是否按登录用户限流
+     */
+    boolean perUser() default true;
+
+    /**
+     * 是否按客户端 IP 限流
+     */
+    boolean perIp() default true;
+}
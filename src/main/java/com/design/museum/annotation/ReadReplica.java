@@ -0,0 +1,15 @@
+package com.design.museum.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 读从库注解
+ * 标注的查询优先发往健康且延迟在阈值内的从库，没有可用从库时回退到主库。
+ * 处于读写事务中时始终使用主库，保证能读到本事务内的写入；
+ * {@code @Transactional(readOnly = true)} 的方法无需再加此注解
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadReplica {
+}
@@ -0,0 +1,39 @@
+package com.design.museum.aop;
+
+import com.design.museum.annotation.ConnectionBudget;
+import com.design.museum.datasource.ConnectionBudgets;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 连接预算切面
+ * 优先级高于事务切面：先拿到预算再开启事务、占用连接，等待预算期间不占连接
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class ConnectionBudgetAspect {
+
+    @Resource
+    private ConnectionBudgets connectionBudgets;
+
+    @Around("@annotation(connectionBudget)")
+    public Object around(ProceedingJoinPoint joinPoint, ConnectionBudget connectionBudget) throws Throwable {
+        ConnectionBudgets.Budget budget = connectionBudgets.acquire(connectionBudget);
+        if (budget == null) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            connectionBudgets.release(budget, System.nanoTime() - start, joinPoint.getSignature().toShortString());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.design.museum.aop;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.design.museum.annotation.Idempotent;
+import com.design.museum.common.BaseResponse;
+import com.design.museum.common.ErrorCode;
+import com.design.museum.context.UserContext;
+import com.design.museum.entity.IdempotencyRecord;
+import com.design.museum.enums.IdempotencyStatusEnum;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.service.IIdempotencyRecordService;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.regex.Pattern;
+
+/**
+ * 幂等切面
+ * 拦截带 {@link Idempotent} 注解的接口：首次请求执行业务并保存响应，相同键的重复请求直接回放该响应，
+ * 不再进入预约事务；业务失败时释放键，客户端可用同一个键重试。
+ */
+@Aspect
+@Component
+@Slf4j
+public class IdempotentAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_\\-:.]{8,64}");
+
+    @Resource
+    private IIdempotencyRecordService idempotencyRecordService;
+
+    @Resource
+    private UserContext userContext;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Around("@annotation(idempotent)")
+    public Object around(ProceedingJoinPoint joinPoint, Idempotent idempotent) throws Throwable {
+        String idemKey = currentKey();
+        Long userId = userContext.getLoginId();
+        if (idemKey == null || userId == null) {
+            return joinPoint.proceed();
+        }
+        if (!KEY_PATTERN.matcher(idemKey).matches()) {
+            throw new BusinessException(ErrorCode.IDEMPOTENCY_KEY_INVALID, "Idempotency-Key 须为 8-64 位字母、数字或 -_:.");
+        }
+
+        String scope = idempotent.scope();
+        String requestHash = DigestUtil.sha256Hex(objectMapper.writeValueAsString(joinPoint.getArgs()));
+
+        IdempotencyRecord existing = idempotencyRecordService.acquire(userId, scope, idemKey, requestHash);
+        if (existing != null) {
+            if (!requestHash.equals(existing.getRequestHash())) {
+                throw new BusinessException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+            }
+            if (existing.getStatus() != IdempotencyStatusEnum.COMPLETED.getValue()) {
+                throw new BusinessException(ErrorCode.IDEMPOTENCY_IN_PROGRESS);
+            }
+            log.info("幂等回放：userId={}, scope={}, key={}", userId, scope, idemKey);
+            return replay(existing, ((MethodSignature) joinPoint.getSignature()).getMethod());
+        }
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            idempotencyRecordService.release(userId, scope, idemKey);
+            throw e;
+        }
+
+        if (result instanceof BaseResponse) {
+            BaseResponse<?> response = (BaseResponse<?>) result;
+            try {
+                idempotencyRecordService.complete(userId, scope, idemKey, response.getCode(), response.getMessage(),
+                        objectMapper.writeValueAsString(response.getData()));
+            } catch (Exception e) {
+                // 保存失败不影响本次响应，释放键避免后续重试一直处于处理中
+                log.error("保存幂等响应失败：userId={}, scope={}, key={}", userId, scope, idemKey, e);
+                idempotencyRecordService.release(userId, scope, idemKey);
+            }
+        } else {
+            idempotencyRecordService.release(userId, scope, idemKey);
+        }
+        return result;
+    }
+
+    /**
+     * 按接口声明的返回类型还原响应数据
+     */
+    private BaseResponse<Object> replay(IdempotencyRecord record, Method method) throws Exception {
+        Object data = null;
+        if (record.getResponseData() != null) {
+            Type returnType = method.getGenericReturnType();
+            JavaType dataType = returnType instanceof ParameterizedType
+                    ? objectMapper.getTypeFactory().constructType(((ParameterizedType) returnType).getActualTypeArguments()[0])
+                    : objectMapper.getTypeFactory().constructType(Object.class);
+            data = objectMapper.readValue(record.getResponseData(), dataType);
+        }
+        return new BaseResponse<>(record.getResponseCode(), data, record.getResponseMessage());
+    }
+
+    private String currentKey() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String key = request.getHeader(HEADER);
+        return key == null || key.trim().isEmpty() ? null : key.trim();
+    }
+}
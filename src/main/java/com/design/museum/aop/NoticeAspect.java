@@ -1,8 +1,7 @@
 package com.design.museum.aop;
 
-import cn.dev33.satoken.stp.StpUtil;
-import com.design.museum.entity.UserNotice;
-import com.design.museum.mapper.UserNoticeMapper;
+import com.design.museum.context.UserContext;
+import com.design.museum.service.IUserNoticeService;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
@@ -13,7 +12,6 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
-import java.time.LocalDateTime;
 
 /**
  * 消息通知切面
@@ -24,7 +22,10 @@ import java.time.LocalDateTime;
 public class NoticeAspect {
 
     @Resource
-    private UserNoticeMapper userNoticeMapper;
+    private IUserNoticeService userNoticeService;
+
+    @Resource
+    private UserContext userContext;
 
     private final ExpressionParser parser = new SpelExpressionParser();
 
@@ -35,23 +36,13 @@ public class NoticeAspect {
     public void afterReturning(Notice notice, Object result) {
         try {
             // 获取当前登录用户ID
-            Long userId = StpUtil.getLoginIdAsLong();
+            Long userId = userContext.requireLoginId();
 
             // 解析 SpEL 表达式生成消息内容
             String content = parseSpel(notice.message(), result);
 
-            // 构建消息对象
-            UserNotice userNotice = new UserNotice();
-            userNotice.setUserId(userId);
-            userNotice.setCategory(notice.category());
-            userNotice.setTitle(notice.title());
-            userNotice.setContent(content);
-            userNotice.setReadFlag(0); // 0未读
-            userNotice.setDeleted(0);  // 0正常
-            userNotice.setCreatedAt(LocalDateTime.now());
-
             // 插入消息
-            userNoticeMapper.insert(userNotice);
+            userNoticeService.sendNotice(userId, notice.category(), notice.title(), content);
 
             log.info("站内消息发送成功：userId={}, category={}, title={}, content={}",
                     userId, notice.category(), notice.title(), content);
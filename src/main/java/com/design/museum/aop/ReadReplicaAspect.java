@@ -0,0 +1,27 @@
+package com.design.museum.aop;
+
+import com.design.museum.annotation.ReadReplica;
+import com.design.museum.datasource.RouteContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 读从库切面
+ * 在 {@link ReadReplica} 方法执行期间标记当前线程优先读从库，实际路由由 ReplicaRoutingDataSource 决定
+ */
+@Aspect
+@Component
+public class ReadReplicaAspect {
+
+    @Around("@annotation(com.design.museum.annotation.ReadReplica) || @within(com.design.museum.annotation.ReadReplica)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        RouteContext.enterReplica();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RouteContext.exitReplica();
+        }
+    }
+}
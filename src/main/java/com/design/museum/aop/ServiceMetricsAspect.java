@@ -0,0 +1,91 @@
+package com.design.museum.aop;
+
+import com.design.museum.common.ErrorCode;
+import com.design.museum.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 业务服务耗时统计切面
+ * 为预约、配额服务的每个方法记录 Micrometer 计时，并统计配额已满、重复预约等拒绝次数
+ */
+@Aspect
+@Component
+@Slf4j
+public class ServiceMetricsAspect {
+
+    /**
+     * 服务方法耗时指标名
+     */
+    public static final String SERVICE_TIMER = "museum.service";
+
+    /**
+     * 预约拒绝次数指标名
+     */
+    public static final String BOOKING_REJECTION_COUNTER = "museum.booking.rejections";
+
+    /**
+     * 当前线程的服务调用嵌套深度，仅在最外层统计拒绝次数，避免内层异常向外传播时重复计数
+     */
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.design.museum.service.IVisitBookingService+.*(..))"
+            + " || execution(public * com.design.museum.service.IVisitDayQuotaService+.*(..))")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        int[] depth = DEPTH.get();
+        depth[0]++;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (BusinessException e) {
+            exception = BusinessException.class.getSimpleName();
+            if (depth[0] == 1) {
+                countRejection(e);
+            }
+            throw e;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .description("预约/配额服务方法耗时")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+            if (--depth[0] == 0) {
+                DEPTH.remove();
+            }
+        }
+    }
+
+    /**
+     * 统计配额已满、重复预约两类拒绝
+     */
+    private void countRejection(BusinessException e) {
+        ErrorCode reason = null;
+        if (e.getCode() == ErrorCode.QUOTA_FULL.getCode()) {
+            reason = ErrorCode.QUOTA_FULL;
+        } else if (e.getCode() == ErrorCode.BOOKING_ALREADY_EXISTS.getCode()) {
+            reason = ErrorCode.BOOKING_ALREADY_EXISTS;
+        }
+        if (reason != null) {
+            meterRegistry.counter(BOOKING_REJECTION_COUNTER, "reason", reason.name()).increment();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.design.museum.cache;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 缓存校验信息（结果行）
+ * 行数与最近更新时间任一变化即视为内容变化
+ */
+@Data
+public class CacheValidator {
+
+    private Long count;
+
+    private LocalDateTime updatedAt;
+}
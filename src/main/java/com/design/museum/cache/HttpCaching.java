@@ -0,0 +1,63 @@
+package com.design.museum.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 公开读接口的 HTTP 缓存
+ * 按内容版本（更新时间、行数、快照版本号等）生成弱 ETag，请求携带的 If-None-Match 命中时
+ * 控制器在调用业务逻辑前直接返回 304，浏览器与 CDN 只需重新校验而不必重新下载
+ */
+@Component
+public class HttpCaching {
+
+    @Value("${museum.http-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 写入 Cache-Control 并校验 If-None-Match
+     *
+     * @param request      当前请求
+     * @param cacheControl 缓存策略
+     * @param versions     参与计算 ETag 的版本信息
+     * @return 内容未变化时返回 true，控制器应直接返回 null，由框架响应 304
+     */
+    public boolean notModified(ServletWebRequest request, CacheControl cacheControl, Object... versions) {
+        if (!enabled) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        String source = Arrays.stream(versions).map(Objects::toString).collect(Collectors.joining("|"));
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * 只写入 Cache-Control（无法确定内容版本时使用）
+     */
+    public void cacheControl(ServletWebRequest request, CacheControl cacheControl) {
+        if (enabled && request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+    }
+
+    /**
+     * 响应内容随请求头变化时追加 Vary，避免共享缓存把登录用户的内容返回给他人
+     */
+    public void vary(ServletWebRequest request, String header) {
+        if (enabled && request.getResponse() != null) {
+            request.getResponse().addHeader(HttpHeaders.VARY, header);
+        }
+    }
+}
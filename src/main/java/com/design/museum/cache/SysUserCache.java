@@ -0,0 +1,159 @@
+package com.design.museum.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.design.museum.entity.SysUser;
+import com.design.museum.mapper.SysUserMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户实体缓存
+ * 按用户ID缓存，容量有上限并按 TTL 过期；注册、封禁、解禁、资料修改时由 {@link com.design.museum.service.ISysUserService} 主动失效
+ * 注意：返回的是共享快照，调用方不得修改
+ */
+@Component
+public class SysUserCache {
+
+    /**
+     * 最大缓存条数
+     */
+    @Value("${museum.user-cache.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * 缓存有效期（秒），兜底修正绕过服务层直接改库造成的不一致
+     */
+    @Value("${museum.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Resource
+    private SysUserMapper sysUserMapper;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private LRUCache<Long, SysUser> cache;
+
+    /**
+     * 失效版本号：查库期间如发生失效，查到的旧数据不再写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        cache = CacheUtil.newLRUCache(maxSize, ttlSeconds * 1000);
+
+        FunctionCounter.builder("museum.user.cache.requests", hits, LongAdder::sum)
+                .description("用户缓存请求次数")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("museum.user.cache.requests", misses, LongAdder::sum)
+                .description("用户缓存请求次数")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("museum.user.cache.size", this, c -> c.cache.size())
+                .description("用户缓存当前条数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 根据ID获取用户，未命中时查库
+     *
+     * @param userId 用户ID
+     * @return 用户，不存在时返回 null
+     */
+    public SysUser get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        // 读取时不刷新过期时间，保证快照最多存活 ttlSeconds
+        SysUser user = cache.get(userId, false);
+        if (user != null) {
+            hits.increment();
+            return user;
+        }
+        misses.increment();
+
+        long gen = generation.get();
+        user = sysUserMapper.selectById(userId);
+        if (user != null && gen == generation.get()) {
+            cache.put(userId, user);
+        }
+        return user;
+    }
+
+    /**
+     * 批量获取用户，未命中的部分一次查库
+     *
+     * @param userIds 用户ID集合
+     * @return 用户ID -> 用户，不存在的用户不在结果中
+     */
+    public Map<Long, SysUser> getAll(Collection<Long> userIds) {
+        Map<Long, SysUser> result = new HashMap<>(userIds.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (userId == null || result.containsKey(userId)) {
+                continue;
+            }
+            SysUser user = cache.get(userId, false);
+            if (user != null) {
+                hits.increment();
+                result.put(userId, user);
+            } else if (!missing.contains(userId)) {
+                misses.increment();
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long gen = generation.get();
+            List<SysUser> loaded = sysUserMapper.selectBatchIds(missing);
+            boolean cacheable = gen == generation.get();
+            for (SysUser user : loaded) {
+                result.put(user.getId(), user);
+                if (cacheable) {
+                    cache.put(user.getId(), user);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 失效指定用户
+     *
+     * @param userId 用户ID
+     */
+    public void invalidate(Long userId) {
+        generation.incrementAndGet();
+        if (userId != null) {
+            cache.remove(userId);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+}
@@ -0,0 +1,116 @@
+package com.design.museum.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.design.museum.entity.UserNotice;
+import com.design.museum.mapper.UserNoticeMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户未读消息数
+ * 首次查询时按库计数，之后随发送消息、全部已读增量维护；在事务中发生的变更等提交后才生效。
+ * 条目按 TTL 过期，兜底修正直接改库造成的偏差
+ */
+@Component
+public class UnreadNoticeCounter {
+
+    @Value("${museum.notice.unread-cache-size:20000}")
+    private int maxSize;
+
+    @Value("${museum.notice.unread-cache-ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Resource
+    private UserNoticeMapper userNoticeMapper;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private LRUCache<Long, AtomicInteger> cache;
+
+    /**
+     * 变更版本号：查库期间如有变更，查到的计数不再写入缓存，避免丢失增量
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = CacheUtil.newLRUCache(maxSize, ttlSeconds * 1000);
+        Gauge.builder("museum.notice.unread.cache.size", this, c -> c.cache.size())
+                .description("未读数缓存当前条数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取未读数，未命中时查库
+     *
+     * @param userId 用户ID
+     * @return 未读消息数
+     */
+    public int get(Long userId) {
+        AtomicInteger counter = cache.get(userId, false);
+        if (counter != null) {
+            return counter.get();
+        }
+        long gen = generation.get();
+        int count = Math.toIntExact(userNoticeMapper.selectCount(new LambdaQueryWrapper<UserNotice>()
+                .eq(UserNotice::getUserId, userId)
+                .eq(UserNotice::getDeleted, 0)
+                .eq(UserNotice::getReadFlag, 0)));
+        if (gen == generation.get()) {
+            cache.put(userId, new AtomicInteger(count));
+        }
+        return count;
+    }
+
+    /**
+     * 新增一条未读消息
+     *
+     * @param userId 用户ID
+     */
+    public void increment(Long userId) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            AtomicInteger counter = cache.get(userId, false);
+            if (counter != null) {
+                counter.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * 失效指定用户的计数（全部已读等批量变更后调用，下次查询重新计数）
+     *
+     * @param userId 用户ID
+     */
+    public void invalidate(Long userId) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            cache.remove(userId);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -11,8 +11,10 @@ public enum ErrorCode {
     NO_AUTH_ERROR(402, "无权限"),
     NOT_FOUND_ERROR(404, "请求数据不存在"),
     FORBIDDEN_ERROR(403, "禁止访问"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁，请稍后再试"),
     SYSTEM_ERROR(500, "系统内部异常"),
     OPERATION_ERROR(501, "操作失败"),
+    DB_BUSY(503, "系统繁忙，请稍后再试"),
     USER_NOT_EXIST(1001, "用户不存在"),
     USER_PASSWORD_ERROR(1002, "用户名或密码错误"),
     USER_DISABLED(1003, "用户已被禁用"),
@@ -28,11 +30,32 @@ public enum ErrorCode {
     BOOKING_ALREADY_EXISTS(2006, "该日期已有预约"),
     BOOKING_RESCHEDULE_LIMIT(2007, "今日已改签一次，请明日再试"),
     BOOKING_NOT_ALLOW_RESCHEDULE(2008, "该预约不允许改签"),
+    BOOKING_NOT_IN_TIMESLOT(2009, "不在预约时段的入馆时间内"),
+    WAITLIST_ALREADY_JOINED(2010, "已在该日期的候补队列中"),
+    WAITLIST_NOT_FOUND(2011, "候补记录不存在"),
+    WAITLIST_NOT_NEEDED(2012, "当前仍有余量，请直接预约"),
+    WAITLIST_FULL(2013, "候补人数已满"),
+    BOOKING_QUEUED(2014, "当前预约人数较多，已为您排队"),
+    BOOKING_QUEUE_FULL(2015, "排队人数过多，请稍后再试"),
 
     // 配额相关错误码
     QUOTA_NOT_EXIST(3001, "该日期配额不存在"),
     QUOTA_FULL(3002, "该日期预约已满"),
-    QUOTA_UPDATE_FAILED(3003, "配额更新失败");
+    QUOTA_UPDATE_FAILED(3003, "配额更新失败"),
+    TIMESLOT_NOT_EXIST(3004, "参观时段不存在"),
+    TIMESLOT_FULL(3005, "该时段预约已满"),
+    QUOTA_CLOSED(3006, "该日期已停止预约"),
+
+    // 上传相关错误码
+    UPLOAD_SESSION_NOT_FOUND(4001, "上传会话不存在或已过期"),
+    UPLOAD_PART_INVALID(4002, "分片序号或大小无效"),
+    UPLOAD_INCOMPLETE(4003, "仍有分片未上传"),
+    UPLOAD_STATUS_ERROR(4004, "上传会话状态不允许该操作"),
+
+    // 幂等相关错误码
+    IDEMPOTENCY_KEY_INVALID(5001, "Idempotency-Key 格式无效"),
+    IDEMPOTENCY_IN_PROGRESS(5002, "相同请求正在处理中，请稍后重试"),
+    IDEMPOTENCY_KEY_REUSED(5003, "该 Idempotency-Key 已用于不同的请求");
 
     /**
      * 状态码
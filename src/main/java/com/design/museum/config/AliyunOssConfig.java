@@ -1,18 +1,13 @@
 package com.design.museum.config;
 
-import cn.hutool.core.lang.UUID;
-import com.aliyun.oss.OSS;
-import com.aliyun.oss.OSSClientBuilder;
-import com.aliyun.oss.model.ObjectMetadata;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-
 /**
  * 阿里云OSS配置类
+ * 客户端与上传逻辑见 {@link com.design.museum.storage.AliyunOssStorageService}
  */
 @Data
 @Component
@@ -31,36 +26,28 @@ public class AliyunOssConfig {
     private String bucketName;
 
     /**
-     * 上传文件到OSS
-     *
-     * @param file 文件
-     * @param dir  目录（images/ 或 videos/）
-     * @return 文件访问URL
+     * 连接池最大连接数
      */
-    public String upload(MultipartFile file, String dir) throws IOException {
-        // 构建 OSSClient
-        OSS ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
+    @Value("${aliyun.oss.max-connections:128}")
+    private int maxConnections;
 
-        try {
-            // 生成唯一文件名
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String objectName = dir + UUID.randomUUID() + fileExtension;
-
-            // 设置文件元数据
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentLength(file.getSize());
-            metadata.setContentType(file.getContentType());
+    /**
+     * 建立连接超时时间（毫秒）
+     */
+    @Value("${aliyun.oss.connection-timeout:10000}")
+    private int connectionTimeout;
 
-            // 上传文件
-            ossClient.putObject(bucketName, objectName, file.getInputStream(), metadata);
+    /**
+     * Socket 读写超时时间（毫秒）
+     */
+    @Value("${aliyun.oss.socket-timeout:60000}")
+    private int socketTimeout;
 
-            // 返回公网访问 URL
-            return "https://" + bucketName + "." + endpoint + "/" + objectName;
-        } finally {
-            ossClient.shutdown();
-        }
-    }
+    /**
+     * 空闲连接关闭时间（毫秒）
+     */
+    @Value("${aliyun.oss.idle-connection-time:60000}")
+    private long idleConnectionTime;
 
     /**
      * 根据文件后缀或ContentType判断是图片还是视频
@@ -69,7 +56,16 @@ public class AliyunOssConfig {
      * @return IMAGE 或 VIDEO
      */
     public String getMediaKind(MultipartFile file) {
-        String contentType = file.getContentType();
+        return getMediaKind(file.getContentType());
+    }
+
+    /**
+     * 根据ContentType判断是图片还是视频
+     *
+     * @param contentType 内容类型
+     * @return IMAGE 或 VIDEO
+     */
+    public String getMediaKind(String contentType) {
         if (contentType == null) {
             throw new RuntimeException("无法识别文件类型");
         }
@@ -0,0 +1,97 @@
+package com.design.museum.config;
+
+import com.design.museum.datasource.ReplicaNode;
+import com.design.museum.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据源配置
+ * 主库沿用 spring.datasource 配置；museum.datasource.replica.urls 配置从库地址（逗号分隔），为空时只用主库。
+ * 业务使用的 dataSource 为“懒连接代理 -> 路由数据源 -> 主库/从库连接池”，迁移固定使用主库
+ */
+@Slf4j
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${museum.datasource.replica.urls:}")
+    private String replicaUrls;
+
+    @Value("${museum.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${museum.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${museum.datasource.replica.pool-size:10}")
+    private int replicaPoolSize;
+
+    /**
+     * 从库取连接超时（毫秒），从库不可用时尽快失败，不拖慢读请求
+     */
+    @Value("${museum.datasource.replica.connection-timeout-ms:1000}")
+    private long replicaConnectionTimeoutMs;
+
+    /**
+     * 主库连接池，spring.datasource.hikari.* 配置照常生效，hikaricp.* 指标由 Actuator 自动接入
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("museum-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                                      MeterRegistry meterRegistry) {
+        List<ReplicaNode> replicas = new ArrayList<>();
+        if (StringUtils.hasText(replicaUrls)) {
+            for (String url : replicaUrls.split(",")) {
+                if (!StringUtils.hasText(url)) {
+                    continue;
+                }
+                String name = "replica-" + replicas.size();
+                HikariDataSource replica = new HikariDataSource();
+                replica.setPoolName("museum-" + name);
+                replica.setDriverClassName(properties.determineDriverClassName());
+                replica.setJdbcUrl(url.trim());
+                replica.setUsername(replicaUsername);
+                replica.setPassword(replicaPassword);
+                replica.setMaximumPoolSize(replicaPoolSize);
+                replica.setConnectionTimeout(replicaConnectionTimeoutMs);
+                replica.setReadOnly(true);
+                replica.setLeakDetectionThreshold(primaryDataSource.getLeakDetectionThreshold());
+                // 从库连接池不是 Bean，需手动接入 hikaricp.* 指标
+                replica.setMetricRegistry(meterRegistry);
+                // 启动时从库不可用不影响服务启动，由健康检查摘除
+                replica.setInitializationFailTimeout(-1);
+                replicas.add(new ReplicaNode(name, replica));
+            }
+        }
+        log.info("读写分离：从库 {} 个", replicas.size());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
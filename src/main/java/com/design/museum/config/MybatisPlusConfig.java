@@ -3,6 +3,8 @@ package com.design.museum.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.design.museum.interceptor.SqlDiagnosticsInterceptor;
+import com.design.museum.metrics.SqlDiagnostics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -23,4 +25,12 @@ public class MybatisPlusConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
         return interceptor;
     }
+
+    /**
+     * 添加 SQL 诊断插件（统计单次请求语句数、N+1 与慢 SQL）
+     */
+    @Bean
+    public SqlDiagnosticsInterceptor sqlDiagnosticsInterceptor(SqlDiagnostics sqlDiagnostics) {
+        return new SqlDiagnosticsInterceptor(sqlDiagnostics);
+    }
 }
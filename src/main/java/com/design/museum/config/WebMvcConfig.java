@@ -1,14 +1,21 @@
 package com.design.museum.config;
 
 import com.design.museum.interceptor.AdminAuthInterceptor;
+import com.design.museum.interceptor.IdempotencyReplayInterceptor;
+import com.design.museum.interceptor.RateLimitInterceptor;
+import com.design.museum.interceptor.SqlRequestInterceptor;
+import com.design.museum.interceptor.WaitingRoomInterceptor;
+import com.design.museum.storage.LocalStorageService;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import javax.annotation.Resource;
@@ -23,11 +30,56 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Resource
     private AdminAuthInterceptor adminAuthInterceptor;
 
+    @Resource
+    private SqlRequestInterceptor sqlRequestInterceptor;
+
+    @Resource
+    private IdempotencyReplayInterceptor idempotencyReplayInterceptor;
+
+    @Resource
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Resource
+    private WaitingRoomInterceptor waitingRoomInterceptor;
+
+    /**
+     * 仅在 museum.storage.type=local 时存在
+     */
+    @Autowired(required = false)
+    private LocalStorageService localStorageService;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // 注册 SQL 诊断拦截器（放在最前，统计整个请求的语句）
+        registry.addInterceptor(sqlRequestInterceptor)
+                .addPathPatterns("/**");
+
         // 注册管理员权限拦截器
         registry.addInterceptor(adminAuthInterceptor)
                 .addPathPatterns("/**");
+
+        // 注册幂等回放拦截器（先于限流与候场室，已完成请求的重试不计入限流、不排队）
+        registry.addInterceptor(idempotencyReplayInterceptor)
+                .addPathPatterns("/**");
+
+        // 注册接口限流拦截器（先于候场室，脚本刷接口不占排队名额）
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/**");
+
+        // 注册预约候场室拦截器（放票高峰时排队放行）
+        registry.addInterceptor(waitingRoomInterceptor)
+                .addPathPatterns("/bookings/create");
+    }
+
+    /**
+     * 本地存储模式下映射 /files/** 到存储根目录
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        if (localStorageService != null) {
+            registry.addResourceHandler(LocalStorageService.URL_PATH + "**")
+                    .addResourceLocations(localStorageService.getBaseDir().toUri().toString());
+        }
     }
 
     /**
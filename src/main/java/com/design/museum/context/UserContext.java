@@ -0,0 +1,123 @@
+package com.design.museum.context;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.design.museum.cache.SysUserCache;
+import com.design.museum.common.ErrorCode;
+import com.design.museum.entity.SysUser;
+import com.design.museum.exception.BusinessException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.annotation.Resource;
+import java.util.Objects;
+
+/**
+ * 当前登录用户上下文
+ * 每个请求只解析一次 token、只加载一次用户信息（懒加载），拦截器、服务、切面共用
+ * 请求之外（定时任务、异步线程）调用时退化为每次直接解析；没有请求上下文时视为未登录
+ */
+@Component
+public class UserContext {
+
+    private static final ThreadLocal<Holder> HOLDER = new ThreadLocal<>();
+
+    @Resource
+    private SysUserCache sysUserCache;
+
+    /**
+     * 请求开始时由 {@link UserContextFilter} 调用
+     */
+    void open() {
+        HOLDER.set(new Holder());
+    }
+
+    /**
+     * 请求结束时由 {@link UserContextFilter} 调用
+     */
+    void close() {
+        HOLDER.remove();
+    }
+
+    /**
+     * 获取当前登录用户ID
+     *
+     * @return 用户ID，未登录时返回 null
+     */
+    public Long getLoginId() {
+        Holder holder = HOLDER.get();
+        if (holder == null) {
+            return resolveLoginId();
+        }
+        if (!holder.loginResolved) {
+            holder.loginId = resolveLoginId();
+            holder.loginResolved = true;
+        }
+        return holder.loginId;
+    }
+
+    /**
+     * 获取当前登录用户ID，未登录时抛出异常
+     *
+     * @return 用户ID
+     */
+    public Long requireLoginId() {
+        Long loginId = getLoginId();
+        if (loginId == null) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "未登录");
+        }
+        return loginId;
+    }
+
+    /**
+     * 获取当前登录用户信息（只读快照）
+     *
+     * @return 用户，未登录或用户不存在时返回 null
+     */
+    public SysUser getUser() {
+        Holder holder = HOLDER.get();
+        if (holder == null) {
+            return sysUserCache.get(getLoginId());
+        }
+        if (!holder.userResolved) {
+            holder.user = sysUserCache.get(getLoginId());
+            holder.userResolved = true;
+        }
+        return holder.user;
+    }
+
+    /**
+     * 获取指定用户信息（只读快照），是当前登录用户时直接复用上下文
+     *
+     * @param userId 用户ID
+     * @return 用户，不存在时返回 null
+     */
+    public SysUser getUser(Long userId) {
+        if (userId != null && Objects.equals(userId, getLoginId())) {
+            return getUser();
+        }
+        return sysUserCache.get(userId);
+    }
+
+    private Long resolveLoginId() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            // Sa-Token 依赖当前请求，非请求线程中直接调用会抛出上下文异常
+            return null;
+        }
+        Object loginId = StpUtil.getLoginIdDefaultNull();
+        return loginId == null ? null : Long.valueOf(loginId.toString());
+    }
+
+    /**
+     * 单个请求内的解析结果
+     */
+    private static class Holder {
+
+        private boolean loginResolved;
+
+        private Long loginId;
+
+        private boolean userResolved;
+
+        private SysUser user;
+    }
+}
@@ -0,0 +1,33 @@
+package com.design.museum.context;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.Resource;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 用户上下文过滤器
+ * 为每个请求开启 {@link UserContext}，请求结束后清理
+ */
+@Component
+public class UserContextFilter extends OncePerRequestFilter {
+
+    @Resource
+    private UserContext userContext;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        userContext.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            userContext.close();
+        }
+    }
+}
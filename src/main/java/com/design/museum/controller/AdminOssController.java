@@ -6,6 +6,10 @@ import com.design.museum.common.BaseResponse;
 import com.design.museum.common.ResultUtils;
 import com.design.museum.config.AliyunOssConfig;
 import com.design.museum.dto.OssUploadResponse;
+import com.design.museum.media.MediaJobWorker;
+import com.design.museum.storage.ImageDerivativePipeline;
+import com.design.museum.storage.StorageService;
+import com.design.museum.storage.StoredObject;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.validation.annotation.Validated;
@@ -14,6 +18,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.Resource;
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * 管理员OSS上传接口
@@ -27,6 +32,15 @@ public class AdminOssController {
     @Resource
     private AliyunOssConfig aliyunOssConfig;
 
+    @Resource
+    private StorageService storageService;
+
+    @Resource
+    private ImageDerivativePipeline imageDerivativePipeline;
+
+    @Resource
+    private MediaJobWorker mediaJobWorker;
+
     /**
      * 上传文件到OSS
      *
@@ -49,12 +63,31 @@ public class AdminOssController {
             // 获取上传目录
             String dir = aliyunOssConfig.getDirByMediaKind(mediaKind);
 
+            // 先暂存一份，上传后异步生成图片衍生尺寸或视频转码（大文件上传可能直接移动容器临时文件）
+            boolean image = "IMAGE".equals(mediaKind);
+            Path staged = image ? imageDerivativePipeline.stage(file) : mediaJobWorker.stage(file);
+
             // 上传文件
-            String url = aliyunOssConfig.upload(file, dir);
+            StoredObject stored;
+            try {
+                stored = storageService.upload(file, dir);
+            } catch (IOException | RuntimeException e) {
+                if (image) {
+                    imageDerivativePipeline.discard(staged);
+                } else {
+                    mediaJobWorker.discard(staged);
+                }
+                throw e;
+            }
+            if (image) {
+                imageDerivativePipeline.submit(staged, stored.getObjectName(), stored.getUrl());
+            } else {
+                mediaJobWorker.enqueue(staged, stored);
+            }
 
             // 构建响应
             OssUploadResponse response = new OssUploadResponse();
-            response.setUrl(url);
+            response.setUrl(stored.getUrl());
             response.setMediaKind(mediaKind);
             response.setOriginalName(file.getOriginalFilename());
             response.setSize(file.getSize());
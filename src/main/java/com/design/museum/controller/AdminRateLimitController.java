@@ -0,0 +1,53 @@
+package com.design.museum.controller;
+
+import com.design.museum.annotation.AdminAuth;
+import com.design.museum.common.BaseResponse;
+import com.design.museum.common.ResultUtils;
+import com.design.museum.ratelimit.RateLimiter;
+import com.design.museum.vo.RateLimitStatVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 接口限流统计（管理员端）
+ */
+@RestController
+@RequestMapping("/admin/rate-limit")
+@Tag(name = "接口限流（管理员端）", description = "查看各限流规则的放行与拒绝次数")
+public class AdminRateLimitController {
+
+    @Resource
+    private RateLimiter rateLimiter;
+
+    /**
+     * 限流统计
+     *
+     * @return 各规则统计
+     */
+    @GetMapping("/stats")
+    @AdminAuth
+    @Operation(summary = "限流统计", description = "返回各规则的阈值、放行次数及按用户/IP 拒绝次数")
+    public BaseResponse<List<RateLimitStatVO>> stats() {
+        return ResultUtils.success(rateLimiter.stats());
+    }
+
+    /**
+     * 重置计数
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/reset")
+    @AdminAuth
+    @Operation(summary = "重置计数", description = "清空限流窗口与统计，可用于解除误封")
+    public BaseResponse<Boolean> reset() {
+        rateLimiter.reset();
+        return ResultUtils.success("已重置", true);
+    }
+}
@@ -0,0 +1,53 @@
+package com.design.museum.controller;
+
+import com.design.museum.annotation.AdminAuth;
+import com.design.museum.common.BaseResponse;
+import com.design.museum.common.ResultUtils;
+import com.design.museum.metrics.SqlDiagnostics;
+import com.design.museum.vo.SqlOffenderVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * SQL 诊断接口（管理员端）
+ */
+@RestController
+@RequestMapping("/admin/sql-diagnostics")
+@Tag(name = "SQL诊断（管理员端）", description = "查看语句过多、N+1 查询的接口")
+public class AdminSqlDiagnosticsController {
+
+    @Resource
+    private SqlDiagnostics sqlDiagnostics;
+
+    /**
+     * 问题接口排行
+     *
+     * @param limit 返回条数
+     * @return 问题接口列表
+     */
+    @GetMapping("/top")
+    @AdminAuth
+    @Operation(summary = "问题接口排行", description = "按被标记次数倒序返回语句过多或存在 N+1 的接口")
+    public BaseResponse<List<SqlOffenderVO>> topOffenders(
+            @Parameter(description = "返回条数") @RequestParam(defaultValue = "20") int limit) {
+        return ResultUtils.success(sqlDiagnostics.topOffenders(limit));
+    }
+
+    /**
+     * 清空统计
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/reset")
+    @AdminAuth
+    @Operation(summary = "清空统计", description = "清空已记录的问题接口")
+    public BaseResponse<Boolean> reset() {
+        sqlDiagnostics.reset();
+        return ResultUtils.success("已清空", true);
+    }
+}
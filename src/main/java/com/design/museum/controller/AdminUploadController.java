@@ -0,0 +1,121 @@
+package com.design.museum.controller;
+
+import com.design.museum.annotation.AdminAuth;
+import com.design.museum.common.BaseResponse;
+import com.design.museum.common.ResultUtils;
+import com.design.museum.context.UserContext;
+import com.design.museum.dto.UploadInitRequest;
+import com.design.museum.service.IUploadSessionService;
+import com.design.museum.vo.UploadSessionVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 管理员分片上传接口
+ * 流程：init 获取分片大小与分片数 -> 逐片 PUT（可并发、可重传）-> complete 后轮询状态获取地址
+ * 中断后调用状态接口获取 missingParts 补传即可
+ */
+@RestController
+@RequestMapping("/admin/oss/multipart")
+@Tag(name = "管理员分片上传接口", description = "大文件断点续传相关接口")
+@Validated
+public class AdminUploadController {
+
+    @Resource
+    private IUploadSessionService uploadSessionService;
+
+    @Resource
+    private UserContext userContext;
+
+    /**
+     * 初始化分片上传
+     *
+     * @param request 初始化请求
+     * @return 上传会话
+     */
+    @PostMapping("/init")
+    @AdminAuth
+    @Operation(summary = "初始化分片上传", description = "返回上传ID、分片大小与分片数")
+    public BaseResponse<UploadSessionVO> initUpload(@Validated @RequestBody UploadInitRequest request) {
+        Long adminId = userContext.requireLoginId();
+        try {
+            return ResultUtils.success(uploadSessionService.initUpload(request, adminId));
+        } catch (IOException e) {
+            return ResultUtils.error(500, "创建上传会话失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 上传分片，请求体为分片原始字节（application/octet-stream）
+     *
+     * @param uploadId   上传ID
+     * @param partNumber 分片序号
+     * @param request    请求
+     * @return 是否成功
+     */
+    @PutMapping("/{uploadId}/parts/{partNumber}")
+    @AdminAuth
+    @Operation(summary = "上传分片", description = "请求体为分片原始字节，重复上传同一分片会覆盖")
+    public BaseResponse<Boolean> uploadPart(
+            @Parameter(description = "上传ID") @PathVariable("uploadId") String uploadId,
+            @Parameter(description = "分片序号，从1开始") @PathVariable("partNumber") Integer partNumber,
+            HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            uploadSessionService.uploadPart(uploadId, partNumber, in, request.getContentLengthLong());
+        } catch (IOException e) {
+            return ResultUtils.error(500, "分片写入失败: " + e.getMessage());
+        }
+        return ResultUtils.success(true);
+    }
+
+    /**
+     * 查询上传状态
+     *
+     * @param uploadId 上传ID
+     * @return 上传会话（包含缺失分片）
+     */
+    @GetMapping("/{uploadId}")
+    @AdminAuth
+    @Operation(summary = "查询上传状态", description = "返回缺失分片与完成后的文件地址")
+    public BaseResponse<UploadSessionVO> getUploadStatus(
+            @Parameter(description = "上传ID") @PathVariable("uploadId") String uploadId) {
+        return ResultUtils.success(uploadSessionService.getUploadStatus(uploadId));
+    }
+
+    /**
+     * 完成上传
+     *
+     * @param uploadId 上传ID
+     * @return 上传会话
+     */
+    @PostMapping("/{uploadId}/complete")
+    @AdminAuth
+    @Operation(summary = "完成上传", description = "分片齐全后在后台写入存储，客户端轮询状态获取文件地址")
+    public BaseResponse<UploadSessionVO> completeUpload(
+            @Parameter(description = "上传ID") @PathVariable("uploadId") String uploadId) {
+        return ResultUtils.success(uploadSessionService.completeUpload(uploadId));
+    }
+
+    /**
+     * 取消上传
+     *
+     * @param uploadId 上传ID
+     * @return 是否成功
+     */
+    @DeleteMapping("/{uploadId}")
+    @AdminAuth
+    @Operation(summary = "取消上传", description = "删除上传会话与已上传的分片")
+    public BaseResponse<Boolean> abortUpload(
+            @Parameter(description = "上传ID") @PathVariable("uploadId") String uploadId) {
+        uploadSessionService.abortUpload(uploadId);
+        return ResultUtils.success(true);
+    }
+}
@@ -1,17 +1,24 @@
 package com.design.museum.controller;
 
 import cn.dev33.satoken.annotation.SaCheckLogin;
-import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.design.museum.admission.WaitingRoom;
+import com.design.museum.annotation.Idempotent;
+import com.design.museum.annotation.RateLimit;
 import com.design.museum.common.BaseResponse;
 import com.design.museum.common.ResultUtils;
+import com.design.museum.context.UserContext;
 import com.design.museum.dto.BookingBatchCreateRequest;
 import com.design.museum.dto.BookingCancelRequest;
 import com.design.museum.dto.BookingCreateRequest;
 import com.design.museum.dto.BookingRescheduleRequest;
+import com.design.museum.dto.WaitlistJoinRequest;
 import com.design.museum.service.IVisitBookingService;
+import com.design.museum.service.IVisitWaitlistService;
 import com.design.museum.vo.BookingBatchResultVO;
 import com.design.museum.vo.BookingVO;
+import com.design.museum.vo.QueueTicketVO;
+import com.design.museum.vo.WaitlistVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +26,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
+import java.util.List;
 
 /**
  * 预约控制器（用户端）
@@ -32,23 +40,46 @@ public class BookingController {
     @Resource
     private IVisitBookingService visitBookingService;
 
+    @Resource
+    private IVisitWaitlistService visitWaitlistService;
+
+    @Resource
+    private WaitingRoom waitingRoom;
+
+    @Resource
+    private UserContext userContext;
+
     /**
      * 创建预约
      */
     @Operation(summary = "创建预约")
     @SaCheckLogin
+    @RateLimit(name = "booking-create", limit = 10, windowSeconds = 60)
+    @Idempotent(scope = "booking-create")
     @PostMapping("/create")
     public BaseResponse<BookingVO> createBooking(@Validated @RequestBody BookingCreateRequest request) {
-        Long userId = StpUtil.getLoginIdAsLong();
+        Long userId = userContext.requireLoginId();
         BookingVO bookingVO = visitBookingService.createBooking(request, userId);
         return ResultUtils.success(bookingVO);
     }
 
+    /**
+     * 预约排队状态（创建预约返回排队凭证后轮询，ready=true 时重新提交预约）
+     */
+    @Operation(summary = "预约排队状态")
+    @SaCheckLogin
+    @GetMapping("/queue/status")
+    public BaseResponse<QueueTicketVO> queueStatus() {
+        Long userId = userContext.requireLoginId();
+        return ResultUtils.success(waitingRoom.status(userId));
+    }
+
     /**
      * 批量创建预约
      */
     @Operation(summary = "批量创建预约（团体预约）")
     @SaCheckLogin
+    @RateLimit(name = "booking-batch-create", limit = 5, windowSeconds = 60)
     @PostMapping("/batch-create")
     public BaseResponse<BookingBatchResultVO> createBatchBookings(@Validated @RequestBody BookingBatchCreateRequest request) {
         BookingBatchResultVO result = visitBookingService.createBatchBookings(request);
@@ -60,9 +91,11 @@ public class BookingController {
      */
     @Operation(summary = "改签预约")
     @SaCheckLogin
+    @RateLimit(name = "booking-reschedule", limit = 5, windowSeconds = 60)
+    @Idempotent(scope = "booking-reschedule")
     @PostMapping("/reschedule")
     public BaseResponse<BookingVO> rescheduleBooking(@Validated @RequestBody BookingRescheduleRequest request) {
-        Long userId = StpUtil.getLoginIdAsLong();
+        Long userId = userContext.requireLoginId();
         BookingVO bookingVO = visitBookingService.rescheduleBooking(request, userId);
         return ResultUtils.success(bookingVO);
     }
@@ -72,9 +105,11 @@ public class BookingController {
      */
     @Operation(summary = "取消预约")
     @SaCheckLogin
+    @RateLimit(name = "booking-cancel", limit = 5, windowSeconds = 60)
+    @Idempotent(scope = "booking-cancel")
     @PostMapping("/cancel")
     public BaseResponse<BookingVO> cancelBooking(@Validated @RequestBody BookingCancelRequest request) {
-        Long userId = StpUtil.getLoginIdAsLong();
+        Long userId = userContext.requireLoginId();
         BookingVO bookingVO = visitBookingService.cancelBooking(request, userId);
         return ResultUtils.success(bookingVO);
     }
@@ -89,7 +124,7 @@ public class BookingController {
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) Integer status) {
-        Long userId = StpUtil.getLoginIdAsLong();
+        Long userId = userContext.requireLoginId();
         IPage<BookingVO> result = visitBookingService.myBookings(page, size, status, userId);
         return ResultUtils.success(result);
     }
@@ -101,8 +136,44 @@ public class BookingController {
     @SaCheckLogin
     @GetMapping("/detail")
     public BaseResponse<BookingVO> getDetail(@RequestParam Long id) {
-        Long userId = StpUtil.getLoginIdAsLong();
+        Long userId = userContext.requireLoginId();
         BookingVO bookingVO = visitBookingService.getDetail(id, userId);
         return ResultUtils.success(bookingVO);
     }
+
+    /**
+     * 加入候补（名额已满时排队，有人取消后自动转正）
+     */
+    @Operation(summary = "加入候补")
+    @SaCheckLogin
+    @RateLimit(name = "waitlist-join", limit = 5, windowSeconds = 60)
+    @PostMapping("/waitlist/join")
+    public BaseResponse<WaitlistVO> joinWaitlist(@Validated @RequestBody WaitlistJoinRequest request) {
+        Long userId = userContext.requireLoginId();
+        WaitlistVO waitlistVO = visitWaitlistService.join(request, userId);
+        return ResultUtils.success(waitlistVO);
+    }
+
+    /**
+     * 取消候补
+     */
+    @Operation(summary = "取消候补")
+    @SaCheckLogin
+    @PostMapping("/waitlist/cancel")
+    public BaseResponse<WaitlistVO> cancelWaitlist(@RequestParam Long id) {
+        Long userId = userContext.requireLoginId();
+        WaitlistVO waitlistVO = visitWaitlistService.cancel(id, userId);
+        return ResultUtils.success(waitlistVO);
+    }
+
+    /**
+     * 我的候补
+     */
+    @Operation(summary = "我的候补")
+    @SaCheckLogin
+    @GetMapping("/waitlist/my")
+    public BaseResponse<List<WaitlistVO>> myWaitlist() {
+        Long userId = userContext.requireLoginId();
+        return ResultUtils.success(visitWaitlistService.myWaitlist(userId));
+    }
 }
@@ -1,6 +1,9 @@
 package com.design.museum.controller;
 
 import cn.dev33.satoken.stp.StpUtil;
+import com.design.museum.annotation.RateLimit;
+import com.design.museum.cache.CacheValidator;
+import com.design.museum.cache.HttpCaching;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.design.museum.common.BaseResponse;
 import com.design.museum.common.ResultUtils;
@@ -10,10 +13,14 @@ import com.design.museum.vo.CommentVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.annotation.Resource;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 展品评论接口
@@ -27,6 +34,12 @@ public class CommentController {
     @Resource
     private IExhibitCommentService exhibitCommentService;
 
+    @Resource
+    private HttpCaching httpCaching;
+
+    @Value("${museum.http-cache.comments-max-age-seconds:30}")
+    private long maxAgeSeconds;
+
     /**
      * 分页查询展品评论
      *
@@ -40,9 +53,20 @@ public class CommentController {
     public BaseResponse<Page<CommentVO>> listComments(
             @Parameter(description = "展品ID") @PathVariable("itemId") Long itemId,
             @Parameter(description = "当前页") @RequestParam(value = "current", defaultValue = "1") long current,
-            @Parameter(description = "每页大小") @RequestParam(value = "size", defaultValue = "10") long size) {
+            @Parameter(description = "每页大小") @RequestParam(value = "size", defaultValue = "10") long size,
+            ServletWebRequest webRequest) {
         // 获取当前登录用户ID（未登录则为null）
         Long userId = StpUtil.isLogin() ? StpUtil.getLoginIdAsLong() : null;
+
+        // 登录用户的结果含本人点赞状态，只允许浏览器缓存且每次校验；ETag 带上用户ID，切换账号后不会命中
+        httpCaching.vary(webRequest, StpUtil.getTokenName());
+        CacheControl cacheControl = userId == null
+                ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache().cachePrivate();
+        CacheValidator validator = exhibitCommentService.getCommentsValidator(itemId);
+        if (httpCaching.notModified(webRequest, cacheControl, userId, validator.getCount(), validator.getUpdatedAt())) {
+            return null;
+        }
         Page<CommentVO> page = exhibitCommentService.listComments(itemId, current, size, userId);
         return ResultUtils.success(page);
     }
@@ -55,6 +79,7 @@ public class CommentController {
      * @return 评论ID
      */
     @PostMapping("/add")
+    @RateLimit(name = "comment-add", limit = 5, windowSeconds = 60)
     @Operation(summary = "添加评论", description = "登录用户对展品发表评论")
     public BaseResponse<Long> addComment(
             @Parameter(description = "展品ID") @PathVariable("itemId") Long itemId,
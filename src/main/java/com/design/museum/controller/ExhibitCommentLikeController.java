@@ -2,6 +2,7 @@ package com.design.museum.controller;
 
 import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.stp.StpUtil;
+import com.design.museum.annotation.RateLimit;
 import com.design.museum.common.BaseResponse;
 import com.design.museum.common.ResultUtils;
 import com.design.museum.service.IExhibitCommentLikeService;
@@ -34,6 +35,7 @@ public class ExhibitCommentLikeController {
      */
     @Operation(summary = "点赞评论")
     @SaCheckLogin
+    @RateLimit(name = "comment-like", limit = 30, windowSeconds = 60)
     @PostMapping("/like")
     public BaseResponse<Boolean> likeComment(@RequestParam Long commentId) {
         Long userId = StpUtil.getLoginIdAsLong();
@@ -46,6 +48,7 @@ public class ExhibitCommentLikeController {
      */
     @Operation(summary = "取消点赞")
     @SaCheckLogin
+    @RateLimit(name = "comment-like-cancel", limit = 30, windowSeconds = 60)
     @PostMapping("/cancel")
     public BaseResponse<Boolean> cancelLike(@RequestParam Long commentId) {
         Long userId = StpUtil.getLoginIdAsLong();
@@ -1,20 +1,34 @@
 package com.design.museum.controller;
 
+import cn.dev33.satoken.annotation.SaCheckLogin;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.design.museum.cache.CacheValidator;
+import com.design.museum.cache.HttpCaching;
 import com.design.museum.common.BaseResponse;
 import com.design.museum.common.ErrorCode;
 import com.design.museum.common.ResultUtils;
+import com.design.museum.context.UserContext;
 import com.design.museum.dto.ExhibitItemQueryRequest;
 import com.design.museum.exception.BusinessException;
+import com.design.museum.footprint.FootprintRecorder;
+import com.design.museum.popularity.PopularityEngine;
+import com.design.museum.recommend.RecommendationCache;
 import com.design.museum.service.IExhibitItemService;
 import com.design.museum.vo.ExhibitItemVO;
+import com.design.museum.vo.TrendingItemVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 用户端展品接口
@@ -28,6 +42,27 @@ public class ExhibitController {
     @Resource
     private IExhibitItemService exhibitItemService;
 
+    @Resource
+    private FootprintRecorder footprintRecorder;
+
+    @Resource
+    private PopularityEngine popularityEngine;
+
+    @Resource
+    private RecommendationCache recommendationCache;
+
+    @Resource
+    private UserContext userContext;
+
+    @Resource
+    private HttpCaching httpCaching;
+
+    @Value("${museum.http-cache.items-max-age-seconds:60}")
+    private long listMaxAgeSeconds;
+
+    @Value("${museum.http-cache.item-max-age-seconds:300}")
+    private long detailMaxAgeSeconds;
+
     /**
      * 分页查询展品列表
      *
@@ -36,10 +71,16 @@ public class ExhibitController {
      */
     @GetMapping("/list")
     @Operation(summary = "分页查询展品列表", description = "用户分页查询展品，只返回上架且在展示期内的展品")
-    public BaseResponse<Page<ExhibitItemVO>> listExhibitItems(ExhibitItemQueryRequest request) {
+    public BaseResponse<Page<ExhibitItemVO>> listExhibitItems(ExhibitItemQueryRequest request, ServletWebRequest webRequest) {
         if(request == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR,"请求参数错误");
         }
+        // ETag 按 URL 区分，查询参数不同的列表各自缓存
+        CacheValidator validator = exhibitItemService.getCatalogValidator();
+        if (httpCaching.notModified(webRequest, CacheControl.maxAge(listMaxAgeSeconds, TimeUnit.SECONDS).cachePublic(),
+                validator.getCount(), validator.getUpdatedAt())) {
+            return null;
+        }
         Page<ExhibitItemVO> page = exhibitItemService.userListExhibitItems(request);
         return ResultUtils.success(page);
     }
@@ -47,17 +88,87 @@ public class ExhibitController {
     /**
      * 获取展品详情
      *
-     * @param id 展品ID
+     * @param id        展品ID
+     * @param imageSize 图片尺寸
      * @return 展品详情
      */
     @GetMapping("/{id}")
     @Operation(summary = "获取展品详情", description = "根据ID获取展品详细信息")
     public BaseResponse<ExhibitItemVO> getExhibitItem(
-            @Parameter(description = "展品ID") @PathVariable("id") Long id) {
-        ExhibitItemVO vo = exhibitItemService.getExhibitItemVO(id);
+            @Parameter(description = "展品ID") @PathVariable("id") Long id,
+            @Parameter(description = "图片尺寸：thumb/list/detail，为空返回原图") @RequestParam(value = "imageSize", required = false) String imageSize,
+            ServletWebRequest webRequest) {
+        LocalDateTime updatedAt = exhibitItemService.getUpdatedAt(id);
+        if (updatedAt != null && httpCaching.notModified(webRequest,
+                CacheControl.maxAge(detailMaxAgeSeconds, TimeUnit.SECONDS).cachePublic(), id, updatedAt)) {
+            // 缓存命中同样是一次浏览
+            footprintRecorder.recordView(id);
+            popularityEngine.recordView(id);
+            return null;
+        }
+        ExhibitItemVO vo = exhibitItemService.getExhibitItemVO(id, imageSize);
         if (vo == null) {
             return ResultUtils.error(404, "展品不存在");
         }
+        footprintRecorder.recordView(id);
+        popularityEngine.recordView(id);
         return ResultUtils.success(vo);
     }
-}
\ No newline at end of file
+
+    /**
+     * 热门展品
+     *
+     * @param limit     条数
+     * @param imageSize 图片尺寸
+     * @return 按热度排序的展品
+     */
+    @GetMapping("/trending")
+    @Operation(summary = "热门展品", description = "按近期浏览、评论、点赞的时间衰减热度排序，直接读取内存排行榜")
+    public BaseResponse<List<TrendingItemVO>> getTrending(
+            @Parameter(description = "条数，最多50") @RequestParam(value = "limit", defaultValue = "10") Integer limit,
+            @Parameter(description = "图片尺寸：thumb/list/detail，为空返回原图") @RequestParam(value = "imageSize", required = false) String imageSize) {
+        if (limit == null || limit < 1 || limit > 50) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "条数范围为1-50");
+        }
+        return ResultUtils.success(popularityEngine.getTrending(limit, imageSize));
+    }
+
+    /**
+     * 相似展品
+     *
+     * @param id        展品ID
+     * @param limit     条数
+     * @param imageSize 图片尺寸
+     * @return 与该展品经常被同一批用户浏览、评论的展品
+     */
+    @GetMapping("/{id}/related")
+    @Operation(summary = "相似展品", description = "基于用户共同浏览、评论、点赞离线计算，读取缓存")
+    public BaseResponse<List<ExhibitItemVO>> getRelated(
+            @Parameter(description = "展品ID") @PathVariable("id") Long id,
+            @Parameter(description = "条数，最多20") @RequestParam(value = "limit", defaultValue = "10") Integer limit,
+            @Parameter(description = "图片尺寸：thumb/list/detail，为空返回原图") @RequestParam(value = "imageSize", required = false) String imageSize) {
+        if (limit == null || limit < 1 || limit > 20) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "条数范围为1-20");
+        }
+        return ResultUtils.success(recommendationCache.getRelated(id, limit, imageSize));
+    }
+
+    /**
+     * 猜你喜欢
+     *
+     * @param limit     条数
+     * @param imageSize 图片尺寸
+     * @return 根据最近浏览推荐的展品
+     */
+    @GetMapping("/for-you")
+    @SaCheckLogin
+    @Operation(summary = "猜你喜欢", description = "根据最近浏览的展品推荐相似展品，无足迹时返回热门展品")
+    public BaseResponse<List<ExhibitItemVO>> getForYou(
+            @Parameter(description = "条数，最多50") @RequestParam(value = "limit", defaultValue = "10") Integer limit,
+            @Parameter(description = "图片尺寸：thumb/list/detail，为空返回原图") @RequestParam(value = "imageSize", required = false) String imageSize) {
+        if (limit == null || limit < 1 || limit > 50) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "条数范围为1-50");
+        }
+        return ResultUtils.success(recommendationCache.getForYou(userContext.requireLoginId(), limit, imageSize));
+    }
+}
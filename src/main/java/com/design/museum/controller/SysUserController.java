@@ -4,6 +4,7 @@ import cn.dev33.satoken.stp.StpUtil;
 import com.design.museum.common.BaseResponse;
 import com.design.museum.common.ErrorCode;
 import com.design.museum.common.ResultUtils;
+import com.design.museum.context.UserContext;
 import com.design.museum.dto.LoginRequest;
 import com.design.museum.dto.LoginResponse;
 import com.design.museum.dto.RegisterRequest;
@@ -35,6 +36,9 @@ public class SysUserController {
     @Resource
     private ISysUserService sysUserService;
 
+    @Resource
+    private UserContext userContext;
+
     /**
      * 用户注册
      *
@@ -92,25 +96,27 @@ public class SysUserController {
     @GetMapping("/detail")
     @Operation(summary = "获取当前用户信息", description = "获取用户详细信息")
     public BaseResponse<UserVO> getUserDetail(){
-        Long userId = StpUtil.getLoginIdAsLong();
-        SysUser user = sysUserService.getById(userId);
+        userContext.requireLoginId();
+        // 上下文中的用户是共享快照，脱敏只作用于 VO
+        SysUser user = userContext.getUser();
         if(user == null){
             throw new BusinessException(ErrorCode.NOT_FOUND_ERROR,"用户信息不存在");
         }
         UserVO userVO = new UserVO();
+        BeanUtils.copyProperties(user, userVO);
         //手机号脱敏
-        if(user != null && user.getPhone() != null) {
-            String phone = user.getPhone();
+        if(userVO.getPhone() != null) {
+            String phone = userVO.getPhone();
             int start = 0;
             int end = 3;
             int firstBegin = phone.length() - 3;
             String maskPhone = phone.substring(start, end)  +"*".repeat(firstBegin - end)
                     +phone.substring(firstBegin);
-            user.setPhone(maskPhone);
+            userVO.setPhone(maskPhone);
         }
         //身份证号脱敏
-        if(user != null && user.getIdNo() != null) {
-            String idNo = user.getIdNo();
+        if(userVO.getIdNo() != null) {
+            String idNo = userVO.getIdNo();
             // 第一段保留的开始
             int firstStart = 0;
             // 第一段保留的结束
@@ -119,11 +125,11 @@ public class SysUserController {
             int secondStart = idNo.length() - 4;
             String maskIdNo = idNo.substring(firstStart, firstEnd) + "*".repeat(secondStart - firstEnd)
                     +idNo.substring(secondStart);
-            user.setIdNo(maskIdNo);
+            userVO.setIdNo(maskIdNo);
         }
-        if (user != null && user.getRealName() != null) {
+        if (userVO.getRealName() != null) {
 
-            String realName = user.getRealName();
+            String realName = userVO.getRealName();
             int len = realName.length();
             String maskName;
             switch(realName.length()){
@@ -136,9 +142,8 @@ public class SysUserController {
                             + realName.substring(len - 1);
                     break;
             }
-            user.setRealName(maskName);
+            userVO.setRealName(maskName);
         }
-        BeanUtils.copyProperties(user, userVO);
         return ResultUtils.success(userVO);
     }
 
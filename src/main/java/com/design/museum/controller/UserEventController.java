@@ -1,20 +1,51 @@
 package com.design.museum.controller;
 
 
+import cn.dev33.satoken.annotation.SaCheckLogin;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.design.museum.common.BaseResponse;
+import com.design.museum.common.ResultUtils;
+import com.design.museum.context.UserContext;
+import com.design.museum.service.IUserEventService;
+import com.design.museum.vo.UserEventVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
 
-import org.springframework.stereotype.Controller;
+import javax.annotation.Resource;
 
 /**
  * <p>
- *  前端控制器
+ * 用户足迹前端控制器
  * </p>
  *
  * @author 
  * @since 2026-01-29
  */
-@Controller
+@Tag(name = "用户足迹")
+@RestController
 @RequestMapping("/user-event")
 public class UserEventController {
 
+    @Resource
+    private IUserEventService userEventService;
+
+    @Resource
+    private UserContext userContext;
+
+    /**
+     * 分页查询我的足迹
+     */
+    @Operation(summary = "我的足迹", description = "按浏览时间倒序返回最近浏览的展品")
+    @SaCheckLogin
+    @GetMapping("/my")
+    public BaseResponse<IPage<UserEventVO>> myFootprints(
+            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(defaultValue = "10") Integer size) {
+        Long userId = userContext.requireLoginId();
+        return ResultUtils.success(userEventService.getMyFootprints(page, size, userId));
+    }
 }
@@ -5,13 +5,19 @@ import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.design.museum.common.BaseResponse;
+import com.design.museum.common.ErrorCode;
 import com.design.museum.common.ResultUtils;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.push.NoticePushListener;
+import com.design.museum.push.PushHub;
 import com.design.museum.service.IUserNoticeService;
 import com.design.museum.vo.UserNoticeVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.Resource;
 
@@ -32,6 +38,12 @@ public class UserNoticeController {
     @Resource
     private IUserNoticeService userNoticeService;
 
+    @Resource
+    private PushHub pushHub;
+
+    @Resource
+    private NoticePushListener noticePushListener;
+
     /**
      * 分页查询我的消息
      */
@@ -60,6 +72,33 @@ public class UserNoticeController {
         return ResultUtils.success(noticeVO);
     }
 
+    /**
+     * 未读消息数
+     */
+    @Operation(summary = "未读消息数")
+    @SaCheckLogin
+    @GetMapping("/unread-count")
+    public BaseResponse<Integer> unreadCount() {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return ResultUtils.success(userNoticeService.getUnreadCount(userId));
+    }
+
+    /**
+     * 消息推送（Server-Sent Events）
+     * 连接建立后先下发 unread 事件（当前未读数），之后每条新消息下发 notice 事件；
+     * EventSource 无法设置请求头，可通过 satoken 查询参数携带 token
+     */
+    @Operation(summary = "消息推送（SSE）")
+    @SaCheckLogin
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        Long userId = StpUtil.getLoginIdAsLong();
+        if (!noticePushListener.isPushAllowed(userId)) {
+            throw new BusinessException(ErrorCode.FORBIDDEN_ERROR, "已关闭消息推送");
+        }
+        return pushHub.connect(userId, NoticePushListener.EVENT_UNREAD, userNoticeService.getUnreadCount(userId));
+    }
+
     /**
      * 全部标记为已读
      */
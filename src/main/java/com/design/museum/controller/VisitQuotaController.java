@@ -3,22 +3,38 @@ package com.design.museum.controller;
 
 import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.annotation.SaCheckRole;
+import com.design.museum.cache.HttpCaching;
 import com.design.museum.common.BaseResponse;
 import com.design.museum.common.ResultUtils;
 import com.design.museum.dto.QuotaQueryRequest;
 import com.design.museum.dto.QuotaUpdateRequest;
+import com.design.museum.interceptor.ClientIpResolver;
+import com.design.museum.quota.QuotaAvailability;
 import com.design.museum.service.IVisitDayQuotaService;
+import com.design.museum.vo.QuotaAvailabilityVO;
+import com.design.museum.vo.QuotaCalendarVO;
 import com.design.museum.vo.QuotaVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>
@@ -37,6 +53,21 @@ public class VisitQuotaController {
     @Resource
     private IVisitDayQuotaService visitDayQuotaService;
 
+    @Resource
+    private QuotaAvailability quotaAvailability;
+
+    @Resource
+    private ClientIpResolver clientIpResolver;
+
+    @Resource
+    private HttpCaching httpCaching;
+
+    /**
+     * 余量变化频繁，只允许短时间缓存，过期后凭 ETag 重新校验
+     */
+    @Value("${museum.http-cache.quota-max-age-seconds:2}")
+    private long quotaMaxAgeSeconds;
+
     /**
      * 查看库存信息
      */
@@ -49,6 +80,49 @@ public class VisitQuotaController {
         return ResultUtils.success(quotaVO);
     }
 
+    /**
+     * 查看库存信息（GET，可被浏览器与 CDN 缓存）
+     * 可预约范围内的日期以余量快照计算 ETag，未变化时不查库直接返回 304
+     */
+    @Operation(summary = "查看库存信息（GET）")
+    @GetMapping("/info")
+    public BaseResponse<QuotaVO> getQuotaInfoByDate(
+            @RequestParam("visitDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate visitDate,
+            ServletWebRequest webRequest) {
+        CacheControl cacheControl = quotaCacheControl();
+        QuotaAvailabilityVO day = quotaAvailability.getDay(visitDate);
+        if (day == null) {
+            httpCaching.cacheControl(webRequest, cacheControl);
+        } else if (httpCaching.notModified(webRequest, cacheControl,
+                visitDate, day.getCapacity(), day.getRemainingCount(), day.getStatus())) {
+            return null;
+        }
+        return ResultUtils.success(visitDayQuotaService.getQuotaInfo(visitDate));
+    }
+
+    /**
+     * 预约日历余量（可预约范围内每天的剩余名额，读内存快照）
+     */
+    @Operation(summary = "预约日历余量")
+    @GetMapping("/availability")
+    public BaseResponse<QuotaCalendarVO> getAvailability(ServletWebRequest webRequest) {
+        QuotaCalendarVO calendar = quotaAvailability.getCalendar();
+        if (httpCaching.notModified(webRequest, quotaCacheControl(), calendar.getVersion(), calendar.getRefreshedAt())) {
+            return null;
+        }
+        return ResultUtils.success(calendar);
+    }
+
+    /**
+     * 余量推送（SSE）
+     * 连接建立后先下发 calendar 事件（全量），之后余量变化时下发 quota 事件（仅变化的日期，每个日期每秒最多一次）
+     */
+    @Operation(summary = "余量推送（SSE）")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(HttpServletRequest request) {
+        return quotaAvailability.subscribe(clientIpResolver.resolve(request));
+    }
+
     /**
      * 修改库存容量
      */
@@ -79,4 +153,8 @@ public class VisitQuotaController {
         int createdCount = visitDayQuotaService.createFutureQuotas(days);
         return ResultUtils.success(String.format("成功创建 %d 天的配额", createdCount));
     }
+
+    private CacheControl quotaCacheControl() {
+        return CacheControl.maxAge(quotaMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate();
+    }
 }
@@ -1,20 +1,77 @@
 package com.design.museum.controller;
 
 
+import com.design.museum.annotation.AdminAuth;
+import com.design.museum.common.BaseResponse;
+import com.design.museum.common.ResultUtils;
+import com.design.museum.dto.TimeslotCapacityRequest;
+import com.design.museum.service.IVisitTimeslotService;
+import com.design.museum.vo.TimeslotVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
 
-import org.springframework.stereotype.Controller;
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * <p>
- *  前端控制器
+ *  参观时段控制器
  * </p>
  *
  * @author 
  * @since 2026-01-19
  */
-@Controller
+@Tag(name = "参观时段")
+@RestController
 @RequestMapping("/visit-timeslot")
 public class VisitTimeslotController {
 
+    @Resource
+    private IVisitTimeslotService visitTimeslotService;
+
+    /**
+     * 查询指定日期的时段及余量
+     */
+    @Operation(summary = "查询指定日期的时段及余量")
+    @GetMapping("/list")
+    public BaseResponse<List<TimeslotVO>> listSlots(
+            @Parameter(description = "参观日期") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate visitDate) {
+        return ResultUtils.success(visitTimeslotService.listSlots(visitDate));
+    }
+
+    /**
+     * 修改时段容量
+     */
+    @Operation(summary = "修改时段容量")
+    @PostMapping("/update")
+    @AdminAuth
+    public BaseResponse<Boolean> updateCapacity(@Validated @RequestBody TimeslotCapacityRequest request) {
+        boolean result = visitTimeslotService.updateCapacity(request.getTimeslotId(), request.getCapacity());
+        return ResultUtils.success(result);
+    }
+
+    /**
+     * 手动生成未来N天的时段
+     */
+    @Operation(summary = "手动生成未来N天的时段")
+    @PostMapping("/create")
+    @AdminAuth
+    public BaseResponse<String> createFutureSlots(Integer days) {
+        if (days == null || days <= 0 || days > 30) {
+            return ResultUtils.error(400, "天数必须在1-30之间");
+        }
+
+        int createdCount = visitTimeslotService.createFutureSlots(days);
+        return ResultUtils.success(String.format("成功生成 %d 天的时段", createdCount));
+    }
 }
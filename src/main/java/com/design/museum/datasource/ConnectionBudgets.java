@@ -0,0 +1,147 @@
+package com.design.museum.datasource;
+
+import com.design.museum.annotation.ConnectionBudget;
+import com.design.museum.common.ErrorCode;
+import com.design.museum.exception.BusinessException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 数据库连接预算
+ * 每个预算一个公平信号量，许可数来自 {@link ConnectionBudget} 注解，可被 museum.db.budgets.&lt;name&gt; 覆盖。
+ * 同一线程已持有任一预算时不再重复占用（线程在事务内只使用一个连接）
+ */
+@Slf4j
+@Component
+public class ConnectionBudgets {
+
+    private static final String BUDGET_PREFIX = "museum.db.budgets.";
+
+    private static final ThreadLocal<Budget> HELD = new ThreadLocal<>();
+
+    @Value("${museum.db.budget-enabled:true}")
+    private boolean enabled;
+
+    @Value("${museum.db.budget-wait-ms:1000}")
+    private long defaultWaitMillis;
+
+    /**
+     * 单次持有连接预算超过该时长时告警（毫秒）
+     */
+    @Value("${museum.db.hold-warn-ms:2000}")
+    private long holdWarnMillis;
+
+    @Resource
+    private Environment environment;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * 占用预算，等待超时抛出 DB_BUSY
+     *
+     * @return 本次占用的预算；未启用或线程已持有预算时返回 null，无需释放
+     * @throws InterruptedException 等待被中断
+     */
+    public Budget acquire(ConnectionBudget annotation) throws InterruptedException {
+        if (!enabled || HELD.get() != null) {
+            return null;
+        }
+        Budget budget = budgets.computeIfAbsent(annotation.value(), name -> createBudget(annotation));
+        long waitMillis = annotation.waitMillis() >= 0 ? annotation.waitMillis() : defaultWaitMillis;
+        long start = System.nanoTime();
+        boolean acquired = budget.semaphore.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        budget.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            budget.rejected.increment();
+            throw new BusinessException(ErrorCode.DB_BUSY);
+        }
+        HELD.set(budget);
+        return budget;
+    }
+
+    /**
+     * 释放预算并记录持有时长
+     *
+     * @param budget      占用的预算
+     * @param holdNanos   持有时长（纳秒）
+     * @param description 方法描述，用于告警日志
+     */
+    public void release(Budget budget, long holdNanos, String description) {
+        HELD.remove();
+        budget.semaphore.release();
+        budget.holdTimer.record(holdNanos, TimeUnit.NANOSECONDS);
+        long holdMillis = TimeUnit.NANOSECONDS.toMillis(holdNanos);
+        if (holdMillis > holdWarnMillis) {
+            log.warn("连接预算 {} 被 {} 持有 {} ms，超过 {} ms，请检查事务内是否有慢查询或锁等待",
+                    budget.name, description, holdMillis, holdWarnMillis);
+        }
+    }
+
+    private Budget createBudget(ConnectionBudget annotation) {
+        int permits = environment.getProperty(BUDGET_PREFIX + annotation.value(), Integer.class, annotation.permits());
+        Budget budget = new Budget(annotation.value(), Math.max(permits, 1), meterRegistry);
+        Gauge.builder("museum.db.budget.available", budget.semaphore, Semaphore::availablePermits)
+                .description("连接预算剩余许可数")
+                .tag("budget", budget.name)
+                .register(meterRegistry);
+        Gauge.builder("museum.db.budget.waiting", budget.semaphore, Semaphore::getQueueLength)
+                .description("等待连接预算的线程数")
+                .tag("budget", budget.name)
+                .register(meterRegistry);
+        FunctionCounter.builder("museum.db.budget.rejected", budget.rejected, LongAdder::sum)
+                .description("等待连接预算超时被拒绝的次数")
+                .tag("budget", budget.name)
+                .register(meterRegistry);
+        log.info("连接预算 {}：{} 个许可", budget.name, budget.permits);
+        return budget;
+    }
+
+    public static class Budget {
+
+        private final String name;
+
+        private final int permits;
+
+        private final Semaphore semaphore;
+
+        private final Timer waitTimer;
+
+        private final Timer holdTimer;
+
+        private final LongAdder rejected = new LongAdder();
+
+        private Budget(String name, int permits, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.permits = permits;
+            this.semaphore = new Semaphore(permits, true);
+            this.waitTimer = Timer.builder("museum.db.budget.wait")
+                    .description("等待连接预算的时间")
+                    .tag("budget", name)
+                    .register(meterRegistry);
+            this.holdTimer = Timer.builder("museum.db.budget.hold")
+                    .description("持有连接预算的时间（含事务）")
+                    .tag("budget", name)
+                    .register(meterRegistry);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.design.museum.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 从库健康检查
+ * 定时查询各从库的复制状态：连接失败、复制线程停止或延迟超过阈值时摘除，恢复后自动加回。
+ * 所有从库都不可用时读请求回退主库
+ */
+@Slf4j
+@Component
+public class ReplicaHealthChecker {
+
+    @Resource
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 可接受的最大复制延迟（秒）
+     */
+    @Value("${museum.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @PostConstruct
+    public void init() {
+        for (ReplicaNode replica : routingDataSource.getReplicas()) {
+            Gauge.builder("museum.datasource.replica.lag", replica, ReplicaNode::getLagSeconds)
+                    .description("从库复制延迟（秒），未知为 -1")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("museum.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("从库是否参与读路由")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+        registerRoute("primary", ReplicaRoutingDataSource::getPrimaryRoutes);
+        registerRoute("replica", ReplicaRoutingDataSource::getReplicaRoutes);
+        registerRoute("fallback", ReplicaRoutingDataSource::getFallbackRoutes);
+    }
+
+    private void registerRoute(String target, ToDoubleFunction<ReplicaRoutingDataSource> f) {
+        FunctionCounter.builder("museum.datasource.route", routingDataSource, f)
+                .description("数据源路由次数，fallback 表示想读从库但无可用从库")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${museum.datasource.replica.check-interval-ms:5000}", initialDelay = 0)
+    public void check() {
+        for (ReplicaNode replica : routingDataSource.getReplicas()) {
+            boolean wasHealthy = replica.isHealthy();
+            long lag;
+            try {
+                lag = queryLag(replica);
+            } catch (SQLException e) {
+                lag = -1;
+                if (wasHealthy) {
+                    log.warn("从库 {} 连接失败：{}", replica.getName(), e.getMessage());
+                }
+            }
+            boolean healthy = lag >= 0 && lag <= maxLagSeconds;
+            replica.setLagSeconds(lag);
+            replica.setHealthy(healthy);
+            if (wasHealthy && !healthy) {
+                log.warn("从库 {} 已摘除，复制延迟 {} 秒（阈值 {} 秒）", replica.getName(), lag, maxLagSeconds);
+            } else if (!wasHealthy && healthy) {
+                log.info("从库 {} 已加入读路由，复制延迟 {} 秒", replica.getName(), lag);
+            }
+        }
+    }
+
+    /**
+     * 查询复制延迟
+     *
+     * @return 延迟秒数；未配置复制或复制线程未运行时返回 -1
+     */
+    private long queryLag(ReplicaNode replica) throws SQLException {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            ResultSet rs;
+            String column;
+            try {
+                // MySQL 8.0.22+
+                rs = statement.executeQuery("SHOW REPLICA STATUS");
+                column = "Seconds_Behind_Source";
+            } catch (SQLException e) {
+                rs = statement.executeQuery("SHOW SLAVE STATUS");
+                column = "Seconds_Behind_Master";
+            }
+            try (ResultSet status = rs) {
+                if (!status.next()) {
+                    return -1;
+                }
+                long lag = status.getLong(column);
+                return status.wasNull() ? -1 : lag;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.design.museum.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 从库节点
+ * 健康状态与复制延迟由 {@link ReplicaHealthChecker} 定时更新
+ */
+@Getter
+public class ReplicaNode {
+
+    private final String name;
+
+    private final HikariDataSource dataSource;
+
+    /**
+     * 可连接且延迟在阈值内，启动后首次检查通过前不参与路由
+     */
+    @Setter
+    private volatile boolean healthy;
+
+    /**
+     * 最近一次检查得到的复制延迟（秒），未知时为 -1
+     */
+    @Setter
+    private volatile long lagSeconds = -1;
+
+    public ReplicaNode(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+}
@@ -0,0 +1,101 @@
+package com.design.museum.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读写分离路由数据源
+ * 只读事务或 {@link com.design.museum.annotation.ReadReplica} 方法内的查询轮询发往健康从库，其余全部走主库。
+ * 需配合 LazyConnectionDataSourceProxy 使用：事务开启时先不取连接，等第一条语句执行时
+ * 事务的只读标记已经设置好，才能据此路由
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<ReplicaNode> replicas;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final AtomicLong primaryRoutes = new AtomicLong();
+
+    private final AtomicLong replicaRoutes = new AtomicLong();
+
+    private final AtomicLong fallbackRoutes = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaNode> replicas) {
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaNode replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!wantsReplica()) {
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaNode replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                replicaRoutes.incrementAndGet();
+                return replica.getName();
+            }
+        }
+        fallbackRoutes.incrementAndGet();
+        return PRIMARY;
+    }
+
+    /**
+     * 读写事务内一律走主库；只读事务或读从库注解下才考虑从库
+     */
+    private boolean wantsReplica() {
+        if (replicas.isEmpty()) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return RouteContext.isReplicaPreferred();
+    }
+
+    /**
+     * 关闭从库连接池（从库连接池不是独立的 Bean，随路由数据源一起销毁）
+     */
+    public void close() {
+        for (ReplicaNode replica : replicas) {
+            replica.getDataSource().close();
+        }
+    }
+
+    public List<ReplicaNode> getReplicas() {
+        return replicas;
+    }
+
+    public long getPrimaryRoutes() {
+        return primaryRoutes.get();
+    }
+
+    public long getReplicaRoutes() {
+        return replicaRoutes.get();
+    }
+
+    public long getFallbackRoutes() {
+        return fallbackRoutes.get();
+    }
+}
@@ -0,0 +1,31 @@
+package com.design.museum.datasource;
+
+/**
+ * 数据源路由上下文
+ * 记录当前线程是否处于 {@link com.design.museum.annotation.ReadReplica} 方法内，支持嵌套
+ */
+public final class RouteContext {
+
+    private static final ThreadLocal<Integer> REPLICA_DEPTH = new ThreadLocal<>();
+
+    private RouteContext() {
+    }
+
+    public static void enterReplica() {
+        Integer depth = REPLICA_DEPTH.get();
+        REPLICA_DEPTH.set(depth == null ? 1 : depth + 1);
+    }
+
+    public static void exitReplica() {
+        Integer depth = REPLICA_DEPTH.get();
+        if (depth == null || depth <= 1) {
+            REPLICA_DEPTH.remove();
+        } else {
+            REPLICA_DEPTH.set(depth - 1);
+        }
+    }
+
+    public static boolean isReplicaPreferred() {
+        return REPLICA_DEPTH.get() != null;
+    }
+}
@@ -19,6 +19,11 @@ public class BookingBatchCreateRequest {
     @NotNull(message = "参观日期不能为空")
     private LocalDate visitDate;
 
+    /**
+     * 参观时段ID（该日期已开放分时段预约时必填）
+     */
+    private Long timeslotId;
+
     /**
      * 用户ID列表
      */
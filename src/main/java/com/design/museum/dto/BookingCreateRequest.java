@@ -16,4 +16,9 @@ public class BookingCreateRequest {
      */
     @NotNull(message = "参观日期不能为空")
     private LocalDate visitDate;
+
+    /**
+     * 参观时段ID（该日期已开放分时段预约时必填）
+     */
+    private Long timeslotId;
 }
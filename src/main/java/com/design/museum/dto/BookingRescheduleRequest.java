@@ -22,4 +22,9 @@ public class BookingRescheduleRequest {
      */
     @NotNull(message = "新参观日期不能为空")
     private LocalDate newVisitDate;
+
+    /**
+     * 新的参观时段ID（新日期已开放分时段预约时必填）
+     */
+    private Long newTimeslotId;
 }
@@ -22,4 +22,9 @@ public class ExhibitItemQueryRequest extends PageRequest {
     private String mediaKind;
 
     private int size;
+
+    /**
+     * 图片尺寸：thumb/list/detail，为空返回原图
+     */
+    private String imageSize;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.design.museum.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 修改时段容量请求
+ */
+@Data
+public class TimeslotCapacityRequest {
+
+    /**
+     * 时段ID
+     */
+    @NotNull(message = "时段ID不能为空")
+    private Long timeslotId;
+
+    /**
+     * 新的容量
+     */
+    @NotNull(message = "容量不能为空")
+    @Min(value = 0, message = "容量不能小于0")
+    private Integer capacity;
+}
@@ -0,0 +1,36 @@
+package com.design.museum.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.io.Serializable;
+
+/**
+ * 分片上传初始化请求
+ */
+@Data
+public class UploadInitRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 原始文件名
+     */
+    @NotBlank(message = "文件名不能为空")
+    private String fileName;
+
+    /**
+     * 内容类型，如 video/mp4
+     */
+    @NotBlank(message = "文件类型不能为空")
+    private String contentType;
+
+    /**
+     * 文件总大小（字节）
+     */
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long totalSize;
+}
@@ -0,0 +1,24 @@
+package com.design.museum.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+/**
+ * 加入候补请求
+ */
+@Data
+public class WaitlistJoinRequest {
+
+    /**
+     * 参观日期
+     */
+    @NotNull(message = "参观日期不能为空")
+    private LocalDate visitDate;
+
+    /**
+     * 参观时段ID（该日期已开放分时段预约时必填）
+     */
+    private Long timeslotId;
+}
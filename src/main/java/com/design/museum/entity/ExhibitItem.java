@@ -54,6 +54,36 @@ public class ExhibitItem implements Serializable {
      */
     private String coverUrl;
 
+    /**
+     * 缩略图地址(展示图衍生，图片取mediaUrl，视频取coverUrl)
+     */
+    private String thumbUrl;
+
+    /**
+     * 列表图地址
+     */
+    private String listUrl;
+
+    /**
+     * 详情图地址
+     */
+    private String detailUrl;
+
+    /**
+     * 视频转码状态：0排队中 1处理中 2已完成 3失败，非视频为空
+     */
+    private Integer transcodeStatus;
+
+    /**
+     * 视频转码进度 0-100
+     */
+    private Integer transcodeProgress;
+
+    /**
+     * HLS 主播放列表地址(转码完成后可用)
+     */
+    private String hlsUrl;
+
     /**
      * 0上架 1下架
      */
@@ -0,0 +1,42 @@
+package com.design.museum.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * 展品相似关系（离线共现计算结果，每个展品保留前 K 个）
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("exhibit_item_related")
+public class ExhibitItemRelated implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 展品ID
+     */
+    private Long itemId;
+
+    /**
+     * 相似展品ID
+     */
+    private Long relatedItemId;
+
+    /**
+     * 相似度（余弦相似度，0-1）
+     */
+    private Float score;
+
+    /**
+     * 排名，从1开始
+     */
+    private Integer rankNo;
+}
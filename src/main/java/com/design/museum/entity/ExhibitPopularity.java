@@ -0,0 +1,63 @@
+package com.design.museum.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 展品热度快照（各节点内存热度计数的定期落库，每个节点一行，用于重启恢复与离线分析）
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("exhibit_popularity")
+public class ExhibitPopularity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 展品ID（exhibit_item.id）
+     */
+    @TableId(value = "item_id", type = IdType.INPUT)
+    private Long itemId;
+
+    /**
+     * 写入快照的节点，与展品ID共同构成主键
+     */
+    private String nodeId;
+
+    /**
+     * 统计窗口内浏览次数
+     */
+    private Long viewCount;
+
+    /**
+     * 统计窗口内评论次数
+     */
+    private Long commentCount;
+
+    /**
+     * 统计窗口内点赞次数
+     */
+    private Long likeCount;
+
+    /**
+     * 窗口内各时段计数，格式为 时段序号:浏览:评论:点赞，逗号分隔
+     */
+    private String bucketCounts;
+
+    /**
+     * 时间衰减后的热度分
+     */
+    private Double score;
+
+    private LocalDateTime updatedAt;
+}
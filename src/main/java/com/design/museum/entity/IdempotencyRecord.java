@@ -0,0 +1,77 @@
+package com.design.museum.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 幂等请求记录
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("idempotency_record")
+public class IdempotencyRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 请求用户
+     */
+    private Long userId;
+
+    /**
+     * 接口范围
+     */
+    private String scope;
+
+    /**
+     * 客户端提供的幂等键
+     */
+    private String idemKey;
+
+    /**
+     * 请求参数摘要
+     */
+    private String requestHash;
+
+    /**
+     * 0处理中 1已完成
+     */
+    private Integer status;
+
+    /**
+     * 响应码
+     */
+    private Integer responseCode;
+
+    /**
+     * 响应信息
+     */
+    private String responseMessage;
+
+    /**
+     * 响应数据(JSON)
+     */
+    private String responseData;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    /**
+     * 过期时间
+     */
+    private LocalDateTime expireAt;
+}
@@ -0,0 +1,89 @@
+package com.design.museum.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 媒体处理任务（视频转码为 HLS 并截取封面）
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("media_job")
+public class MediaJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 源文件对象名
+     */
+    private String sourceObject;
+
+    /**
+     * 源文件访问地址（与展品 media_url 对应）
+     */
+    private String sourceUrl;
+
+    /**
+     * 源文件本地暂存路径(不存在时从 source_url 读取)
+     */
+    private String sourcePath;
+
+    /**
+     * 0排队中 1处理中 2已完成 3失败
+     */
+    private Integer status;
+
+    /**
+     * 进度 0-100
+     */
+    private Integer progress;
+
+    /**
+     * 已尝试次数
+     */
+    private Integer attempts;
+
+    /**
+     * HLS 主播放列表地址
+     */
+    private String hlsUrl;
+
+    /**
+     * 封面帧地址
+     */
+    private String posterUrl;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String errorMsg;
+
+    /**
+     * 处理节点标识
+     */
+    private String worker;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    /**
+     * 处理中任务的心跳时间，超时未更新视为节点失联
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.design.museum.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 分片上传的已接收分片（分片数据保存在存储服务中）
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("upload_part")
+public class UploadPart implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 上传ID
+     */
+    private String uploadId;
+
+    /**
+     * 分片序号（从1开始）
+     */
+    private Integer partNumber;
+
+    /**
+     * 分片在存储中的对象名，每次上传使用新对象名，重传不会覆盖合并中正在读取的对象
+     */
+    private String objectName;
+
+    /**
+     * 分片大小（字节）
+     */
+    private Long size;
+
+    private LocalDateTime createdAt;
+}
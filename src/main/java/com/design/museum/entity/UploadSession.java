@@ -0,0 +1,96 @@
+package com.design.museum.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 分片上传会话
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("upload_session")
+public class UploadSession implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 上传ID
+     */
+    @TableId(value = "id", type = IdType.INPUT)
+    private String id;
+
+    /**
+     * 发起人(管理员ID)
+     */
+    private Long creatorId;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    private String contentType;
+
+    /**
+     * IMAGE/VIDEO
+     */
+    private String mediaKind;
+
+    /**
+     * 文件总大小（字节）
+     */
+    private Long totalSize;
+
+    /**
+     * 分片大小（字节），最后一片可以更小
+     */
+    private Long partSize;
+
+    private Integer partCount;
+
+    /**
+     * 分片接收位图，第 N 个字符为 1 表示第 N 片已接收
+     */
+    private String receivedParts;
+
+    /**
+     * 分片对象名前缀
+     */
+    private String stagingPath;
+
+    /**
+     * 0上传中 1合并中 2已完成 3合并失败
+     */
+    private Integer status;
+
+    /**
+     * 完成后的对象名
+     */
+    private String objectName;
+
+    /**
+     * 完成后的访问地址
+     */
+    private String url;
+
+    private String errorMsg;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    /**
+     * 过期时间，过期未完成的会话会被清理
+     */
+    private LocalDateTime expiresAt;
+}
@@ -39,6 +39,11 @@ public class VisitBooking implements Serializable {
      */
     private LocalDate visitDate;
 
+    /**
+     * 预约时段(为空表示整日预约)
+     */
+    private Long timeslotId;
+
     /**
      * 电子票/核验码(二维码内容)
      */
@@ -0,0 +1,69 @@
+package com.design.museum.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * <p>
+ * 参观时段
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("visit_timeslot")
+public class VisitTimeslot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 参观日期
+     */
+    private LocalDate visitDate;
+
+    /**
+     * 时段开始时间
+     */
+    private LocalTime startTime;
+
+    /**
+     * 时段结束时间
+     */
+    private LocalTime endTime;
+
+    /**
+     * 时段可预约名额
+     */
+    private Integer capacity;
+
+    /**
+     * 时段已占用名额
+     */
+    private Integer reservedCount;
+
+    /**
+     * 1可预约 0停用
+     */
+    private Integer status;
+
+    /**
+     * 0正常 1删除
+     */
+    private Integer deleted;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,63 @@
+package com.design.museum.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 预约候补
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("visit_waitlist")
+public class VisitWaitlist implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 候补用户
+     */
+    private Long userId;
+
+    /**
+     * 参观日期
+     */
+    private LocalDate visitDate;
+
+    /**
+     * 参观时段(为空表示整日)
+     */
+    private Long timeslotId;
+
+    /**
+     * 0候补中 1已转正 2已取消 3已过期 4转正失败
+     */
+    private Integer status;
+
+    /**
+     * 转正后生成的预约ID
+     */
+    private Long bookingId;
+
+    /**
+     * 转正失败原因
+     */
+    private String failReason;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
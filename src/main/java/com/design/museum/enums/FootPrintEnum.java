@@ -2,7 +2,7 @@ package com.design.museum.enums;
 
 public enum FootPrintEnum {
     ALLOW("显示足迹",0),
-    DISAALOW("不显示足迹",0);
+    DISAALOW("不显示足迹",1);
     private String text;
     private int value;
     FootPrintEnum(String text, int value) {
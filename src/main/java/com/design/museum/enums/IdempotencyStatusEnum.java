@@ -0,0 +1,16 @@
+package com.design.museum.enums;
+
+public enum IdempotencyStatusEnum {
+    PROCESSING("处理中", 0),
+    COMPLETED("已完成", 1);
+    private String text;
+    private int value;
+    IdempotencyStatusEnum(String text, int value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
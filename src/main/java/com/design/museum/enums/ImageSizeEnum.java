@@ -0,0 +1,36 @@
+package com.design.museum.enums;
+
+public enum ImageSizeEnum {
+    THUMB("thumb", 200),
+    LIST("list", 480),
+    DETAIL("detail", 1080);
+    private String text;
+    private int value;
+    ImageSizeEnum(String text, int value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * 目标宽度（像素）
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * 根据客户端传入的尺寸名称获取枚举，未知或为空时返回 null（即使用原图）
+     */
+    public static ImageSizeEnum fromText(String text) {
+        for (ImageSizeEnum size : values()) {
+            if (size.text.equalsIgnoreCase(text)) {
+                return size;
+            }
+        }
+        return null;
+    }
+}
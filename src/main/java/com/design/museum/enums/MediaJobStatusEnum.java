@@ -0,0 +1,18 @@
+package com.design.museum.enums;
+
+public enum MediaJobStatusEnum {
+    PENDING("排队中", 0),
+    RUNNING("处理中", 1),
+    SUCCESS("已完成", 2),
+    FAILED("失败", 3);
+    private String text;
+    private int value;
+    MediaJobStatusEnum(String text, int value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
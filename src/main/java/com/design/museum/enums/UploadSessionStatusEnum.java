@@ -0,0 +1,18 @@
+package com.design.museum.enums;
+
+public enum UploadSessionStatusEnum {
+    UPLOADING("上传中", 0),
+    COMPLETING("合并中", 1),
+    COMPLETED("已完成", 2),
+    FAILED("合并失败", 3);
+    private String text;
+    private int value;
+    UploadSessionStatusEnum(String text, int value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
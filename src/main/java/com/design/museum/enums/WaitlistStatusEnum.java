@@ -0,0 +1,19 @@
+package com.design.museum.enums;
+
+public enum WaitlistStatusEnum {
+    WAITING("候补中", 0),
+    PROMOTED("已转正", 1),
+    CANCELLED("已取消", 2),
+    EXPIRED("已过期", 3),
+    FAILED("转正失败", 4);
+    private String text;
+    private int value;
+    WaitlistStatusEnum(String text, int value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,113 @@
+package com.design.museum.footprint;
+
+import com.design.museum.context.UserContext;
+import com.design.museum.entity.SysUser;
+import com.design.museum.entity.UserEvent;
+import com.design.museum.enums.FootPrintEnum;
+import com.design.museum.mapper.UserEventMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户足迹采集
+ * 展品详情浏览写入内存环形缓冲区，由后台定时批量写入 user_event，请求线程不访问数据库
+ * 缓冲区满或写库失败时丢弃足迹（足迹允许少量丢失，不影响业务）
+ */
+@Slf4j
+@Component
+public class FootprintRecorder {
+
+    @Resource
+    private UserContext userContext;
+
+    @Resource
+    private UserEventMapper userEventMapper;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${museum.footprint.buffer-capacity:65536}")
+    private int bufferCapacity;
+
+    @Value("${museum.footprint.batch-size:500}")
+    private int batchSize;
+
+    private FootprintRingBuffer<UserEvent> buffer;
+
+    private final LongAdder recorded = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        buffer = new FootprintRingBuffer<>(bufferCapacity);
+
+        FunctionCounter.builder("museum.footprint.events", recorded, LongAdder::sum)
+                .description("足迹写入条数")
+                .tag("result", "recorded")
+                .register(meterRegistry);
+        FunctionCounter.builder("museum.footprint.events", dropped, LongAdder::sum)
+                .description("足迹写入条数")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        Gauge.builder("museum.footprint.backlog", this, r -> r.buffer.size())
+                .description("足迹缓冲区积压条数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录当前用户浏览展品，未登录或关闭足迹的用户忽略
+     *
+     * @param itemId 展品ID
+     */
+    public void recordView(Long itemId) {
+        SysUser user = userContext.getUser();
+        if (user == null || Integer.valueOf(FootPrintEnum.DISAALOW.getValue()).equals(user.getAllowFootprint())) {
+            return;
+        }
+        UserEvent event = new UserEvent()
+                .setUserId(user.getId())
+                .setItemId(itemId)
+                .setDeleted(0)
+                .setCreatedAt(LocalDateTime.now());
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * 定时批量写库（加锁保证缓冲区只有一个消费者，关闭时的最后一次写库不会与定时任务并发）
+     */
+    @Scheduled(fixedDelayString = "${museum.footprint.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<UserEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                userEventMapper.insertBatch(batch);
+                recorded.add(batch.size());
+            } catch (Exception e) {
+                log.error("足迹批量写入失败，丢弃 {} 条", batch.size(), e);
+                dropped.add(batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+}
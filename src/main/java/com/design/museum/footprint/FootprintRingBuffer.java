@@ -0,0 +1,93 @@
+package com.design.museum.footprint;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形缓冲区（多生产者单消费者）
+ * 生产者通过 CAS 竞争写入序号，不加锁；缓冲区满时直接丢弃，不阻塞请求线程
+ * 仅允许一个线程调用 {@link #drainTo}
+ *
+ * @param <E> 元素类型
+ */
+public class FootprintRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+
+    private final int mask;
+
+    /**
+     * 下一个待领取的写入序号
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 下一个待消费的序号，只由消费者推进
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 容量，向上取整为 2 的幂
+     */
+    public FootprintRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 写入元素
+     *
+     * @return 缓冲区已满时返回 false
+     */
+    public boolean offer(E element) {
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head.get() >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+        // 领取序号后再发布元素，消费者遇到尚未发布的槽位会等待下一轮
+        slots.set((int) (seq & mask), element);
+        return true;
+    }
+
+    /**
+     * 按写入顺序取出元素
+     *
+     * @param target 目标列表
+     * @param limit  最多取出数量
+     * @return 取出数量
+     */
+    public int drainTo(List<E> target, int limit) {
+        long current = head.get();
+        int drained = 0;
+        while (drained < limit && current < tail.get()) {
+            int index = (int) (current & mask);
+            E element = slots.get(index);
+            if (element == null) {
+                // 生产者已领取序号但尚未写入
+                break;
+            }
+            slots.lazySet(index, null);
+            target.add(element);
+            current++;
+            drained++;
+        }
+        head.lazySet(current);
+        return drained;
+    }
+
+    /**
+     * 当前积压数量（近似值）
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
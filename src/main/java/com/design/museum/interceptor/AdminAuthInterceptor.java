@@ -1,11 +1,10 @@
 package com.design.museum.interceptor;
 
-import cn.dev33.satoken.stp.StpUtil;
 import com.design.museum.annotation.AdminAuth;
 import com.design.museum.common.ErrorCode;
+import com.design.museum.context.UserContext;
 import com.design.museum.entity.SysUser;
 import com.design.museum.exception.BusinessException;
-import com.design.museum.service.ISysUserService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -21,7 +20,7 @@ import javax.servlet.http.HttpServletResponse;
 public class AdminAuthInterceptor implements HandlerInterceptor {
 
     @Resource
-    private ISysUserService sysUserService;
+    private UserContext userContext;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -41,15 +40,12 @@ public class AdminAuthInterceptor implements HandlerInterceptor {
         }
 
         // 检查是否登录
-        if (!StpUtil.isLogin()) {
+        if (userContext.getLoginId() == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "未登录");
         }
 
-        // 获取当前用户ID
-        Long userId = StpUtil.getLoginIdAsLong();
-        
-        // 查询用户信息
-        SysUser user = sysUserService.getById(userId);
+        // 查询用户信息（请求内只加载一次）
+        SysUser user = userContext.getUser();
         if (user == null) {
             throw new BusinessException(ErrorCode.USER_NOT_EXIST, "用户不存在");
         }
@@ -0,0 +1,30 @@
+package com.design.museum.interceptor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 客户端 IP 解析，限流与按 IP 限制连接数共用
+ */
+@Component
+public class ClientIpResolver {
+
+    /**
+     * 部署在反向代理之后时开启，取 X-Forwarded-For 的第一个地址作为客户端 IP
+     */
+    @Value("${museum.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    public String resolve(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isEmpty()) {
+                int comma = forwarded.indexOf(',');
+                return (comma > 0 ? forwarded.substring(0, comma) : forwarded).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,60 @@
+package com.design.museum.interceptor;
+
+import com.design.museum.annotation.Idempotent;
+import com.design.museum.aop.IdempotentAspect;
+import com.design.museum.context.UserContext;
+import com.design.museum.service.IIdempotencyRecordService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 幂等回放拦截器
+ * 放在限流与候场室之前：幂等键已有完成记录的请求标记为回放，限流与候场室直接放行，
+ * 客户端重试不占用限流名额、也不会被排队；请求参数是否一致及回放内容仍由 {@link IdempotentAspect} 处理
+ */
+@Component
+public class IdempotencyReplayInterceptor implements HandlerInterceptor {
+
+    private static final String REPLAY_ATTRIBUTE = IdempotencyReplayInterceptor.class.getName() + ".REPLAY";
+
+    @Resource
+    private IIdempotencyRecordService idempotencyRecordService;
+
+    @Resource
+    private UserContext userContext;
+
+    /**
+     * 当前请求是否为已完成幂等请求的回放
+     */
+    public static boolean isReplay(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute(REPLAY_ATTRIBUTE));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        Idempotent idempotent = ((HandlerMethod) handler).getMethodAnnotation(Idempotent.class);
+        if (idempotent == null) {
+            return true;
+        }
+
+        String idemKey = request.getHeader(IdempotentAspect.HEADER);
+        Long userId = userContext.getLoginId();
+        if (idemKey == null || userId == null || !IdempotentAspect.KEY_PATTERN.matcher(idemKey.trim()).matches()) {
+            return true;
+        }
+
+        if (idempotencyRecordService.findCompleted(userId, idempotent.scope(), idemKey.trim()) != null) {
+            request.setAttribute(REPLAY_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+}
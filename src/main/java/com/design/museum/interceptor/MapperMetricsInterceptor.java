@@ -0,0 +1,94 @@
+package com.design.museum.interceptor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Collection;
+
+/**
+ * Mapper 语句耗时统计插件
+ * 按 MappedStatement ID 记录每条语句的执行耗时与影响/返回行数
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    /**
+     * 语句耗时指标名
+     */
+    public static final String MAPPER_TIMER = "museum.mapper";
+
+    /**
+     * 语句行数指标名
+     */
+    public static final String MAPPER_ROWS = "museum.mapper.rows";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        String statement = ms.getId();
+        String type = ms.getSqlCommandType().name();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(MAPPER_TIMER)
+                    .description("Mapper 语句耗时")
+                    .tag("statement", statement)
+                    .tag("type", type)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+            if (result != null) {
+                DistributionSummary.builder(MAPPER_ROWS)
+                        .description("Mapper 语句返回/影响行数")
+                        .tag("statement", statement)
+                        .tag("type", type)
+                        .register(meterRegistry)
+                        .record(rowCount(result));
+            }
+        }
+    }
+
+    /**
+     * 查询返回列表大小，更新返回影响行数
+     */
+    private long rowCount(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.design.museum.interceptor;
+
+import com.design.museum.annotation.RateLimit;
+import com.design.museum.context.UserContext;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 接口限流拦截器
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    @Resource
+    private RateLimiter rateLimiter;
+
+    @Resource
+    private UserContext userContext;
+
+    @Resource
+    private ClientIpResolver clientIpResolver;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        RateLimit rateLimit = ((HandlerMethod) handler).getMethodAnnotation(RateLimit.class);
+        if (rateLimit == null || IdempotencyReplayInterceptor.isReplay(request)) {
+            return true;
+        }
+
+        try {
+            rateLimiter.check(rateLimit, userContext.getLoginId(), clientIpResolver.resolve(request));
+        } catch (BusinessException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimiter.windowSeconds(rateLimit)));
+            throw e;
+        }
+        return true;
+    }
+}
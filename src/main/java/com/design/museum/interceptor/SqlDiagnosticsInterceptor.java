@@ -0,0 +1,89 @@
+package com.design.museum.interceptor;
+
+import com.design.museum.metrics.SqlDiagnostics;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL 诊断插件
+ * 统计每条语句的形态与耗时交给 {@link SqlDiagnostics}，慢 SQL 会连同绑定参数一起输出
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SqlDiagnosticsInterceptor implements Interceptor {
+
+    private final SqlDiagnostics sqlDiagnostics;
+
+    public SqlDiagnosticsInterceptor(SqlDiagnostics sqlDiagnostics) {
+        this.sqlDiagnostics = sqlDiagnostics;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!sqlDiagnostics.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        Object parameter = args[1];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+
+        long start = System.currentTimeMillis();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.currentTimeMillis() - start;
+            sqlDiagnostics.record(ms.getId(), boundSql.getSql(), elapsed,
+                    () -> formatParameters(ms.getConfiguration(), boundSql));
+        }
+    }
+
+    /**
+     * 按占位符顺序取出绑定参数
+     */
+    private String formatParameters(Configuration configuration, BoundSql boundSql) {
+        Object parameterObject = boundSql.getParameterObject();
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        List<Object> values = new ArrayList<>(mappings.size());
+        MetaObject metaObject = null;
+        for (ParameterMapping mapping : mappings) {
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+            values.add(value);
+        }
+        return values.toString();
+    }
+}
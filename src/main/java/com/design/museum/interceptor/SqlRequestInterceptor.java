@@ -0,0 +1,42 @@
+package com.design.museum.interceptor;
+
+import com.design.museum.metrics.SqlDiagnostics;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * SQL 诊断请求拦截器
+ * 为每个请求开启 SQL 统计，请求结束后交给 {@link SqlDiagnostics} 判定是否存在 N+1；
+ * 异步请求在容器线程释放时清理统计，异步分派回来后重新经过 preHandle/afterCompletion
+ */
+@Component
+public class SqlRequestInterceptor implements AsyncHandlerInterceptor {
+
+    @Resource
+    private SqlDiagnostics sqlDiagnostics;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 使用路由模板而非实际路径，避免 /items/1、/items/2 被当成不同接口
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null ? pattern.toString() : request.getRequestURI();
+        sqlDiagnostics.begin(request.getMethod() + " " + path);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        sqlDiagnostics.end();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步处理时不会在当前线程调用 afterCompletion，不清理会把统计遗留给复用该线程的下一个请求
+        sqlDiagnostics.clear();
+    }
+}
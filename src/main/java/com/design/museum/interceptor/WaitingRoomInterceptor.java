@@ -0,0 +1,63 @@
+package com.design.museum.interceptor;
+
+import com.design.museum.admission.WaitingRoom;
+import com.design.museum.common.BaseResponse;
+import com.design.museum.common.ErrorCode;
+import com.design.museum.context.UserContext;
+import com.design.museum.vo.QueueTicketVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 预约候场室拦截器
+ * 未轮到的请求直接返回排队凭证，不进入预约事务、不占用数据库连接
+ */
+@Component
+public class WaitingRoomInterceptor implements HandlerInterceptor {
+
+    @Resource
+    private WaitingRoom waitingRoom;
+
+    @Resource
+    private UserContext userContext;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod) || !waitingRoom.isEnabled()) {
+            return true;
+        }
+
+        // 已完成请求的重试直接回放，不排队
+        if (IdempotencyReplayInterceptor.isReplay(request)) {
+            return true;
+        }
+
+        // 未登录的请求交给登录校验处理
+        Long userId = userContext.getLoginId();
+        if (userId == null) {
+            return true;
+        }
+
+        QueueTicketVO ticket = waitingRoom.tryEnter(userId);
+        if (ticket == null) {
+            return true;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(),
+                new BaseResponse<>(ErrorCode.BOOKING_QUEUED.getCode(), ticket, ErrorCode.BOOKING_QUEUED.getMessage()));
+        return false;
+    }
+}
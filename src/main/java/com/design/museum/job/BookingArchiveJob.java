@@ -0,0 +1,78 @@
+package com.design.museum.job;
+
+import com.design.museum.service.IVisitBookingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.LocalDate;
+
+/**
+ * 预约归档定时任务
+ * 每天凌晨把参观日期早于保留期的已结束预约分批迁入 visit_booking_archive，
+ * 每批一个短事务，批间稍作停顿，避免长时间锁表和从库延迟
+ */
+@Component
+@Slf4j
+public class BookingArchiveJob {
+
+    /**
+     * 保留期下限：看板的本月预约数只统计热表，保留期不能短于一个月
+     */
+    private static final int MIN_RETAIN_DAYS = 35;
+
+    @Resource
+    private IVisitBookingService visitBookingService;
+
+    @Value("${museum.archive.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 热表保留的天数（按参观日期）
+     */
+    @Value("${museum.archive.retain-days:90}")
+    private int retainDays;
+
+    @Value("${museum.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${museum.archive.pause-ms:200}")
+    private long pauseMs;
+
+    /**
+     * 单次运行最多归档的批数，剩余部分留到下次
+     */
+    @Value("${museum.archive.max-chunks:2000}")
+    private int maxChunks;
+
+    /**
+     * 错开 03:30 的推荐相似度计算；连接预算按批占用（见 archiveBookings），批间停顿时不占许可
+     */
+    @Scheduled(cron = "${museum.archive.cron:0 30 2 * * ?}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(Math.max(retainDays, MIN_RETAIN_DAYS));
+        log.info("定时任务开始：归档参观日期早于 {} 的预约", cutoff);
+        int total = 0;
+        try {
+            for (int i = 0; i < maxChunks; i++) {
+                int moved = visitBookingService.archiveBookings(cutoff, chunkSize);
+                total += moved;
+                if (moved < chunkSize) {
+                    break;
+                }
+                Thread.sleep(pauseMs);
+            }
+            log.info("定时任务完成：共归档 {} 条预约", total);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("预约归档被中断，已归档 {} 条", total);
+        } catch (Exception e) {
+            log.error("预约归档失败，已归档 {} 条", total, e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.design.museum.job;
 
+import com.design.museum.annotation.ConnectionBudget;
 import com.design.museum.service.IVisitBookingService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -23,6 +24,7 @@ public class BookingExpireJob {
      * cron 表达式：秒 分 时 日 月 周
      */
     @Scheduled(cron = "0 0 12 * * ?")
+    @ConnectionBudget(value = "job", waitMillis = 60_000)
     public void updateExpiredBookings() {
         log.info("定时任务开始：批量更新过期预约状态");
         try {
@@ -0,0 +1,71 @@
+package com.design.museum.job;
+
+import com.design.museum.annotation.ConnectionBudget;
+import com.design.museum.service.IUserNoticeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+
+/**
+ * 站内消息清理定时任务
+ * 每天凌晨分批物理删除超过保留期的已读/已删除消息，未读消息不清理
+ */
+@Component
+@Slf4j
+public class NoticeRetentionJob {
+
+    @Resource
+    private IUserNoticeService userNoticeService;
+
+    @Value("${museum.notice.retention.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 已读消息保留天数
+     */
+    @Value("${museum.notice.retention.retain-days:180}")
+    private int retainDays;
+
+    @Value("${museum.notice.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${museum.notice.retention.pause-ms:100}")
+    private long pauseMs;
+
+    /**
+     * 单次运行最多删除的批数，剩余部分留到下次
+     */
+    @Value("${museum.notice.retention.max-batches:1000}")
+    private int maxBatches;
+
+    @Scheduled(cron = "${museum.notice.retention.cron:0 0 4 * * ?}")
+    @ConnectionBudget(value = "job", waitMillis = 60_000)
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minusDays(retainDays);
+        log.info("定时任务开始：清理 {} 之前的已读消息", before);
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatches; i++) {
+                int deleted = userNoticeService.purgeReadNotices(before, batchSize);
+                total += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+                Thread.sleep(pauseMs);
+            }
+            log.info("定时任务完成：共清理 {} 条消息", total);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("消息清理被中断，已清理 {} 条", total);
+        } catch (Exception e) {
+            log.error("消息清理失败，已清理 {} 条", total, e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.design.museum.job;
 
+import com.design.museum.annotation.ConnectionBudget;
 import com.design.museum.service.IVisitDayQuotaService;
+import com.design.museum.service.IVisitTimeslotService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -8,7 +10,7 @@ import org.springframework.stereotype.Component;
 
 /**
  * 参观配额定时任务
- * 每天0点执行：创建当天配额，删除过去日期的配额
+ * 每天0点执行：创建当天配额及时段，删除过去日期的配额及时段
  *
  * @author
  * @since 2026-02-03
@@ -20,12 +22,16 @@ public class VisitDayQuotaTask {
     @Autowired
     private IVisitDayQuotaService visitDayQuotaService;
 
+    @Autowired
+    private IVisitTimeslotService visitTimeslotService;
+
     /**
      * 每天0点0分0秒执行
      * 创建未来7天的配额（包含今天）
      * 逻辑删除过去日期的配额
      */
     @Scheduled(cron = "0 0 0 * * ?")
+    @ConnectionBudget(value = "job", waitMillis = 60_000)
     public void manageDailyQuota() {
         log.info("开始执行参观配额定时任务...");
 
@@ -34,10 +40,16 @@ public class VisitDayQuotaTask {
             int createdCount = visitDayQuotaService.createFutureQuotas(7);
             log.info("成功创建 {} 天的参观配额（包含今天及未来6天），每天容量：2000", createdCount);
 
+            // 创建未来7天的参观时段
+            int slotDays = visitTimeslotService.createFutureSlots(7);
+            log.info("成功生成 {} 天的参观时段", slotDays);
+
             // 逻辑删除过去日期的配额
             visitDayQuotaService.deletePastQuota();
             log.info("成功逻辑删除过去日期的参观配额");
 
+            visitTimeslotService.deletePastSlots();
+
         } catch (Exception e) {
             log.error("执行参观配额定时任务失败", e);
         }
@@ -1,7 +1,9 @@
 package com.design.museum.mapper;
 
+import com.design.museum.cache.CacheValidator;
 import com.design.museum.entity.ExhibitComment;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
 
 /**
  * <p>
@@ -13,4 +15,11 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface ExhibitCommentMapper extends BaseMapper<ExhibitComment> {
 
+    /**
+     * 展品评论列表的缓存校验信息（含点赞记录）
+     *
+     * @param itemId 展品ID
+     * @return 行数与最近更新时间
+     */
+    CacheValidator selectItemValidator(@Param("itemId") Long itemId);
 }
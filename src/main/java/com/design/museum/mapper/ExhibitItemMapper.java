@@ -1,7 +1,11 @@
 package com.design.museum.mapper;
 
+import com.design.museum.cache.CacheValidator;
 import com.design.museum.entity.ExhibitItem;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
 
 /**
  * <p>
@@ -13,4 +17,20 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface ExhibitItemMapper extends BaseMapper<ExhibitItem> {
 
+    /**
+     * 用户端展品列表的缓存校验信息
+     *
+     * @param displayStatus 展示状态
+     * @param now           当前时间（判断展示期）
+     * @return 展示中的展品数与最近更新时间
+     */
+    CacheValidator selectCatalogValidator(@Param("displayStatus") int displayStatus, @Param("now") LocalDateTime now);
+
+    /**
+     * 查询展品更新时间
+     *
+     * @param id 展品ID
+     * @return 更新时间，展品不存在时返回 null
+     */
+    LocalDateTime selectUpdatedAt(@Param("id") Long id);
 }
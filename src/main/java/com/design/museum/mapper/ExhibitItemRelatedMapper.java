@@ -0,0 +1,39 @@
+package com.design.museum.mapper;
+
+import com.design.museum.entity.ExhibitItemRelated;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.design.museum.recommend.UserItemPair;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>
+ *  Mapper 接口
+ * </p>
+ */
+public interface ExhibitItemRelatedMapper extends BaseMapper<ExhibitItemRelated> {
+
+    /**
+     * 流式读取用户-展品交互（浏览、评论、点赞去重），按用户ID排序
+     *
+     * @param since   起始时间
+     * @param handler 逐行处理
+     */
+    void streamInteractions(@Param("since") LocalDateTime since, ResultHandler<UserItemPair> handler);
+
+    /**
+     * 批量插入
+     *
+     * @param rows 相似关系
+     * @return 插入条数
+     */
+    int insertBatch(@Param("rows") List<ExhibitItemRelated> rows);
+
+    /**
+     * 清空相似关系
+     */
+    void deleteAll();
+}
@@ -0,0 +1,31 @@
+package com.design.museum.mapper;
+
+import com.design.museum.entity.ExhibitPopularity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * <p>
+ *  Mapper 接口
+ * </p>
+ */
+public interface ExhibitPopularityMapper extends BaseMapper<ExhibitPopularity> {
+
+    /**
+     * 批量写入本节点的快照，已存在则覆盖（主键含节点ID，不会覆盖其他节点的行）
+     *
+     * @param rows 快照列表
+     * @return 影响行数
+     */
+    int upsertBatch(@Param("rows") List<ExhibitPopularity> rows);
+
+    /**
+     * 把未区分节点的旧快照归到指定节点
+     *
+     * @param nodeId 节点ID
+     * @return 认领行数
+     */
+    int claimLegacy(@Param("nodeId") String nodeId);
+}
@@ -0,0 +1,21 @@
+package com.design.museum.mapper;
+
+import com.design.museum.entity.UploadPart;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * <p>
+ *  Mapper 接口
+ * </p>
+ */
+public interface UploadPartMapper extends BaseMapper<UploadPart> {
+
+    /**
+     * 登记分片，同一分片重传时覆盖对象名
+     *
+     * @param part 分片
+     * @return 影响行数
+     */
+    int upsert(@Param("part") UploadPart part);
+}
@@ -0,0 +1,13 @@
+package com.design.museum.mapper;
+
+import com.design.museum.entity.UploadSession;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+ * <p>
+ *  Mapper 接口
+ * </p>
+ */
+public interface UploadSessionMapper extends BaseMapper<UploadSession> {
+
+}
@@ -2,6 +2,9 @@ package com.design.museum.mapper;
 
 import com.design.museum.entity.UserEvent;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * <p>
@@ -13,4 +16,11 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface UserEventMapper extends BaseMapper<UserEvent> {
 
+    /**
+     * 批量插入（单条多值 INSERT）
+     *
+     * @param events 足迹列表
+     * @return 插入条数
+     */
+    int insertBatch(@Param("events") List<UserEvent> events);
 }
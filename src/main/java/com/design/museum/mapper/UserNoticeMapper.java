@@ -2,6 +2,9 @@ package com.design.museum.mapper;
 
 import com.design.museum.entity.UserNotice;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
 
 /**
  * <p>
@@ -13,4 +16,12 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface UserNoticeMapper extends BaseMapper<UserNotice> {
 
+    /**
+     * 批量物理删除过期消息（已读或已删除，且创建时间早于截止时间）
+     *
+     * @param before 截止时间
+     * @param limit  批大小
+     * @return 删除行数
+     */
+    int purgeBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
 }
@@ -1,7 +1,14 @@
 package com.design.museum.mapper;
 
 import com.design.museum.entity.VisitBooking;
+import com.design.museum.quota.DateCount;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>
@@ -13,4 +20,74 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface VisitBookingMapper extends BaseMapper<VisitBooking> {
 
+    /**
+     * 查询一批可归档的预约ID（参观日期早于截止日期，且已取消/已核验/已过期或已删除）
+     *
+     * @param cutoff 截止日期（不含）
+     * @param limit  批大小
+     * @return 预约ID
+     */
+    List<Long> selectArchivableIds(@Param("cutoff") LocalDate cutoff, @Param("limit") int limit);
+
+    /**
+     * 复制到归档表
+     *
+     * @param ids 预约ID
+     * @return 影响行数
+     */
+    int copyToArchive(@Param("ids") List<Long> ids);
+
+    /**
+     * 从热表物理删除（逻辑删除字段不适用于归档）
+     *
+     * @param ids 预约ID
+     * @return 影响行数
+     */
+    int purgeByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 统计用户的归档预约数
+     *
+     * @param userId 用户ID
+     * @param status 状态（可空）
+     * @return 数量
+     */
+    long countArchivedByUser(@Param("userId") Long userId, @Param("status") Integer status);
+
+    /**
+     * 分页查询用户的归档预约（按创建时间倒序）
+     *
+     * @param userId 用户ID
+     * @param status 状态（可空）
+     * @param offset 偏移量
+     * @param limit  条数
+     * @return 归档预约
+     */
+    List<VisitBooking> selectArchivedByUser(@Param("userId") Long userId, @Param("status") Integer status,
+                                            @Param("offset") long offset, @Param("limit") int limit);
+
+    /**
+     * 按ID查询归档预约
+     *
+     * @param id 预约ID
+     * @return 归档预约，不存在时返回 null
+     */
+    VisitBooking selectArchivedById(@Param("id") Long id);
+
+    /**
+     * 按参观日期统计有效预约数（1已预约 3已改签 4已核验）
+     *
+     * @param dates 参观日期
+     * @return 每个日期一行，无预约的日期不返回
+     */
+    List<DateCount> countActiveByDates(@Param("dates") Collection<LocalDate> dates);
+
+    /**
+     * 查询指定时间之后预约、时段或配额有更新的参观日期
+     *
+     * @param dates 参观日期
+     * @param since 起始时间（包含）
+     * @return 有更新的日期
+     */
+    List<LocalDate> selectChangedDates(@Param("dates") Collection<LocalDate> dates, @Param("since") LocalDateTime since);
 }
@@ -0,0 +1,50 @@
+package com.design.museum.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.design.museum.entity.VisitTimeslot;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+
+/**
+ * <p>
+ *  Mapper 接口
+ * </p>
+ */
+public interface VisitTimeslotMapper extends BaseMapper<VisitTimeslot> {
+
+    /**
+     * 占用时段名额（条件更新，名额不足时不更新）
+     *
+     * @param id    时段ID
+     * @param count 占用数量
+     * @return 影响行数，0 表示名额不足或时段不可用
+     */
+    int reserve(@Param("id") Long id, @Param("count") int count);
+
+    /**
+     * 释放时段名额
+     *
+     * @param id    时段ID
+     * @param count 释放数量
+     * @return 影响行数
+     */
+    int release(@Param("id") Long id, @Param("count") int count);
+
+    /**
+     * 修改时段容量（新容量不能小于已占用名额）
+     *
+     * @param id       时段ID
+     * @param capacity 新容量
+     * @return 影响行数
+     */
+    int updateCapacity(@Param("id") Long id, @Param("capacity") int capacity);
+
+    /**
+     * 统计某日未删除时段的容量之和
+     *
+     * @param visitDate 参观日期
+     * @return 容量之和，无时段时为 0
+     */
+    int sumCapacity(@Param("visitDate") LocalDate visitDate);
+}
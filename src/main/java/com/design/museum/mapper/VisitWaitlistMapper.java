@@ -0,0 +1,13 @@
+package com.design.museum.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.design.museum.entity.VisitWaitlist;
+
+/**
+ * <p>
+ *  Mapper 接口
+ * </p>
+ */
+public interface VisitWaitlistMapper extends BaseMapper<VisitWaitlist> {
+
+}
@@ -0,0 +1,346 @@
+package com.design.museum.media;
+
+import cn.hutool.core.io.FileUtil;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.design.museum.entity.ExhibitItem;
+import com.design.museum.entity.MediaJob;
+import com.design.museum.enums.MediaJobStatusEnum;
+import com.design.museum.mapper.ExhibitItemMapper;
+import com.design.museum.service.IMediaJobService;
+import com.design.museum.storage.ImageDerivativePipeline;
+import com.design.museum.storage.StorageService;
+import com.design.museum.storage.StoredObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 视频转码任务处理节点
+ * 定时从 media_job 表领取排队任务，在本地线程池中调用 ffmpeg 转码，结果上传到存储并回写展品
+ * 任务状态持久化在数据库中，节点重启或失联后由心跳超时机制重新排队
+ */
+@Slf4j
+@Component
+public class MediaJobWorker {
+
+    /**
+     * 进度写库的最小间隔（百分点），避免频繁更新
+     */
+    private static final int PROGRESS_STEP = 5;
+
+    @Resource
+    private IMediaJobService mediaJobService;
+
+    @Resource
+    private MediaTranscoder mediaTranscoder;
+
+    @Resource
+    private StorageService storageService;
+
+    @Resource
+    private ImageDerivativePipeline imageDerivativePipeline;
+
+    @Resource
+    private ExhibitItemMapper exhibitItemMapper;
+
+    @Value("${museum.media-job.enabled:true}")
+    private boolean enabled;
+
+    @Value("${museum.media-job.work-dir:./media-work}")
+    private String workDirConfig;
+
+    @Value("${museum.media-job.worker-threads:1}")
+    private int workerThreads;
+
+    @Value("${museum.media-job.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${museum.media-job.heartbeat-timeout-minutes:10}")
+    private long heartbeatTimeoutMinutes;
+
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName();
+
+    private Path workDir;
+
+    private ExecutorService executor;
+
+    /**
+     * 空闲处理槽位，只领取能立即处理的任务，其余留在队列中供其他节点领取
+     */
+    private Semaphore slots;
+
+    /**
+     * 本节点正在处理的任务ID，由心跳定时刷新（ffmpeg 不输出时长时不会有进度回调）
+     */
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 本机 ffmpeg 是否可用，不可用时只负责入队不领取任务
+     */
+    private volatile boolean transcoderAvailable;
+
+    @PostConstruct
+    public void init() throws IOException {
+        workDir = Paths.get(workDirConfig).toAbsolutePath().normalize();
+        Files.createDirectories(workDir.resolve("incoming"));
+        slots = new Semaphore(workerThreads);
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread thread = new Thread(r, "media-job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        transcoderAvailable = enabled && mediaTranscoder.isAvailable();
+        if (enabled && !transcoderAvailable) {
+            log.warn("未检测到 ffmpeg/ffprobe，本节点不处理视频转码任务");
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 将上传的视频暂存到工作目录，供转码读取（大文件上传会直接移动容器临时文件）
+     *
+     * @param file 上传文件
+     * @return 暂存文件路径
+     */
+    public Path stage(MultipartFile file) throws IOException {
+        Path staged = workDir.resolve("incoming").resolve(UUID.randomUUID() + ".src");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, staged, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return staged;
+    }
+
+    /**
+     * 将本地已有的视频文件移动到工作目录作为转码源（分片上传合并后的文件无需再复制一份）
+     *
+     * @param source 本地文件
+     * @return 暂存文件路径
+     */
+    public Path adopt(Path source) throws IOException {
+        Path staged = workDir.resolve("incoming").resolve(UUID.randomUUID() + ".src");
+        return Files.move(source, staged, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 丢弃暂存文件（原视频上传失败时调用）
+     */
+    public void discard(Path staged) {
+        if (staged != null) {
+            FileUtil.del(staged.toFile());
+        }
+    }
+
+    /**
+     * 为已上传的视频创建转码任务，立即返回，由定时轮询异步处理
+     *
+     * @param staged 暂存文件
+     * @param stored 原视频存储结果
+     */
+    public void enqueue(Path staged, StoredObject stored) {
+        MediaJob job = mediaJobService.enqueue(stored.getObjectName(), stored.getUrl(), staged == null ? null : staged.toString());
+        log.info("视频转码任务已入队：jobId={}, object={}", job.getId(), stored.getObjectName());
+    }
+
+    /**
+     * 轮询领取排队任务
+     */
+    @Scheduled(fixedDelayString = "${museum.media-job.poll-interval-ms:5000}", initialDelay = 10_000)
+    public void poll() {
+        if (!transcoderAvailable) {
+            return;
+        }
+        LocalDateTime heartbeatBefore = LocalDateTime.now().minusMinutes(heartbeatTimeoutMinutes);
+        for (MediaJob job : mediaJobService.failExhausted(heartbeatBefore, maxAttempts)) {
+            log.warn("转码任务心跳超时且已达最大尝试次数，标记失败：jobId={}", job.getId());
+            updateItem(job.getSourceUrl(), MediaJobStatusEnum.FAILED, 0, null);
+            discardSource(job);
+        }
+        int requeued = mediaJobService.requeueStale(heartbeatBefore, maxAttempts);
+        if (requeued > 0) {
+            log.warn("{} 个转码任务心跳超时，已重新排队", requeued);
+        }
+
+        int free = slots.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        List<MediaJob> pending = mediaJobService.listPending(free);
+        for (MediaJob job : pending) {
+            if (!slots.tryAcquire()) {
+                return;
+            }
+            if (!mediaJobService.claim(job.getId(), workerId)) {
+                // 已被其他节点领取
+                slots.release();
+                continue;
+            }
+            updateItem(job.getSourceUrl(), MediaJobStatusEnum.RUNNING, 0, null);
+            executor.execute(() -> {
+                try {
+                    process(job);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * 心跳：刷新本节点处理中任务的更新时间，间隔须远小于心跳超时
+     */
+    @Scheduled(fixedDelayString = "${museum.media-job.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        int refreshed = mediaJobService.heartbeat(running, workerId);
+        if (refreshed < running.size()) {
+            log.warn("部分转码任务已不再由本节点持有（心跳超时被重新排队），完成后结果将被丢弃");
+        }
+    }
+
+    private void process(MediaJob job) {
+        Path outDir = workDir.resolve("job-" + job.getId());
+        running.add(job.getId());
+        try {
+            FileUtil.del(outDir.toFile());
+            Files.createDirectories(outDir);
+            String input = job.getSourcePath() != null && Files.exists(Paths.get(job.getSourcePath()))
+                    ? job.getSourcePath() : job.getSourceUrl();
+
+            int[] reported = {0};
+            mediaTranscoder.transcode(input, outDir, progress -> {
+                if (progress - reported[0] >= PROGRESS_STEP) {
+                    reported[0] = progress;
+                    mediaJobService.updateProgress(job.getId(), workerId, progress);
+                    updateItemProgress(job.getSourceUrl(), progress);
+                }
+            });
+
+            String prefix = hlsPrefix(job.getSourceObject());
+            String hlsUrl = uploadHls(outDir.resolve("hls"), prefix);
+            Path poster = outDir.resolve(MediaTranscoder.POSTER);
+            String posterObject = prefix + MediaTranscoder.POSTER;
+            String posterUrl = storageService.putObject(posterObject, poster, "image/jpeg");
+
+            if (!mediaJobService.markSuccess(job.getId(), workerId, hlsUrl, posterUrl)) {
+                log.warn("转码任务已不再由本节点持有，丢弃结果：jobId={}", job.getId());
+                return;
+            }
+            updateItem(job.getSourceUrl(), MediaJobStatusEnum.SUCCESS, 100, hlsUrl);
+            // 未设置封面的视频展品使用截取的封面帧，并生成封面衍生尺寸
+            exhibitItemMapper.update(null, new LambdaUpdateWrapper<ExhibitItem>()
+                    .eq(ExhibitItem::getMediaKind, "VIDEO")
+                    .eq(ExhibitItem::getMediaUrl, job.getSourceUrl())
+                    .isNull(ExhibitItem::getCoverUrl)
+                    .set(ExhibitItem::getCoverUrl, posterUrl));
+            imageDerivativePipeline.submit(imageDerivativePipeline.stage(poster), posterObject, posterUrl);
+
+            discardSource(job);
+            log.info("视频转码完成：jobId={}, hls={}", job.getId(), hlsUrl);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("视频转码失败：jobId={}", job.getId(), e);
+            MediaJobStatusEnum status = mediaJobService.markFailed(job, workerId, e.getMessage(), maxAttempts);
+            if (status == null) {
+                log.warn("转码任务已不再由本节点持有，忽略失败结果：jobId={}", job.getId());
+                return;
+            }
+            updateItem(job.getSourceUrl(), status, 0, null);
+            if (status == MediaJobStatusEnum.FAILED) {
+                discardSource(job);
+            }
+        } finally {
+            running.remove(job.getId());
+            FileUtil.del(outDir.toFile());
+        }
+    }
+
+    /**
+     * 上传 HLS 输出目录，播放列表使用相对路径引用分片，保持目录结构即可
+     *
+     * @return 主播放列表地址
+     */
+    private String uploadHls(Path hlsDir, String prefix) throws IOException {
+        String masterUrl = null;
+        try (Stream<Path> files = Files.list(hlsDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                String contentType = name.endsWith(".m3u8") ? "application/vnd.apple.mpegurl" : "video/mp2t";
+                String url = storageService.putObject(prefix + name, file, contentType);
+                if (MediaTranscoder.MASTER_PLAYLIST.equals(name)) {
+                    masterUrl = url;
+                }
+            }
+        }
+        if (masterUrl == null) {
+            throw new IOException("未生成主播放列表");
+        }
+        return masterUrl;
+    }
+
+    /**
+     * videos/xxx.mp4 -> videos/hls/xxx/
+     */
+    private String hlsPrefix(String sourceObject) {
+        String fileName = sourceObject.substring(sourceObject.lastIndexOf('/') + 1);
+        int dot = fileName.lastIndexOf('.');
+        return "videos/hls/" + (dot > 0 ? fileName.substring(0, dot) : fileName) + "/";
+    }
+
+    private void updateItem(String sourceUrl, MediaJobStatusEnum status, int progress, String hlsUrl) {
+        exhibitItemMapper.update(null, new LambdaUpdateWrapper<ExhibitItem>()
+                .eq(ExhibitItem::getMediaKind, "VIDEO")
+                .eq(ExhibitItem::getMediaUrl, sourceUrl)
+                .set(ExhibitItem::getTranscodeStatus, status.getValue())
+                .set(ExhibitItem::getTranscodeProgress, progress)
+                .set(hlsUrl != null, ExhibitItem::getHlsUrl, hlsUrl));
+    }
+
+    /**
+     * 只更新转码进度：显式保留 updated_at，避免 ON UPDATE 刷新时间戳使展品目录的 ETag 频繁失效
+     */
+    private void updateItemProgress(String sourceUrl, int progress) {
+        exhibitItemMapper.update(null, new LambdaUpdateWrapper<ExhibitItem>()
+                .eq(ExhibitItem::getMediaKind, "VIDEO")
+                .eq(ExhibitItem::getMediaUrl, sourceUrl)
+                .set(ExhibitItem::getTranscodeProgress, progress)
+                .setSql("updated_at = updated_at"));
+    }
+
+    private void discardSource(MediaJob job) {
+        if (job.getSourcePath() != null) {
+            FileUtil.del(job.getSourcePath());
+        }
+    }
+}
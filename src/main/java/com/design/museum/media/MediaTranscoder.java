@@ -0,0 +1,250 @@
+package com.design.museum.media;
+
+import cn.hutool.core.io.FileUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * 基于本地 ffmpeg/ffprobe 的视频转码器
+ * 生成多码率 HLS（master.m3u8 + 各档位播放列表与分片）以及一张封面帧
+ */
+@Slf4j
+@Component
+public class MediaTranscoder {
+
+    /**
+     * HLS 主播放列表文件名
+     */
+    public static final String MASTER_PLAYLIST = "master.m3u8";
+
+    /**
+     * 封面帧文件名
+     */
+    public static final String POSTER = "poster.jpg";
+
+    @Value("${museum.media-job.ffmpeg-path:ffmpeg}")
+    private String ffmpegPath;
+
+    @Value("${museum.media-job.ffprobe-path:ffprobe}")
+    private String ffprobePath;
+
+    /**
+     * 码率档位，格式：高度:视频码率(kbps)，逗号分隔
+     */
+    @Value("${museum.media-job.renditions:720:2800,360:800}")
+    private String renditionsConfig;
+
+    @Value("${museum.media-job.hls-segment-seconds:6}")
+    private int segmentSeconds;
+
+    @Value("${museum.media-job.timeout-minutes:60}")
+    private long timeoutMinutes;
+
+    private final List<int[]> renditions = new ArrayList<>();
+
+    /**
+     * 超时强制结束 ffmpeg 进程
+     */
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "media-transcode-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        for (String item : renditionsConfig.split(",")) {
+            String[] parts = item.trim().split(":");
+            renditions.add(new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])});
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * 检测 ffmpeg 与 ffprobe 是否可用
+     */
+    public boolean isAvailable() {
+        try {
+            return run(List.of(ffmpegPath, "-version"), null) == 0 && run(List.of(ffprobePath, "-version"), null) == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 转码为 HLS 并截取封面
+     *
+     * @param input    输入（本地路径或 http(s) 地址）
+     * @param outDir   输出目录，完成后包含 hls/ 与 poster.jpg
+     * @param progress 进度回调（0-99）
+     */
+    public void transcode(String input, Path outDir, IntConsumer progress) throws IOException, InterruptedException {
+        Probe probe = probe(input);
+        if (!probe.hasVideo) {
+            throw new IOException("源文件不包含视频流");
+        }
+        Path hlsDir = Files.createDirectories(outDir.resolve("hls"));
+        Path logFile = outDir.resolve("ffmpeg.log");
+
+        // 封面：取 1 秒处（短视频取中间）的一帧
+        double posterAt = probe.duration > 0 ? Math.min(1.0, probe.duration / 2) : 0;
+        List<String> posterCmd = List.of(ffmpegPath, "-y", "-v", "error",
+                "-ss", String.format("%.2f", posterAt), "-i", input,
+                "-frames:v", "1", "-vf", "scale='min(1080,iw)':-2", "-q:v", "3",
+                outDir.resolve(POSTER).toString());
+        if (run(posterCmd, logFile) != 0) {
+            throw new IOException("截取封面失败：" + tail(logFile));
+        }
+
+        if (run(hlsCommand(input, hlsDir, probe.hasAudio), logFile, probe.duration, progress) != 0) {
+            throw new IOException("转码失败：" + tail(logFile));
+        }
+    }
+
+    private List<String> hlsCommand(String input, Path hlsDir, boolean hasAudio) {
+        int count = renditions.size();
+        StringBuilder filter = new StringBuilder("[0:v]split=").append(count);
+        for (int i = 0; i < count; i++) {
+            filter.append("[s").append(i).append(']');
+        }
+        for (int i = 0; i < count; i++) {
+            filter.append(";[s").append(i).append("]scale=-2:").append(renditions.get(i)[0]).append("[v").append(i).append(']');
+        }
+
+        List<String> cmd = new ArrayList<>(List.of(ffmpegPath, "-y", "-v", "error", "-nostats",
+                "-progress", "pipe:1", "-i", input, "-filter_complex", filter.toString()));
+        StringBuilder streamMap = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int bitrate = renditions.get(i)[1];
+            cmd.addAll(List.of("-map", "[v" + i + "]"));
+            if (hasAudio) {
+                cmd.addAll(List.of("-map", "0:a:0"));
+            }
+            cmd.addAll(List.of("-b:v:" + i, bitrate + "k", "-maxrate:v:" + i, (bitrate * 107 / 100) + "k",
+                    "-bufsize:v:" + i, (bitrate * 3 / 2) + "k"));
+            streamMap.append(i == 0 ? "" : " ").append("v:").append(i).append(hasAudio ? ",a:" + i : "");
+        }
+        // 固定 GOP 且关闭场景切换关键帧，保证各档位分片边界对齐以便无缝切换码率
+        cmd.addAll(List.of("-c:v", "libx264", "-preset", "veryfast", "-profile:v", "main",
+                "-g", "48", "-keyint_min", "48", "-sc_threshold", "0"));
+        if (hasAudio) {
+            cmd.addAll(List.of("-c:a", "aac", "-b:a", "128k", "-ac", "2"));
+        }
+        cmd.addAll(List.of("-f", "hls", "-hls_time", String.valueOf(segmentSeconds),
+                "-hls_playlist_type", "vod", "-hls_flags", "independent_segments",
+                "-hls_segment_filename", hlsDir.resolve("stream_%v_%04d.ts").toString(),
+                "-master_pl_name", MASTER_PLAYLIST,
+                "-var_stream_map", streamMap.toString(),
+                hlsDir.resolve("stream_%v.m3u8").toString()));
+        return cmd;
+    }
+
+    private Probe probe(String input) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(ffprobePath, "-v", "error",
+                "-show_entries", "format=duration:stream=codec_type",
+                "-of", "default=noprint_wrappers=1", input)
+                .redirectErrorStream(true)
+                .start();
+        Probe probe = new Probe();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if ("codec_type=video".equals(line)) {
+                    probe.hasVideo = true;
+                } else if ("codec_type=audio".equals(line)) {
+                    probe.hasAudio = true;
+                } else if (line.startsWith("duration=")) {
+                    try {
+                        probe.duration = Double.parseDouble(line.substring("duration=".length()));
+                    } catch (NumberFormatException ignored) {
+                        // 部分容器无时长（N/A），进度按未知处理
+                    }
+                }
+            }
+        }
+        if (!process.waitFor(1, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IOException("ffprobe 超时");
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("无法解析源文件");
+        }
+        return probe;
+    }
+
+    private int run(List<String> command, Path logFile) throws IOException, InterruptedException {
+        return run(command, logFile, 0, null);
+    }
+
+    /**
+     * 执行命令：stderr 写入日志文件，stdout 解析 -progress 输出
+     */
+    private int run(List<String> command, Path logFile, double duration, IntConsumer progress) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (logFile != null) {
+            builder.redirectError(ProcessBuilder.Redirect.appendTo(logFile.toFile()));
+        } else {
+            builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        }
+        Process process = builder.start();
+        ScheduledFuture<?> timeout = watchdog.schedule(process::destroyForcibly, timeoutMinutes, TimeUnit.MINUTES);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // out_time_us / out_time_ms 均以微秒为单位
+                if (progress != null && duration > 0 && (line.startsWith("out_time_us=") || line.startsWith("out_time_ms="))) {
+                    try {
+                        long micros = Long.parseLong(line.substring(line.indexOf('=') + 1));
+                        progress.accept((int) Math.min(99, micros / 10_000 / duration));
+                    } catch (NumberFormatException ignored) {
+                        // 起始阶段输出 N/A
+                    }
+                }
+            }
+            return process.waitFor();
+        } finally {
+            timeout.cancel(false);
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private String tail(Path logFile) {
+        if (!Files.exists(logFile)) {
+            return "";
+        }
+        List<String> lines = FileUtil.readUtf8Lines(logFile.toFile());
+        return String.join("\n", lines.subList(Math.max(0, lines.size() - 5), lines.size()));
+    }
+
+    private static class Probe {
+        private boolean hasVideo;
+        private boolean hasAudio;
+        private double duration;
+    }
+}
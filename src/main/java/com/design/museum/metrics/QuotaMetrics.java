@@ -0,0 +1,50 @@
+package com.design.museum.metrics;
+
+import com.design.museum.quota.QuotaAvailability;
+import com.design.museum.vo.QuotaAvailabilityVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 配额剩余量指标
+ * 定时从预约日历快照读取未来若干天每日剩余名额，以 visitDate 作为标签暴露为 Gauge
+ */
+@Component
+public class QuotaMetrics {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Resource
+    private QuotaAvailability quotaAvailability;
+
+    private MultiGauge remainingGauge;
+
+    @PostConstruct
+    public void init() {
+        remainingGauge = MultiGauge.builder("museum.quota.remaining")
+                .description("未来各参观日期的剩余名额")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 每 5 秒刷新一次（读内存快照，无数据库访问）
+     */
+    @Scheduled(fixedDelay = 5_000, initialDelay = 10_000)
+    public void refresh() {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (QuotaAvailabilityVO day : quotaAvailability.getCalendar().getDays()) {
+            rows.add(MultiGauge.Row.of(Tags.of("visitDate", day.getVisitDate().toString()), day.getRemainingCount()));
+        }
+        // overwrite = true：过期日期的 Gauge 会被移除
+        remainingGauge.register(rows, true);
+    }
+}
@@ -0,0 +1,189 @@
+package com.design.museum.metrics;
+
+import com.design.museum.vo.SqlOffenderVO;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * SQL 诊断器
+ * 统计每个 HTTP 请求执行的语句数量，标记语句过多或同一语句重复执行（N+1）的接口，并记录慢 SQL
+ */
+@Component
+@Slf4j
+public class SqlDiagnostics {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 语句形态在问题列表中保留的最大长度
+     */
+    private static final int SHAPE_MAX_LENGTH = 300;
+
+    @Getter
+    @Value("${museum.sql-diagnostics.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 慢 SQL 阈值（毫秒）
+     */
+    @Getter
+    @Value("${museum.sql-diagnostics.slow-threshold-ms:200}")
+    private long slowThresholdMs;
+
+    /**
+     * 单次请求允许执行的最大语句数
+     */
+    @Value("${museum.sql-diagnostics.max-statements-per-request:30}")
+    private int maxStatementsPerRequest;
+
+    /**
+     * 单次请求内同一语句重复执行达到该次数即判定为 N+1
+     */
+    @Value("${museum.sql-diagnostics.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    /**
+     * 接口标识 -> 问题统计
+     */
+    private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+
+    /**
+     * 请求开始
+     */
+    public void begin(String endpoint) {
+        if (enabled) {
+            CURRENT.set(new SqlRequestStats(endpoint));
+        }
+    }
+
+    /**
+     * 请求结束，判定本次请求是否存在问题
+     */
+    public void end() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        if (stats == null || stats.getStatementCount() == 0) {
+            return;
+        }
+
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        boolean tooMany = stats.getStatementCount() > maxStatementsPerRequest;
+        boolean nPlusOne = repeated.getValue() >= repeatThreshold;
+        if (!tooMany && !nPlusOne) {
+            return;
+        }
+
+        log.warn("SQL 诊断：接口 {} 单次请求执行 {} 条语句，耗时 {}ms，重复最多的语句执行 {} 次：{}",
+                stats.getEndpoint(), stats.getStatementCount(), stats.getTotalMillis(),
+                repeated.getValue(), repeated.getKey());
+        offenders.computeIfAbsent(stats.getEndpoint(), Offender::new)
+                .flag(stats.getStatementCount(), repeated.getValue(), repeated.getKey());
+    }
+
+    /**
+     * 丢弃当前线程上的统计而不做判定（请求转入异步处理、容器线程归还线程池时调用）
+     */
+    public void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 记录一条已执行的语句
+     *
+     * @param statementId   MappedStatement ID
+     * @param sql           带占位符的 SQL
+     * @param elapsedMillis 耗时
+     * @param parameters    绑定参数（仅在慢 SQL 时才会被求值）
+     */
+    public void record(String statementId, String sql, long elapsedMillis, Supplier<String> parameters) {
+        String shape = normalize(sql);
+        SqlRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(shape, elapsedMillis);
+        }
+        if (elapsedMillis >= slowThresholdMs) {
+            log.warn("慢 SQL：{}ms，statement={}，接口={}，SQL：{}，参数：{}",
+                    elapsedMillis, statementId, stats != null ? stats.getEndpoint() : "-", shape, parameters.get());
+        }
+    }
+
+    /**
+     * 按被标记次数倒序返回问题接口
+     */
+    public List<SqlOffenderVO> topOffenders(int limit) {
+        return offenders.values().stream()
+                .map(Offender::toVO)
+                .sorted(Comparator.comparing(SqlOffenderVO::getFlaggedCount).reversed()
+                        .thenComparing(SqlOffenderVO::getMaxStatements, Comparator.reverseOrder()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        offenders.clear();
+    }
+
+    /**
+     * 折叠空白字符，得到语句形态
+     */
+    private String normalize(String sql) {
+        String shape = sql.replaceAll("\\s+", " ").trim();
+        return shape.length() > SHAPE_MAX_LENGTH ? shape.substring(0, SHAPE_MAX_LENGTH) + "..." : shape;
+    }
+
+    /**
+     * 单个接口的问题统计
+     */
+    private static class Offender {
+
+        private final String endpoint;
+
+        private long flaggedCount;
+
+        private int maxStatements;
+
+        private int maxRepeat;
+
+        private String repeatedStatement;
+
+        private LocalDateTime lastSeen;
+
+        Offender(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized void flag(int statements, int repeat, String shape) {
+            flaggedCount++;
+            maxStatements = Math.max(maxStatements, statements);
+            if (repeat >= maxRepeat) {
+                maxRepeat = repeat;
+                repeatedStatement = shape;
+            }
+            lastSeen = LocalDateTime.now();
+        }
+
+        synchronized SqlOffenderVO toVO() {
+            SqlOffenderVO vo = new SqlOffenderVO();
+            vo.setEndpoint(endpoint);
+            vo.setFlaggedCount(flaggedCount);
+            vo.setMaxStatements(maxStatements);
+            vo.setMaxRepeat(maxRepeat);
+            vo.setRepeatedStatement(repeatedStatement);
+            vo.setLastSeen(lastSeen);
+            return vo;
+        }
+    }
+}
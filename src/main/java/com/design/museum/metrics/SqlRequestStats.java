@@ -0,0 +1,56 @@
+package com.design.museum.metrics;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单次 HTTP 请求内的 SQL 执行统计
+ */
+@Getter
+public class SqlRequestStats {
+
+    /**
+     * 接口标识：HTTP 方法 + 路由模板
+     */
+    private final String endpoint;
+
+    /**
+     * 本次请求执行的语句总数
+     */
+    private int statementCount;
+
+    /**
+     * 本次请求执行的语句总耗时（毫秒）
+     */
+    private long totalMillis;
+
+    /**
+     * 语句形态（带占位符的 SQL）-> 执行次数
+     */
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+
+    public SqlRequestStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void record(String shape, long elapsedMillis) {
+        statementCount++;
+        totalMillis += elapsedMillis;
+        shapeCounts.merge(shape, 1, Integer::sum);
+    }
+
+    /**
+     * 重复次数最多的语句形态
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> max = null;
+        for (Map.Entry<String, Integer> entry : shapeCounts.entrySet()) {
+            if (max == null || entry.getValue() > max.getValue()) {
+                max = entry;
+            }
+        }
+        return max;
+    }
+}
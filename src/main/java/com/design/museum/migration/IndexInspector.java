@@ -0,0 +1,88 @@
+package com.design.museum.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 索引元数据检查
+ * 读取当前库 information_schema.STATISTICS，迁移脚本与启动检查共用
+ */
+public final class IndexInspector {
+
+    private static final String SQL = "SELECT TABLE_NAME, INDEX_NAME, NON_UNIQUE, SEQ_IN_INDEX, COLUMN_NAME "
+            + "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() "
+            + "ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX";
+
+    private IndexInspector() {
+    }
+
+    /**
+     * 找出未被现有索引覆盖的必需索引
+     * 表不存在时同样视为缺失
+     */
+    public static List<RequiredIndex> findMissing(Connection connection, List<RequiredIndex> required) throws SQLException {
+        Map<String, List<IndexMeta>> existing = load(connection);
+        List<RequiredIndex> missing = new ArrayList<>();
+        for (RequiredIndex index : required) {
+            List<IndexMeta> tableIndexes = existing.getOrDefault(index.getTable().toLowerCase(), List.of());
+            if (tableIndexes.stream().noneMatch(meta -> meta.covers(index))) {
+                missing.add(index);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 表名 -> 索引列表
+     */
+    private static Map<String, List<IndexMeta>> load(Connection connection) throws SQLException {
+        Map<String, Map<String, IndexMeta>> byTable = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String table = rs.getString("TABLE_NAME").toLowerCase();
+                String name = rs.getString("INDEX_NAME");
+                IndexMeta meta = byTable.computeIfAbsent(table, k -> new TreeMap<>())
+                        .computeIfAbsent(name, k -> new IndexMeta());
+                meta.unique = rs.getInt("NON_UNIQUE") == 0;
+                meta.columns.add(rs.getString("COLUMN_NAME").toLowerCase());
+            }
+        }
+        Map<String, List<IndexMeta>> result = new HashMap<>();
+        byTable.forEach((table, indexes) -> result.put(table, new ArrayList<>(indexes.values())));
+        return result;
+    }
+
+    private static class IndexMeta {
+
+        private boolean unique;
+
+        private final List<String> columns = new ArrayList<>();
+
+        /**
+         * 前导列与必需索引一致即可覆盖；要求唯一时还需本身是唯一索引
+         */
+        boolean covers(RequiredIndex index) {
+            List<String> required = index.getColumns();
+            if (columns.size() < required.size()) {
+                return false;
+            }
+            if (index.isUnique() && (!unique || columns.size() != required.size())) {
+                return false;
+            }
+            for (int i = 0; i < required.size(); i++) {
+                if (!columns.get(i).equalsIgnoreCase(required.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.design.museum.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * 启动时核对必需索引
+ * 关闭迁移或迁移被跳过时，缺失的索引不会让服务启动失败，但会逐条告警并给出建索引语句
+ */
+@Slf4j
+@Component
+public class IndexVerifier {
+
+    @Resource
+    private DataSource dataSource;
+
+    @Value("${museum.schema.verify-indexes:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            List<RequiredIndex> missing = IndexInspector.findMissing(connection, RequiredIndex.ALL);
+            if (missing.isEmpty()) {
+                log.info("必需索引核对通过，共 {} 个", RequiredIndex.ALL.size());
+                return;
+            }
+            for (RequiredIndex index : missing) {
+                log.warn("缺少索引 {}，相关查询将走全表扫描，请执行：{};", index, index.toDdl());
+            }
+        } catch (Exception e) {
+            log.warn("索引核对失败", e);
+        }
+    }
+}
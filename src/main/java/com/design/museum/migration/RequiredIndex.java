@@ -0,0 +1,82 @@
+package com.design.museum.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 业务查询依赖的索引
+ * 迁移脚本按此清单补建，启动检查按此清单核对；
+ * 判断是否存在时按列前缀匹配，已有索引名不同但前导列一致也视为已覆盖
+ */
+@Getter
+@AllArgsConstructor
+public class RequiredIndex {
+
+    /**
+     * 预约按日期统计、过期扫描、管理端按日期/状态分页
+     */
+    public static final RequiredIndex BOOKING_DATE_STATUS =
+            new RequiredIndex("visit_booking", "idx_date_status", List.of("visit_date", "status", "deleted"), false);
+
+    /**
+     * 我的预约、同日重复预约判断
+     */
+    public static final RequiredIndex BOOKING_USER_DATE =
+            new RequiredIndex("visit_booking", "idx_user_date", List.of("user_id", "visit_date"), false);
+
+    /**
+     * 票码核验
+     */
+    public static final RequiredIndex BOOKING_TICKET_CODE =
+            new RequiredIndex("visit_booking", "uk_ticket_code", List.of("ticket_code"), true);
+
+    /**
+     * 展品评论列表（按展品、显示状态、时间倒序）
+     */
+    public static final RequiredIndex COMMENT_ITEM_STATUS =
+            new RequiredIndex("exhibit_comment", "idx_item_status_created", List.of("item_id", "status", "created_at"), false);
+
+    /**
+     * 点赞状态查询与点赞数统计
+     */
+    public static final RequiredIndex COMMENT_LIKE_COMMENT_USER =
+            new RequiredIndex("exhibit_comment_like", "idx_comment_user", List.of("comment_id", "user_id"), false);
+
+    /**
+     * 我的消息（按用户、时间倒序）及未读数
+     */
+    public static final RequiredIndex NOTICE_USER_CREATED =
+            new RequiredIndex("user_notice", "idx_user_deleted_created", List.of("user_id", "deleted", "created_at"), false);
+
+    public static final List<RequiredIndex> ALL = List.of(
+            BOOKING_DATE_STATUS,
+            BOOKING_USER_DATE,
+            BOOKING_TICKET_CODE,
+            COMMENT_ITEM_STATUS,
+            COMMENT_LIKE_COMMENT_USER,
+            NOTICE_USER_CREATED
+    );
+
+    private final String table;
+
+    private final String name;
+
+    private final List<String> columns;
+
+    private final boolean unique;
+
+    /**
+     * 建索引语句
+     */
+    public String toDdl() {
+        return "ALTER TABLE " + table + " ADD " + (unique ? "UNIQUE " : "") + "INDEX " + name
+                + " (" + String.join(", ", columns) + ")";
+    }
+
+    @Override
+    public String toString() {
+        return table + "(" + String.join(",", columns) + ")";
+    }
+}
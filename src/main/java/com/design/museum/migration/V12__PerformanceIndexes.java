@@ -0,0 +1,29 @@
+package com.design.museum.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * 补建业务查询所需的组合索引
+ * 手工维护过的库里可能已有名字不同的等价索引，因此先核对再建，只补缺失的部分
+ */
+@Slf4j
+public class V12__PerformanceIndexes extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        List<RequiredIndex> missing = IndexInspector.findMissing(connection, RequiredIndex.ALL);
+        try (Statement statement = connection.createStatement()) {
+            for (RequiredIndex index : missing) {
+                log.info("创建索引 {}：{}", index.getName(), index);
+                statement.execute(index.toDdl());
+            }
+        }
+    }
+}
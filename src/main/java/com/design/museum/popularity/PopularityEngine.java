@@ -0,0 +1,329 @@
+package com.design.museum.popularity;
+
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.design.museum.entity.ExhibitItem;
+import com.design.museum.entity.ExhibitPopularity;
+import com.design.museum.mapper.ExhibitPopularityMapper;
+import com.design.museum.service.IExhibitItemService;
+import com.design.museum.vo.TrendingItemVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 展品热度引擎
+ * 在内存中按展品维护浏览/评论/点赞的滑动窗口计数，按时间衰减计算热度分；
+ * 定时重算排行榜（只在重算时查一次展品信息），/items/trending 直接读取内存中的排行榜；
+ * 计数按时间桶定期快照到 exhibit_popularity，每个节点只写自己的行（主键含节点ID），重启时按原时间桶恢复本节点的计数
+ */
+@Slf4j
+@Component
+public class PopularityEngine {
+
+    @Resource
+    private IExhibitItemService exhibitItemService;
+
+    @Resource
+    private ExhibitPopularityMapper exhibitPopularityMapper;
+
+    /**
+     * 时间桶宽度（分钟）
+     */
+    @Value("${museum.popularity.bucket-minutes:60}")
+    private long bucketMinutes;
+
+    /**
+     * 窗口桶数，窗口长度 = 桶宽度 × 桶数
+     */
+    @Value("${museum.popularity.window-buckets:72}")
+    private int windowBuckets;
+
+    /**
+     * 热度半衰期（小时）
+     */
+    @Value("${museum.popularity.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${museum.popularity.view-weight:1}")
+    private double viewWeight;
+
+    @Value("${museum.popularity.comment-weight:5}")
+    private double commentWeight;
+
+    @Value("${museum.popularity.like-weight:3}")
+    private double likeWeight;
+
+    /**
+     * 排行榜保留条数
+     */
+    @Value("${museum.popularity.top-size:50}")
+    private int topSize;
+
+    /**
+     * 节点ID，须在重启后保持不变；未配置时取主机名
+     */
+    @Value("${museum.popularity.node-id:}")
+    private String nodeId;
+
+    private final Map<Long, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+
+    private double[] weights;
+
+    private double decayPerBucket;
+
+    /**
+     * 当前排行榜（不可变，整体替换）
+     */
+    private volatile List<TrendingEntry> trending = List.of();
+
+    @PostConstruct
+    public void init() {
+        weights = new double[]{viewWeight, commentWeight, likeWeight};
+        decayPerBucket = Math.pow(0.5, bucketMinutes / (halfLifeHours * 60));
+        if (StrUtil.isBlank(nodeId)) {
+            nodeId = NetUtil.getLocalHostName();
+        }
+        restore();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        snapshot();
+    }
+
+    public void recordView(Long itemId) {
+        record(itemId, SlidingWindowCounter.VIEW, 1);
+    }
+
+    public void recordComment(Long itemId) {
+        record(itemId, SlidingWindowCounter.COMMENT, 1);
+    }
+
+    public void recordLike(Long itemId) {
+        record(itemId, SlidingWindowCounter.LIKE, 1);
+    }
+
+    /**
+     * 获取热门展品（纯内存读取）
+     *
+     * @param limit     条数
+     * @param imageSize 图片尺寸
+     * @return 热门展品
+     */
+    public List<TrendingItemVO> getTrending(int limit, String imageSize) {
+        List<TrendingEntry> current = trending;
+        List<TrendingItemVO> result = new ArrayList<>(Math.min(limit, current.size()));
+        for (int i = 0; i < current.size() && result.size() < limit; i++) {
+            TrendingEntry entry = current.get(i);
+            TrendingItemVO vo = new TrendingItemVO();
+            vo.setRank(i + 1);
+            vo.setItem(exhibitItemService.toExhibitItemVO(entry.item, imageSize));
+            vo.setScore(entry.score);
+            vo.setViewCount(entry.totals[SlidingWindowCounter.VIEW]);
+            vo.setCommentCount(entry.totals[SlidingWindowCounter.COMMENT]);
+            vo.setLikeCount(entry.totals[SlidingWindowCounter.LIKE]);
+            result.add(vo);
+        }
+        return result;
+    }
+
+    /**
+     * 定时重算排行榜，只保留当前可展示的展品
+     */
+    @Scheduled(fixedDelayString = "${museum.popularity.rank-interval-ms:30000}")
+    public void rank() {
+        long nowEpoch = currentEpoch();
+        List<TrendingEntry> scored = new ArrayList<>();
+        counters.forEach((itemId, counter) -> {
+            long[] totals = new long[3];
+            double score = counter.score(nowEpoch, weights, decayPerBucket, totals);
+            if (score <= 0) {
+                // 窗口内已无任何计数，释放内存；在映射锁内复查，避免移除刚被 record 写入的计数器
+                counters.computeIfPresent(itemId, (id, c) -> c.isEmpty(nowEpoch) ? null : c);
+                return;
+            }
+            scored.add(new TrendingEntry(itemId, score, totals));
+        });
+        scored.sort(Comparator.comparingDouble((TrendingEntry e) -> e.score).reversed());
+
+        // 多取一些候选，过滤掉已下架或不在展示期的展品
+        List<TrendingEntry> candidates = scored.subList(0, Math.min(scored.size(), topSize * 2));
+        if (candidates.isEmpty()) {
+            trending = List.of();
+            return;
+        }
+        Map<Long, ExhibitItem> items = exhibitItemService.listByIds(
+                        candidates.stream().map(e -> e.itemId).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(ExhibitItem::getId, Function.identity()));
+        List<TrendingEntry> ranked = new ArrayList<>(topSize);
+        for (TrendingEntry entry : candidates) {
+            ExhibitItem item = items.get(entry.itemId);
+            if (item != null && exhibitItemService.isDisplayable(item)) {
+                entry.item = item;
+                ranked.add(entry);
+                if (ranked.size() >= topSize) {
+                    break;
+                }
+            }
+        }
+        trending = List.copyOf(ranked);
+    }
+
+    /**
+     * 定时快照到 exhibit_popularity
+     */
+    @Scheduled(fixedDelayString = "${museum.popularity.snapshot-interval-ms:300000}", initialDelay = 300_000)
+    public synchronized void snapshot() {
+        long nowEpoch = currentEpoch();
+        // 截断到秒，与库中 DATETIME 精度一致，清理时按写入值精确匹配
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<ExhibitPopularity> rows = new ArrayList<>();
+        counters.forEach((itemId, counter) -> {
+            long[] totals = new long[3];
+            double score = counter.score(nowEpoch, weights, decayPerBucket, totals);
+            if (score > 0) {
+                rows.add(new ExhibitPopularity()
+                        .setItemId(itemId)
+                        .setNodeId(nodeId)
+                        .setViewCount(totals[SlidingWindowCounter.VIEW])
+                        .setCommentCount(totals[SlidingWindowCounter.COMMENT])
+                        .setLikeCount(totals[SlidingWindowCounter.LIKE])
+                        .setBucketCounts(encodeBuckets(counter.export(nowEpoch)))
+                        .setScore(score)
+                        .setUpdatedAt(now));
+            }
+        });
+        try {
+            for (int from = 0; from < rows.size(); from += 500) {
+                exhibitPopularityMapper.upsertBatch(rows.subList(from, Math.min(rows.size(), from + 500)));
+            }
+            // 本节点本次未写入的行对应的展品已滑出窗口
+            exhibitPopularityMapper.delete(new LambdaQueryWrapper<ExhibitPopularity>()
+                    .eq(ExhibitPopularity::getNodeId, nodeId)
+                    .ne(ExhibitPopularity::getUpdatedAt, now));
+            // 已下线节点的行超过一个窗口未更新，计数已全部过期
+            exhibitPopularityMapper.delete(new LambdaQueryWrapper<ExhibitPopularity>()
+                    .lt(ExhibitPopularity::getUpdatedAt, now.minusMinutes(bucketMinutes * windowBuckets)));
+        } catch (Exception e) {
+            log.error("热度快照写入失败", e);
+        }
+    }
+
+    /**
+     * 从本节点的快照恢复：按快照中的时间桶放回原时段，之后随时间正常衰减
+     */
+    private void restore() {
+        try {
+            long nowEpoch = currentEpoch();
+            int claimed = exhibitPopularityMapper.claimLegacy(nodeId);
+            if (claimed > 0) {
+                log.info("认领旧版热度快照：{} 行", claimed);
+            }
+            List<ExhibitPopularity> rows = exhibitPopularityMapper.selectList(new LambdaQueryWrapper<ExhibitPopularity>()
+                    .eq(ExhibitPopularity::getNodeId, nodeId));
+            for (ExhibitPopularity row : rows) {
+                SlidingWindowCounter counter = new SlidingWindowCounter(windowBuckets);
+                if (StrUtil.isNotBlank(row.getBucketCounts())) {
+                    for (String bucket : row.getBucketCounts().split(",")) {
+                        String[] parts = bucket.split(":");
+                        long epoch = Long.parseLong(parts[0]);
+                        if (nowEpoch - epoch < windowBuckets) {
+                            counter.add(epoch, SlidingWindowCounter.VIEW, Long.parseLong(parts[1]));
+                            counter.add(epoch, SlidingWindowCounter.COMMENT, Long.parseLong(parts[2]));
+                            counter.add(epoch, SlidingWindowCounter.LIKE, Long.parseLong(parts[3]));
+                        }
+                    }
+                } else {
+                    // 旧版快照只有窗口合计，无法还原分布，按整个窗口均摊
+                    long snapshotEpoch = toEpoch(row.getUpdatedAt());
+                    spread(counter, snapshotEpoch, nowEpoch, SlidingWindowCounter.VIEW, Objects.requireNonNullElse(row.getViewCount(), 0L));
+                    spread(counter, snapshotEpoch, nowEpoch, SlidingWindowCounter.COMMENT, Objects.requireNonNullElse(row.getCommentCount(), 0L));
+                    spread(counter, snapshotEpoch, nowEpoch, SlidingWindowCounter.LIKE, Objects.requireNonNullElse(row.getLikeCount(), 0L));
+                }
+                if (!counter.isEmpty(nowEpoch)) {
+                    counters.put(row.getItemId(), counter);
+                }
+            }
+            log.info("热度数据已恢复：节点 {}，{} 个展品", nodeId, counters.size());
+        } catch (Exception e) {
+            log.warn("热度快照恢复失败，从零开始统计", e);
+        }
+    }
+
+    /**
+     * 把窗口合计均摊到快照时刻之前的整个窗口，余数放入最近的时段；已滑出当前窗口的部分丢弃
+     */
+    private void spread(SlidingWindowCounter counter, long snapshotEpoch, long nowEpoch, int signal, long total) {
+        long share = total / windowBuckets;
+        long remainder = total % windowBuckets;
+        for (int i = 0; i < windowBuckets; i++) {
+            long epoch = snapshotEpoch - i;
+            long count = share + (i < remainder ? 1 : 0);
+            if (count > 0 && nowEpoch - epoch < windowBuckets) {
+                counter.add(epoch, signal, count);
+            }
+        }
+    }
+
+    private static String encodeBuckets(List<long[]> buckets) {
+        StringBuilder sb = new StringBuilder();
+        for (long[] bucket : buckets) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(bucket[0]).append(':').append(bucket[1]).append(':').append(bucket[2]).append(':').append(bucket[3]);
+        }
+        return sb.toString();
+    }
+
+    private void record(Long itemId, int signal, long delta) {
+        if (itemId == null) {
+            return;
+        }
+        long epoch = currentEpoch();
+        // 在映射锁内累加，与 rank 的空计数器回收互斥，计数不会落到已被移除的计数器上
+        counters.compute(itemId, (id, counter) -> {
+            SlidingWindowCounter target = counter != null ? counter : new SlidingWindowCounter(windowBuckets);
+            target.add(epoch, signal, delta);
+            return target;
+        });
+    }
+
+    private long currentEpoch() {
+        return System.currentTimeMillis() / (bucketMinutes * 60_000);
+    }
+
+    private long toEpoch(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / (bucketMinutes * 60_000);
+    }
+
+    private static class TrendingEntry {
+        private final Long itemId;
+        private final double score;
+        private final long[] totals;
+        private ExhibitItem item;
+
+        private TrendingEntry(Long itemId, double score, long[] totals) {
+            this.itemId = itemId;
+            this.score = score;
+            this.totals = totals;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.design.museum.popularity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 单个展品的滑动窗口计数器
+ * 窗口由固定数量的时间桶组成环形数组，每个桶记录该时段的浏览/评论/点赞次数；
+ * 写入时如果桶对应的时段已过期则先清零再复用，读取时跳过窗口外的桶
+ */
+class SlidingWindowCounter {
+
+    static final int VIEW = 0;
+    static final int COMMENT = 1;
+    static final int LIKE = 2;
+    private static final int SIGNALS = 3;
+
+    /**
+     * 每个桶当前对应的时段序号
+     */
+    private final AtomicLongArray epochs;
+
+    /**
+     * 计数，下标为 桶 * SIGNALS + 信号
+     */
+    private final AtomicLongArray counts;
+
+    private final int buckets;
+
+    SlidingWindowCounter(int buckets) {
+        this.buckets = buckets;
+        this.epochs = new AtomicLongArray(buckets);
+        this.counts = new AtomicLongArray(buckets * SIGNALS);
+        for (int i = 0; i < buckets; i++) {
+            epochs.set(i, -1);
+        }
+    }
+
+    /**
+     * 累加计数
+     *
+     * @param epoch  时段序号
+     * @param signal 信号类型
+     * @param delta  增量
+     */
+    void add(long epoch, int signal, long delta) {
+        int index = (int) (epoch % buckets);
+        if (epochs.get(index) != epoch) {
+            // 桶轮换很少发生（每个桶每个窗口一次），加锁保证清零先于新时段可见
+            synchronized (this) {
+                long current = epochs.get(index);
+                if (current > epoch) {
+                    // 桶已被更新的时段占用（恢复历史数据时可能出现）
+                    return;
+                }
+                if (current != epoch) {
+                    for (int s = 0; s < SIGNALS; s++) {
+                        counts.set(index * SIGNALS + s, 0);
+                    }
+                    epochs.set(index, epoch);
+                }
+            }
+        }
+        counts.addAndGet(index * SIGNALS + signal, delta);
+    }
+
+    /**
+     * 汇总窗口内计数并计算衰减后的热度分
+     *
+     * @param nowEpoch 当前时段序号
+     * @param weights  各信号权重
+     * @param decay    每个时段的衰减系数（0-1）
+     * @param totals   输出：各信号窗口内合计
+     * @return 热度分
+     */
+    double score(long nowEpoch, double[] weights, double decay, long[] totals) {
+        double score = 0;
+        for (int i = 0; i < buckets; i++) {
+            long age = nowEpoch - epochs.get(i);
+            if (age < 0 || age >= buckets) {
+                continue;
+            }
+            double factor = Math.pow(decay, age);
+            for (int s = 0; s < SIGNALS; s++) {
+                long count = counts.get(i * SIGNALS + s);
+                totals[s] += count;
+                score += weights[s] * count * factor;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * 窗口内是否已无任何计数
+     *
+     * @param nowEpoch 当前时段序号
+     */
+    boolean isEmpty(long nowEpoch) {
+        for (int i = 0; i < buckets; i++) {
+            long age = nowEpoch - epochs.get(i);
+            if (age < 0 || age >= buckets) {
+                continue;
+            }
+            for (int s = 0; s < SIGNALS; s++) {
+                if (counts.get(i * SIGNALS + s) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 导出窗口内各时段的计数（跳过空桶），用于快照
+     *
+     * @param nowEpoch 当前时段序号
+     * @return 每项为 {时段序号, 浏览, 评论, 点赞}
+     */
+    List<long[]> export(long nowEpoch) {
+        List<long[]> result = new ArrayList<>();
+        for (int i = 0; i < buckets; i++) {
+            long epoch = epochs.get(i);
+            long age = nowEpoch - epoch;
+            if (age < 0 || age >= buckets) {
+                continue;
+            }
+            long[] bucket = new long[]{epoch,
+                    counts.get(i * SIGNALS + VIEW),
+                    counts.get(i * SIGNALS + COMMENT),
+                    counts.get(i * SIGNALS + LIKE)};
+            if (bucket[1] != 0 || bucket[2] != 0 || bucket[3] != 0) {
+                result.add(bucket);
+            }
+        }
+        return result;
+    }
+}
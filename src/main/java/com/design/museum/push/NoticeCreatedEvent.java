@@ -0,0 +1,18 @@
+package com.design.museum.push;
+
+import com.design.museum.vo.UserNoticeVO;
+import lombok.Getter;
+
+/**
+ * 站内消息已创建事件
+ * 由 {@link com.design.museum.service.IUserNoticeService#sendNotice} 发布，事务提交后由 {@link NoticePushListener} 推送
+ */
+@Getter
+public class NoticeCreatedEvent {
+
+    private final UserNoticeVO notice;
+
+    public NoticeCreatedEvent(UserNoticeVO notice) {
+        this.notice = notice;
+    }
+}
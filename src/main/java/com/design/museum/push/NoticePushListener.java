@@ -0,0 +1,52 @@
+package com.design.museum.push;
+
+import com.design.museum.cache.SysUserCache;
+import com.design.museum.entity.SysUser;
+import com.design.museum.enums.PushMessageEnum;
+import com.design.museum.vo.UserNoticeVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.Resource;
+
+/**
+ * 站内消息推送
+ * 消息落库的事务提交后推送给在线用户；用户关闭了消息推送（allowPush）时只落库不推送
+ */
+@Slf4j
+@Component
+public class NoticePushListener {
+
+    public static final String EVENT_NOTICE = "notice";
+
+    public static final String EVENT_UNREAD = "unread";
+
+    @Resource
+    private PushHub pushHub;
+
+    @Resource
+    private SysUserCache sysUserCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoticeCreated(NoticeCreatedEvent event) {
+        UserNoticeVO notice = event.getNotice();
+        try {
+            if (!isPushAllowed(notice.getUserId())) {
+                return;
+            }
+            pushHub.publish(notice.getUserId(), EVENT_NOTICE, notice);
+        } catch (Exception e) {
+            // 推送失败不影响消息本身，客户端重连后可通过未读数同步
+            log.warn("推送站内消息失败：userId={}", notice.getUserId(), e);
+        }
+    }
+
+    /**
+     * 用户是否允许推送
+     */
+    public boolean isPushAllowed(Long userId) {
+        SysUser user = sysUserCache.get(userId);
+        return user != null && (user.getAllowPush() == null || user.getAllowPush() == PushMessageEnum.ALLOW.getValue());
+    }
+}
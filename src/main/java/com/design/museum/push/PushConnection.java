@@ -0,0 +1,32 @@
+package com.design.museum.push;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 单个推送连接
+ * 每个连接一个有界缓冲区，同一时刻最多一个发送任务在排空它，保证事件按顺序写出
+ */
+class PushConnection<K> {
+
+    final K key;
+
+    final SseEmitter emitter;
+
+    final ArrayBlockingQueue<SseEmitter.SseEventBuilder> buffer;
+
+    /**
+     * 是否已有发送任务在排队或执行
+     */
+    final AtomicBoolean scheduled = new AtomicBoolean();
+
+    final AtomicBoolean closed = new AtomicBoolean();
+
+    PushConnection(K key, SseEmitter emitter, int bufferSize) {
+        this.key = key;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+}
@@ -0,0 +1,106 @@
+package com.design.museum.push;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 推送中心
+ * 持有共享的发送线程池和按用户分组的站内消息连接；其他推送频道通过 {@link #newChannel} 复用同一线程池
+ */
+@Component
+public class PushHub {
+
+    @Value("${museum.push.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${museum.push.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${museum.push.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${museum.push.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${museum.push.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService sender;
+
+    /**
+     * 站内消息连接，按用户ID分组
+     */
+    private SseBroadcaster<Long> notices;
+
+    private final List<SseBroadcaster<?>> channels = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "push-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        notices = newChannel("notice", maxConnections, maxConnectionsPerUser, true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        channels.forEach(SseBroadcaster::closeAll);
+        sender.shutdownNow();
+    }
+
+    /**
+     * 创建推送频道，与站内消息共用发送线程池、缓冲区大小与心跳
+     *
+     * @param name                 频道名
+     * @param maxConnections       总连接上限
+     * @param maxConnectionsPerKey 每个键的连接上限
+     * @param evictOldest          超过每键上限时断开最早的连接（键可信，如用户ID）还是拒绝新连接（键可能被多人共用，如 IP）
+     * @return 推送频道
+     */
+    public <K> SseBroadcaster<K> newChannel(String name, int maxConnections, int maxConnectionsPerKey, boolean evictOldest) {
+        SseBroadcaster<K> channel = new SseBroadcaster<>(name, maxConnections, maxConnectionsPerKey, evictOldest,
+                bufferSize, timeoutMs, sender, meterRegistry);
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * 建立站内消息连接并下发初始事件；同一用户连接数超过上限时断开最早的连接
+     */
+    public SseEmitter connect(Long userId, String initialEvent, Object initialData) {
+        return notices.connect(userId, initialEvent, initialData);
+    }
+
+    /**
+     * 向用户的所有连接推送事件（非阻塞）
+     */
+    public void publish(Long userId, String name, Object data) {
+        notices.publish(userId, name, data);
+    }
+
+    /**
+     * 心跳：及时发现已断开的连接，并防止代理因空闲断开
+     */
+    @Scheduled(fixedDelayString = "${museum.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        channels.forEach(SseBroadcaster::heartbeat);
+    }
+}
@@ -0,0 +1,240 @@
+package com.design.museum.push;
+
+import com.design.museum.common.ErrorCode;
+import com.design.museum.exception.BusinessException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SSE 连接组
+ * 连接按键分组（如用户ID）；发布方只把事件放入各连接的有界缓冲区，由发送线程池异步写出，不会被慢客户端阻塞。
+ * 缓冲区满说明客户端长期读不动，直接断开，客户端重连后通过初始事件重新同步
+ *
+ * @param <K> 分组键类型
+ */
+@Slf4j
+public class SseBroadcaster<K> {
+
+    private final String name;
+
+    private final int maxConnections;
+
+    private final int maxConnectionsPerKey;
+
+    private final boolean evictOldest;
+
+    private final int bufferSize;
+
+    private final long timeoutMs;
+
+    private final ExecutorService sender;
+
+    private final Map<K, List<PushConnection<K>>> connections = new ConcurrentHashMap<>();
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final LongAdder delivered = new LongAdder();
+
+    private final LongAdder overflowed = new LongAdder();
+
+    /**
+     * @param name                 名称，用作指标标签
+     * @param maxConnections       总连接上限
+     * @param maxConnectionsPerKey 每个键的连接上限
+     * @param evictOldest          超过每键上限时断开最早的连接（true）还是拒绝新连接（false）
+     * @param bufferSize           每个连接的待发送事件上限
+     * @param timeoutMs            连接最长存活时间，到期后客户端（EventSource）自动重连
+     * @param sender               发送线程池
+     * @param meterRegistry        指标注册表
+     */
+    public SseBroadcaster(String name, int maxConnections, int maxConnectionsPerKey, boolean evictOldest,
+                          int bufferSize, long timeoutMs, ExecutorService sender, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerKey = maxConnectionsPerKey;
+        this.evictOldest = evictOldest;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sender = sender;
+        Gauge.builder("museum.push.connections", total, AtomicInteger::get)
+                .description("当前推送连接数")
+                .tag("channel", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("museum.push.events", delivered, LongAdder::sum)
+                .description("推送事件数")
+                .tag("channel", name)
+                .tag("result", "delivered")
+                .register(meterRegistry);
+        FunctionCounter.builder("museum.push.events", overflowed, LongAdder::sum)
+                .description("推送事件数")
+                .tag("channel", name)
+                .tag("result", "overflow")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 建立连接并下发初始事件
+     *
+     * @param key          分组键
+     * @param initialEvent 初始事件名
+     * @param initialData  初始事件数据
+     * @return SSE 发射器
+     */
+    public SseEmitter connect(K key, String initialEvent, Object initialData) {
+        if (total.get() >= maxConnections) {
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS, "推送连接数已满，请稍后重试");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        PushConnection<K> connection = new PushConnection<>(key, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> close(connection, null));
+        emitter.onError(e -> remove(connection));
+
+        boolean[] rejected = new boolean[1];
+        List<PushConnection<K>> keyConnections = connections.compute(key, (k, list) -> {
+            List<PushConnection<K>> result = list != null ? list : new CopyOnWriteArrayList<>();
+            if (!evictOldest && result.size() >= maxConnectionsPerKey) {
+                rejected[0] = true;
+                return list;
+            }
+            result.add(connection);
+            return result;
+        });
+        if (rejected[0]) {
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS, "连接数过多，请稍后重试");
+        }
+        total.incrementAndGet();
+        while (keyConnections.size() > maxConnectionsPerKey) {
+            close(keyConnections.get(0), null);
+        }
+        offer(connection, SseEmitter.event().name(initialEvent).data(initialData));
+        return emitter;
+    }
+
+    /**
+     * 向某个键下的所有连接推送事件（非阻塞）
+     *
+     * @param key  分组键
+     * @param name 事件名
+     * @param data 事件数据（按 JSON 序列化）
+     */
+    public void publish(K key, String name, Object data) {
+        List<PushConnection<K>> keyConnections = connections.get(key);
+        if (keyConnections == null) {
+            return;
+        }
+        for (PushConnection<K> connection : keyConnections) {
+            offer(connection, SseEmitter.event().name(name).data(data));
+        }
+    }
+
+    /**
+     * 向全部连接推送事件（非阻塞）
+     *
+     * @param name 事件名
+     * @param data 事件数据（按 JSON 序列化）
+     */
+    public void publishAll(String name, Object data) {
+        connections.values().forEach(list -> list.forEach(c -> offer(c, SseEmitter.event().name(name).data(data))));
+    }
+
+    /**
+     * 心跳：及时发现已断开的连接，并防止代理因空闲断开
+     */
+    public void heartbeat() {
+        connections.values().forEach(list -> list.forEach(c -> offer(c, SseEmitter.event().comment("ping"))));
+    }
+
+    /**
+     * 关闭全部连接
+     */
+    public void closeAll() {
+        connections.values().forEach(list -> list.forEach(c -> close(c, null)));
+    }
+
+    public int connectionCount() {
+        return total.get();
+    }
+
+    private void offer(PushConnection<K> connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed.get()) {
+            return;
+        }
+        if (!connection.buffer.offer(event)) {
+            overflowed.increment();
+            log.info("推送缓冲区已满，断开慢连接：channel={}, key={}", name, connection.key);
+            close(connection, null);
+            return;
+        }
+        schedule(connection);
+    }
+
+    private void schedule(PushConnection<K> connection) {
+        if (connection.scheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                connection.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(PushConnection<K> connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!connection.closed.get() && (event = connection.buffer.poll()) != null) {
+                connection.emitter.send(event);
+                delivered.increment();
+            }
+        } catch (Exception e) {
+            // 客户端已断开
+            close(connection, e);
+        } finally {
+            connection.scheduled.set(false);
+            if (!connection.closed.get() && !connection.buffer.isEmpty()) {
+                schedule(connection);
+            }
+        }
+    }
+
+    private void close(PushConnection<K> connection, Exception error) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return;
+        }
+        remove(connection);
+        connection.buffer.clear();
+        try {
+            if (error != null) {
+                connection.emitter.completeWithError(error);
+            } else {
+                connection.emitter.complete();
+            }
+        } catch (Exception ignore) {
+            // 连接已失效
+        }
+    }
+
+    private void remove(PushConnection<K> connection) {
+        connection.closed.set(true);
+        boolean[] removed = new boolean[1];
+        connections.computeIfPresent(connection.key, (k, list) -> {
+            removed[0] = list.remove(connection);
+            return list.isEmpty() ? null : list;
+        });
+        if (removed[0]) {
+            total.decrementAndGet();
+        }
+    }
+}
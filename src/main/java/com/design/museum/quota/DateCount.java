@@ -0,0 +1,16 @@
+package com.design.museum.quota;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 按参观日期分组的有效预约数（结果行）
+ */
+@Data
+public class DateCount {
+
+    private LocalDate visitDate;
+
+    private Long count;
+}
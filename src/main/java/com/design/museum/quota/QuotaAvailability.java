@@ -0,0 +1,346 @@
+package com.design.museum.quota;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.design.museum.entity.VisitDayQuota;
+import com.design.museum.entity.VisitTimeslot;
+import com.design.museum.enums.QuotaStatusEnum;
+import com.design.museum.mapper.VisitBookingMapper;
+import com.design.museum.mapper.VisitDayQuotaMapper;
+import com.design.museum.mapper.VisitTimeslotMapper;
+import com.design.museum.push.PushHub;
+import com.design.museum.push.SseBroadcaster;
+import com.design.museum.vo.QuotaAvailabilityVO;
+import com.design.museum.vo.QuotaCalendarVO;
+import com.design.museum.vo.TimeslotVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 预约日历余量快照
+ * 可预约范围内每天的剩余名额常驻内存，日历查询直接读快照不访问数据库；
+ * 预约、取消、改签、调整容量的事务提交后只标记日期，由定时任务每秒合并重算一次并向订阅者推送增量，
+ * 同一日期一秒内的多次变化只推送一次；其他节点的变化通过定时查询 updated_at 发现；
+ * 另有定时全量对账，兜底处理漏发的事件和跨天
+ */
+@Slf4j
+@Component
+public class QuotaAvailability {
+
+    public static final String EVENT_CALENDAR = "calendar";
+
+    public static final String EVENT_QUOTA = "quota";
+
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    /**
+     * 可预约天数（包含今天），与配额定时任务创建的天数一致
+     */
+    @Value("${museum.quota.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${museum.quota.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${museum.quota.stream.max-connections:5000}")
+    private int maxConnections;
+
+    @Value("${museum.quota.stream.max-connections-per-ip:4}")
+    private int maxConnectionsPerIp;
+
+    @Resource
+    private VisitDayQuotaMapper visitDayQuotaMapper;
+
+    @Resource
+    private VisitBookingMapper visitBookingMapper;
+
+    @Resource
+    private VisitTimeslotMapper visitTimeslotMapper;
+
+    @Resource
+    private PushHub pushHub;
+
+    /**
+     * 余量订阅连接，按客户端 IP 分组
+     */
+    private SseBroadcaster<String> subscribers;
+
+    /**
+     * 合并推送线程：不与其他定时任务共用调度线程，推送节奏不受慢任务影响
+     */
+    private ScheduledExecutorService flusher;
+
+    private final Set<LocalDate> dirty = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 上次跨节点同步的查询起点
+     */
+    private LocalDateTime lastSync = LocalDateTime.now();
+
+    /**
+     * 当前快照（整体替换，读取无需加锁）
+     */
+    private volatile QuotaCalendarVO calendar = emptyCalendar();
+
+    @PostConstruct
+    public void init() {
+        // 同一出口 IP 可能是多个用户（NAT、代理），超限时拒绝新连接而不是互相踢掉对方后无限重连
+        subscribers = pushHub.newChannel("quota", maxConnections, maxConnectionsPerIp, false);
+        try {
+            reconcile();
+        } catch (Exception e) {
+            // 启动时数据库不可用不影响服务启动，等待下一次对账
+            log.warn("加载预约日历快照失败", e);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "quota-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // flush 自身捕获异常，不会终止后续调度
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * 当前日历快照
+     */
+    public QuotaCalendarVO getCalendar() {
+        return calendar;
+    }
+
+    /**
+     * 单日余量，不在可预约范围内或未创建配额时返回 null
+     */
+    public QuotaAvailabilityVO getDay(LocalDate visitDate) {
+        for (QuotaAvailabilityVO day : calendar.getDays()) {
+            if (day.getVisitDate().equals(visitDate)) {
+                return day;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 订阅余量变化：连接建立后先下发 calendar 事件（全量），之后每次变化下发 quota 事件（增量）；
+     * 同一 IP 连接数超过上限时抛出 TOO_MANY_REQUESTS
+     *
+     * @param clientIp 客户端 IP
+     * @return SSE 发射器
+     */
+    public SseEmitter subscribe(String clientIp) {
+        return subscribers.connect(clientIp, EVENT_CALENDAR, calendar);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuotaChanged(QuotaChangedEvent event) {
+        dirty.add(event.getVisitDate());
+    }
+
+    /**
+     * 重算有变化的日期并推送增量
+     */
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date : dirty) {
+            // 先移除再加载，加载期间的新变化会重新标记，留到下一轮
+            dirty.remove(date);
+            dates.add(date);
+        }
+        try {
+            apply(dates, false);
+        } catch (Exception e) {
+            dirty.addAll(dates);
+            log.warn("刷新预约日历余量失败：dates={}", dates, e);
+        }
+    }
+
+    /**
+     * 跨节点同步：其他节点提交的变化不会触发本节点的事件，按 updated_at 查出有更新的日期并标记，由 flush 重算；
+     * 查询起点向前多留几秒，兼容各节点时钟偏差与秒级精度，重复标记只会多重算一次
+     */
+    @Scheduled(fixedDelayString = "${museum.quota.sync-interval-ms:5000}",
+            initialDelayString = "${museum.quota.sync-interval-ms:5000}")
+    public void sync() {
+        LocalDateTime start = LocalDateTime.now();
+        try {
+            dirty.addAll(visitBookingMapper.selectChangedDates(horizon(), lastSync.minusSeconds(SYNC_OVERLAP_SECONDS)));
+            lastSync = start;
+        } catch (Exception e) {
+            log.warn("查询跨节点余量变化失败", e);
+        }
+    }
+
+    /**
+     * 全量对账
+     */
+    @Scheduled(fixedDelayString = "${museum.quota.reconcile-interval-ms:60000}",
+            initialDelayString = "${museum.quota.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        apply(horizon(), true);
+    }
+
+    private List<LocalDate> horizon() {
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dates = new ArrayList<>(horizonDays);
+        for (int i = 0; i < horizonDays; i++) {
+            dates.add(today.plusDays(i));
+        }
+        return dates;
+    }
+
+    /**
+     * 加载指定日期并合并进快照，有变化时递增版本号并推送
+     *
+     * @param dates 参观日期
+     * @param full  是否为全量加载（全量时移除范围外及已删除配额的日期）
+     */
+    private synchronized void apply(List<LocalDate> dates, boolean full) {
+        LocalDate today = LocalDate.now();
+        LocalDate end = today.plusDays(horizonDays);
+        List<LocalDate> inRange = dates.stream()
+                .filter(date -> !date.isBefore(today) && date.isBefore(end))
+                .collect(Collectors.toList());
+        Map<LocalDate, QuotaAvailabilityVO> loaded = inRange.isEmpty() ? Map.of() : load(inRange);
+
+        Map<LocalDate, QuotaAvailabilityVO> days = new TreeMap<>();
+        for (QuotaAvailabilityVO day : calendar.getDays()) {
+            if (!day.getVisitDate().isBefore(today) && day.getVisitDate().isBefore(end)) {
+                days.put(day.getVisitDate(), day);
+            }
+        }
+        boolean removed = days.size() != calendar.getDays().size();
+
+        List<QuotaAvailabilityVO> changed = new ArrayList<>();
+        for (LocalDate date : inRange) {
+            QuotaAvailabilityVO current = loaded.get(date);
+            QuotaAvailabilityVO previous = current != null ? days.put(date, current) : days.remove(date);
+            if (current != null && !current.equals(previous)) {
+                changed.add(current);
+            }
+            if (current == null && previous != null) {
+                removed = true;
+            }
+        }
+        if (changed.isEmpty() && !removed) {
+            return;
+        }
+
+        QuotaCalendarVO next = new QuotaCalendarVO();
+        next.setVersion(version.incrementAndGet());
+        next.setRefreshedAt(LocalDateTime.now());
+        next.setDays(List.copyOf(days.values()));
+        calendar = next;
+
+        if (removed) {
+            // 跨天或配额被删除：增量无法表达删除，推送全量
+            subscribers.publishAll(EVENT_CALENDAR, next);
+        } else {
+            QuotaCalendarVO delta = new QuotaCalendarVO();
+            delta.setVersion(next.getVersion());
+            delta.setRefreshedAt(next.getRefreshedAt());
+            delta.setDays(changed);
+            subscribers.publishAll(EVENT_QUOTA, delta);
+        }
+        if (full && !changed.isEmpty()) {
+            log.info("预约日历对账发现差异：{}", changed.stream().map(QuotaAvailabilityVO::getVisitDate).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * 三次查询加载一批日期：配额、按日期分组的有效预约数、时段
+     * 已开放时段的日期取可预约时段余量之和与整日余量的较小值，与预约时的校验口径一致
+     */
+    private Map<LocalDate, QuotaAvailabilityVO> load(Collection<LocalDate> dates) {
+        List<VisitDayQuota> quotas = visitDayQuotaMapper.selectList(new LambdaQueryWrapper<VisitDayQuota>()
+                .in(VisitDayQuota::getVisitDate, dates)
+                .eq(VisitDayQuota::getDeleted, 0));
+        if (quotas.isEmpty()) {
+            return Map.of();
+        }
+        Map<LocalDate, Long> reserved = visitBookingMapper.countActiveByDates(dates).stream()
+                .collect(Collectors.toMap(DateCount::getVisitDate, DateCount::getCount));
+        Map<LocalDate, List<VisitTimeslot>> slots = visitTimeslotMapper.selectList(new LambdaQueryWrapper<VisitTimeslot>()
+                        .in(VisitTimeslot::getVisitDate, dates)
+                        .eq(VisitTimeslot::getDeleted, 0))
+                .stream()
+                .sorted(Comparator.comparing(VisitTimeslot::getStartTime))
+                .collect(Collectors.groupingBy(VisitTimeslot::getVisitDate));
+
+        Map<LocalDate, QuotaAvailabilityVO> result = new HashMap<>();
+        for (VisitDayQuota quota : quotas) {
+            LocalDate date = quota.getVisitDate();
+            QuotaAvailabilityVO vo = new QuotaAvailabilityVO();
+            vo.setVisitDate(date);
+            vo.setStatus(quota.getStatus());
+            List<VisitTimeslot> daySlots = slots.get(date);
+            long used = reserved.getOrDefault(date, 0L);
+            int dayRemaining = (int) Math.max(quota.getCapacity() - used, 0);
+            if (daySlots == null) {
+                vo.setCapacity(quota.getCapacity());
+                vo.setRemainingCount(dayRemaining);
+            } else {
+                int capacity = 0;
+                int remaining = 0;
+                List<TimeslotVO> slotVOs = new ArrayList<>(daySlots.size());
+                for (VisitTimeslot slot : daySlots) {
+                    TimeslotVO slotVO = new TimeslotVO();
+                    BeanUtils.copyProperties(slot, slotVO);
+                    slotVO.setRemainingCount(Math.max(slot.getCapacity() - slot.getReservedCount(), 0));
+                    slotVOs.add(slotVO);
+                    if (Objects.equals(slot.getStatus(), QuotaStatusEnum.NORMAL.getValue())) {
+                        capacity += slot.getCapacity();
+                        remaining += slotVO.getRemainingCount();
+                    }
+                }
+                // 整日容量同样限制分时段预约
+                vo.setCapacity(Math.min(capacity, quota.getCapacity()));
+                vo.setRemainingCount(Math.min(remaining, dayRemaining));
+                vo.setSlots(slotVOs);
+            }
+            result.put(date, vo);
+        }
+        return result;
+    }
+
+    private static QuotaCalendarVO emptyCalendar() {
+        QuotaCalendarVO vo = new QuotaCalendarVO();
+        vo.setVersion(0L);
+        vo.setDays(List.of());
+        return vo;
+    }
+}
@@ -0,0 +1,22 @@
+package com.design.museum.quota;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * 剩余名额变化事件
+ * 预约、取消、改签、调整容量时发布，由 {@link QuotaAvailability} 在事务提交后标记该日期待刷新
+ */
+@Getter
+public class QuotaChangedEvent {
+
+    /**
+     * 参观日期
+     */
+    private final LocalDate visitDate;
+
+    public QuotaChangedEvent(LocalDate visitDate) {
+        this.visitDate = visitDate;
+    }
+}
@@ -0,0 +1,218 @@
+package com.design.museum.ratelimit;
+
+import com.design.museum.annotation.RateLimit;
+import com.design.museum.common.ErrorCode;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.vo.RateLimitStatVO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 接口限流
+ * 规则来自 {@link RateLimit} 注解，可被 museum.rate-limit.rules.&lt;name&gt;（格式：次数/秒数[/IP次数]）覆盖；
+ * 用户与 IP 各自一个键，共用同一个分段滑动窗口计数器；IP 维度阈值更大，避免同一出口 IP 后的用户互相挤占。
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final String RULE_PREFIX = "museum.rate-limit.rules.";
+
+    @Value("${museum.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${museum.rate-limit.stripes:64}")
+    private int stripes;
+
+    /**
+     * 注解未指定 ipLimit 时，IP 阈值 = limit × 该倍数
+     */
+    @Value("${museum.rate-limit.ip-limit-multiplier:10}")
+    private int ipLimitMultiplier;
+
+    @Resource
+    private Environment environment;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private SlidingWindowLimiter limiter;
+
+    private final Map<String, Rule> rules = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        limiter = new SlidingWindowLimiter(stripes);
+        Gauge.builder("museum.ratelimit.keys", this, r -> r.limiter.size())
+                .description("限流跟踪的键数量")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 校验并计数，超限时抛出 TOO_MANY_REQUESTS
+     *
+     * @param annotation 限流注解
+     * @param userId     登录用户ID（未登录为 null）
+     * @param ip         客户端 IP
+     */
+    public void check(RateLimit annotation, Long userId, String ip) {
+        if (!enabled) {
+            return;
+        }
+        Rule rule = rules.computeIfAbsent(annotation.name(), name -> createRule(annotation));
+        long now = System.currentTimeMillis();
+        long windowMillis = rule.windowSeconds * 1000L;
+
+        String userKey = annotation.perUser() && userId != null ? rule.name + "|u:" + userId : null;
+        if (userKey != null && !limiter.tryAcquire(userKey, rule.limit, windowMillis, now)) {
+            rule.rejectedByUser.increment();
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        if (annotation.perIp() && ip != null
+                && !limiter.tryAcquire(rule.name + "|ip:" + ip, rule.ipLimit, windowMillis, now)) {
+            if (userKey != null) {
+                // 被 IP 维度拒绝的请求不占用该用户的名额
+                limiter.release(userKey, windowMillis, now);
+            }
+            rule.rejectedByIp.increment();
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        rule.allowed.increment();
+    }
+
+    /**
+     * 规则的窗口长度，用于 Retry-After
+     */
+    public int windowSeconds(RateLimit annotation) {
+        Rule rule = rules.get(annotation.name());
+        return rule != null ? rule.windowSeconds : annotation.windowSeconds();
+    }
+
+    /**
+     * 各规则的放行与拒绝统计
+     */
+    public List<RateLimitStatVO> stats() {
+        return rules.values().stream()
+                .sorted(Comparator.comparing(r -> r.name))
+                .map(rule -> {
+                    RateLimitStatVO vo = new RateLimitStatVO();
+                    vo.setRule(rule.name);
+                    vo.setLimit(rule.limit);
+                    vo.setIpLimit(rule.ipLimit);
+                    vo.setWindowSeconds(rule.windowSeconds);
+                    vo.setAllowed(rule.allowed.sum());
+                    vo.setRejectedByUser(rule.rejectedByUser.sum());
+                    vo.setRejectedByIp(rule.rejectedByIp.sum());
+                    return vo;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 清空计数窗口与统计
+     */
+    public void reset() {
+        limiter.clear();
+        rules.values().forEach(rule -> {
+            rule.allowed.reset();
+            rule.rejectedByUser.reset();
+            rule.rejectedByIp.reset();
+        });
+    }
+
+    /**
+     * 定时清理长时间未访问的键，控制内存
+     */
+    @Scheduled(fixedDelayString = "${museum.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long maxWindowMillis = rules.values().stream()
+                .mapToLong(r -> r.windowSeconds * 1000L)
+                .max()
+                .orElse(0);
+        // 超过两个窗口未访问的键计数已全部过期
+        int evicted = limiter.evictIdle(maxWindowMillis * 2, System.currentTimeMillis());
+        if (evicted > 0) {
+            log.debug("限流键清理：{} 个", evicted);
+        }
+    }
+
+    private Rule createRule(RateLimit annotation) {
+        int limit = annotation.limit();
+        int windowSeconds = annotation.windowSeconds();
+        int ipLimit = annotation.ipLimit();
+        String override = environment.getProperty(RULE_PREFIX + annotation.name());
+        if (override != null) {
+            String[] parts = override.trim().split("/");
+            try {
+                limit = Integer.parseInt(parts[0].trim());
+                if (parts.length > 1) {
+                    windowSeconds = Integer.parseInt(parts[1].trim());
+                }
+                if (parts.length > 2) {
+                    ipLimit = Integer.parseInt(parts[2].trim());
+                }
+            } catch (NumberFormatException e) {
+                log.warn("限流规则配置无效，使用注解默认值：{}={}", annotation.name(), override);
+                limit = annotation.limit();
+                windowSeconds = annotation.windowSeconds();
+                ipLimit = annotation.ipLimit();
+            }
+        }
+        limit = Math.max(limit, 1);
+        if (ipLimit <= 0) {
+            ipLimit = limit * Math.max(ipLimitMultiplier, 1);
+        }
+        Rule rule = new Rule(annotation.name(), limit, ipLimit, Math.max(windowSeconds, 1));
+        registerCounter(rule, "allowed", rule.allowed);
+        registerCounter(rule, "rejected_user", rule.rejectedByUser);
+        registerCounter(rule, "rejected_ip", rule.rejectedByIp);
+        return rule;
+    }
+
+    private void registerCounter(Rule rule, String result, LongAdder adder) {
+        FunctionCounter.builder("museum.ratelimit.requests", adder, LongAdder::sum)
+                .description("限流请求数")
+                .tag("rule", rule.name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class Rule {
+
+        private final String name;
+
+        private final int limit;
+
+        private final int ipLimit;
+
+        private final int windowSeconds;
+
+        private final LongAdder allowed = new LongAdder();
+
+        private final LongAdder rejectedByUser = new LongAdder();
+
+        private final LongAdder rejectedByIp = new LongAdder();
+
+        private Rule(String name, int limit, int ipLimit, int windowSeconds) {
+            this.name = name;
+            this.limit = limit;
+            this.ipLimit = ipLimit;
+            this.windowSeconds = windowSeconds;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.design.museum.ratelimit;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 分段滑动窗口计数器
+ * 键按哈希分到固定数量的分段，每段一把锁一张表，不同键的请求基本不互相竞争。
+ * 每个键只保存"上一窗口 + 当前窗口"两个计数，按当前窗口已过去的比例加权估算滑动窗口内的请求数，
+ * 内存占用与键数量成正比，与请求量无关。
+ */
+public class SlidingWindowLimiter {
+
+    private final Stripe[] stripes;
+
+    public SlidingWindowLimiter(int stripeCount) {
+        int n = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 尝试计一次请求
+     *
+     * @param key          限流键
+     * @param limit        窗口内允许的请求数
+     * @param windowMillis 窗口长度（毫秒）
+     * @param now          当前时间（毫秒）
+     * @return 是否允许
+     */
+    public boolean tryAcquire(String key, int limit, long windowMillis, long now) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                window = new Window(now - now % windowMillis);
+                stripe.windows.put(key, window);
+            }
+            window.roll(now, windowMillis);
+
+            double elapsedRatio = (double) (now - window.start) / windowMillis;
+            double estimated = window.previous * (1 - elapsedRatio) + window.current;
+            if (estimated >= limit) {
+                return false;
+            }
+            window.current++;
+            window.lastAccess = now;
+            return true;
+        }
+    }
+
+    /**
+     * 撤销一次已计入的请求（请求最终未被放行时调用）
+     *
+     * @param key          限流键
+     * @param windowMillis 窗口长度（毫秒）
+     * @param now          当前时间（毫秒）
+     */
+    public void release(String key, long windowMillis, long now) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                return;
+            }
+            window.roll(now, windowMillis);
+            if (window.current > 0) {
+                window.current--;
+            }
+        }
+    }
+
+    /**
+     * 清理超过 idleMillis 未访问的键
+     *
+     * @return 清理数量
+     */
+    public int evictIdle(long idleMillis, long now) {
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Window> it = stripe.windows.values().iterator();
+                while (it.hasNext()) {
+                    if (now - it.next().lastAccess > idleMillis) {
+                        it.remove();
+                        evicted++;
+                    }
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * 当前跟踪的键数量
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.windows.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 清空所有计数
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.windows.clear();
+            }
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    private static class Stripe {
+
+        private final Map<String, Window> windows = new HashMap<>();
+    }
+
+    private static class Window {
+
+        private long start;
+
+        private int previous;
+
+        private int current;
+
+        private long lastAccess;
+
+        private Window(long start) {
+            this.start = start;
+            this.lastAccess = start;
+        }
+
+        /**
+         * 进入新窗口时把当前计数滚动为上一窗口；跨过两个以上窗口则全部清零
+         */
+        private void roll(long now, long windowMillis) {
+            long elapsedWindows = (now - start) / windowMillis;
+            if (elapsedWindows == 1) {
+                previous = current;
+                current = 0;
+            } else if (elapsedWindows > 1) {
+                previous = 0;
+                current = 0;
+            }
+            if (elapsedWindows > 0) {
+                start += elapsedWindows * windowMillis;
+            }
+        }
+    }
+}
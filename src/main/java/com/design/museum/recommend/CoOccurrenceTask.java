@@ -0,0 +1,82 @@
+package com.design.museum.recommend;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 共现计数的 fork/join 任务
+ * 按用户篮子（用户交互过的展品集合）二分拆分，叶子任务统计展品出现次数与两两共现次数，合并时累加
+ */
+class CoOccurrenceTask extends RecursiveTask<CoOccurrenceTask.Counts> {
+
+    /**
+     * 叶子任务处理的篮子数
+     */
+    private static final int THRESHOLD = 256;
+
+    private final List<long[]> baskets;
+
+    private final int from;
+
+    private final int to;
+
+    CoOccurrenceTask(List<long[]> baskets, int from, int to) {
+        this.baskets = baskets;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Counts compute() {
+        if (to - from <= THRESHOLD) {
+            return countRange();
+        }
+        int mid = (from + to) >>> 1;
+        CoOccurrenceTask left = new CoOccurrenceTask(baskets, from, mid);
+        left.fork();
+        Counts right = new CoOccurrenceTask(baskets, mid, to).compute();
+        return left.join().merge(right);
+    }
+
+    private Counts countRange() {
+        Counts counts = new Counts(1024);
+        for (int b = from; b < to; b++) {
+            long[] items = baskets.get(b);
+            for (int i = 0; i < items.length; i++) {
+                counts.items.addTo(items[i], 1);
+                for (int j = i + 1; j < items.length; j++) {
+                    counts.pairs.addTo(pairKey(items[i], items[j]), 1);
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 篮子内展品已升序排列，较小ID放高32位
+     */
+    static long pairKey(long smaller, long larger) {
+        return (smaller << 32) | larger;
+    }
+
+    static class Counts {
+        final LongIntHashMap items;
+        final LongIntHashMap pairs;
+
+        Counts(int expectedPairs) {
+            this.items = new LongIntHashMap(64);
+            this.pairs = new LongIntHashMap(expectedPairs);
+        }
+
+        /**
+         * 把较小的表合并进较大的表，减少重新插入
+         */
+        Counts merge(Counts other) {
+            Counts big = pairs.size() >= other.pairs.size() ? this : other;
+            Counts small = big == this ? other : this;
+            big.items.addAll(small.items);
+            big.pairs.addAll(small.pairs);
+            return big;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.design.museum.recommend;
+
+import com.design.museum.entity.ExhibitItemRelated;
+import com.design.museum.mapper.ExhibitItemRelatedMapper;
+import com.design.museum.service.IExhibitItemRelatedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 展品相似度离线计算
+ * 每晚读取近期的浏览、评论、点赞记录，按用户组成篮子，fork/join 并行统计展品两两共现次数，
+ * 以余弦相似度 co(a,b) / sqrt(n(a)·n(b)) 为每个展品保留前 K 个相似展品写入 exhibit_item_related
+ */
+@Slf4j
+@Component
+public class ItemSimilarityJob {
+
+    @Resource
+    private ExhibitItemRelatedMapper exhibitItemRelatedMapper;
+
+    @Resource
+    private IExhibitItemRelatedService exhibitItemRelatedService;
+
+    @Resource
+    private RecommendationCache recommendationCache;
+
+    /**
+     * 统计最近多少天的交互
+     */
+    @Value("${museum.recommend.lookback-days:90}")
+    private int lookbackDays;
+
+    /**
+     * 每个展品保留的相似展品数
+     */
+    @Value("${museum.recommend.top-k:20}")
+    private int topK;
+
+    /**
+     * 单个用户最多参与计算的展品数，避免个别重度用户产生平方级的共现对
+     */
+    @Value("${museum.recommend.max-basket-size:200}")
+    private int maxBasketSize;
+
+    /**
+     * 最小共现次数，过滤偶然共现
+     */
+    @Value("${museum.recommend.min-co-occurrence:2}")
+    private int minCoOccurrence;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${museum.recommend.cron:0 30 3 * * ?}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            List<long[]> baskets = loadBaskets();
+            if (baskets.isEmpty()) {
+                log.info("相似度计算：无交互数据，跳过");
+                return;
+            }
+            CoOccurrenceTask.Counts counts = ForkJoinPool.commonPool()
+                    .invoke(new CoOccurrenceTask(baskets, 0, baskets.size()));
+            List<ExhibitItemRelated> rows = topRelated(counts);
+            exhibitItemRelatedService.replaceAll(rows);
+            recommendationCache.reload();
+            log.info("相似度计算完成：用户 {} 个，共现对 {} 个，写入 {} 条，耗时 {} ms",
+                    baskets.size(), counts.pairs.size(), rows.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("相似度计算失败", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 流式读取交互记录（已按用户排序），组装每个用户的展品篮子（升序去重）
+     */
+    private List<long[]> loadBaskets() {
+        List<long[]> baskets = new ArrayList<>();
+        long[][] current = {new long[16]};
+        int[] size = {0};
+        Long[] currentUser = {null};
+        exhibitItemRelatedMapper.streamInteractions(LocalDateTime.now().minusDays(lookbackDays), context -> {
+            UserItemPair pair = context.getResultObject();
+            // 共现键把两个展品ID打包进一个 long，超出 int 范围的ID不参与计算
+            if (pair.getItemId() == null || pair.getItemId() <= 0 || pair.getItemId() > Integer.MAX_VALUE) {
+                return;
+            }
+            if (!pair.getUserId().equals(currentUser[0])) {
+                addBasket(baskets, current[0], size[0]);
+                currentUser[0] = pair.getUserId();
+                size[0] = 0;
+            }
+            if (size[0] < maxBasketSize) {
+                if (size[0] == current[0].length) {
+                    current[0] = Arrays.copyOf(current[0], size[0] * 2);
+                }
+                current[0][size[0]++] = pair.getItemId();
+            }
+        });
+        addBasket(baskets, current[0], size[0]);
+        return baskets;
+    }
+
+    private void addBasket(List<long[]> baskets, long[] items, int size) {
+        if (size < 2) {
+            // 单个展品不产生共现
+            return;
+        }
+        long[] basket = Arrays.copyOf(items, size);
+        Arrays.sort(basket);
+        int unique = 1;
+        for (int i = 1; i < basket.length; i++) {
+            if (basket[i] != basket[unique - 1]) {
+                basket[unique++] = basket[i];
+            }
+        }
+        if (unique >= 2) {
+            baskets.add(unique == basket.length ? basket : Arrays.copyOf(basket, unique));
+        }
+    }
+
+    /**
+     * 计算余弦相似度并为每个展品保留前 K 个
+     */
+    private List<ExhibitItemRelated> topRelated(CoOccurrenceTask.Counts counts) {
+        Map<Long, PriorityQueue<Candidate>> heaps = new HashMap<>();
+        counts.pairs.forEach((key, co) -> {
+            if (co < minCoOccurrence) {
+                return;
+            }
+            long a = key >>> 32;
+            long b = key & 0xFFFFFFFFL;
+            double score = co / Math.sqrt((double) counts.items.get(a) * counts.items.get(b));
+            offer(heaps, a, b, score);
+            offer(heaps, b, a, score);
+        });
+
+        List<ExhibitItemRelated> rows = new ArrayList<>();
+        heaps.forEach((itemId, heap) -> {
+            List<Candidate> sorted = new ArrayList<>(heap);
+            sorted.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed());
+            for (int i = 0; i < sorted.size(); i++) {
+                rows.add(new ExhibitItemRelated()
+                        .setItemId(itemId)
+                        .setRelatedItemId(sorted.get(i).itemId)
+                        .setScore((float) sorted.get(i).score)
+                        .setRankNo(i + 1));
+            }
+        });
+        return rows;
+    }
+
+    private void offer(Map<Long, PriorityQueue<Candidate>> heaps, long itemId, long relatedId, double score) {
+        PriorityQueue<Candidate> heap = heaps.computeIfAbsent(itemId,
+                id -> new PriorityQueue<>(Comparator.comparingDouble((Candidate c) -> c.score)));
+        if (heap.size() < topK) {
+            heap.add(new Candidate(relatedId, score));
+        } else if (heap.peek().score < score) {
+            heap.poll();
+            heap.add(new Candidate(relatedId, score));
+        }
+    }
+
+    private static class Candidate {
+        private final long itemId;
+        private final double score;
+
+        private Candidate(long itemId, double score) {
+            this.itemId = itemId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.design.museum.recommend;
+
+/**
+ * long -> int 开放寻址哈希表（线性探测）
+ * 避免 HashMap&lt;Long, Integer&gt; 的装箱与节点开销，用于共现计数这类数百万条目的场景；非线程安全
+ */
+public class LongIntHashMap {
+
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+
+    private int[] values;
+
+    private int size;
+
+    private int mask;
+
+    /**
+     * 键 0 作为空槽标记，单独存放
+     */
+    private boolean hasZeroKey;
+
+    private int zeroValue;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 累加，键不存在时视为 0
+     *
+     * @return 累加后的值
+     */
+    public int addTo(long key, int delta) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue += delta;
+            return zeroValue;
+        }
+        int index = slot(key);
+        if (keys[index] == EMPTY) {
+            keys[index] = key;
+            values[index] = delta;
+            if (++size > (mask + 1) >> 1) {
+                rehash();
+            }
+            return delta;
+        }
+        values[index] += delta;
+        return values[index];
+    }
+
+    /**
+     * @return 键不存在时返回 0
+     */
+    public int get(long key) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : 0;
+        }
+        int index = slot(key);
+        return keys[index] == EMPTY ? 0 : values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 将另一个表的计数累加到本表
+     */
+    public void addAll(LongIntHashMap other) {
+        other.forEach(this::addTo);
+    }
+
+    public void forEach(Consumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(EMPTY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * 返回键所在槽位，或应插入的空槽位
+     */
+    private int slot(long key) {
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new int[oldValues.length << 1];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = slot(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * 打散高低位，避免打包键（高32位+低32位）的规律分布造成聚集
+     */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(long key, int value);
+    }
+}
@@ -0,0 +1,194 @@
+package com.design.museum.recommend;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.design.museum.entity.ExhibitItem;
+import com.design.museum.entity.ExhibitItemRelated;
+import com.design.museum.entity.UserEvent;
+import com.design.museum.mapper.ExhibitItemRelatedMapper;
+import com.design.museum.mapper.UserEventMapper;
+import com.design.museum.popularity.PopularityEngine;
+import com.design.museum.service.IExhibitItemService;
+import com.design.museum.vo.ExhibitItemVO;
+import com.design.museum.vo.TrendingItemVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 展品推荐缓存
+ * 相似关系表整体加载到内存（每个展品前 K 个，体量很小），离线任务完成后整体替换；
+ * 展品信息与“猜你喜欢”结果按 TTL 缓存，请求线程不做相似度计算
+ */
+@Slf4j
+@Component
+public class RecommendationCache {
+
+    @Resource
+    private ExhibitItemRelatedMapper exhibitItemRelatedMapper;
+
+    @Resource
+    private UserEventMapper userEventMapper;
+
+    @Resource
+    private IExhibitItemService exhibitItemService;
+
+    @Resource
+    private PopularityEngine popularityEngine;
+
+    /**
+     * “猜你喜欢”参考的最近浏览数
+     */
+    @Value("${museum.recommend.recent-views:20}")
+    private int recentViews;
+
+    @Value("${museum.recommend.item-cache-seconds:60}")
+    private long itemCacheSeconds;
+
+    @Value("${museum.recommend.for-you-cache-seconds:600}")
+    private long forYouCacheSeconds;
+
+    /**
+     * 展品ID -> 相似展品（按相似度降序）
+     */
+    private volatile Map<Long, List<ExhibitItemRelated>> related = Map.of();
+
+    private LRUCache<Long, ExhibitItem> itemCache;
+
+    private LRUCache<Long, List<Long>> forYouCache;
+
+    @PostConstruct
+    public void init() {
+        itemCache = CacheUtil.newLRUCache(5000, itemCacheSeconds * 1000);
+        forYouCache = CacheUtil.newLRUCache(10000, forYouCacheSeconds * 1000);
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("相似关系加载失败，推荐暂不可用", e);
+        }
+    }
+
+    /**
+     * 重新加载相似关系
+     */
+    public void reload() {
+        List<ExhibitItemRelated> rows = exhibitItemRelatedMapper.selectList(null);
+        Map<Long, List<ExhibitItemRelated>> map = rows.stream()
+                .sorted(Comparator.comparing(ExhibitItemRelated::getRankNo))
+                .collect(Collectors.groupingBy(ExhibitItemRelated::getItemId, HashMap::new, Collectors.toList()));
+        related = map;
+        forYouCache.clear();
+        log.info("相似关系已加载：{} 个展品", map.size());
+    }
+
+    /**
+     * 相似展品
+     *
+     * @param itemId    展品ID
+     * @param limit     条数
+     * @param imageSize 图片尺寸
+     * @return 相似展品（只含当前可见的展品）
+     */
+    public List<ExhibitItemVO> getRelated(Long itemId, int limit, String imageSize) {
+        List<Long> ids = related.getOrDefault(itemId, List.of()).stream()
+                .map(ExhibitItemRelated::getRelatedItemId)
+                .collect(Collectors.toList());
+        return toVOs(ids, limit, imageSize);
+    }
+
+    /**
+     * 猜你喜欢：汇总最近浏览展品的相似展品，排除已浏览过的；无足迹或无相似数据时退回热门展品
+     *
+     * @param userId    用户ID
+     * @param limit     条数
+     * @param imageSize 图片尺寸
+     * @return 推荐展品
+     */
+    public List<ExhibitItemVO> getForYou(Long userId, int limit, String imageSize) {
+        List<Long> ids = forYouCache.get(userId, false, () -> computeForYou(userId));
+        if (ids.isEmpty()) {
+            return popularityEngine.getTrending(limit, imageSize).stream()
+                    .map(TrendingItemVO::getItem)
+                    .collect(Collectors.toList());
+        }
+        return toVOs(ids, limit, imageSize);
+    }
+
+    private List<Long> computeForYou(Long userId) {
+        List<Long> recent = userEventMapper.selectList(new LambdaQueryWrapper<UserEvent>()
+                        .select(UserEvent::getItemId)
+                        .eq(UserEvent::getUserId, userId)
+                        .eq(UserEvent::getDeleted, 0)
+                        .orderByDesc(UserEvent::getId)
+                        .last("LIMIT " + recentViews))
+                .stream().map(UserEvent::getItemId).collect(Collectors.toList());
+        Set<Long> seen = new LinkedHashSet<>(recent);
+
+        // 越近的浏览权重越高
+        Map<Long, Double> scores = new HashMap<>();
+        int position = 0;
+        for (Long itemId : seen) {
+            double recency = 1.0 / (1 + position++);
+            for (ExhibitItemRelated r : related.getOrDefault(itemId, List.of())) {
+                if (!seen.contains(r.getRelatedItemId())) {
+                    scores.merge(r.getRelatedItemId(), r.getScore() * recency, Double::sum);
+                }
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 按顺序转换为VO，跳过已下架或不在展示期的展品
+     */
+    private List<ExhibitItemVO> toVOs(List<Long> ids, int limit, String imageSize) {
+        Map<Long, ExhibitItem> items = getItems(ids);
+        List<ExhibitItemVO> result = new ArrayList<>(limit);
+        for (Long id : ids) {
+            ExhibitItem item = items.get(id);
+            if (item != null && exhibitItemService.isDisplayable(item)) {
+                result.add(exhibitItemService.toExhibitItemVO(item, imageSize));
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, ExhibitItem> getItems(Collection<Long> ids) {
+        Map<Long, ExhibitItem> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            ExhibitItem item = itemCache.get(id, false);
+            if (item != null) {
+                result.put(id, item);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (ExhibitItem item : exhibitItemService.listByIds(missing)) {
+                itemCache.put(item.getId(), item);
+                result.put(item.getId(), item);
+            }
+        }
+        return result;
+    }
+}
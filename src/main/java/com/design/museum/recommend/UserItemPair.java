@@ -0,0 +1,14 @@
+package com.design.museum.recommend;
+
+import lombok.Data;
+
+/**
+ * 用户-展品交互（浏览、评论、点赞去重后的结果行）
+ */
+@Data
+public class UserItemPair {
+
+    private Long userId;
+
+    private Long itemId;
+}
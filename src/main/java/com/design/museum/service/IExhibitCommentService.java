@@ -2,6 +2,7 @@ package com.design.museum.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.cache.CacheValidator;
 import com.design.museum.dto.CommentAddRequest;
 import com.design.museum.entity.ExhibitComment;
 import com.design.museum.vo.CommentVO;
@@ -42,6 +43,14 @@ public interface IExhibitCommentService extends IService<ExhibitComment> {
      */
     Page<CommentVO> listComments(Long itemId, long current, long size, Long userId);
 
+    /**
+     * 展品评论列表的缓存校验信息（HTTP ETag），评论与点赞任一变化都会改变
+     *
+     * @param itemId 展品ID
+     * @return 行数与最近更新时间
+     */
+    CacheValidator getCommentsValidator(Long itemId);
+
     /**
      * 管理员分页查询评论（支持按展品ID/名称搜索）
      *
@@ -0,0 +1,21 @@
+package com.design.museum.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.entity.ExhibitItemRelated;
+
+import java.util.List;
+
+/**
+ * <p>
+ *  展品相似关系服务类
+ * </p>
+ */
+public interface IExhibitItemRelatedService extends IService<ExhibitItemRelated> {
+
+    /**
+     * 整体替换相似关系（同一事务内清空并写入，读取方不会看到半成品）
+     *
+     * @param rows 新的相似关系
+     */
+    void replaceAll(List<ExhibitItemRelated> rows);
+}
@@ -2,12 +2,15 @@ package com.design.museum.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.cache.CacheValidator;
 import com.design.museum.dto.ExhibitItemAddRequest;
 import com.design.museum.dto.ExhibitItemQueryRequest;
 import com.design.museum.dto.ExhibitItemUpdateRequest;
 import com.design.museum.entity.ExhibitItem;
 import com.design.museum.vo.ExhibitItemVO;
 
+import java.time.LocalDateTime;
+
 /**
  * 展品服务类
  */
@@ -70,6 +73,47 @@ public interface IExhibitItemService extends IService<ExhibitItem> {
      */
     ExhibitItemVO getExhibitItemVO(Long id);
 
+    /**
+     * 根据ID获取展品详情（用户端），展示图替换为指定尺寸的衍生图
+     *
+     * @param id        展品ID
+     * @param imageSize 图片尺寸：thumb/list/detail，为空返回原图
+     * @return 展品VO
+     */
+    ExhibitItemVO getExhibitItemVO(Long id, String imageSize);
+
+    /**
+     * 用户端展品列表的缓存校验信息（HTTP ETag）
+     *
+     * @return 展示中的展品数与最近更新时间
+     */
+    CacheValidator getCatalogValidator();
+
+    /**
+     * 展品更新时间（HTTP ETag）
+     *
+     * @param id 展品ID
+     * @return 更新时间，展品不存在时返回 null
+     */
+    LocalDateTime getUpdatedAt(Long id);
+
+    /**
+     * 展品实体转VO（不查库），展示图替换为指定尺寸的衍生图
+     *
+     * @param exhibitItem 展品实体
+     * @param imageSize   图片尺寸：thumb/list/detail，为空返回原图
+     * @return 展品VO
+     */
+    ExhibitItemVO toExhibitItemVO(ExhibitItem exhibitItem, String imageSize);
+
+    /**
+     * 展品当前是否对用户可见（上架且在展示期内）
+     *
+     * @param exhibitItem 展品实体
+     * @return 是否可见
+     */
+    boolean isDisplayable(ExhibitItem exhibitItem);
+
     /**
      * 根据ID获取展品实体
      *
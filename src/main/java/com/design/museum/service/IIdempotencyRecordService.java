@@ -0,0 +1,61 @@
+package com.design.museum.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.entity.IdempotencyRecord;
+
+/**
+ * <p>
+ *  幂等请求记录服务类
+ * </p>
+ */
+public interface IIdempotencyRecordService extends IService<IdempotencyRecord> {
+
+    /**
+     * 占用幂等键
+     *
+     * @param userId      用户ID
+     * @param scope       接口范围
+     * @param idemKey     幂等键
+     * @param requestHash 请求参数摘要
+     * @return null 表示占用成功，可以执行业务；否则返回已存在的记录（处理中或已完成）
+     */
+    IdempotencyRecord acquire(Long userId, String scope, String idemKey, String requestHash);
+
+    /**
+     * 查询已完成的记录（先查内存缓存）
+     *
+     * @param userId  用户ID
+     * @param scope   接口范围
+     * @param idemKey 幂等键
+     * @return 已完成的记录，不存在或未完成时返回 null
+     */
+    IdempotencyRecord findCompleted(Long userId, String scope, String idemKey);
+
+    /**
+     * 保存响应并标记完成
+     *
+     * @param userId          用户ID
+     * @param scope           接口范围
+     * @param idemKey         幂等键
+     * @param responseCode    响应码
+     * @param responseMessage 响应信息
+     * @param responseData    响应数据（JSON）
+     */
+    void complete(Long userId, String scope, String idemKey, int responseCode, String responseMessage, String responseData);
+
+    /**
+     * 释放幂等键（业务失败时调用，客户端可用同一个键重试）
+     *
+     * @param userId  用户ID
+     * @param scope   接口范围
+     * @param idemKey 幂等键
+     */
+    void release(Long userId, String scope, String idemKey);
+
+    /**
+     * 删除过期记录
+     *
+     * @return 删除数量
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,110 @@
+package com.design.museum.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.entity.MediaJob;
+import com.design.museum.enums.MediaJobStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ *  媒体处理任务服务类
+ * </p>
+ */
+public interface IMediaJobService extends IService<MediaJob> {
+
+    /**
+     * 创建转码任务
+     *
+     * @param sourceObject 源文件对象名
+     * @param sourceUrl    源文件访问地址
+     * @param sourcePath   源文件本地暂存路径（可空）
+     * @return 任务
+     */
+    MediaJob enqueue(String sourceObject, String sourceUrl, String sourcePath);
+
+    /**
+     * 查询排队中的任务（按创建顺序）
+     *
+     * @param limit 数量上限
+     * @return 任务列表
+     */
+    List<MediaJob> listPending(int limit);
+
+    /**
+     * 领取任务：仅当任务仍为排队中时更新为处理中，多节点下只有一个节点能领取成功
+     *
+     * @param id     任务ID
+     * @param worker 处理节点标识
+     * @return 是否领取成功
+     */
+    boolean claim(Long id, String worker);
+
+    /**
+     * 更新进度（同时刷新心跳）
+     *
+     * @param id       任务ID
+     * @param worker   处理节点标识
+     * @param progress 进度 0-100
+     */
+    void updateProgress(Long id, String worker, int progress);
+
+    /**
+     * 刷新心跳：仅更新仍由本节点处理中的任务
+     *
+     * @param ids    任务ID
+     * @param worker 处理节点标识
+     * @return 刷新的任务数
+     */
+    int heartbeat(Collection<Long> ids, String worker);
+
+    /**
+     * 标记任务完成，仅当任务仍由本节点处理中时生效
+     *
+     * @param id        任务ID
+     * @param worker    处理节点标识
+     * @param hlsUrl    HLS 主播放列表地址
+     * @param posterUrl 封面帧地址
+     * @return 是否生效（false 表示已因心跳超时被重新排队或由其他节点领取）
+     */
+    boolean markSuccess(Long id, String worker, String hlsUrl, String posterUrl);
+
+    /**
+     * 标记任务失败，未达到最大尝试次数时重新排队；仅当任务仍由本节点处理中时生效
+     *
+     * @param job         任务
+     * @param worker      处理节点标识
+     * @param errorMsg    失败原因
+     * @param maxAttempts 最大尝试次数
+     * @return 任务的新状态（FAILED 或 PENDING），未生效时返回 null
+     */
+    MediaJobStatusEnum markFailed(MediaJob job, String worker, String errorMsg, int maxAttempts);
+
+    /**
+     * 将心跳超时且已用尽尝试次数的处理中任务标记为失败
+     *
+     * @param heartbeatBefore 心跳早于该时间视为失联
+     * @param maxAttempts     最大尝试次数
+     * @return 本次标记失败的任务
+     */
+    List<MediaJob> failExhausted(LocalDateTime heartbeatBefore, int maxAttempts);
+
+    /**
+     * 将心跳超时、尚未用尽尝试次数的处理中任务重新排队
+     *
+     * @param heartbeatBefore 心跳早于该时间视为失联
+     * @param maxAttempts     最大尝试次数
+     * @return 重新排队的任务数
+     */
+    int requeueStale(LocalDateTime heartbeatBefore, int maxAttempts);
+
+    /**
+     * 根据源文件地址查询最近一次任务
+     *
+     * @param sourceUrl 源文件访问地址
+     * @return 任务，不存在返回 null
+     */
+    MediaJob getLatestBySource(String sourceUrl);
+}
@@ -0,0 +1,59 @@
+package com.design.museum.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.dto.UploadInitRequest;
+import com.design.museum.entity.UploadSession;
+import com.design.museum.vo.UploadSessionVO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>
+ *  分片上传服务类
+ * </p>
+ */
+public interface IUploadSessionService extends IService<UploadSession> {
+
+    /**
+     * 初始化分片上传
+     *
+     * @param request   初始化请求
+     * @param creatorId 发起人(管理员ID)
+     * @return 上传会话（包含分片大小与分片数）
+     */
+    UploadSessionVO initUpload(UploadInitRequest request, Long creatorId) throws IOException;
+
+    /**
+     * 上传第 N 个分片，重复上传同一分片会覆盖
+     *
+     * @param uploadId      上传ID
+     * @param partNumber    分片序号（从1开始）
+     * @param in            分片数据
+     * @param contentLength 分片大小（字节）
+     */
+    void uploadPart(String uploadId, int partNumber, InputStream in, long contentLength) throws IOException;
+
+    /**
+     * 查询上传状态（断点续传时获取缺失分片）
+     *
+     * @param uploadId 上传ID
+     * @return 上传会话
+     */
+    UploadSessionVO getUploadStatus(String uploadId);
+
+    /**
+     * 完成上传：校验分片齐全后在后台写入存储，客户端轮询状态获取最终地址
+     *
+     * @param uploadId 上传ID
+     * @return 上传会话
+     */
+    UploadSessionVO completeUpload(String uploadId);
+
+    /**
+     * 取消上传并删除暂存文件
+     *
+     * @param uploadId 上传ID
+     */
+    void abortUpload(String uploadId);
+}
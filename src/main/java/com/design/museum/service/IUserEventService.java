@@ -1,7 +1,9 @@
 package com.design.museum.service;
 
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.design.museum.entity.UserEvent;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.vo.UserEventVO;
 
 /**
  * <p>
@@ -13,4 +15,13 @@ import com.baomidou.mybatisplus.extension.service.IService;
  */
 public interface IUserEventService extends IService<UserEvent> {
 
+    /**
+     * 分页查询我的足迹（按浏览时间倒序）
+     *
+     * @param page   页码
+     * @param size   每页大小
+     * @param userId 用户ID
+     * @return 足迹分页数据
+     */
+    IPage<UserEventVO> getMyFootprints(int page, int size, Long userId);
 }
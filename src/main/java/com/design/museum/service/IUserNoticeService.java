@@ -5,6 +5,8 @@ import com.design.museum.entity.UserNotice;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.design.museum.vo.UserNoticeVO;
 
+import java.time.LocalDateTime;
+
 /**
  * <p>
  *  服务类
@@ -43,4 +45,31 @@ public interface IUserNoticeService extends IService<UserNotice> {
      * @return 更新的消息数量
      */
     boolean markAllAsRead(Long userId);
+
+    /**
+     * 获取未读消息数（内存计数）
+     *
+     * @param userId 用户ID
+     * @return 未读消息数
+     */
+    int getUnreadCount(Long userId);
+
+    /**
+     * 分批清理过期消息：已读或已删除、且创建时间早于截止时间
+     *
+     * @param before 截止时间
+     * @param limit  批大小
+     * @return 本批删除数量
+     */
+    int purgeReadNotices(LocalDateTime before, int limit);
+
+    /**
+     * 发送站内消息
+     *
+     * @param userId   接收用户ID
+     * @param category 分类：1预约 2公告 3活动 4讲座 5系统
+     * @param title    标题
+     * @param content  内容
+     */
+    void sendNotice(Long userId, Integer category, String title, String content);
 }
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.design.museum.dto.*;
 import com.design.museum.entity.VisitBooking;
+import com.design.museum.entity.VisitWaitlist;
 import com.design.museum.vo.BookingBatchResultVO;
 import com.design.museum.vo.BookingVO;
 
@@ -29,6 +30,14 @@ public interface IVisitBookingService extends IService<VisitBooking> {
      */
     BookingVO createBooking(BookingCreateRequest request, Long userId);
 
+    /**
+     * 候补转正：认领候补记录并为其创建预约
+     *
+     * @param entry 候补记录
+     * @return 预约信息
+     */
+    BookingVO promoteFromWaitlist(VisitWaitlist entry);
+
     /**
      * 批量创建预约（团体预约）
      *
@@ -101,4 +110,13 @@ public interface IVisitBookingService extends IService<VisitBooking> {
      * @return 更新数量
      */
     Integer updateExpiredBookings();
+
+    /**
+     * 归档一批已结束的历史预约：复制到归档表后从热表删除（单个事务）
+     *
+     * @param cutoff 参观日期早于该日期的预约才会归档
+     * @param limit  批大小
+     * @return 本批归档数量，小于批大小表示已无可归档数据
+     */
+    int archiveBookings(LocalDate cutoff, int limit);
 }
@@ -54,6 +54,13 @@ public interface IVisitDayQuotaService extends IService<VisitDayQuota> {
      */
     void increaseQuota(LocalDate visitDate);
 
+    /**
+     * 分时段预约前校验整日配额：日期须存在且可预约
+     * 整日容量由"各时段容量之和不超过整日容量"保证（创建时段、修改容量时校验），预约时不再加锁统计
+     * @param visitDate 参观日期
+     */
+    void checkDayOpen(LocalDate visitDate);
+
     /**
      * 检查配额是否充足
      * @param visitDate 参观日期
@@ -0,0 +1,82 @@
+package com.design.museum.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.entity.VisitTimeslot;
+import com.design.museum.vo.TimeslotVO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>
+ *  参观时段服务类
+ * </p>
+ */
+public interface IVisitTimeslotService extends IService<VisitTimeslot> {
+
+    /**
+     * 按配置的开放时间为指定日期生成时段
+     * @param visitDate 参观日期
+     * @return 是否创建成功（已存在时返回 false）
+     */
+    boolean createSlotsForDate(LocalDate visitDate);
+
+    /**
+     * 为未来N天生成时段
+     * @param days 天数
+     * @return 创建成功的天数
+     */
+    int createFutureSlots(int days);
+
+    /**
+     * 逻辑删除过去日期的时段
+     */
+    void deletePastSlots();
+
+    /**
+     * 指定日期是否已开放分时段预约
+     * @param visitDate 参观日期
+     * @return 是否存在时段
+     */
+    boolean hasSlots(LocalDate visitDate);
+
+    /**
+     * 查询指定日期的时段及余量
+     * @param visitDate 参观日期
+     * @return 时段列表（按开始时间升序）
+     */
+    List<TimeslotVO> listSlots(LocalDate visitDate);
+
+    /**
+     * 占用时段名额（单行条件更新，名额不足时抛出异常）
+     * @param timeslotId 时段ID
+     * @param visitDate  预约日期，用于校验时段归属
+     * @param count      占用数量
+     * @return 时段信息
+     */
+    VisitTimeslot reserve(Long timeslotId, LocalDate visitDate, int count);
+
+    /**
+     * 释放时段名额（取消、改签时使用）
+     * @param timeslotId 时段ID
+     * @param count      释放数量
+     */
+    void release(Long timeslotId, int count);
+
+    /**
+     * 判断当前时间是否处于时段的入馆窗口内
+     * @param slot 时段
+     * @param now  当前时间
+     * @return 是否允许入馆
+     */
+    boolean isInEntryWindow(VisitTimeslot slot, LocalDateTime now);
+
+    /**
+     * 修改时段容量
+     * @param timeslotId 时段ID
+     * @param capacity   新容量
+     * @return 是否更新成功
+     */
+    boolean updateCapacity(Long timeslotId, Integer capacity);
+}
@@ -0,0 +1,75 @@
+package com.design.museum.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.design.museum.dto.WaitlistJoinRequest;
+import com.design.museum.entity.VisitWaitlist;
+import com.design.museum.vo.WaitlistVO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * <p>
+ *  预约候补服务类
+ * </p>
+ */
+public interface IVisitWaitlistService extends IService<VisitWaitlist> {
+
+    /**
+     * 加入候补队列（仅在名额已满时允许）
+     *
+     * @param request 加入候补请求
+     * @param userId  用户ID
+     * @return 候补信息（含排位）
+     */
+    WaitlistVO join(WaitlistJoinRequest request, Long userId);
+
+    /**
+     * 取消候补
+     *
+     * @param id     候补ID
+     * @param userId 用户ID
+     * @return 候补信息
+     */
+    WaitlistVO cancel(Long id, Long userId);
+
+    /**
+     * 我的候补列表
+     *
+     * @param userId 用户ID
+     * @return 候补列表（候补中的记录带排位）
+     */
+    List<WaitlistVO> myWaitlist(Long userId);
+
+    /**
+     * 按先到先得顺序取出候补中的记录
+     *
+     * @param visitDate  参观日期
+     * @param timeslotId 参观时段ID（为空表示整日）
+     * @param limit      数量上限
+     * @return 候补列表
+     */
+    List<VisitWaitlist> listWaiting(LocalDate visitDate, Long timeslotId, int limit);
+
+    /**
+     * 查询今天及以后仍有人候补的日期/时段
+     *
+     * @return 每个分组取一条代表记录
+     */
+    List<VisitWaitlist> listWaitingGroups();
+
+    /**
+     * 标记转正失败（如已有预约、实名信息缺失）
+     *
+     * @param id     候补ID
+     * @param reason 失败原因
+     */
+    void markFailed(Long id, String reason);
+
+    /**
+     * 将过去日期仍在候补中的记录标记为已过期
+     *
+     * @return 过期数量
+     */
+    int expirePast();
+}
@@ -1,6 +1,8 @@
 package com.design.museum.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.design.museum.annotation.ConnectionBudget;
+import com.design.museum.annotation.ReadReplica;
 import com.design.museum.entity.ExhibitComment;
 import com.design.museum.entity.SysUser;
 import com.design.museum.entity.VisitBooking;
@@ -36,6 +38,8 @@ public class DashboardServiceImpl implements IDashboardService {
     private SysUserMapper sysUserMapper;
 
     @Override
+    @ReadReplica
+    @ConnectionBudget("admin-read")
     public DashboardVO getDashboard() {
         DashboardVO dashboard = new DashboardVO();
 
@@ -1,15 +1,19 @@
 package com.design.museum.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.design.museum.entity.ExhibitComment;
 import com.design.museum.entity.ExhibitCommentLike;
 import com.design.museum.enums.CommentLikeStatusEnum;
 import com.design.museum.exception.BusinessException;
 import com.design.museum.mapper.ExhibitCommentLikeMapper;
+import com.design.museum.mapper.ExhibitCommentMapper;
+import com.design.museum.popularity.PopularityEngine;
 import com.design.museum.service.IExhibitCommentLikeService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
 import java.time.LocalDateTime;
 
 /**
@@ -24,6 +28,12 @@ import java.time.LocalDateTime;
 @Service
 public class ExhibitCommentLikeServiceImpl extends ServiceImpl<ExhibitCommentLikeMapper, ExhibitCommentLike> implements IExhibitCommentLikeService {
 
+    @Resource
+    private ExhibitCommentMapper exhibitCommentMapper;
+
+    @Resource
+    private PopularityEngine popularityEngine;
+
     @Override
     public boolean likeComment(Long commentId, Long userId) {
         // 检查是否已存在点赞记录
@@ -40,7 +50,11 @@ public class ExhibitCommentLikeServiceImpl extends ServiceImpl<ExhibitCommentLik
             // 如果状态是取消点赞，更新为点赞
             existLike.setStatus(CommentLikeStatusEnum.LIKE.getValue());
             existLike.setUpdatedAt(LocalDateTime.now());
-            return this.updateById(existLike);
+            boolean updated = this.updateById(existLike);
+            if (updated) {
+                recordLikePopularity(commentId);
+            }
+            return updated;
         }
 
         // 不存在记录，创建新点赞记录
@@ -51,7 +65,11 @@ public class ExhibitCommentLikeServiceImpl extends ServiceImpl<ExhibitCommentLik
         like.setCreatedAt(LocalDateTime.now());
         like.setUpdatedAt(LocalDateTime.now());
 
-        return this.save(like);
+        boolean saved = this.save(like);
+        if (saved) {
+            recordLikePopularity(commentId);
+        }
+        return saved;
     }
 
     @Override
@@ -95,4 +113,14 @@ public class ExhibitCommentLikeServiceImpl extends ServiceImpl<ExhibitCommentLik
 
         return this.count(queryWrapper) > 0;
     }
+
+    /**
+     * 评论点赞计入所属展品的热度
+     */
+    private void recordLikePopularity(Long commentId) {
+        ExhibitComment comment = exhibitCommentMapper.selectById(commentId);
+        if (comment != null) {
+            popularityEngine.recordLike(comment.getItemId());
+        }
+    }
 }
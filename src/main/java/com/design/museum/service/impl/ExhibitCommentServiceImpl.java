@@ -3,12 +3,17 @@ package com.design.museum.service.impl;
 import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.design.museum.annotation.ConnectionBudget;
+import com.design.museum.annotation.ReadReplica;
+import com.design.museum.cache.CacheValidator;
+import com.design.museum.cache.SysUserCache;
 import com.design.museum.dto.CommentAddRequest;
 import com.design.museum.entity.ExhibitComment;
 import com.design.museum.entity.ExhibitItem;
 import com.design.museum.entity.SysUser;
 import com.design.museum.enums.CommentStatusEnum;
 import com.design.museum.mapper.ExhibitCommentMapper;
+import com.design.museum.popularity.PopularityEngine;
 import com.design.museum.service.IExhibitCommentLikeService;
 import com.design.museum.service.IExhibitCommentService;
 import com.design.museum.service.IExhibitItemService;
@@ -28,11 +33,13 @@ import java.util.stream.Collectors;
 @Service
 public class ExhibitCommentServiceImpl extends ServiceImpl<ExhibitCommentMapper, ExhibitComment> implements IExhibitCommentService {
     @Resource
-    private SysUserServiceImpl sysUserService;
+    private SysUserCache sysUserCache;
     @Resource
     private IExhibitItemService exhibitItemService;
     @Resource
     private IExhibitCommentLikeService exhibitCommentLikeService;
+    @Resource
+    private PopularityEngine popularityEngine;
     @Override
     public Long addComment(Long itemId, CommentAddRequest request, Long userId) {
         ExhibitComment comment = new ExhibitComment();
@@ -42,6 +49,7 @@ public class ExhibitCommentServiceImpl extends ServiceImpl<ExhibitCommentMapper,
         comment.setCreatedAt(LocalDateTime.now());
 
         this.save(comment);
+        popularityEngine.recordComment(itemId);
         return comment.getId();
     }
 
@@ -71,6 +79,11 @@ public class ExhibitCommentServiceImpl extends ServiceImpl<ExhibitCommentMapper,
                         .eq("status", CommentStatusEnum.DISPLAY.getValue())
                         .orderByDesc("created_at")
         );
+        // 批量获取评论用户（走用户缓存）
+        Map<Long, SysUser> userMap = sysUserCache.getAll(page.getRecords().stream()
+                .map(ExhibitComment::getUserId)
+                .collect(Collectors.toSet()));
+
         // 转换为VO
         Page<CommentVO> voPage = new Page<>(current, size, page.getTotal());
         List<CommentVO> voList = new ArrayList<>();
@@ -78,9 +91,11 @@ public class ExhibitCommentServiceImpl extends ServiceImpl<ExhibitCommentMapper,
         for (ExhibitComment comment : page.getRecords()) {
             CommentVO vo = new CommentVO();
             BeanUtil.copyProperties(comment, vo);
-            SysUser user = sysUserService.getById(comment.getUserId());
-            vo.setUsername(user.getUsername());
-            vo.setAvatarURL(user.getAvatarUrl());
+            SysUser user = userMap.get(comment.getUserId());
+            if (user != null) {
+                vo.setUsername(user.getUsername());
+                vo.setAvatarURL(user.getAvatarUrl());
+            }
 
             // 查询点赞数
             Long likeCount = exhibitCommentLikeService.getLikeCount(comment.getId());
@@ -101,6 +116,13 @@ public class ExhibitCommentServiceImpl extends ServiceImpl<ExhibitCommentMapper,
     }
 
     @Override
+    public CacheValidator getCommentsValidator(Long itemId) {
+        return this.baseMapper.selectItemValidator(itemId);
+    }
+
+    @Override
+    @ReadReplica
+    @ConnectionBudget("admin-read")
     public Page<CommentVO> adminListComments(Long itemId, String itemName, long current, long size, Integer status, Long userId) {
         // 构建查询条件
         QueryWrapper<ExhibitComment> queryWrapper = new QueryWrapper<>();
@@ -137,7 +159,7 @@ public class ExhibitCommentServiceImpl extends ServiceImpl<ExhibitCommentMapper,
                 .collect(Collectors.toList());
         Map<Long, String> userMap = new HashMap<>();
         if (!userIds.isEmpty()) {
-            userMap = sysUserService.listByIds(userIds).stream()
+            userMap = sysUserCache.getAll(userIds).values().stream()
                     .collect(Collectors.toMap(
                             SysUser::getId,
                             u -> Optional.ofNullable(u.getUsername()).orElse(""),
@@ -0,0 +1,33 @@
+package com.design.museum.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.entity.ExhibitItemRelated;
+import com.design.museum.mapper.ExhibitItemRelatedMapper;
+import com.design.museum.service.IExhibitItemRelatedService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * <p>
+ *  展品相似关系服务实现类
+ * </p>
+ */
+@Service
+public class ExhibitItemRelatedServiceImpl extends ServiceImpl<ExhibitItemRelatedMapper, ExhibitItemRelated> implements IExhibitItemRelatedService {
+
+    /**
+     * 单条 INSERT 的行数
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void replaceAll(List<ExhibitItemRelated> rows) {
+        this.getBaseMapper().deleteAll();
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            this.getBaseMapper().insertBatch(rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+}
@@ -1,20 +1,31 @@
 package com.design.museum.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.design.museum.annotation.ReadReplica;
+import com.design.museum.cache.CacheValidator;
 import com.design.museum.dto.ExhibitItemAddRequest;
 import com.design.museum.dto.ExhibitItemQueryRequest;
 import com.design.museum.dto.ExhibitItemUpdateRequest;
 import com.design.museum.entity.ExhibitItem;
+import com.design.museum.entity.MediaJob;
 import com.design.museum.enums.ExhibitItemStatusEnum;
+import com.design.museum.enums.ImageSizeEnum;
+import com.design.museum.enums.MediaJobStatusEnum;
 import com.design.museum.mapper.ExhibitItemMapper;
 import com.design.museum.service.IExhibitItemService;
+import com.design.museum.service.IMediaJobService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.storage.ImageDerivativePipeline;
+import com.design.museum.storage.ImageDerivatives;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /**
  * 展品服务实现类
@@ -22,11 +33,19 @@ import java.time.LocalDateTime;
 @Service
 public class ExhibitItemServiceImpl extends ServiceImpl<ExhibitItemMapper, ExhibitItem> implements IExhibitItemService {
 
+    @Resource
+    private ImageDerivativePipeline imageDerivativePipeline;
+
+    @Resource
+    private IMediaJobService mediaJobService;
+
     @Override
     public Long addExhibitItem(ExhibitItemAddRequest request, Long creatorId) {
         ExhibitItem exhibitItem = new ExhibitItem();
         BeanUtil.copyProperties(request, exhibitItem);
         exhibitItem.setCreatorId(creatorId);
+        applyTranscode(exhibitItem, exhibitItem);
+        applyDerivatives(exhibitItem, imageDerivativePipeline.resolve(displayUrl(exhibitItem)));
         exhibitItem.setCreatedAt(LocalDateTime.now());
         exhibitItem.setUpdatedAt(LocalDateTime.now());
 
@@ -40,7 +59,34 @@ public class ExhibitItemServiceImpl extends ServiceImpl<ExhibitItemMapper, Exhib
         BeanUtil.copyProperties(request, exhibitItem);
         exhibitItem.setUpdatedAt(LocalDateTime.now());
 
-        return this.updateById(exhibitItem);
+        ExhibitItem existing = this.getById(request.getId());
+        if (existing == null) {
+            return false;
+        }
+        ExhibitItem merged = BeanUtil.copyProperties(existing, ExhibitItem.class);
+        BeanUtil.copyProperties(request, merged, CopyOptions.create().ignoreNullValue());
+        UpdateWrapper<ExhibitItem> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.eq("id", request.getId());
+
+        // 展示图发生变化：关联新图已生成的衍生图，尚未生成则清空，由流水线完成后回写
+        String displayUrl = displayUrl(merged);
+        if (!Objects.equals(displayUrl, displayUrl(existing))) {
+            ImageDerivatives derivatives = imageDerivativePipeline.resolve(displayUrl);
+            updateWrapper.set("thumb_url", derivatives == null ? null : derivatives.getThumbUrl());
+            updateWrapper.set("list_url", derivatives == null ? null : derivatives.getListUrl());
+            updateWrapper.set("detail_url", derivatives == null ? null : derivatives.getDetailUrl());
+        }
+
+        // 视频源发生变化：同步新视频的转码状态
+        if (!Objects.equals(merged.getMediaUrl(), existing.getMediaUrl())
+                || !Objects.equals(merged.getMediaKind(), existing.getMediaKind())) {
+            ExhibitItem transcode = new ExhibitItem();
+            applyTranscode(transcode, merged);
+            updateWrapper.set("transcode_status", transcode.getTranscodeStatus());
+            updateWrapper.set("transcode_progress", transcode.getTranscodeProgress());
+            updateWrapper.set("hls_url", transcode.getHlsUrl());
+        }
+        return this.update(exhibitItem, updateWrapper);
     }
 
     @Override
@@ -83,6 +129,7 @@ public class ExhibitItemServiceImpl extends ServiceImpl<ExhibitItemMapper, Exhib
     }
 
     @Override
+    @ReadReplica
     public Page<com.design.museum.vo.ExhibitItemVO> userListExhibitItems(ExhibitItemQueryRequest request) {
         long current = request.getCurrent();
         long size = request.getSize();
@@ -110,7 +157,7 @@ public class ExhibitItemServiceImpl extends ServiceImpl<ExhibitItemMapper, Exhib
         // 转换为VO
         Page<com.design.museum.vo.ExhibitItemVO> voPage = new Page<>(current, size, page.getTotal());
         voPage.setRecords(page.getRecords().stream()
-                .map(this::entityToVO)
+                .map(item -> entityToVO(item, ImageSizeEnum.fromText(request.getImageSize())))
                 .collect(java.util.stream.Collectors.toList()));
 
         return voPage;
@@ -118,11 +165,41 @@ public class ExhibitItemServiceImpl extends ServiceImpl<ExhibitItemMapper, Exhib
 
     @Override
     public com.design.museum.vo.ExhibitItemVO getExhibitItemVO(Long id) {
+        return getExhibitItemVO(id, null);
+    }
+
+    @Override
+    public com.design.museum.vo.ExhibitItemVO getExhibitItemVO(Long id, String imageSize) {
         ExhibitItem exhibitItem = this.getById(id);
         if (exhibitItem == null) {
             return null;
         }
-        return entityToVO(exhibitItem);
+        return entityToVO(exhibitItem, ImageSizeEnum.fromText(imageSize));
+    }
+
+    @Override
+    @ReadReplica
+    public CacheValidator getCatalogValidator() {
+        // 与列表查询走同一数据源，校验信息与列表内容的新旧一致
+        return this.baseMapper.selectCatalogValidator(ExhibitItemStatusEnum.DISPLAY.getValue(), LocalDateTime.now());
+    }
+
+    @Override
+    public LocalDateTime getUpdatedAt(Long id) {
+        return this.baseMapper.selectUpdatedAt(id);
+    }
+
+    @Override
+    public com.design.museum.vo.ExhibitItemVO toExhibitItemVO(ExhibitItem exhibitItem, String imageSize) {
+        return entityToVO(exhibitItem, ImageSizeEnum.fromText(imageSize));
+    }
+
+    @Override
+    public boolean isDisplayable(ExhibitItem exhibitItem) {
+        LocalDateTime now = LocalDateTime.now();
+        return Objects.equals(exhibitItem.getStatus(), ExhibitItemStatusEnum.DISPLAY.getValue())
+                && (exhibitItem.getStartTime() == null || !exhibitItem.getStartTime().isAfter(now))
+                && (exhibitItem.getEndTime() == null || !exhibitItem.getEndTime().isBefore(now));
     }
 
     @Override
@@ -131,11 +208,77 @@ public class ExhibitItemServiceImpl extends ServiceImpl<ExhibitItemMapper, Exhib
     }
 
     /**
-     * 实体转VO
+     * 实体转VO，指定尺寸且衍生图已生成时替换展示图（图片替换mediaUrl，视频替换封面）
      */
-    private com.design.museum.vo.ExhibitItemVO entityToVO(ExhibitItem exhibitItem) {
+    private com.design.museum.vo.ExhibitItemVO entityToVO(ExhibitItem exhibitItem, ImageSizeEnum imageSize) {
         com.design.museum.vo.ExhibitItemVO vo = new com.design.museum.vo.ExhibitItemVO();
         BeanUtil.copyProperties(exhibitItem, vo);
+        if ("VIDEO".equals(exhibitItem.getMediaKind())) {
+            boolean hlsReady = Objects.equals(exhibitItem.getTranscodeStatus(), MediaJobStatusEnum.SUCCESS.getValue())
+                    && exhibitItem.getHlsUrl() != null;
+            vo.setPlayUrl(hlsReady ? exhibitItem.getHlsUrl() : exhibitItem.getMediaUrl());
+            vo.setStreamType(hlsReady ? "HLS" : "FILE");
+        }
+        String sizedUrl = sizedUrl(exhibitItem, imageSize);
+        if (sizedUrl != null) {
+            if ("VIDEO".equals(exhibitItem.getMediaKind())) {
+                vo.setCoverUrl(sizedUrl);
+            } else {
+                vo.setMediaUrl(sizedUrl);
+            }
+        }
         return vo;
     }
+
+    private String sizedUrl(ExhibitItem exhibitItem, ImageSizeEnum imageSize) {
+        if (imageSize == null) {
+            return null;
+        }
+        switch (imageSize) {
+            case THUMB:
+                return exhibitItem.getThumbUrl();
+            case LIST:
+                return exhibitItem.getListUrl();
+            default:
+                return exhibitItem.getDetailUrl();
+        }
+    }
+
+    /**
+     * 展示图：图片展品为媒体本身，视频展品为封面
+     */
+    private String displayUrl(ExhibitItem exhibitItem) {
+        return "VIDEO".equals(exhibitItem.getMediaKind()) ? exhibitItem.getCoverUrl() : exhibitItem.getMediaUrl();
+    }
+
+    /**
+     * 按视频源关联转码任务的状态，转码尚未开始时仍可正常播放原始文件
+     *
+     * @param target 待写入转码字段的实体
+     * @param source 提供媒体类型与地址的实体
+     */
+    private void applyTranscode(ExhibitItem target, ExhibitItem source) {
+        MediaJob job = "VIDEO".equals(source.getMediaKind()) ? mediaJobService.getLatestBySource(source.getMediaUrl()) : null;
+        if (job == null) {
+            target.setTranscodeStatus(null);
+            target.setTranscodeProgress(null);
+            target.setHlsUrl(null);
+            return;
+        }
+        target.setTranscodeStatus(job.getStatus());
+        target.setTranscodeProgress(job.getProgress());
+        target.setHlsUrl(job.getHlsUrl());
+        if (target.getCoverUrl() == null && source.getCoverUrl() == null && job.getPosterUrl() != null) {
+            target.setCoverUrl(job.getPosterUrl());
+        }
+    }
+
+    private void applyDerivatives(ExhibitItem exhibitItem, ImageDerivatives derivatives) {
+        if (derivatives == null) {
+            return;
+        }
+        exhibitItem.setThumbUrl(derivatives.getThumbUrl());
+        exhibitItem.setListUrl(derivatives.getListUrl());
+        exhibitItem.setDetailUrl(derivatives.getDetailUrl());
+    }
 }
\ No newline at end of file
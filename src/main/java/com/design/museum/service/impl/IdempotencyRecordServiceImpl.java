@@ -0,0 +1,165 @@
+package com.design.museum.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.entity.IdempotencyRecord;
+import com.design.museum.enums.IdempotencyStatusEnum;
+import com.design.museum.mapper.IdempotencyRecordMapper;
+import com.design.museum.service.IIdempotencyRecordService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ *  幂等请求记录服务实现类
+ * </p>
+ * 已完成的响应先查内存 LRU，未命中再查库；占用键依赖唯一索引，并发的相同请求只有一个能插入成功。
+ */
+@Service
+@Slf4j
+public class IdempotencyRecordServiceImpl extends ServiceImpl<IdempotencyRecordMapper, IdempotencyRecord> implements IIdempotencyRecordService {
+
+    @Value("${museum.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${museum.idempotency.ttl-hours:24}")
+    private int ttlHours;
+
+    @Value("${museum.idempotency.processing-timeout-seconds:60}")
+    private int processingTimeoutSeconds;
+
+    private LRUCache<String, IdempotencyRecord> completed;
+
+    @PostConstruct
+    public void init() {
+        completed = CacheUtil.newLRUCache(cacheSize, ttlHours * 3600_000L);
+    }
+
+    @Override
+    public IdempotencyRecord acquire(Long userId, String scope, String idemKey, String requestHash) {
+        IdempotencyRecord cached = completed.get(cacheKey(userId, scope, idemKey));
+        if (cached != null) {
+            return cached;
+        }
+
+        // DATETIME 列会舍入毫秒，先去掉纳秒，保证后续按 updated_at 条件更新时能匹配
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setScope(scope);
+        record.setIdemKey(idemKey);
+        record.setRequestHash(requestHash);
+        record.setStatus(IdempotencyStatusEnum.PROCESSING.getValue());
+        record.setCreatedAt(now);
+        record.setUpdatedAt(now);
+        record.setExpireAt(now.plusHours(ttlHours));
+        try {
+            this.save(record);
+            return null;
+        } catch (DuplicateKeyException e) {
+            // 键已存在，按已有记录处理
+        }
+
+        IdempotencyRecord existing = this.getOne(keyQuery(userId, scope, idemKey));
+        if (existing == null) {
+            // 刚被释放或清理，交由客户端重试
+            return record;
+        }
+        if (existing.getStatus() == IdempotencyStatusEnum.COMPLETED.getValue()) {
+            completed.put(cacheKey(userId, scope, idemKey), existing);
+            return existing;
+        }
+        // 处理中超时（进程异常退出未释放），接管该键
+        if (existing.getUpdatedAt().isBefore(now.minusSeconds(processingTimeoutSeconds))) {
+            boolean takenOver = this.update(new LambdaUpdateWrapper<IdempotencyRecord>()
+                    .eq(IdempotencyRecord::getId, existing.getId())
+                    .eq(IdempotencyRecord::getStatus, IdempotencyStatusEnum.PROCESSING.getValue())
+                    .eq(IdempotencyRecord::getUpdatedAt, existing.getUpdatedAt())
+                    .set(IdempotencyRecord::getRequestHash, requestHash)
+                    .set(IdempotencyRecord::getUpdatedAt, now));
+            if (takenOver) {
+                log.warn("接管超时的幂等键：userId={}, scope={}, key={}", userId, scope, idemKey);
+                return null;
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public IdempotencyRecord findCompleted(Long userId, String scope, String idemKey) {
+        String cacheKey = cacheKey(userId, scope, idemKey);
+        IdempotencyRecord cached = completed.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        IdempotencyRecord record = this.getOne(keyQuery(userId, scope, idemKey)
+                .eq(IdempotencyRecord::getStatus, IdempotencyStatusEnum.COMPLETED.getValue()));
+        if (record != null) {
+            completed.put(cacheKey, record);
+        }
+        return record;
+    }
+
+    @Override
+    public void complete(Long userId, String scope, String idemKey, int responseCode, String responseMessage, String responseData) {
+        LocalDateTime now = LocalDateTime.now();
+        this.update(new LambdaUpdateWrapper<IdempotencyRecord>()
+                .eq(IdempotencyRecord::getUserId, userId)
+                .eq(IdempotencyRecord::getScope, scope)
+                .eq(IdempotencyRecord::getIdemKey, idemKey)
+                .set(IdempotencyRecord::getStatus, IdempotencyStatusEnum.COMPLETED.getValue())
+                .set(IdempotencyRecord::getResponseCode, responseCode)
+                .set(IdempotencyRecord::getResponseMessage, responseMessage)
+                .set(IdempotencyRecord::getResponseData, responseData)
+                .set(IdempotencyRecord::getUpdatedAt, now));
+
+        IdempotencyRecord record = this.getOne(keyQuery(userId, scope, idemKey));
+        if (record != null) {
+            completed.put(cacheKey(userId, scope, idemKey), record);
+        }
+    }
+
+    @Override
+    public void release(Long userId, String scope, String idemKey) {
+        this.remove(keyQuery(userId, scope, idemKey)
+                .eq(IdempotencyRecord::getStatus, IdempotencyStatusEnum.PROCESSING.getValue()));
+    }
+
+    @Override
+    @Scheduled(cron = "${museum.idempotency.purge-cron:0 15 * * * ?}")
+    public int purgeExpired() {
+        int total = 0;
+        int removed;
+        // 分批删除，避免一次删除大量行长时间持锁
+        do {
+            removed = this.baseMapper.delete(new LambdaQueryWrapper<IdempotencyRecord>()
+                    .lt(IdempotencyRecord::getExpireAt, LocalDateTime.now())
+                    .last("LIMIT 1000"));
+            total += removed;
+        } while (removed == 1000);
+        if (total > 0) {
+            log.info("清理过期幂等记录 {} 条", total);
+        }
+        return total;
+    }
+
+    private LambdaQueryWrapper<IdempotencyRecord> keyQuery(Long userId, String scope, String idemKey) {
+        return new LambdaQueryWrapper<IdempotencyRecord>()
+                .eq(IdempotencyRecord::getUserId, userId)
+                .eq(IdempotencyRecord::getScope, scope)
+                .eq(IdempotencyRecord::getIdemKey, idemKey);
+    }
+
+    private String cacheKey(Long userId, String scope, String idemKey) {
+        return userId + "|" + scope + "|" + idemKey;
+    }
+}
@@ -0,0 +1,170 @@
+package com.design.museum.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.entity.MediaJob;
+import com.design.museum.enums.MediaJobStatusEnum;
+import com.design.museum.mapper.MediaJobMapper;
+import com.design.museum.service.IMediaJobService;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ *  媒体处理任务服务实现类
+ * </p>
+ */
+@Service
+public class MediaJobServiceImpl extends ServiceImpl<MediaJobMapper, MediaJob> implements IMediaJobService {
+
+    /**
+     * 失败原因最大长度
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Override
+    public MediaJob enqueue(String sourceObject, String sourceUrl, String sourcePath) {
+        LocalDateTime now = LocalDateTime.now();
+        MediaJob job = new MediaJob()
+                .setSourceObject(sourceObject)
+                .setSourceUrl(sourceUrl)
+                .setSourcePath(sourcePath)
+                .setStatus(MediaJobStatusEnum.PENDING.getValue())
+                .setProgress(0)
+                .setAttempts(0)
+                .setCreatedAt(now)
+                .setUpdatedAt(now);
+        this.save(job);
+        return job;
+    }
+
+    @Override
+    public List<MediaJob> listPending(int limit) {
+        return this.list(new LambdaQueryWrapper<MediaJob>()
+                .eq(MediaJob::getStatus, MediaJobStatusEnum.PENDING.getValue())
+                .orderByAsc(MediaJob::getId)
+                .last("LIMIT " + limit));
+    }
+
+    @Override
+    public boolean claim(Long id, String worker) {
+        LocalDateTime now = LocalDateTime.now();
+        return this.update(new LambdaUpdateWrapper<MediaJob>()
+                .eq(MediaJob::getId, id)
+                .eq(MediaJob::getStatus, MediaJobStatusEnum.PENDING.getValue())
+                .set(MediaJob::getStatus, MediaJobStatusEnum.RUNNING.getValue())
+                .set(MediaJob::getWorker, worker)
+                .set(MediaJob::getProgress, 0)
+                .set(MediaJob::getStartedAt, now)
+                .set(MediaJob::getUpdatedAt, now)
+                .setSql("attempts = attempts + 1"));
+    }
+
+    @Override
+    public void updateProgress(Long id, String worker, int progress) {
+        this.update(new LambdaUpdateWrapper<MediaJob>()
+                .eq(MediaJob::getId, id)
+                .eq(MediaJob::getStatus, MediaJobStatusEnum.RUNNING.getValue())
+                .eq(MediaJob::getWorker, worker)
+                .set(MediaJob::getProgress, progress)
+                .set(MediaJob::getUpdatedAt, LocalDateTime.now()));
+    }
+
+    @Override
+    public int heartbeat(Collection<Long> ids, String worker) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return this.getBaseMapper().update(null, new LambdaUpdateWrapper<MediaJob>()
+                .in(MediaJob::getId, ids)
+                .eq(MediaJob::getStatus, MediaJobStatusEnum.RUNNING.getValue())
+                .eq(MediaJob::getWorker, worker)
+                .set(MediaJob::getUpdatedAt, LocalDateTime.now()));
+    }
+
+    @Override
+    public boolean markSuccess(Long id, String worker, String hlsUrl, String posterUrl) {
+        LocalDateTime now = LocalDateTime.now();
+        return this.update(new LambdaUpdateWrapper<MediaJob>()
+                .eq(MediaJob::getId, id)
+                .eq(MediaJob::getStatus, MediaJobStatusEnum.RUNNING.getValue())
+                .eq(MediaJob::getWorker, worker)
+                .set(MediaJob::getStatus, MediaJobStatusEnum.SUCCESS.getValue())
+                .set(MediaJob::getProgress, 100)
+                .set(MediaJob::getHlsUrl, hlsUrl)
+                .set(MediaJob::getPosterUrl, posterUrl)
+                .set(MediaJob::getErrorMsg, null)
+                .set(MediaJob::getFinishedAt, now)
+                .set(MediaJob::getUpdatedAt, now));
+    }
+
+    @Override
+    public MediaJobStatusEnum markFailed(MediaJob job, String worker, String errorMsg, int maxAttempts) {
+        // claim 时已累加尝试次数，job 为领取前读取的快照
+        MediaJobStatusEnum status = job.getAttempts() + 1 >= maxAttempts ? MediaJobStatusEnum.FAILED : MediaJobStatusEnum.PENDING;
+        LocalDateTime now = LocalDateTime.now();
+        boolean updated = this.update(new LambdaUpdateWrapper<MediaJob>()
+                .eq(MediaJob::getId, job.getId())
+                .eq(MediaJob::getStatus, MediaJobStatusEnum.RUNNING.getValue())
+                .eq(MediaJob::getWorker, worker)
+                .set(MediaJob::getStatus, status.getValue())
+                .set(MediaJob::getErrorMsg, StrUtil.maxLength(errorMsg, MAX_ERROR_LENGTH))
+                .set(status == MediaJobStatusEnum.FAILED, MediaJob::getFinishedAt, now)
+                .set(MediaJob::getUpdatedAt, now));
+        return updated ? status : null;
+    }
+
+    @Override
+    public List<MediaJob> failExhausted(LocalDateTime heartbeatBefore, int maxAttempts) {
+        // claim 时已累加尝试次数，失联的这次已计入 attempts
+        List<MediaJob> exhausted = this.list(new LambdaQueryWrapper<MediaJob>()
+                .eq(MediaJob::getStatus, MediaJobStatusEnum.RUNNING.getValue())
+                .lt(MediaJob::getUpdatedAt, heartbeatBefore)
+                .ge(MediaJob::getAttempts, maxAttempts));
+        List<MediaJob> failed = new ArrayList<>(exhausted.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (MediaJob job : exhausted) {
+            // 带上心跳条件，查询之后恢复心跳的任务不受影响
+            boolean updated = this.update(new LambdaUpdateWrapper<MediaJob>()
+                    .eq(MediaJob::getId, job.getId())
+                    .eq(MediaJob::getStatus, MediaJobStatusEnum.RUNNING.getValue())
+                    .lt(MediaJob::getUpdatedAt, heartbeatBefore)
+                    .set(MediaJob::getStatus, MediaJobStatusEnum.FAILED.getValue())
+                    .set(MediaJob::getErrorMsg, "处理节点心跳超时，已达最大尝试次数")
+                    .set(MediaJob::getFinishedAt, now)
+                    .set(MediaJob::getUpdatedAt, now));
+            if (updated) {
+                failed.add(job);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public int requeueStale(LocalDateTime heartbeatBefore, int maxAttempts) {
+        return this.getBaseMapper().update(null, new LambdaUpdateWrapper<MediaJob>()
+                .eq(MediaJob::getStatus, MediaJobStatusEnum.RUNNING.getValue())
+                .lt(MediaJob::getUpdatedAt, heartbeatBefore)
+                .lt(MediaJob::getAttempts, maxAttempts)
+                .set(MediaJob::getStatus, MediaJobStatusEnum.PENDING.getValue())
+                .set(MediaJob::getErrorMsg, "处理节点心跳超时，重新排队")
+                .set(MediaJob::getUpdatedAt, LocalDateTime.now()));
+    }
+
+    @Override
+    public MediaJob getLatestBySource(String sourceUrl) {
+        if (StrUtil.isBlank(sourceUrl)) {
+            return null;
+        }
+        return this.getOne(new LambdaQueryWrapper<MediaJob>()
+                .eq(MediaJob::getSourceUrl, sourceUrl)
+                .orderByDesc(MediaJob::getId)
+                .last("LIMIT 1"), false);
+    }
+}
@@ -6,6 +6,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.cache.SysUserCache;
 import com.design.museum.enums.UserRoleEnum;
 import com.design.museum.enums.UserStatusEnum;
 import com.design.museum.common.ErrorCode;
@@ -22,6 +23,9 @@ import cn.hutool.crypto.digest.DigestUtil;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
+import java.io.Serializable;
+
 /**
  * <p>
  *  服务实现类
@@ -32,6 +36,10 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> implements ISysUserService {
+
+    @Resource
+    private SysUserCache sysUserCache;
+
     @Override
     public LoginResponse login(LoginRequest loginRequest) {
         String username = loginRequest.getUsername();
@@ -103,6 +111,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
 
         // 保存用户
         this.save(user);
+        sysUserCache.invalidate(user.getId());
         return user.getId();
     }
 
@@ -147,6 +156,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             throw new BusinessException(ErrorCode.USER_NOT_EXIST, "用户不存在");
         }
         user.setStatus(UserStatusEnum.BANED.getValue());
+        // updateById 会同时失效用户缓存
         return updateById(user);
     }
 
@@ -157,7 +167,25 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             throw new BusinessException(ErrorCode.USER_NOT_EXIST, "用户不存在");
         }
         user.setStatus(UserStatusEnum.NORMAL.getValue());
+        // updateById 会同时失效用户缓存
         boolean result = updateById(user);
         return result;
     }
+
+    /**
+     * 资料修改等按ID更新后失效用户缓存
+     */
+    @Override
+    public boolean updateById(SysUser entity) {
+        boolean result = super.updateById(entity);
+        sysUserCache.invalidate(entity.getId());
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        sysUserCache.invalidate(Long.valueOf(id.toString()));
+        return result;
+    }
 }
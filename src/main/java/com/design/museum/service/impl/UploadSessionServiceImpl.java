@@ -0,0 +1,460 @@
+package com.design.museum.service.impl;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.common.ErrorCode;
+import com.design.museum.config.AliyunOssConfig;
+import com.design.museum.dto.UploadInitRequest;
+import com.design.museum.entity.UploadPart;
+import com.design.museum.entity.UploadSession;
+import com.design.museum.enums.UploadSessionStatusEnum;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.exception.ThrowUtils;
+import com.design.museum.mapper.UploadPartMapper;
+import com.design.museum.mapper.UploadSessionMapper;
+import com.design.museum.media.MediaJobWorker;
+import com.design.museum.service.IUploadSessionService;
+import com.design.museum.storage.ImageDerivativePipeline;
+import com.design.museum.storage.StorageService;
+import com.design.museum.storage.StoredObject;
+import com.design.museum.vo.UploadSessionVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ *  分片上传服务实现类
+ *  分片从请求流直接写入存储服务（OSS 或共享的本地存储目录），不经过容器 multipart 缓冲，
+ *  分片与合并可以落在不同节点；接收状态持久化在 upload_session / upload_part 表中，连接中断后查询缺失分片补传即可。
+ *  每次上传分片使用新的对象名，登记分片与进入合并都锁定会话行，进入合并后分片列表不再变化
+ * </p>
+ */
+@Slf4j
+@Service
+public class UploadSessionServiceImpl extends ServiceImpl<UploadSessionMapper, UploadSession> implements IUploadSessionService {
+
+    private static final long MB = 1024L * 1024;
+
+    /**
+     * 合并中超过该时长视为节点中断，允许重新完成
+     */
+    private static final long COMPLETING_TIMEOUT_MINUTES = 60;
+
+    /**
+     * 分片对象名前缀
+     */
+    private static final String PART_DIR = "upload-parts/";
+
+    @Resource
+    private AliyunOssConfig aliyunOssConfig;
+
+    @Resource
+    private StorageService storageService;
+
+    @Resource
+    private ImageDerivativePipeline imageDerivativePipeline;
+
+    @Resource
+    private MediaJobWorker mediaJobWorker;
+
+    @Resource
+    private UploadPartMapper uploadPartMapper;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${museum.upload.staging-dir:./upload-staging}")
+    private String stagingDirConfig;
+
+    @Value("${museum.upload.part-size-mb:5}")
+    private long partSizeMb;
+
+    @Value("${museum.upload.max-file-size-mb:2048}")
+    private long maxFileSizeMb;
+
+    @Value("${museum.upload.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    @Value("${museum.upload.complete-threads:2}")
+    private int completeThreads;
+
+    private Path stagingDir;
+
+    private ExecutorService completeExecutor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        stagingDir = Paths.get(stagingDirConfig).toAbsolutePath().normalize();
+        Files.createDirectories(stagingDir);
+        AtomicInteger counter = new AtomicInteger();
+        completeExecutor = Executors.newFixedThreadPool(completeThreads, r -> {
+            Thread thread = new Thread(r, "upload-complete-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        completeExecutor.shutdown();
+    }
+
+    @Override
+    public UploadSessionVO initUpload(UploadInitRequest request, Long creatorId) throws IOException {
+        ThrowUtils.throwIf(request.getTotalSize() > maxFileSizeMb * MB, ErrorCode.PARAMS_ERROR,
+                "文件大小不能超过" + maxFileSizeMb + "MB");
+        ThrowUtils.throwIf(!request.getFileName().contains("."), ErrorCode.PARAMS_ERROR, "文件名缺少扩展名");
+        String mediaKind;
+        try {
+            mediaKind = aliyunOssConfig.getMediaKind(request.getContentType());
+        } catch (RuntimeException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, e.getMessage());
+        }
+
+        long partSize = partSizeMb * MB;
+        int partCount = (int) ((request.getTotalSize() + partSize - 1) / partSize);
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = new UploadSession()
+                .setId(uploadId)
+                .setCreatorId(creatorId)
+                .setFileName(request.getFileName())
+                .setContentType(request.getContentType())
+                .setMediaKind(mediaKind)
+                .setTotalSize(request.getTotalSize())
+                .setPartSize(partSize)
+                .setPartCount(partCount)
+                .setReceivedParts(StrUtil.repeat('0', partCount))
+                .setStagingPath(PART_DIR + uploadId + "/")
+                .setStatus(UploadSessionStatusEnum.UPLOADING.getValue())
+                .setCreatedAt(now)
+                .setUpdatedAt(now)
+                .setExpiresAt(now.plusHours(sessionTtlHours));
+        this.save(session);
+        return toVO(session);
+    }
+
+    @Override
+    public void uploadPart(String uploadId, int partNumber, InputStream in, long contentLength) throws IOException {
+        UploadSession session = requireSession(uploadId);
+        ThrowUtils.throwIf(!acceptsParts(session), ErrorCode.UPLOAD_STATUS_ERROR);
+        ThrowUtils.throwIf(partNumber < 1 || partNumber > session.getPartCount(), ErrorCode.UPLOAD_PART_INVALID);
+        long position = (partNumber - 1) * session.getPartSize();
+        long expected = Math.min(session.getPartSize(), session.getTotalSize() - position);
+        ThrowUtils.throwIf(contentLength != expected, ErrorCode.UPLOAD_PART_INVALID,
+                "第" + partNumber + "片大小应为" + expected + "字节");
+
+        // 每次上传写入新对象，同一分片并发重传或合并中途重传都不会覆盖正在读取的数据
+        String objectName = session.getStagingPath() + partNumber + "-" + UUID.randomUUID().toString().replace("-", "");
+        CountingInputStream counting = new CountingInputStream(in);
+        try {
+            storageService.putObject(objectName, counting, expected, "application/octet-stream");
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(objectName);
+            throw e;
+        }
+        if (counting.count != expected) {
+            deleteQuietly(objectName);
+            throw new BusinessException(ErrorCode.UPLOAD_PART_INVALID, "第" + partNumber + "片数据不完整，请重新上传");
+        }
+
+        String replaced;
+        try {
+            replaced = transactionTemplate.execute(status -> registerPart(uploadId, partNumber, objectName, expected));
+        } catch (RuntimeException e) {
+            deleteQuietly(objectName);
+            throw e;
+        }
+        if (replaced != null) {
+            deleteQuietly(replaced);
+        }
+    }
+
+    /**
+     * 登记分片并更新位图（在事务内锁定会话行，与进入合并互斥）
+     *
+     * @return 被替换的旧分片对象名，没有时返回 null
+     */
+    private String registerPart(String uploadId, int partNumber, String objectName, long size) {
+        UploadSession locked = this.getOne(new LambdaQueryWrapper<UploadSession>()
+                .eq(UploadSession::getId, uploadId)
+                .last("FOR UPDATE"));
+        ThrowUtils.throwIf(locked == null, ErrorCode.UPLOAD_SESSION_NOT_FOUND);
+        // 已进入合并的会话不再接收
+        ThrowUtils.throwIf(!acceptsParts(locked), ErrorCode.UPLOAD_STATUS_ERROR);
+
+        UploadPart previous = uploadPartMapper.selectOne(new LambdaQueryWrapper<UploadPart>()
+                .eq(UploadPart::getUploadId, uploadId)
+                .eq(UploadPart::getPartNumber, partNumber));
+        uploadPartMapper.upsert(new UploadPart()
+                .setUploadId(uploadId)
+                .setPartNumber(partNumber)
+                .setObjectName(objectName)
+                .setSize(size)
+                .setCreatedAt(LocalDateTime.now()));
+        this.update(new LambdaUpdateWrapper<UploadSession>()
+                .eq(UploadSession::getId, uploadId)
+                .setSql("received_parts = CONCAT(LEFT(received_parts, " + (partNumber - 1) + "), '1', SUBSTRING(received_parts, " + (partNumber + 1) + "))")
+                .set(UploadSession::getUpdatedAt, LocalDateTime.now()));
+        return previous != null ? previous.getObjectName() : null;
+    }
+
+    @Override
+    public UploadSessionVO getUploadStatus(String uploadId) {
+        return toVO(requireSession(uploadId));
+    }
+
+    @Override
+    public UploadSessionVO completeUpload(String uploadId) {
+        UploadSession session = requireSession(uploadId);
+        if (session.getStatus() == UploadSessionStatusEnum.COMPLETING.getValue()
+                || session.getStatus() == UploadSessionStatusEnum.COMPLETED.getValue()) {
+            // 重复调用直接返回当前状态
+            return toVO(session);
+        }
+        ThrowUtils.throwIf(session.getReceivedParts().indexOf('0') >= 0, ErrorCode.UPLOAD_INCOMPLETE);
+
+        // 锁定会话行后再进入合并：正在登记的分片要么已提交（计入合并），要么之后看到合并中而被拒绝
+        Boolean claimed = transactionTemplate.execute(status -> {
+            UploadSession locked = this.getOne(new LambdaQueryWrapper<UploadSession>()
+                    .eq(UploadSession::getId, uploadId)
+                    .last("FOR UPDATE"));
+            if (locked == null || !acceptsParts(locked) || locked.getReceivedParts().indexOf('0') >= 0) {
+                return false;
+            }
+            return this.update(new LambdaUpdateWrapper<UploadSession>()
+                    .eq(UploadSession::getId, uploadId)
+                    .set(UploadSession::getStatus, UploadSessionStatusEnum.COMPLETING.getValue())
+                    .set(UploadSession::getErrorMsg, null)
+                    .set(UploadSession::getUpdatedAt, LocalDateTime.now()));
+        });
+        if (Boolean.TRUE.equals(claimed)) {
+            completeExecutor.execute(() -> finish(session));
+        }
+        return toVO(requireSession(uploadId));
+    }
+
+    @Override
+    public void abortUpload(String uploadId) {
+        List<String> objectNames = transactionTemplate.execute(status -> {
+            UploadSession locked = this.getOne(new LambdaQueryWrapper<UploadSession>()
+                    .eq(UploadSession::getId, uploadId)
+                    .last("FOR UPDATE"));
+            ThrowUtils.throwIf(locked == null, ErrorCode.UPLOAD_SESSION_NOT_FOUND);
+            ThrowUtils.throwIf(locked.getStatus() == UploadSessionStatusEnum.COMPLETING.getValue(), ErrorCode.UPLOAD_STATUS_ERROR);
+            List<String> names = partObjectNames(uploadId);
+            uploadPartMapper.delete(new LambdaQueryWrapper<UploadPart>().eq(UploadPart::getUploadId, uploadId));
+            this.removeById(uploadId);
+            return names;
+        });
+        objectNames.forEach(this::deleteQuietly);
+    }
+
+    /**
+     * 清理过期未完成的会话，并释放中断的合并
+     */
+    @Scheduled(fixedDelay = 3_600_000, initialDelay = 60_000)
+    public void cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UploadSession> expired = this.list(new LambdaQueryWrapper<UploadSession>()
+                .lt(UploadSession::getExpiresAt, now)
+                .ne(UploadSession::getStatus, UploadSessionStatusEnum.COMPLETING.getValue()));
+        for (UploadSession session : expired) {
+            deleteParts(session.getId());
+            this.removeById(session.getId());
+        }
+
+        boolean released = this.update(new LambdaUpdateWrapper<UploadSession>()
+                .eq(UploadSession::getStatus, UploadSessionStatusEnum.COMPLETING.getValue())
+                .lt(UploadSession::getUpdatedAt, now.minusMinutes(COMPLETING_TIMEOUT_MINUTES))
+                .set(UploadSession::getStatus, UploadSessionStatusEnum.FAILED.getValue())
+                .set(UploadSession::getErrorMsg, "合并中断，请重新完成上传")
+                .set(UploadSession::getUpdatedAt, now));
+        if (!expired.isEmpty() || released) {
+            log.info("分片上传清理：删除过期会话 {} 个", expired.size());
+        }
+    }
+
+    /**
+     * 后台写入存储并触发图片衍生/视频转码
+     */
+    private void finish(UploadSession session) {
+        Path staging = stagingDir.resolve(session.getId() + ".part");
+        String fileName = session.getFileName();
+        String objectName = aliyunOssConfig.getDirByMediaKind(session.getMediaKind())
+                + UUID.randomUUID() + fileName.substring(fileName.lastIndexOf('.'));
+        try {
+            assemble(session, staging);
+            String url = storageService.putObject(objectName, staging, session.getContentType());
+            if ("IMAGE".equals(session.getMediaKind())) {
+                imageDerivativePipeline.submit(imageDerivativePipeline.stage(staging), objectName, url);
+                Files.deleteIfExists(staging);
+            } else {
+                mediaJobWorker.enqueue(mediaJobWorker.adopt(staging), new StoredObject(objectName, url));
+            }
+
+            this.update(new LambdaUpdateWrapper<UploadSession>()
+                    .eq(UploadSession::getId, session.getId())
+                    .set(UploadSession::getStatus, UploadSessionStatusEnum.COMPLETED.getValue())
+                    .set(UploadSession::getObjectName, objectName)
+                    .set(UploadSession::getUrl, url)
+                    .set(UploadSession::getUpdatedAt, LocalDateTime.now()));
+            deleteParts(session.getId());
+            log.info("分片上传完成：uploadId={}, object={}", session.getId(), objectName);
+        } catch (Exception e) {
+            log.error("分片上传合并失败：uploadId={}", session.getId(), e);
+            FileUtil.del(staging);
+            // 分片保留，失败后可以重传个别分片或直接重试合并
+            this.update(new LambdaUpdateWrapper<UploadSession>()
+                    .eq(UploadSession::getId, session.getId())
+                    .set(UploadSession::getStatus, UploadSessionStatusEnum.FAILED.getValue())
+                    .set(UploadSession::getErrorMsg, StrUtil.maxLength(e.getMessage(), 500))
+                    .set(UploadSession::getUpdatedAt, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * 按分片序号依次读取存储中的分片，拼接到本地暂存文件
+     */
+    private void assemble(UploadSession session, Path staging) throws IOException {
+        List<UploadPart> parts = uploadPartMapper.selectList(new LambdaQueryWrapper<UploadPart>()
+                .eq(UploadPart::getUploadId, session.getId())
+                .orderByAsc(UploadPart::getPartNumber));
+        if (parts.size() != session.getPartCount()) {
+            throw new IOException("分片记录数" + parts.size() + "与分片总数" + session.getPartCount() + "不一致");
+        }
+        try (OutputStream out = Files.newOutputStream(staging)) {
+            for (UploadPart part : parts) {
+                try (InputStream in = storageService.getObject(part.getObjectName())) {
+                    in.transferTo(out);
+                }
+            }
+        }
+        long size = Files.size(staging);
+        if (size != session.getTotalSize()) {
+            throw new IOException("合并后大小" + size + "与声明大小" + session.getTotalSize() + "不一致");
+        }
+    }
+
+    private List<String> partObjectNames(String uploadId) {
+        return uploadPartMapper.selectList(new LambdaQueryWrapper<UploadPart>()
+                        .select(UploadPart::getObjectName)
+                        .eq(UploadPart::getUploadId, uploadId))
+                .stream()
+                .map(UploadPart::getObjectName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 删除会话的全部分片对象及记录
+     */
+    private void deleteParts(String uploadId) {
+        partObjectNames(uploadId).forEach(this::deleteQuietly);
+        uploadPartMapper.delete(new LambdaQueryWrapper<UploadPart>().eq(UploadPart::getUploadId, uploadId));
+    }
+
+    private void deleteQuietly(String objectName) {
+        try {
+            storageService.deleteObject(objectName);
+        } catch (IOException | RuntimeException e) {
+            log.warn("删除分片对象失败：{}", objectName, e);
+        }
+    }
+
+    private static boolean acceptsParts(UploadSession session) {
+        return session.getStatus() == UploadSessionStatusEnum.UPLOADING.getValue()
+                || session.getStatus() == UploadSessionStatusEnum.FAILED.getValue();
+    }
+
+    private UploadSession requireSession(String uploadId) {
+        UploadSession session = this.getById(uploadId);
+        ThrowUtils.throwIf(session == null, ErrorCode.UPLOAD_SESSION_NOT_FOUND);
+        return session;
+    }
+
+    private UploadSessionVO toVO(UploadSession session) {
+        UploadSessionVO vo = new UploadSessionVO();
+        vo.setUploadId(session.getId());
+        vo.setFileName(session.getFileName());
+        vo.setMediaKind(session.getMediaKind());
+        vo.setTotalSize(session.getTotalSize());
+        vo.setPartSize(session.getPartSize());
+        vo.setPartCount(session.getPartCount());
+        vo.setStatus(session.getStatus());
+        vo.setUrl(session.getUrl());
+        vo.setErrorMsg(session.getErrorMsg());
+        vo.setExpiresAt(session.getExpiresAt());
+
+        List<Integer> missing = new ArrayList<>();
+        String received = session.getReceivedParts();
+        for (int i = 0; i < received.length(); i++) {
+            if (received.charAt(i) == '0') {
+                missing.add(i + 1);
+            }
+        }
+        vo.setMissingParts(missing);
+        return vo;
+    }
+
+    /**
+     * 记录实际读取字节数，用于校验分片是否完整
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.design.museum.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.design.museum.entity.ExhibitItem;
 import com.design.museum.entity.UserEvent;
 import com.design.museum.mapper.UserEventMapper;
+import com.design.museum.service.IExhibitItemService;
 import com.design.museum.service.IUserEventService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.vo.UserEventVO;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * <p>
  *  服务实现类
@@ -17,4 +29,36 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserEventServiceImpl extends ServiceImpl<UserEventMapper, UserEvent> implements IUserEventService {
 
+    @Resource
+    private IExhibitItemService exhibitItemService;
+
+    @Override
+    public IPage<UserEventVO> getMyFootprints(int page, int size, Long userId) {
+        // 按自增ID倒序即按浏览时间倒序，走 (user_id, id) 索引
+        IPage<UserEvent> eventPage = this.page(new Page<>(page, size), new LambdaQueryWrapper<UserEvent>()
+                .eq(UserEvent::getUserId, userId)
+                .eq(UserEvent::getDeleted, 0)
+                .orderByDesc(UserEvent::getId));
+
+        // 批量查询展品信息
+        Set<Long> itemIds = eventPage.getRecords().stream().map(UserEvent::getItemId).collect(Collectors.toSet());
+        Map<Long, ExhibitItem> itemMap = itemIds.isEmpty() ? Map.of()
+                : exhibitItemService.listByIds(itemIds).stream()
+                .collect(Collectors.toMap(ExhibitItem::getId, Function.identity()));
+
+        return eventPage.convert(event -> {
+            UserEventVO vo = new UserEventVO();
+            vo.setId(event.getId());
+            vo.setItemId(event.getItemId());
+            vo.setCreatedAt(event.getCreatedAt());
+            ExhibitItem item = itemMap.get(event.getItemId());
+            if (item != null) {
+                vo.setItemTitle(item.getTitle());
+                vo.setMediaKind(item.getMediaKind());
+                String display = "VIDEO".equals(item.getMediaKind()) ? item.getCoverUrl() : item.getMediaUrl();
+                vo.setThumbUrl(item.getThumbUrl() != null ? item.getThumbUrl() : display);
+            }
+            return vo;
+        });
+    }
 }
@@ -5,13 +5,21 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.design.museum.annotation.ReadReplica;
+import com.design.museum.cache.UnreadNoticeCounter;
 import com.design.museum.entity.UserNotice;
 import com.design.museum.mapper.UserNoticeMapper;
+import com.design.museum.push.NoticeCreatedEvent;
+import com.design.museum.push.NoticePushListener;
+import com.design.museum.push.PushHub;
 import com.design.museum.service.IUserNoticeService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.design.museum.vo.UserNoticeVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
 import java.time.LocalDateTime;
 
 /**
@@ -25,7 +33,23 @@ import java.time.LocalDateTime;
 @Service
 public class UserNoticeServiceImpl extends ServiceImpl<UserNoticeMapper, UserNotice> implements IUserNoticeService {
 
+    @Resource
+    private UnreadNoticeCounter unreadNoticeCounter;
+
+    @Resource
+    private PushHub pushHub;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 全部已读每批更新的条数
+     */
+    @Value("${museum.notice.mark-read-batch-size:500}")
+    private int markReadBatchSize;
+
     @Override
+    @ReadReplica
     public IPage<UserNoticeVO> getUserNotices(int page, int size, Long userId, Integer category, Integer readFlag) {
         // 构建分页对象
         Page<UserNotice> pageParam = new Page<>(page, size);
@@ -78,13 +102,52 @@ public class UserNoticeServiceImpl extends ServiceImpl<UserNoticeMapper, UserNot
 
     @Override
     public boolean markAllAsRead(Long userId) {
-        // 更新当前用户所有未读消息为已读
-        LambdaUpdateWrapper<UserNotice> wrapper = new LambdaUpdateWrapper<>();
-        wrapper.eq(UserNotice::getUserId, userId)
-                .eq(UserNotice::getReadFlag, 0)
-                .eq(UserNotice::getDeleted, 0)
-                .set(UserNotice::getReadFlag, 1);
+        // 分批更新当前用户的未读消息，每批一条短语句，避免一次锁住大量行
+        int total = 0;
+        int updated;
+        do {
+            LambdaUpdateWrapper<UserNotice> wrapper = new LambdaUpdateWrapper<>();
+            wrapper.eq(UserNotice::getUserId, userId)
+                    .eq(UserNotice::getReadFlag, 0)
+                    .eq(UserNotice::getDeleted, 0)
+                    .set(UserNotice::getReadFlag, 1)
+                    .last("LIMIT " + markReadBatchSize);
+            updated = this.baseMapper.update(null, wrapper);
+            total += updated;
+        } while (updated >= markReadBatchSize);
+
+        unreadNoticeCounter.invalidate(userId);
+        // 同步该用户其他在线页面的未读数
+        pushHub.publish(userId, NoticePushListener.EVENT_UNREAD, 0);
+        return total > 0;
+    }
 
-        return this.update(wrapper);
+    @Override
+    public int getUnreadCount(Long userId) {
+        return unreadNoticeCounter.get(userId);
+    }
+
+    @Override
+    public int purgeReadNotices(LocalDateTime before, int limit) {
+        return this.baseMapper.purgeBefore(before, limit);
+    }
+
+    @Override
+    public void sendNotice(Long userId, Integer category, String title, String content) {
+        UserNotice userNotice = new UserNotice();
+        userNotice.setUserId(userId);
+        userNotice.setCategory(category);
+        userNotice.setTitle(title);
+        userNotice.setContent(content);
+        userNotice.setReadFlag(0); // 0未读
+        userNotice.setDeleted(0);  // 0正常
+        userNotice.setCreatedAt(LocalDateTime.now());
+        this.save(userNotice);
+        unreadNoticeCounter.increment(userId);
+
+        // 事务提交后推送给在线用户
+        UserNoticeVO vo = new UserNoticeVO();
+        BeanUtil.copyProperties(userNotice, vo);
+        eventPublisher.publishEvent(new NoticeCreatedEvent(vo));
     }
 }
@@ -1,12 +1,15 @@
 package com.design.museum.service.impl;
 
-import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.annotation.ConnectionBudget;
+import com.design.museum.annotation.ReadReplica;
 import com.design.museum.aop.Notice;
 import com.design.museum.common.ErrorCode;
+import com.design.museum.context.UserContext;
 import com.design.museum.dto.BookingBatchCreateRequest;
 import com.design.museum.dto.BookingCancelRequest;
 import com.design.museum.dto.BookingCreateRequest;
@@ -14,15 +17,23 @@ import com.design.museum.dto.BookingRescheduleRequest;
 import com.design.museum.dto.BookingVerifyRequest;
 import com.design.museum.entity.SysUser;
 import com.design.museum.entity.VisitBooking;
+import com.design.museum.entity.VisitTimeslot;
+import com.design.museum.entity.VisitWaitlist;
+import com.design.museum.enums.WaitlistStatusEnum;
 import com.design.museum.exception.BusinessException;
 import com.design.museum.mapper.VisitBookingMapper;
-import com.design.museum.service.ISysUserService;
+import com.design.museum.mapper.VisitWaitlistMapper;
+import com.design.museum.quota.QuotaChangedEvent;
 import com.design.museum.service.IVisitBookingService;
 import com.design.museum.service.IVisitDayQuotaService;
+import com.design.museum.service.IVisitTimeslotService;
 import com.design.museum.vo.BookingBatchResultVO;
 import com.design.museum.vo.BookingVO;
+import com.design.museum.waitlist.QuotaReleasedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,7 +41,12 @@ import javax.annotation.Resource;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 预约服务实现类
@@ -40,15 +56,61 @@ import java.util.List;
 public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, VisitBooking> implements IVisitBookingService {
 
     @Resource
-    private ISysUserService sysUserService;
+    private UserContext userContext;
 
     @Resource
     private IVisitDayQuotaService visitDayQuotaService;
 
+    @Resource
+    private IVisitTimeslotService visitTimeslotService;
+
+    @Resource
+    private VisitWaitlistMapper visitWaitlistMapper;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     @Notice(title = "预约成功", message = "预约成功：#{#result.visitDate.toString()}，票号：#{#result.ticketCode}")
     @Transactional(rollbackFor = Exception.class)
+    @ConnectionBudget("booking-write")
     public BookingVO createBooking(BookingCreateRequest request, Long userId) {
+        return doCreateBooking(request, userId);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    @ConnectionBudget("booking-write")
+    public BookingVO promoteFromWaitlist(VisitWaitlist entry) {
+        // 1. 认领候补记录（条件更新），防止并发转正或与用户取消冲突
+        int claimed = visitWaitlistMapper.update(null, new LambdaUpdateWrapper<VisitWaitlist>()
+                .eq(VisitWaitlist::getId, entry.getId())
+                .eq(VisitWaitlist::getStatus, WaitlistStatusEnum.WAITING.getValue())
+                .set(VisitWaitlist::getStatus, WaitlistStatusEnum.PROMOTED.getValue())
+                .set(VisitWaitlist::getUpdatedAt, LocalDateTime.now()));
+        if (claimed == 0) {
+            throw new BusinessException(ErrorCode.WAITLIST_NOT_FOUND, "候补记录已处理");
+        }
+
+        // 2. 按正常预约流程创建，名额不足时抛出异常并整体回滚（认领一并撤销）
+        BookingCreateRequest request = new BookingCreateRequest();
+        request.setVisitDate(entry.getVisitDate());
+        request.setTimeslotId(entry.getTimeslotId());
+        BookingVO bookingVO = doCreateBooking(request, entry.getUserId());
+
+        // 3. 回填预约ID
+        visitWaitlistMapper.update(null, new LambdaUpdateWrapper<VisitWaitlist>()
+                .eq(VisitWaitlist::getId, entry.getId())
+                .set(VisitWaitlist::getBookingId, bookingVO.getId()));
+
+        log.info("候补转正成功：waitlistId={}, bookingId={}, userId={}", entry.getId(), bookingVO.getId(), entry.getUserId());
+        return bookingVO;
+    }
+
+    /**
+     * 创建预约（不含通知，供用户预约与候补转正共用）
+     */
+    private BookingVO doCreateBooking(BookingCreateRequest request, Long userId) {
         // 1. 校验实名信息
         checkRealName(userId);
 
@@ -60,41 +122,48 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
             throw new BusinessException(ErrorCode.BOOKING_DATE_INVALID, "预约日期不能早于今天");
         }
 
-        // 3. 检查该日期是否已有有效预约
-        QueryWrapper<VisitBooking> existQuery = new QueryWrapper<>();
-        existQuery.eq("user_id", userId)
-                .eq("visit_date", visitDate)
-                .eq("deleted", 0)
-                .in("status", 1, 3, 4); // 已预约、已改签、已核验
-        Long count = this.baseMapper.selectCount(existQuery);
-        if (count > 0) {
-            throw new BusinessException(ErrorCode.BOOKING_ALREADY_EXISTS, "该日期已有预约，无法重复预约");
+        // 3. 占用名额：分时段日期只更新时段行，未开放时段的日期仍按整日配额加锁校验
+        Long timeslotId = request.getTimeslotId();
+        VisitTimeslot slot;
+        if (timeslotId != null) {
+            visitDayQuotaService.checkDayOpen(visitDate);
+            slot = visitTimeslotService.reserve(timeslotId, visitDate, 1);
+        } else {
+            requireNoTimeslots(visitDate);
+            visitDayQuotaService.decreaseQuota(visitDate);
+            slot = null;
         }
 
-        // 4. 扣减配额（带行锁，防止超卖）
-        visitDayQuotaService.decreaseQuota(visitDate);
-
-        // 5. 生成票号（使用 UUID 去掉横线）
+        // 4. 生成票号（使用 UUID 去掉横线）
         String ticketCode = java.util.UUID.randomUUID().toString().replace("-", "");
 
-        // 6. 创建预约记录
+        // 5. 创建预约记录（唯一索引 user_id + visit_date + active_key 保证同一天只有一个有效预约，
+        //    重复时插入失败，事务回滚已占用的名额）
         VisitBooking booking = new VisitBooking();
         booking.setUserId(userId);
         booking.setVisitDate(visitDate);
+        booking.setTimeslotId(timeslotId);
         booking.setTicketCode(ticketCode);
         booking.setStatus(1); // 1已预约
         booking.setDeleted(0);
         booking.setCreatedAt(LocalDateTime.now());
         booking.setUpdatedAt(LocalDateTime.now());
 
-        this.baseMapper.insert(booking);
+        try {
+            this.baseMapper.insert(booking);
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException(ErrorCode.BOOKING_ALREADY_EXISTS, "该日期已有预约，无法重复预约");
+        }
+        cancelWaiting(userId, visitDate);
+        eventPublisher.publishEvent(new QuotaChangedEvent(visitDate));
 
-        // 7. 返回结果
-        return toVO(booking);
+        // 6. 返回结果
+        return toVO(booking, slot);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
+    @ConnectionBudget("booking-write")
     public BookingBatchResultVO createBatchBookings(BookingBatchCreateRequest request) {
         LocalDate visitDate = request.getVisitDate();
         List<Long> userIds = request.getUserIds();
@@ -110,9 +179,16 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
         }
 
         // 2. 检查配额是否足够（悲观锁）
-        // 先批量扣减配额，确保有足够的名额
-        for (int i = 0; i < userIds.size(); i++) {
-            visitDayQuotaService.decreaseQuota(visitDate);
+        // 整日预约先批量扣减配额，确保有足够的名额；分时段预约在逐个创建时占用时段名额
+        Long timeslotId = request.getTimeslotId();
+        VisitTimeslot slot = null;
+        if (timeslotId == null) {
+            requireNoTimeslots(visitDate);
+            for (int i = 0; i < userIds.size(); i++) {
+                visitDayQuotaService.decreaseQuota(visitDate);
+            }
+        } else {
+            visitDayQuotaService.checkDayOpen(visitDate);
         }
 
         // 3. 遍历用户ID列表，为每个用户创建预约
@@ -125,36 +201,36 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
                     // 3.1 校验实名信息
                     checkRealName(userId);
 
-                    // 3.2 检查该日期是否已有有效预约
-                    QueryWrapper<VisitBooking> existQuery = new QueryWrapper<>();
-                    existQuery.eq("user_id", userId)
-                            .eq("visit_date", visitDate)
-                            .eq("deleted", 0)
-                            .in("status", 1, 3, 4);
-                    Long count = this.baseMapper.selectCount(existQuery);
-                    if (count > 0) {
-                        failedUserIds.add(userId);
-                        failCount++;
-                        continue;
+                    // 3.2 占用时段名额（名额不足时该用户预约失败）
+                    if (timeslotId != null) {
+                        slot = visitTimeslotService.reserve(timeslotId, visitDate, 1);
                     }
 
                     // 3.3 生成票号
                     String ticketCode = java.util.UUID.randomUUID().toString().replace("-", "");
 
-                    // 3.4 创建预约记录
+                    // 3.4 创建预约记录（该日期已有有效预约时唯一索引冲突，该用户预约失败）
                     VisitBooking booking = new VisitBooking();
                     booking.setUserId(userId);
                     booking.setVisitDate(visitDate);
+                    booking.setTimeslotId(timeslotId);
                     booking.setTicketCode(ticketCode);
                     booking.setStatus(1); // 1已预约
                     booking.setDeleted(0);
                     booking.setCreatedAt(LocalDateTime.now());
                     booking.setUpdatedAt(LocalDateTime.now());
 
-                    this.baseMapper.insert(booking);
+                    try {
+                        this.baseMapper.insert(booking);
+                    } catch (DuplicateKeyException e) {
+                        // 批量中单个用户失败不回滚整个事务，需归还刚占用的时段名额
+                        visitTimeslotService.release(timeslotId, 1);
+                        throw new BusinessException(ErrorCode.BOOKING_ALREADY_EXISTS, "该日期已有预约");
+                    }
+                    cancelWaiting(userId, visitDate);
 
                     // 3.5 添加到成功列表
-                    successList.add(toVO(booking));
+                    successList.add(toVO(booking, slot));
                     successCount++;
 
                 } catch (Exception e) {
@@ -169,6 +245,10 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
             throw new BusinessException(ErrorCode.OPERATION_ERROR, "批量预约失败: " + e.getMessage());
         }
 
+        if (successCount > 0) {
+            eventPublisher.publishEvent(new QuotaChangedEvent(visitDate));
+        }
+
         // 4. 设置返回结果
         result.setSuccessCount(successCount);
         result.setFailCount(failCount);
@@ -187,6 +267,7 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
     @Override
     @Notice(title = "改签成功", message = "改签成功，新参观日期：#{#result.visitDate.toString()}，票号：#{#result.ticketCode}")
     @Transactional(rollbackFor = Exception.class)
+    @ConnectionBudget("booking-write")
     public BookingVO rescheduleBooking(BookingRescheduleRequest request, Long userId) {
         // 1. 校验实名信息
         checkRealName(userId);
@@ -232,46 +313,78 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
             throw new BusinessException(ErrorCode.BOOKING_RESCHEDULE_LIMIT);
         }
 
-        // 8. 检查新日期是否已有预约
-        QueryWrapper<VisitBooking> existQuery = new QueryWrapper<>();
-        existQuery.eq("user_id", userId)
-                .eq("visit_date", newVisitDate)
-                .eq("deleted", 0)
-                .in("status", 1, 3, 4)
-                .ne("id", bookingId);
-        Long existCount = this.baseMapper.selectCount(existQuery);
-        if (existCount > 0) {
-            throw new BusinessException(ErrorCode.BOOKING_ALREADY_EXISTS, "该日期已有预约");
-        }
-
-        // 9. 如果日期不同，需要处理配额变更
+        // 8. 处理名额变更
         LocalDate oldVisitDate = booking.getVisitDate();
-        if (!oldVisitDate.equals(newVisitDate)) {
-            // 9.1 先扣减新日期的配额（防止新日期没名额）
-            visitDayQuotaService.decreaseQuota(newVisitDate);
-
-            // 9.2 再恢复旧日期的配额
-            try {
-                visitDayQuotaService.increaseQuota(oldVisitDate);
-            } catch (Exception e) {
-                // 如果恢复失败，需要回滚新日期的配额扣减
-                visitDayQuotaService.increaseQuota(newVisitDate);
-                throw e;
+        Long oldTimeslotId = booking.getTimeslotId();
+        Long newTimeslotId = request.getNewTimeslotId();
+        VisitTimeslot newSlot = null;
+        if (newTimeslotId != null) {
+            // 8.1 分时段：先占用新时段，再释放旧时段（同一事务内，失败整体回滚）
+            if (!oldVisitDate.equals(newVisitDate)) {
+                visitDayQuotaService.checkDayOpen(newVisitDate);
             }
+            // 时段属于具体日期，只有日期不变时才能沿用原时段；换日期时 reserve 会校验时段与新日期是否匹配
+            if (newTimeslotId.equals(oldTimeslotId) && oldVisitDate.equals(newVisitDate)) {
+                newSlot = visitTimeslotService.getById(newTimeslotId);
+            } else {
+                newSlot = visitTimeslotService.reserve(newTimeslotId, newVisitDate, 1);
+                visitTimeslotService.release(oldTimeslotId, 1);
+            }
+        } else {
+            // 8.2 整日预约：日期不同时先扣减新日期的配额（防止新日期没名额）
+            requireNoTimeslots(newVisitDate);
+            if (!oldVisitDate.equals(newVisitDate)) {
+                visitDayQuotaService.decreaseQuota(newVisitDate);
+
+                // 再恢复旧日期的配额
+                try {
+                    visitDayQuotaService.increaseQuota(oldVisitDate);
+                } catch (Exception e) {
+                    // 如果恢复失败，需要回滚新日期的配额扣减
+                    visitDayQuotaService.increaseQuota(newVisitDate);
+                    throw e;
+                }
+            }
+            visitTimeslotService.release(oldTimeslotId, 1);
         }
 
-        // 10. 更新预约
+        // 8.3 旧日期/时段空出名额，通知候补
+        if (!oldVisitDate.equals(newVisitDate) || !Objects.equals(oldTimeslotId, newTimeslotId)) {
+            eventPublisher.publishEvent(new QuotaReleasedEvent(oldVisitDate, oldTimeslotId));
+        }
+
+        // 9. 更新预约（新日期已有有效预约时唯一索引冲突，事务回滚名额变更）
         booking.setVisitDate(newVisitDate);
+        booking.setTimeslotId(newTimeslotId);
         booking.setStatus(3); // 3已改签
         booking.setUpdatedAt(LocalDateTime.now());
-        this.baseMapper.updateById(booking);
+        try {
+            this.baseMapper.updateById(booking);
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException(ErrorCode.BOOKING_ALREADY_EXISTS, "该日期已有预约");
+        }
+        if (newTimeslotId == null && oldTimeslotId != null) {
+            // updateById 会忽略 null 字段，改签为整日预约时需显式清空时段
+            this.lambdaUpdate()
+                    .eq(VisitBooking::getId, bookingId)
+                    .set(VisitBooking::getTimeslotId, null)
+                    .update();
+        }
+        if (!oldVisitDate.equals(newVisitDate)) {
+            cancelWaiting(userId, newVisitDate);
+        }
+        eventPublisher.publishEvent(new QuotaChangedEvent(oldVisitDate));
+        if (!oldVisitDate.equals(newVisitDate)) {
+            eventPublisher.publishEvent(new QuotaChangedEvent(newVisitDate));
+        }
 
-        return toVO(booking);
+        return toVO(booking, newSlot);
     }
 
     @Override
     @Notice(title = "取消成功", message = "预约已取消，参观日期：#{#result.visitDate.toString()}，票号：#{#result.ticketCode}")
     @Transactional(rollbackFor = Exception.class)
+    @ConnectionBudget("booking-write")
     public BookingVO cancelBooking(BookingCancelRequest request, Long userId) {
         Long bookingId = request.getBookingId();
         String cancelReason = request.getCancelReason();
@@ -306,6 +419,11 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
 
         // 6. 恢复配额
         visitDayQuotaService.increaseQuota(booking.getVisitDate());
+        visitTimeslotService.release(booking.getTimeslotId(), 1);
+
+        // 7. 名额空出，事务提交后异步转正候补
+        eventPublisher.publishEvent(new QuotaReleasedEvent(booking.getVisitDate(), booking.getTimeslotId()));
+        eventPublisher.publishEvent(new QuotaChangedEvent(booking.getVisitDate()));
 
         return toVO(booking);
     }
@@ -326,17 +444,38 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
             queryWrapper.eq("status", status);
         }
 
-        // 4. 查询分页
+        // 4. 查询分页（热表）
         IPage<VisitBooking> resultPage = this.baseMapper.selectPage(pageParam, queryWrapper);
 
-        // 5. 转换为 VO
-        return resultPage.convert(this::toVO);
+        // 5. 翻到热表末尾之后，用归档表补齐本页（归档数据都早于热表数据，按热表在前拼接）
+        long hotTotal = resultPage.getTotal();
+        long offset = (long) (page - 1) * size;
+        if (offset + size > hotTotal) {
+            long archivedTotal = this.baseMapper.countArchivedByUser(userId, status);
+            if (archivedTotal > 0) {
+                List<VisitBooking> records = new ArrayList<>(resultPage.getRecords());
+                int remaining = size - records.size();
+                if (remaining > 0) {
+                    records.addAll(this.baseMapper.selectArchivedByUser(
+                            userId, status, Math.max(offset - hotTotal, 0), remaining));
+                }
+                resultPage.setRecords(records);
+                resultPage.setTotal(hotTotal + archivedTotal);
+            }
+        }
+
+        // 6. 转换为 VO
+        return toVOPage(resultPage);
     }
 
     @Override
     public BookingVO getDetail(Long id, Long userId) {
         // 1. 查询预约
         VisitBooking booking = this.baseMapper.selectById(id);
+        if (booking == null) {
+            // 已归档的历史预约
+            booking = this.baseMapper.selectArchivedById(id);
+        }
         if (booking == null || booking.getDeleted() == 1) {
             throw new BusinessException(ErrorCode.BOOKING_NOT_FOUND);
         }
@@ -351,6 +490,7 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
 
     @Override
     @Transactional(rollbackFor = Exception.class)
+    @ConnectionBudget("booking-write")
     public BookingVO verifyBooking(BookingVerifyRequest request) {
         String ticketCode = request.getTicketCode();
         LocalDate today = LocalDate.now();
@@ -374,7 +514,17 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
             throw new BusinessException(ErrorCode.BOOKING_EXPIRED, "预约已过期，无法核验");
         }
 
-        // 4. 更新预约状态
+        // 4. 分时段预约只允许在所约时段的入馆窗口内核验，错峰入馆
+        VisitTimeslot slot = null;
+        if (booking.getTimeslotId() != null) {
+            slot = visitTimeslotService.getById(booking.getTimeslotId());
+            if (slot != null && !visitTimeslotService.isInEntryWindow(slot, LocalDateTime.now())) {
+                throw new BusinessException(ErrorCode.BOOKING_NOT_IN_TIMESLOT,
+                        String.format("请在 %s %s-%s 时段入馆", slot.getVisitDate(), slot.getStartTime(), slot.getEndTime()));
+            }
+        }
+
+        // 5. 更新预约状态
         booking.setStatus(4); // 4已核验
         booking.setVerifyTime(LocalDateTime.now());
         booking.setUpdatedAt(LocalDateTime.now());
@@ -383,10 +533,12 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
         log.info("预约核验成功：ticketCode={}, visitDate={}, userId={}",
                 ticketCode, booking.getVisitDate(), booking.getUserId());
 
-        return toVO(booking);
+        return toVO(booking, slot);
     }
 
     @Override
+    @ReadReplica
+    @ConnectionBudget("admin-read")
     public IPage<BookingVO> queryBookings(Integer page, Integer size, LocalDate visitDate, Integer status, String ticketCode) {
         // 1. 构建分页对象
         Page<VisitBooking> pageParam = new Page<>(page, size);
@@ -419,7 +571,7 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
         IPage<VisitBooking> resultPage = this.baseMapper.selectPage(pageParam, queryWrapper);
 
         // 7. 转换为 VO
-        return resultPage.convert(this::toVO);
+        return toVOPage(resultPage);
     }
 
     @Override
@@ -449,11 +601,24 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
         return count;
     }
 
+    @Override
+    @ConnectionBudget(value = "job", waitMillis = 60_000)
+    @Transactional(rollbackFor = Exception.class)
+    public int archiveBookings(LocalDate cutoff, int limit) {
+        List<Long> ids = this.baseMapper.selectArchivableIds(cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        this.baseMapper.copyToArchive(ids);
+        this.baseMapper.purgeByIds(ids);
+        return ids.size();
+    }
+
     /**
      * 校验用户实名信息
      */
     private void checkRealName(Long userId) {
-        SysUser user = sysUserService.getById(userId);
+        SysUser user = userContext.getUser(userId);
         if (user == null) {
             throw new BusinessException(ErrorCode.USER_NOT_EXIST);
         }
@@ -464,6 +629,19 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
         }
     }
 
+    /**
+     * 用户已直接预约该日期，取消其在该日期仍在等待的候补，避免之后转正时收到"候补失败"通知
+     * （候补转正时本条候补已被认领为已转正，不受影响）
+     */
+    private void cancelWaiting(Long userId, LocalDate visitDate) {
+        visitWaitlistMapper.update(null, new LambdaUpdateWrapper<VisitWaitlist>()
+                .eq(VisitWaitlist::getUserId, userId)
+                .eq(VisitWaitlist::getVisitDate, visitDate)
+                .eq(VisitWaitlist::getStatus, WaitlistStatusEnum.WAITING.getValue())
+                .set(VisitWaitlist::getStatus, WaitlistStatusEnum.CANCELLED.getValue())
+                .set(VisitWaitlist::getUpdatedAt, LocalDateTime.now()));
+    }
+
     /**
      * 字符串空判断（支持 null 和空字符串）
      */
@@ -471,12 +649,49 @@ public class VisitBookingServiceImpl extends ServiceImpl<VisitBookingMapper, Vis
         return str == null || str.trim().isEmpty();
     }
 
+    /**
+     * 已开放分时段的日期必须选择时段
+     */
+    private void requireNoTimeslots(LocalDate visitDate) {
+        if (visitTimeslotService.hasSlots(visitDate)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "该日期已开放分时段预约，请选择参观时段");
+        }
+    }
+
     /**
      * 实体转 VO
      */
     private BookingVO toVO(VisitBooking booking) {
+        VisitTimeslot slot = booking.getTimeslotId() == null ? null
+                : visitTimeslotService.getById(booking.getTimeslotId());
+        return toVO(booking, slot);
+    }
+
+    /**
+     * 实体转 VO（已知时段）
+     */
+    private BookingVO toVO(VisitBooking booking, VisitTimeslot slot) {
         BookingVO vo = new BookingVO();
         BeanUtils.copyProperties(booking, vo);
+        if (slot != null) {
+            vo.setStartTime(slot.getStartTime());
+            vo.setEndTime(slot.getEndTime());
+        }
         return vo;
     }
+
+    /**
+     * 分页转 VO，时段信息一次批量查询
+     */
+    private IPage<BookingVO> toVOPage(IPage<VisitBooking> page) {
+        List<Long> timeslotIds = page.getRecords().stream()
+                .map(VisitBooking::getTimeslotId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, VisitTimeslot> slots = timeslotIds.isEmpty() ? Collections.emptyMap()
+                : visitTimeslotService.listByIds(timeslotIds).stream()
+                .collect(Collectors.toMap(VisitTimeslot::getId, Function.identity()));
+        return page.convert(booking -> toVO(booking, booking.getTimeslotId() == null ? null : slots.get(booking.getTimeslotId())));
+    }
 }
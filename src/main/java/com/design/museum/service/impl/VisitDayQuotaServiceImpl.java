@@ -9,10 +9,15 @@ import com.design.museum.enums.QuotaStatusEnum;
 import com.design.museum.exception.BusinessException;
 import com.design.museum.mapper.VisitBookingMapper;
 import com.design.museum.mapper.VisitDayQuotaMapper;
+import com.design.museum.mapper.VisitTimeslotMapper;
+import com.design.museum.quota.QuotaChangedEvent;
 import com.design.museum.service.IVisitDayQuotaService;
 import com.design.museum.vo.QuotaVO;
+import com.design.museum.waitlist.QuotaReleasedEvent;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
 import java.time.LocalDate;
@@ -33,6 +38,12 @@ public class VisitDayQuotaServiceImpl extends ServiceImpl<VisitDayQuotaMapper, V
     @Resource
     private VisitBookingMapper visitBookingMapper;
 
+    @Resource
+    private VisitTimeslotMapper visitTimeslotMapper;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public boolean createTodayQuota() {
         return createQuotaForDate(LocalDate.now());
@@ -60,7 +71,11 @@ public class VisitDayQuotaServiceImpl extends ServiceImpl<VisitDayQuotaMapper, V
         quota.setCreatedAt(LocalDateTime.now());
         quota.setUpdatedAt(LocalDateTime.now());
 
-        return this.save(quota);
+        boolean saved = this.save(quota);
+        if (saved) {
+            eventPublisher.publishEvent(new QuotaChangedEvent(visitDate));
+        }
+        return saved;
     }
 
     @Override
@@ -125,13 +140,15 @@ public class VisitDayQuotaServiceImpl extends ServiceImpl<VisitDayQuotaMapper, V
         LambdaQueryWrapper<VisitDayQuota> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(VisitDayQuota::getVisitDate, visitDate)
                 .eq(VisitDayQuota::getDeleted, 0)
-                .eq(VisitDayQuota::getStatus, QuotaStatusEnum.NORMAL.getValue())
                 .last("FOR UPDATE");
 
         VisitDayQuota quota = this.getOne(queryWrapper);
         if (quota == null) {
             throw new BusinessException(ErrorCode.QUOTA_NOT_EXIST, "该日期配额不存在");
         }
+        if (quota.getStatus() != QuotaStatusEnum.NORMAL.getValue()) {
+            throw new BusinessException(ErrorCode.QUOTA_CLOSED);
+        }
 
         // 统计该日期的有效预约数量
         LambdaQueryWrapper<VisitBooking> bookingQuery = new LambdaQueryWrapper<>();
@@ -150,6 +167,21 @@ public class VisitDayQuotaServiceImpl extends ServiceImpl<VisitDayQuotaMapper, V
         return true;
     }
 
+    @Override
+    public void checkDayOpen(LocalDate visitDate) {
+        LambdaQueryWrapper<VisitDayQuota> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(VisitDayQuota::getVisitDate, visitDate)
+                .eq(VisitDayQuota::getDeleted, 0);
+
+        VisitDayQuota quota = this.getOne(queryWrapper);
+        if (quota == null) {
+            throw new BusinessException(ErrorCode.QUOTA_NOT_EXIST, "该日期配额不存在");
+        }
+        if (quota.getStatus() != QuotaStatusEnum.NORMAL.getValue()) {
+            throw new BusinessException(ErrorCode.QUOTA_CLOSED);
+        }
+    }
+
     @Override
     public void increaseQuota(LocalDate visitDate) {
         // 取消预约时不需要恢复配额字段（预约记录状态变为2后，统计时不再计入）
@@ -191,6 +223,7 @@ public class VisitDayQuotaServiceImpl extends ServiceImpl<VisitDayQuotaMapper, V
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean updateCapacity(LocalDate visitDate, Integer newCapacity) {
         if (newCapacity == null || newCapacity < 0) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "容量参数无效");
@@ -221,10 +254,27 @@ public class VisitDayQuotaServiceImpl extends ServiceImpl<VisitDayQuotaMapper, V
                     String.format("新容量不能小于已预约数量，当前已预约：%d", reservedCount));
         }
 
+        // 分时段日期的整日容量不能小于各时段容量之和，否则时段余量会超出整日容量
+        int slotCapacity = visitTimeslotMapper.sumCapacity(visitDate);
+        if (newCapacity < slotCapacity) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR,
+                    String.format("新容量不能小于各时段容量之和：%d", slotCapacity));
+        }
+
         // 更新容量
+        int oldCapacity = quota.getCapacity();
         quota.setCapacity(newCapacity);
         quota.setUpdatedAt(LocalDateTime.now());
 
-        return this.updateById(quota);
+        boolean updated = this.updateById(quota);
+        if (updated) {
+            eventPublisher.publishEvent(new QuotaChangedEvent(visitDate));
+        }
+
+        // 扩容后有新名额，通知候补
+        if (updated && newCapacity > oldCapacity) {
+            eventPublisher.publishEvent(new QuotaReleasedEvent(visitDate, null));
+        }
+        return updated;
     }
 }
@@ -0,0 +1,255 @@
+package com.design.museum.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.common.ErrorCode;
+import com.design.museum.entity.VisitDayQuota;
+import com.design.museum.entity.VisitTimeslot;
+import com.design.museum.enums.QuotaStatusEnum;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.mapper.VisitDayQuotaMapper;
+import com.design.museum.mapper.VisitTimeslotMapper;
+import com.design.museum.quota.QuotaChangedEvent;
+import com.design.museum.service.IVisitTimeslotService;
+import com.design.museum.vo.TimeslotVO;
+import com.design.museum.waitlist.QuotaReleasedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ *  参观时段服务实现类
+ * </p>
+ * 每个时段一行计数，预约时通过条件更新占用名额，
+ * 热点由单日一行分散到多个时段行上。
+ * 各时段容量之和不超过整日容量（创建时段、修改容量时锁定整日配额行校验），预约时无需再检查整日余量。
+ */
+@Service
+@Slf4j
+public class VisitTimeslotServiceImpl extends ServiceImpl<VisitTimeslotMapper, VisitTimeslot> implements IVisitTimeslotService {
+
+    @Value("${museum.timeslot.open-time:09:00}")
+    private String openTime;
+
+    @Value("${museum.timeslot.close-time:17:00}")
+    private String closeTime;
+
+    @Value("${museum.timeslot.slot-minutes:60}")
+    private int slotMinutes;
+
+    @Value("${museum.timeslot.capacity-per-slot:250}")
+    private int capacityPerSlot;
+
+    @Value("${museum.timeslot.early-entry-minutes:30}")
+    private int earlyEntryMinutes;
+
+    @Value("${museum.timeslot.late-entry-minutes:0}")
+    private int lateEntryMinutes;
+
+    @Resource
+    private VisitDayQuotaMapper visitDayQuotaMapper;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
+    private LocalTime open;
+
+    private LocalTime close;
+
+    @PostConstruct
+    public void init() {
+        open = LocalTime.parse(openTime);
+        close = LocalTime.parse(closeTime);
+        if (!open.isBefore(close) || slotMinutes <= 0) {
+            throw new IllegalStateException("museum.timeslot 开放时间配置无效");
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean createSlotsForDate(LocalDate visitDate) {
+        VisitDayQuota quota = lockDayQuota(visitDate);
+        if (quota == null) {
+            log.warn("未创建整日配额，跳过生成时段：visitDate={}", visitDate);
+            return false;
+        }
+        if (hasSlots(visitDate)) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<VisitTimeslot> slots = new ArrayList<>();
+        LocalTime start = open;
+        while (start.isBefore(close)) {
+            LocalTime end = start.plusMinutes(slotMinutes);
+            // 最后一个时段不超过闭馆时间，同时防止跨零点回绕
+            if (end.isAfter(close) || !end.isAfter(start)) {
+                end = close;
+            }
+            VisitTimeslot slot = new VisitTimeslot();
+            slot.setVisitDate(visitDate);
+            slot.setStartTime(start);
+            slot.setEndTime(end);
+            slot.setCapacity(capacityPerSlot);
+            slot.setReservedCount(0);
+            slot.setStatus(QuotaStatusEnum.NORMAL.getValue());
+            slot.setDeleted(0);
+            slot.setCreatedAt(now);
+            slot.setUpdatedAt(now);
+            slots.add(slot);
+            start = end;
+        }
+
+        // 时段容量之和超过整日容量时按整日容量均分，余数分给靠前的时段
+        if ((long) capacityPerSlot * slots.size() > quota.getCapacity()) {
+            int share = quota.getCapacity() / slots.size();
+            int remainder = quota.getCapacity() % slots.size();
+            for (int i = 0; i < slots.size(); i++) {
+                slots.get(i).setCapacity(share + (i < remainder ? 1 : 0));
+            }
+            log.warn("时段容量之和超过整日容量，按整日容量均分：visitDate={}, dayCapacity={}", visitDate, quota.getCapacity());
+        }
+        boolean saved = this.saveBatch(slots);
+        if (saved) {
+            eventPublisher.publishEvent(new QuotaChangedEvent(visitDate));
+        }
+        return saved;
+    }
+
+    @Override
+    public int createFutureSlots(int days) {
+        int createdCount = 0;
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < days; i++) {
+            if (createSlotsForDate(today.plusDays(i))) {
+                createdCount++;
+            }
+        }
+        return createdCount;
+    }
+
+    @Override
+    public void deletePastSlots() {
+        LambdaUpdateWrapper<VisitTimeslot> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.lt(VisitTimeslot::getVisitDate, LocalDate.now())
+                .eq(VisitTimeslot::getDeleted, 0)
+                .set(VisitTimeslot::getDeleted, 1)
+                .set(VisitTimeslot::getUpdatedAt, LocalDateTime.now());
+        this.update(updateWrapper);
+    }
+
+    @Override
+    public boolean hasSlots(LocalDate visitDate) {
+        LambdaQueryWrapper<VisitTimeslot> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(VisitTimeslot::getVisitDate, visitDate)
+                .eq(VisitTimeslot::getDeleted, 0);
+        return this.count(queryWrapper) > 0;
+    }
+
+    @Override
+    public List<TimeslotVO> listSlots(LocalDate visitDate) {
+        LambdaQueryWrapper<VisitTimeslot> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(VisitTimeslot::getVisitDate, visitDate)
+                .eq(VisitTimeslot::getDeleted, 0)
+                .orderByAsc(VisitTimeslot::getStartTime);
+        return this.list(queryWrapper).stream()
+                .map(this::toVO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public VisitTimeslot reserve(Long timeslotId, LocalDate visitDate, int count) {
+        VisitTimeslot slot = this.getById(timeslotId);
+        if (slot == null || slot.getDeleted() == 1 || !slot.getVisitDate().equals(visitDate)) {
+            throw new BusinessException(ErrorCode.TIMESLOT_NOT_EXIST);
+        }
+        if (slot.getStatus() != QuotaStatusEnum.NORMAL.getValue()) {
+            throw new BusinessException(ErrorCode.TIMESLOT_NOT_EXIST, "该时段已停用");
+        }
+        if (visitDate.equals(LocalDate.now()) && !LocalTime.now().isBefore(slot.getEndTime())) {
+            throw new BusinessException(ErrorCode.BOOKING_DATE_INVALID, "该时段已结束");
+        }
+
+        // 条件更新本身即是原子的"检查 + 占用"，名额不足时影响行数为 0
+        if (this.baseMapper.reserve(timeslotId, count) == 0) {
+            throw new BusinessException(ErrorCode.TIMESLOT_FULL);
+        }
+        slot.setReservedCount(slot.getReservedCount() + count);
+        return slot;
+    }
+
+    @Override
+    public void release(Long timeslotId, int count) {
+        if (timeslotId == null) {
+            return;
+        }
+        this.baseMapper.release(timeslotId, count);
+    }
+
+    @Override
+    public boolean isInEntryWindow(VisitTimeslot slot, LocalDateTime now) {
+        LocalDateTime from = slot.getVisitDate().atTime(slot.getStartTime()).minusMinutes(earlyEntryMinutes);
+        LocalDateTime to = slot.getVisitDate().atTime(slot.getEndTime()).plusMinutes(lateEntryMinutes);
+        return !now.isBefore(from) && !now.isAfter(to);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateCapacity(Long timeslotId, Integer capacity) {
+        if (capacity == null || capacity < 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "容量参数无效");
+        }
+        VisitTimeslot slot = this.getById(timeslotId);
+        if (slot == null || slot.getDeleted() == 1) {
+            throw new BusinessException(ErrorCode.TIMESLOT_NOT_EXIST);
+        }
+        // 锁定整日配额行，与修改整日容量、其他时段改容量互斥
+        VisitDayQuota quota = lockDayQuota(slot.getVisitDate());
+        if (quota == null) {
+            throw new BusinessException(ErrorCode.QUOTA_NOT_EXIST, "该日期配额不存在");
+        }
+        int total = this.baseMapper.sumCapacity(slot.getVisitDate()) - slot.getCapacity() + capacity;
+        if (total > quota.getCapacity()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR,
+                    String.format("各时段容量之和不能超过整日容量：%d", quota.getCapacity()));
+        }
+        if (this.baseMapper.updateCapacity(timeslotId, capacity) == 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "新容量不能小于已预约数量");
+        }
+        eventPublisher.publishEvent(new QuotaChangedEvent(slot.getVisitDate()));
+
+        // 扩容后有新名额，通知候补
+        if (capacity > slot.getCapacity()) {
+            eventPublisher.publishEvent(new QuotaReleasedEvent(slot.getVisitDate(), timeslotId));
+        }
+        return true;
+    }
+
+    private VisitDayQuota lockDayQuota(LocalDate visitDate) {
+        return visitDayQuotaMapper.selectOne(new LambdaQueryWrapper<VisitDayQuota>()
+                .eq(VisitDayQuota::getVisitDate, visitDate)
+                .eq(VisitDayQuota::getDeleted, 0)
+                .last("FOR UPDATE"));
+    }
+
+    private TimeslotVO toVO(VisitTimeslot slot) {
+        TimeslotVO vo = new TimeslotVO();
+        BeanUtils.copyProperties(slot, vo);
+        vo.setRemainingCount(Math.max(slot.getCapacity() - slot.getReservedCount(), 0));
+        return vo;
+    }
+}
@@ -0,0 +1,232 @@
+package com.design.museum.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.design.museum.common.ErrorCode;
+import com.design.museum.context.UserContext;
+import com.design.museum.dto.WaitlistJoinRequest;
+import com.design.museum.entity.SysUser;
+import com.design.museum.entity.VisitBooking;
+import com.design.museum.entity.VisitTimeslot;
+import com.design.museum.entity.VisitWaitlist;
+import com.design.museum.enums.WaitlistStatusEnum;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.mapper.VisitBookingMapper;
+import com.design.museum.mapper.VisitWaitlistMapper;
+import com.design.museum.service.IVisitDayQuotaService;
+import com.design.museum.service.IVisitTimeslotService;
+import com.design.museum.service.IVisitWaitlistService;
+import com.design.museum.vo.WaitlistVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ *  预约候补服务实现类
+ * </p>
+ */
+@Service
+@Slf4j
+public class VisitWaitlistServiceImpl extends ServiceImpl<VisitWaitlistMapper, VisitWaitlist> implements IVisitWaitlistService {
+
+    @Value("${museum.waitlist.max-size:500}")
+    private int maxSize;
+
+    @Resource
+    private UserContext userContext;
+
+    @Resource
+    private VisitBookingMapper visitBookingMapper;
+
+    @Resource
+    private IVisitDayQuotaService visitDayQuotaService;
+
+    @Resource
+    private IVisitTimeslotService visitTimeslotService;
+
+    @Override
+    public WaitlistVO join(WaitlistJoinRequest request, Long userId) {
+        LocalDate visitDate = request.getVisitDate();
+        Long timeslotId = request.getTimeslotId();
+
+        // 1. 校验实名信息（与预约一致，避免转正时才失败）
+        SysUser user = userContext.getUser(userId);
+        if (user == null) {
+            throw new BusinessException(ErrorCode.USER_NOT_EXIST);
+        }
+        if (isEmpty(user.getRealName()) || isEmpty(user.getIdNo()) || isEmpty(user.getPhone())) {
+            throw new BusinessException(ErrorCode.USER_NOT_REALNAME);
+        }
+
+        // 2. 校验日期
+        if (visitDate.isBefore(LocalDate.now())) {
+            throw new BusinessException(ErrorCode.BOOKING_DATE_INVALID, "候补日期不能早于今天");
+        }
+
+        // 3. 已有有效预约或已在候补中则不允许重复加入
+        Long bookingCount = visitBookingMapper.selectCount(new LambdaQueryWrapper<VisitBooking>()
+                .eq(VisitBooking::getUserId, userId)
+                .eq(VisitBooking::getVisitDate, visitDate)
+                .eq(VisitBooking::getDeleted, 0)
+                .in(VisitBooking::getStatus, 1, 3, 4));
+        if (bookingCount > 0) {
+            throw new BusinessException(ErrorCode.BOOKING_ALREADY_EXISTS, "该日期已有预约，无需候补");
+        }
+        long waitingCount = this.count(new LambdaQueryWrapper<VisitWaitlist>()
+                .eq(VisitWaitlist::getUserId, userId)
+                .eq(VisitWaitlist::getVisitDate, visitDate)
+                .eq(VisitWaitlist::getStatus, WaitlistStatusEnum.WAITING.getValue()));
+        if (waitingCount > 0) {
+            throw new BusinessException(ErrorCode.WAITLIST_ALREADY_JOINED);
+        }
+
+        // 4. 仍有余量时直接预约即可
+        if (timeslotId != null) {
+            VisitTimeslot slot = visitTimeslotService.getById(timeslotId);
+            if (slot == null || slot.getDeleted() == 1 || !slot.getVisitDate().equals(visitDate)) {
+                throw new BusinessException(ErrorCode.TIMESLOT_NOT_EXIST);
+            }
+            if (slot.getReservedCount() < slot.getCapacity()) {
+                throw new BusinessException(ErrorCode.WAITLIST_NOT_NEEDED);
+            }
+        } else {
+            if (visitTimeslotService.hasSlots(visitDate)) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "该日期已开放分时段预约，请选择参观时段");
+            }
+            if (visitDayQuotaService.checkQuotaAvailable(visitDate)) {
+                throw new BusinessException(ErrorCode.WAITLIST_NOT_NEEDED);
+            }
+        }
+
+        // 5. 队列长度上限
+        long queueSize = this.count(waitingQuery(visitDate, timeslotId));
+        if (queueSize >= maxSize) {
+            throw new BusinessException(ErrorCode.WAITLIST_FULL);
+        }
+
+        // 6. 入队
+        LocalDateTime now = LocalDateTime.now();
+        VisitWaitlist entry = new VisitWaitlist();
+        entry.setUserId(userId);
+        entry.setVisitDate(visitDate);
+        entry.setTimeslotId(timeslotId);
+        entry.setStatus(WaitlistStatusEnum.WAITING.getValue());
+        entry.setCreatedAt(now);
+        entry.setUpdatedAt(now);
+        this.save(entry);
+
+        log.info("加入候补：userId={}, visitDate={}, timeslotId={}", userId, visitDate, timeslotId);
+        return toVO(entry);
+    }
+
+    @Override
+    public WaitlistVO cancel(Long id, Long userId) {
+        VisitWaitlist entry = this.getById(id);
+        if (entry == null) {
+            throw new BusinessException(ErrorCode.WAITLIST_NOT_FOUND);
+        }
+        if (!entry.getUserId().equals(userId)) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "无权操作此候补");
+        }
+
+        // 条件更新，避免与异步转正并发时覆盖已转正状态
+        boolean updated = this.update(new LambdaUpdateWrapper<VisitWaitlist>()
+                .eq(VisitWaitlist::getId, id)
+                .eq(VisitWaitlist::getStatus, WaitlistStatusEnum.WAITING.getValue())
+                .set(VisitWaitlist::getStatus, WaitlistStatusEnum.CANCELLED.getValue())
+                .set(VisitWaitlist::getUpdatedAt, LocalDateTime.now()));
+        if (!updated) {
+            throw new BusinessException(ErrorCode.BOOKING_STATUS_ERROR, "该候补状态不允许取消");
+        }
+        return toVO(this.getById(id));
+    }
+
+    @Override
+    public List<WaitlistVO> myWaitlist(Long userId) {
+        LambdaQueryWrapper<VisitWaitlist> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(VisitWaitlist::getUserId, userId)
+                .ge(VisitWaitlist::getVisitDate, LocalDate.now())
+                .orderByDesc(VisitWaitlist::getCreatedAt);
+        return this.list(queryWrapper).stream()
+                .map(this::toVO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<VisitWaitlist> listWaiting(LocalDate visitDate, Long timeslotId, int limit) {
+        LambdaQueryWrapper<VisitWaitlist> queryWrapper = waitingQuery(visitDate, timeslotId);
+        queryWrapper.orderByAsc(VisitWaitlist::getId)
+                .last("LIMIT " + limit);
+        return this.list(queryWrapper);
+    }
+
+    @Override
+    public List<VisitWaitlist> listWaitingGroups() {
+        LambdaQueryWrapper<VisitWaitlist> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(VisitWaitlist::getVisitDate, VisitWaitlist::getTimeslotId)
+                .eq(VisitWaitlist::getStatus, WaitlistStatusEnum.WAITING.getValue())
+                .ge(VisitWaitlist::getVisitDate, LocalDate.now())
+                .groupBy(VisitWaitlist::getVisitDate, VisitWaitlist::getTimeslotId);
+        return this.list(queryWrapper);
+    }
+
+    @Override
+    public void markFailed(Long id, String reason) {
+        String failReason = reason != null && reason.length() > 255 ? reason.substring(0, 255) : reason;
+        this.update(new LambdaUpdateWrapper<VisitWaitlist>()
+                .eq(VisitWaitlist::getId, id)
+                .eq(VisitWaitlist::getStatus, WaitlistStatusEnum.WAITING.getValue())
+                .set(VisitWaitlist::getStatus, WaitlistStatusEnum.FAILED.getValue())
+                .set(VisitWaitlist::getFailReason, failReason)
+                .set(VisitWaitlist::getUpdatedAt, LocalDateTime.now()));
+    }
+
+    @Override
+    public int expirePast() {
+        VisitWaitlist update = new VisitWaitlist();
+        update.setStatus(WaitlistStatusEnum.EXPIRED.getValue());
+        update.setUpdatedAt(LocalDateTime.now());
+        return this.baseMapper.update(update, new LambdaQueryWrapper<VisitWaitlist>()
+                .eq(VisitWaitlist::getStatus, WaitlistStatusEnum.WAITING.getValue())
+                .lt(VisitWaitlist::getVisitDate, LocalDate.now()));
+    }
+
+    /**
+     * 同一日期/时段下候补中的记录
+     */
+    private LambdaQueryWrapper<VisitWaitlist> waitingQuery(LocalDate visitDate, Long timeslotId) {
+        LambdaQueryWrapper<VisitWaitlist> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(VisitWaitlist::getVisitDate, visitDate)
+                .eq(VisitWaitlist::getStatus, WaitlistStatusEnum.WAITING.getValue());
+        if (timeslotId != null) {
+            queryWrapper.eq(VisitWaitlist::getTimeslotId, timeslotId);
+        } else {
+            queryWrapper.isNull(VisitWaitlist::getTimeslotId);
+        }
+        return queryWrapper;
+    }
+
+    private WaitlistVO toVO(VisitWaitlist entry) {
+        WaitlistVO vo = new WaitlistVO();
+        BeanUtils.copyProperties(entry, vo);
+        if (entry.getStatus() == WaitlistStatusEnum.WAITING.getValue()) {
+            // 排位 = 同一队列中 id 不大于自己的候补数
+            vo.setPosition(this.count(waitingQuery(entry.getVisitDate(), entry.getTimeslotId())
+                    .le(VisitWaitlist::getId, entry.getId())));
+        }
+        return vo;
+    }
+
+    private boolean isEmpty(String str) {
+        return str == null || str.trim().isEmpty();
+    }
+}
@@ -0,0 +1,155 @@
+package com.design.museum.storage;
+
+import cn.hutool.core.lang.UUID;
+import com.aliyun.oss.ClientBuilderConfiguration;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSClientBuilder;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.UploadFileRequest;
+import com.design.museum.config.AliyunOssConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 阿里云OSS存储实现
+ * 全局复用一个带连接池的 OSSClient；超过阈值的文件使用分片并发上传
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "museum.storage", name = "type", havingValue = "aliyun", matchIfMissing = true)
+public class AliyunOssStorageService implements StorageService {
+
+    private static final long MB = 1024 * 1024;
+
+    @Resource
+    private AliyunOssConfig aliyunOssConfig;
+
+    /**
+     * 超过该大小（MB）使用分片上传
+     */
+    @Value("${museum.storage.multipart-threshold-mb:20}")
+    private long multipartThresholdMb;
+
+    /**
+     * 分片大小（MB）
+     */
+    @Value("${museum.storage.part-size-mb:5}")
+    private long partSizeMb;
+
+    /**
+     * 分片并发上传线程数
+     */
+    @Value("${museum.storage.upload-task-num:4}")
+    private int uploadTaskNum;
+
+    private OSS ossClient;
+
+    @PostConstruct
+    public void init() {
+        ClientBuilderConfiguration conf = new ClientBuilderConfiguration();
+        conf.setMaxConnections(aliyunOssConfig.getMaxConnections());
+        conf.setConnectionTimeout(aliyunOssConfig.getConnectionTimeout());
+        conf.setSocketTimeout(aliyunOssConfig.getSocketTimeout());
+        conf.setIdleConnectionTime(aliyunOssConfig.getIdleConnectionTime());
+        ossClient = new OSSClientBuilder().build(aliyunOssConfig.getEndpoint(),
+                aliyunOssConfig.getAccessKeyId(), aliyunOssConfig.getAccessKeySecret(), conf);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (ossClient != null) {
+            ossClient.shutdown();
+        }
+    }
+
+    @Override
+    public StoredObject upload(MultipartFile file, String dir) throws IOException {
+        // 生成唯一文件名
+        String originalFilename = file.getOriginalFilename();
+        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        String objectName = dir + UUID.randomUUID() + fileExtension;
+
+        String url;
+        if (file.getSize() >= multipartThresholdMb * MB) {
+            // 大文件：把上传临时文件移动到自己的临时路径后分片并发上传
+            // transferTo(File) 由容器直接重命名临时文件，不会复制内容
+            Path tmp = Files.createTempFile("oss-upload-", fileExtension);
+            try {
+                file.transferTo(tmp.toFile());
+                url = putObject(objectName, tmp, file.getContentType());
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } else {
+            try (InputStream in = file.getInputStream()) {
+                url = putObject(objectName, in, file.getSize(), file.getContentType());
+            }
+        }
+        return new StoredObject(objectName, url);
+    }
+
+    @Override
+    public String putObject(String objectName, Path source, String contentType) throws IOException {
+        long size = Files.size(source);
+        if (size < multipartThresholdMb * MB) {
+            try (InputStream in = Files.newInputStream(source)) {
+                return putObject(objectName, in, size, contentType);
+            }
+        }
+
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+
+        UploadFileRequest request = new UploadFileRequest(aliyunOssConfig.getBucketName(), objectName);
+        request.setUploadFile(source.toString());
+        request.setPartSize(partSizeMb * MB);
+        request.setTaskNum(uploadTaskNum);
+        request.setEnableCheckpoint(false);
+        request.setObjectMetadata(metadata);
+        try {
+            ossClient.uploadFile(request);
+        } catch (Throwable e) {
+            throw new IOException("分片上传失败: " + objectName, e);
+        }
+        log.info("分片上传完成：objectName={}, size={}", objectName, size);
+        return getUrl(objectName);
+    }
+
+    @Override
+    public String putObject(String objectName, InputStream in, long length, String contentType) {
+        // 设置文件元数据
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(length);
+        metadata.setContentType(contentType);
+
+        ossClient.putObject(aliyunOssConfig.getBucketName(), objectName, in, metadata);
+        return getUrl(objectName);
+    }
+
+    @Override
+    public InputStream getObject(String objectName) {
+        return ossClient.getObject(aliyunOssConfig.getBucketName(), objectName).getObjectContent();
+    }
+
+    @Override
+    public void deleteObject(String objectName) {
+        ossClient.deleteObject(aliyunOssConfig.getBucketName(), objectName);
+    }
+
+    @Override
+    public String getUrl(String objectName) {
+        return "https://" + aliyunOssConfig.getBucketName() + "." + aliyunOssConfig.getEndpoint() + "/" + objectName;
+    }
+}
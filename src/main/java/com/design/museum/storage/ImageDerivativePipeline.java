@@ -0,0 +1,270 @@
+package com.design.museum.storage;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.design.museum.entity.ExhibitItem;
+import com.design.museum.enums.ImageSizeEnum;
+import com.design.museum.mapper.ExhibitItemMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 展品图片衍生尺寸处理流水线
+ * 图片上传后在有界线程池中异步生成缩略图、列表图、详情图（JPEG），与原图存放在同一目录，
+ * 生成完成后回写到引用该原图的展品上
+ */
+@Slf4j
+@Component
+public class ImageDerivativePipeline {
+
+    /**
+     * 已完成的原图地址 -> 衍生图地址，供展品在流水线完成后才创建/修改时直接关联
+     */
+    private static final int COMPLETED_CAPACITY = 2000;
+
+    @Resource
+    private StorageService storageService;
+
+    @Resource
+    private ExhibitItemMapper exhibitItemMapper;
+
+    @Value("${museum.image.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${museum.image.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${museum.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    /**
+     * 允许解码的最大像素数（宽×高），超出的图片不生成衍生图，防止小文件声明超大尺寸耗尽内存
+     */
+    @Value("${museum.image.max-pixels:50000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor executor;
+
+    private final LRUCache<String, ImageDerivatives> completed = CacheUtil.newLRUCache(COMPLETED_CAPACITY);
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "image-derivative-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 将上传的图片暂存到本地临时文件，供异步处理读取（请求结束后容器会删除上传临时文件）
+     *
+     * @param file 上传文件
+     * @return 暂存文件路径
+     */
+    public Path stage(MultipartFile file) throws IOException {
+        Path staged = Files.createTempFile("image-derivative-", ".src");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, staged, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return staged;
+    }
+
+    /**
+     * 将本地图片复制一份暂存，供异步处理读取（调用方可继续使用或删除原文件）
+     *
+     * @param source 本地图片
+     * @return 暂存文件路径
+     */
+    public Path stage(Path source) throws IOException {
+        Path staged = Files.createTempFile("image-derivative-", ".src");
+        Files.copy(source, staged, StandardCopyOption.REPLACE_EXISTING);
+        return staged;
+    }
+
+    /**
+     * 提交衍生图生成任务，队列已满时放弃本次处理（展品回退使用原图）
+     *
+     * @param staged      暂存的原图文件，处理完成后删除
+     * @param objectName  原图对象名
+     * @param originalUrl 原图地址
+     */
+    public void submit(Path staged, String objectName, String originalUrl) {
+        try {
+            executor.execute(() -> process(staged, objectName, originalUrl));
+        } catch (RejectedExecutionException e) {
+            log.warn("图片处理队列已满，跳过衍生图生成：{}", objectName);
+            deleteQuietly(staged);
+        }
+    }
+
+    /**
+     * 丢弃暂存文件（原图上传失败时调用）
+     */
+    public void discard(Path staged) {
+        if (staged != null) {
+            deleteQuietly(staged);
+        }
+    }
+
+    /**
+     * 获取原图已生成的衍生图
+     *
+     * @param originalUrl 原图地址
+     * @return 衍生图地址，尚未生成时返回 null
+     */
+    public ImageDerivatives resolve(String originalUrl) {
+        return originalUrl == null ? null : completed.get(originalUrl, false);
+    }
+
+    private void process(Path staged, String objectName, String originalUrl) {
+        try {
+            BufferedImage source = decode(staged, objectName);
+            if (source == null) {
+                return;
+            }
+
+            String baseName = objectName.substring(0, objectName.lastIndexOf('.'));
+            ImageDerivatives derivatives = new ImageDerivatives();
+            for (ImageSizeEnum size : ImageSizeEnum.values()) {
+                byte[] jpeg = encodeJpeg(resize(source, size.getValue()));
+                String url = storageService.putObject(baseName + "_" + size.getText() + ".jpg",
+                        new ByteArrayInputStream(jpeg), jpeg.length, "image/jpeg");
+                derivatives.setUrl(size, url);
+            }
+            completed.put(originalUrl, derivatives);
+
+            int updated = exhibitItemMapper.update(null, new LambdaUpdateWrapper<ExhibitItem>()
+                    .and(w -> w.nested(n -> n.eq(ExhibitItem::getMediaKind, "IMAGE").eq(ExhibitItem::getMediaUrl, originalUrl))
+                            .or(n -> n.eq(ExhibitItem::getMediaKind, "VIDEO").eq(ExhibitItem::getCoverUrl, originalUrl)))
+                    .set(ExhibitItem::getThumbUrl, derivatives.getThumbUrl())
+                    .set(ExhibitItem::getListUrl, derivatives.getListUrl())
+                    .set(ExhibitItem::getDetailUrl, derivatives.getDetailUrl())
+                    .set(ExhibitItem::getUpdatedAt, LocalDateTime.now()));
+            log.info("衍生图生成完成：{}，关联展品 {} 个", objectName, updated);
+        } catch (Exception e) {
+            log.error("衍生图生成失败：{}", objectName, e);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    /**
+     * 先从文件头读取尺寸，像素数在限制内才解码
+     *
+     * @return 解码后的图片，无法解析或尺寸超限时返回 null
+     */
+    private BufferedImage decode(Path staged, String objectName) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(staged.toFile())) {
+            Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+            if (readers == null || !readers.hasNext()) {
+                log.warn("无法解析图片，跳过衍生图生成：{}", objectName);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("图片尺寸 {}x{} 超过限制 {} 像素，跳过衍生图生成：{}", width, height, maxPixels, objectName);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 等比缩放到目标宽度（不放大），逐级减半缩小以保证画质
+     */
+    private BufferedImage resize(BufferedImage source, int targetWidth) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int finalWidth = Math.min(targetWidth, width);
+        int finalHeight = Math.max(1, (int) Math.round((double) height * finalWidth / width));
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(finalWidth, width / 2);
+            height = width == finalWidth ? finalHeight : Math.max(finalHeight, height / 2);
+            // 统一转为不透明 RGB，透明区域以白色填充（JPEG 不支持透明通道）
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = next;
+        } while (width != finalWidth);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除临时文件失败：{}", path);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.design.museum.storage;
+
+import com.design.museum.enums.ImageSizeEnum;
+import lombok.Data;
+
+/**
+ * 图片衍生尺寸地址
+ */
+@Data
+public class ImageDerivatives {
+
+    /**
+     * 缩略图地址
+     */
+    private String thumbUrl;
+
+    /**
+     * 列表图地址
+     */
+    private String listUrl;
+
+    /**
+     * 详情图地址
+     */
+    private String detailUrl;
+
+    public void setUrl(ImageSizeEnum size, String url) {
+        switch (size) {
+            case THUMB:
+                thumbUrl = url;
+                break;
+            case LIST:
+                listUrl = url;
+                break;
+            default:
+                detailUrl = url;
+                break;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.design.museum.storage;
+
+import cn.hutool.core.lang.UUID;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 本地文件系统存储实现
+ * 用于开发与测试，无需阿里云账号；文件通过 /files/** 静态资源映射访问
+ */
+@Service
+@ConditionalOnProperty(prefix = "museum.storage", name = "type", havingValue = "local")
+public class LocalStorageService implements StorageService {
+
+    /**
+     * 静态资源映射路径
+     */
+    public static final String URL_PATH = "/files/";
+
+    /**
+     * 存储根目录
+     */
+    @Value("${museum.storage.local.base-dir:./storage}")
+    private String baseDirConfig;
+
+    /**
+     * 访问URL前缀（包含 context-path）
+     */
+    @Value("${museum.storage.local.base-url:http://localhost:8080/api/files}")
+    private String baseUrl;
+
+    @Getter
+    private Path baseDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        baseDir = Paths.get(baseDirConfig).toAbsolutePath().normalize();
+        Files.createDirectories(baseDir);
+    }
+
+    @Override
+    public StoredObject upload(MultipartFile file, String dir) throws IOException {
+        String originalFilename = file.getOriginalFilename();
+        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        String objectName = dir + UUID.randomUUID() + fileExtension;
+
+        // transferTo(File) 由容器直接重命名上传临时文件，不会复制内容
+        Path target = resolve(objectName);
+        file.transferTo(target.toFile());
+        return new StoredObject(objectName, getUrl(objectName));
+    }
+
+    @Override
+    public String putObject(String objectName, Path source, String contentType) throws IOException {
+        Files.copy(source, resolve(objectName), StandardCopyOption.REPLACE_EXISTING);
+        return getUrl(objectName);
+    }
+
+    @Override
+    public String putObject(String objectName, InputStream in, long length, String contentType) throws IOException {
+        Files.copy(in, resolve(objectName), StandardCopyOption.REPLACE_EXISTING);
+        return getUrl(objectName);
+    }
+
+    @Override
+    public InputStream getObject(String objectName) throws IOException {
+        return Files.newInputStream(resolve(objectName));
+    }
+
+    @Override
+    public void deleteObject(String objectName) throws IOException {
+        Files.deleteIfExists(resolve(objectName));
+    }
+
+    @Override
+    public String getUrl(String objectName) {
+        return baseUrl + "/" + objectName;
+    }
+
+    /**
+     * 解析对象在本地的路径，并确保不会越出存储根目录
+     */
+    public Path resolve(String objectName) throws IOException {
+        Path target = baseDir.resolve(objectName).normalize();
+        if (!target.startsWith(baseDir)) {
+            throw new IOException("非法的对象名: " + objectName);
+        }
+        Files.createDirectories(target.getParent());
+        return target;
+    }
+}
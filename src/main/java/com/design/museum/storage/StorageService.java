@@ -0,0 +1,68 @@
+package com.design.museum.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 文件存储服务
+ * 通过 museum.storage.type 选择实现：aliyun（默认，阿里云OSS）或 local（本地文件系统）
+ */
+public interface StorageService {
+
+    /**
+     * 上传用户提交的文件，自动生成唯一对象名
+     * 实现应直接从上传临时文件流式读取，不在内存中整体缓冲
+     *
+     * @param file 文件
+     * @param dir  目录（images/ 或 videos/）
+     * @return 存储结果
+     */
+    StoredObject upload(MultipartFile file, String dir) throws IOException;
+
+    /**
+     * 上传本地文件到指定对象名
+     *
+     * @param objectName  对象名
+     * @param source      本地文件
+     * @param contentType 内容类型
+     * @return 文件访问URL
+     */
+    String putObject(String objectName, Path source, String contentType) throws IOException;
+
+    /**
+     * 上传输入流到指定对象名
+     *
+     * @param objectName  对象名
+     * @param in          输入流（由调用方关闭）
+     * @param length      内容长度
+     * @param contentType 内容类型
+     * @return 文件访问URL
+     */
+    String putObject(String objectName, InputStream in, long length, String contentType) throws IOException;
+
+    /**
+     * 读取对象内容
+     *
+     * @param objectName 对象名
+     * @return 输入流（由调用方关闭）
+     */
+    InputStream getObject(String objectName) throws IOException;
+
+    /**
+     * 删除对象，对象不存在时忽略
+     *
+     * @param objectName 对象名
+     */
+    void deleteObject(String objectName) throws IOException;
+
+    /**
+     * 获取对象的公网访问URL
+     *
+     * @param objectName 对象名
+     * @return 文件访问URL
+     */
+    String getUrl(String objectName);
+}
@@ -0,0 +1,22 @@
+package com.design.museum.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 已存储的对象
+ */
+@Data
+@AllArgsConstructor
+public class StoredObject {
+
+    /**
+     * 对象名（存储内的相对路径，如 images/xxx.png）
+     */
+    private String objectName;
+
+    /**
+     * 公网访问 URL
+     */
+    private String url;
+}
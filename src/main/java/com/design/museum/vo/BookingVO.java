@@ -4,6 +4,7 @@ import lombok.Data;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 /**
  * 预约视图对象
@@ -21,6 +22,21 @@ public class BookingVO {
      */
     private LocalDate visitDate;
 
+    /**
+     * 预约时段ID（为空表示整日预约）
+     */
+    private Long timeslotId;
+
+    /**
+     * 时段开始时间
+     */
+    private LocalTime startTime;
+
+    /**
+     * 时段结束时间
+     */
+    private LocalTime endTime;
+
     /**
      * 票号
      */
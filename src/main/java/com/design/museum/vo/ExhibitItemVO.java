@@ -43,6 +43,26 @@ public class ExhibitItemVO implements Serializable {
      */
     private String coverUrl;
 
+    /**
+     * 播放地址：视频转码完成后为 HLS 主播放列表，否则为原始文件
+     */
+    private String playUrl;
+
+    /**
+     * 播放类型：HLS/FILE
+     */
+    private String streamType;
+
+    /**
+     * 视频转码状态：0排队中 1处理中 2已完成 3失败
+     */
+    private Integer transcodeStatus;
+
+    /**
+     * 视频转码进度 0-100
+     */
+    private Integer transcodeProgress;
+
     /**
      * 展览开始时间
      */
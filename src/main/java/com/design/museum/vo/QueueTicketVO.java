@@ -0,0 +1,35 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+/**
+ * 预约排队凭证视图对象
+ */
+@Data
+public class QueueTicketVO {
+
+    /**
+     * 排队序号
+     */
+    private Long ticketNo;
+
+    /**
+     * 前方等待人数（0 表示已轮到）
+     */
+    private Long position;
+
+    /**
+     * 是否已放行，放行后请在有效期内重新提交预约
+     */
+    private Boolean ready;
+
+    /**
+     * 预计等待秒数
+     */
+    private Long estimatedWaitSeconds;
+
+    /**
+     * 放行后有效秒数
+     */
+    private Integer admitTtlSeconds;
+}
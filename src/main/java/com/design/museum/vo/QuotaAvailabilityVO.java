@@ -0,0 +1,38 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 单日余量视图对象（预约日历）
+ */
+@Data
+public class QuotaAvailabilityVO {
+
+    /**
+     * 参观日期
+     */
+    private LocalDate visitDate;
+
+    /**
+     * 总容量（已开放时段的日期为各可预约时段容量之和）
+     */
+    private Integer capacity;
+
+    /**
+     * 剩余数量
+     */
+    private Integer remainingCount;
+
+    /**
+     * 状态：1可预约 0停用
+     */
+    private Integer status;
+
+    /**
+     * 各时段余量（未开放时段的日期为空）
+     */
+    private List<TimeslotVO> slots;
+}
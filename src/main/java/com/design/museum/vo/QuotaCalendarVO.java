@@ -0,0 +1,29 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 预约日历视图对象
+ * 全量查询时包含可预约范围内的每一天，推送增量时只包含发生变化的日期
+ */
+@Data
+public class QuotaCalendarVO {
+
+    /**
+     * 快照版本号，任一日期余量变化时递增
+     */
+    private Long version;
+
+    /**
+     * 快照刷新时间
+     */
+    private LocalDateTime refreshedAt;
+
+    /**
+     * 各日期余量（按日期升序）
+     */
+    private List<QuotaAvailabilityVO> days;
+}
@@ -0,0 +1,45 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+/**
+ * 限流统计视图对象
+ */
+@Data
+public class RateLimitStatVO {
+
+    /**
+     * 规则名称
+     */
+    private String rule;
+
+    /**
+     * 窗口内允许的请求数
+     */
+    private Integer limit;
+
+    /**
+     * 同一 IP 窗口内允许的请求数
+     */
+    private Integer ipLimit;
+
+    /**
+     * 窗口长度（秒）
+     */
+    private Integer windowSeconds;
+
+    /**
+     * 放行次数
+     */
+    private Long allowed;
+
+    /**
+     * 按用户拒绝次数
+     */
+    private Long rejectedByUser;
+
+    /**
+     * 按 IP 拒绝次数
+     */
+    private Long rejectedByIp;
+}
@@ -0,0 +1,42 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * SQL 诊断问题接口视图对象
+ */
+@Data
+public class SqlOffenderVO {
+
+    /**
+     * 接口标识：HTTP 方法 + 路由模板
+     */
+    private String endpoint;
+
+    /**
+     * 被标记的请求次数
+     */
+    private Long flaggedCount;
+
+    /**
+     * 单次请求最多执行的语句数
+     */
+    private Integer maxStatements;
+
+    /**
+     * 单次请求内同一语句最多重复次数
+     */
+    private Integer maxRepeat;
+
+    /**
+     * 重复最多的语句形态
+     */
+    private String repeatedStatement;
+
+    /**
+     * 最近一次被标记的时间
+     */
+    private LocalDateTime lastSeen;
+}
@@ -0,0 +1,53 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * 参观时段视图对象
+ */
+@Data
+public class TimeslotVO {
+
+    /**
+     * 时段ID
+     */
+    private Long id;
+
+    /**
+     * 参观日期
+     */
+    private LocalDate visitDate;
+
+    /**
+     * 开始时间
+     */
+    private LocalTime startTime;
+
+    /**
+     * 结束时间
+     */
+    private LocalTime endTime;
+
+    /**
+     * 总容量
+     */
+    private Integer capacity;
+
+    /**
+     * 已预约数量
+     */
+    private Integer reservedCount;
+
+    /**
+     * 剩余数量
+     */
+    private Integer remainingCount;
+
+    /**
+     * 状态：1可预约 0停用
+     */
+    private Integer status;
+}
@@ -0,0 +1,44 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 热门展品响应对象
+ */
+@Data
+public class TrendingItemVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 排名，从1开始
+     */
+    private Integer rank;
+
+    /**
+     * 展品信息
+     */
+    private ExhibitItemVO item;
+
+    /**
+     * 时间衰减后的热度分
+     */
+    private Double score;
+
+    /**
+     * 统计窗口内浏览次数
+     */
+    private Long viewCount;
+
+    /**
+     * 统计窗口内评论次数
+     */
+    private Long commentCount;
+
+    /**
+     * 统计窗口内点赞次数
+     */
+    private Long likeCount;
+}
@@ -0,0 +1,59 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分片上传会话响应对象
+ */
+@Data
+public class UploadSessionVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 上传ID
+     */
+    private String uploadId;
+
+    private String fileName;
+
+    /**
+     * 媒体类型：IMAGE/VIDEO
+     */
+    private String mediaKind;
+
+    private Long totalSize;
+
+    /**
+     * 分片大小（字节），客户端按此切分，最后一片可以更小
+     */
+    private Long partSize;
+
+    private Integer partCount;
+
+    /**
+     * 尚未上传的分片序号（从1开始），断点续传时只需补传这些分片
+     */
+    private List<Integer> missingParts;
+
+    /**
+     * 0上传中 1合并中 2已完成 3合并失败
+     */
+    private Integer status;
+
+    /**
+     * 文件访问URL（已完成时返回）
+     */
+    private String url;
+
+    /**
+     * 合并失败原因
+     */
+    private String errorMsg;
+
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,42 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户足迹视图对象
+ */
+@Data
+public class UserEventVO {
+
+    /**
+     * 足迹ID
+     */
+    private Long id;
+
+    /**
+     * 展品ID
+     */
+    private Long itemId;
+
+    /**
+     * 展品标题（展品已删除时为空）
+     */
+    private String itemTitle;
+
+    /**
+     * 媒体类型：IMAGE/VIDEO
+     */
+    private String mediaKind;
+
+    /**
+     * 展品缩略图（未生成时为原图或封面）
+     */
+    private String thumbUrl;
+
+    /**
+     * 浏览时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,53 @@
+package com.design.museum.vo;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 候补视图对象
+ */
+@Data
+public class WaitlistVO {
+
+    /**
+     * 候补ID
+     */
+    private Long id;
+
+    /**
+     * 参观日期
+     */
+    private LocalDate visitDate;
+
+    /**
+     * 参观时段ID
+     */
+    private Long timeslotId;
+
+    /**
+     * 状态：0候补中 1已转正 2已取消 3已过期 4转正失败
+     */
+    private Integer status;
+
+    /**
+     * 当前排位（仅候补中有效，从1开始）
+     */
+    private Long position;
+
+    /**
+     * 转正后生成的预约ID
+     */
+    private Long bookingId;
+
+    /**
+     * 转正失败原因
+     */
+    private String failReason;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.design.museum.waitlist;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * 名额释放事件
+ * 取消预约、改签离开、扩容时发布，由 {@link WaitlistPromoter} 在事务提交后异步转正候补
+ */
+@Getter
+public class QuotaReleasedEvent {
+
+    /**
+     * 参观日期
+     */
+    private final LocalDate visitDate;
+
+    /**
+     * 参观时段ID（为空表示整日配额）
+     */
+    private final Long timeslotId;
+
+    public QuotaReleasedEvent(LocalDate visitDate, Long timeslotId) {
+        this.visitDate = visitDate;
+        this.timeslotId = timeslotId;
+    }
+}
@@ -0,0 +1,160 @@
+package com.design.museum.waitlist;
+
+import com.design.museum.common.ErrorCode;
+import com.design.museum.entity.VisitWaitlist;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.service.IUserNoticeService;
+import com.design.museum.service.IVisitBookingService;
+import com.design.museum.service.IVisitWaitlistService;
+import com.design.museum.vo.BookingVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 候补转正
+ * 名额释放事件在事务提交后异步处理，按先到先得逐批为候补用户创建预约，直到名额用尽或队列为空；
+ * 另有定时补偿扫描，兜底处理进程重启丢失的事件。
+ */
+@Component
+@Slf4j
+public class WaitlistPromoter {
+
+    /**
+     * 按日期/时段分段加锁，同一队列串行转正，不同队列互不阻塞
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    @Value("${museum.waitlist.batch-size:20}")
+    private int batchSize;
+
+    @Resource
+    private IVisitWaitlistService visitWaitlistService;
+
+    @Resource
+    private IVisitBookingService visitBookingService;
+
+    @Resource
+    private IUserNoticeService userNoticeService;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public WaitlistPromoter() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 名额释放后异步转正
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQuotaReleased(QuotaReleasedEvent event) {
+        try {
+            promote(event.getVisitDate(), event.getTimeslotId());
+        } catch (Exception e) {
+            log.error("候补转正失败：visitDate={}, timeslotId={}", event.getVisitDate(), event.getTimeslotId(), e);
+        }
+    }
+
+    /**
+     * 定时补偿：过期过去日期的候补，并对仍有候补的队列尝试转正
+     */
+    @Scheduled(fixedDelayString = "${museum.waitlist.sweep-interval-ms:300000}")
+    public void sweep() {
+        try {
+            int expired = visitWaitlistService.expirePast();
+            if (expired > 0) {
+                log.info("候补过期：{} 条", expired);
+            }
+            for (VisitWaitlist group : visitWaitlistService.listWaitingGroups()) {
+                promote(group.getVisitDate(), group.getTimeslotId());
+            }
+        } catch (Exception e) {
+            log.error("候补补偿扫描失败", e);
+        }
+    }
+
+    /**
+     * 对指定队列按批转正
+     *
+     * @param visitDate  参观日期
+     * @param timeslotId 参观时段ID（为空表示整日）
+     * @return 转正人数
+     */
+    public int promote(LocalDate visitDate, Long timeslotId) {
+        if (visitDate.isBefore(LocalDate.now())) {
+            return 0;
+        }
+        synchronized (lockFor(visitDate, timeslotId)) {
+            int promoted = 0;
+            while (true) {
+                List<VisitWaitlist> batch = visitWaitlistService.listWaiting(visitDate, timeslotId, batchSize);
+                for (VisitWaitlist entry : batch) {
+                    try {
+                        BookingVO booking = visitBookingService.promoteFromWaitlist(entry);
+                        promoted++;
+                        notifyQuietly(entry.getUserId(), "候补成功",
+                                String.format("候补成功，已为您预约 %s，票号：%s", booking.getVisitDate(), booking.getTicketCode()));
+                    } catch (BusinessException e) {
+                        if (isSoldOut(e)) {
+                            // 名额已用尽，剩余候补等待下一次释放
+                            log.info("候补转正结束（名额已满）：visitDate={}, timeslotId={}, promoted={}", visitDate, timeslotId, promoted);
+                            return promoted;
+                        }
+                        if (e.getCode() == ErrorCode.DB_BUSY.getCode()) {
+                            // 预约连接预算已满，留给补偿扫描重试
+                            log.info("候补转正暂停（系统繁忙）：visitDate={}, timeslotId={}, promoted={}", visitDate, timeslotId, promoted);
+                            return promoted;
+                        }
+                        if (e.getCode() == ErrorCode.WAITLIST_NOT_FOUND.getCode()) {
+                            // 已被用户取消或其他节点处理
+                            continue;
+                        }
+                        visitWaitlistService.markFailed(entry.getId(), e.getMessage());
+                        notifyQuietly(entry.getUserId(), "候补失败",
+                                String.format("%s 的候补未能转为预约：%s", visitDate, e.getMessage()));
+                    }
+                }
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            if (promoted > 0) {
+                log.info("候补转正完成：visitDate={}, timeslotId={}, promoted={}", visitDate, timeslotId, promoted);
+            }
+            return promoted;
+        }
+    }
+
+    private boolean isSoldOut(BusinessException e) {
+        int code = e.getCode();
+        return code == ErrorCode.QUOTA_FULL.getCode()
+                || code == ErrorCode.TIMESLOT_FULL.getCode()
+                || code == ErrorCode.QUOTA_NOT_EXIST.getCode()
+                || code == ErrorCode.TIMESLOT_NOT_EXIST.getCode();
+    }
+
+    private void notifyQuietly(Long userId, String title, String content) {
+        try {
+            userNoticeService.sendNotice(userId, 1, title, content);
+        } catch (Exception e) {
+            // 发送消息失败不影响转正结果，仅记录日志
+            log.error("发送候补通知失败：userId={}", userId, e);
+        }
+    }
+
+    private Object lockFor(LocalDate visitDate, Long timeslotId) {
+        return locks[Math.floorMod(Objects.hash(visitDate, timeslotId), LOCK_STRIPES)];
+    }
+}
@@ -0,0 +1,18 @@
+-- 幂等请求记录（Idempotency-Key）
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id          BIGINT       NOT NULL COMMENT '请求用户',
+    scope            VARCHAR(64)  NOT NULL COMMENT '接口范围',
+    idem_key         VARCHAR(64)  NOT NULL COMMENT '客户端提供的幂等键',
+    request_hash     CHAR(64)     NOT NULL COMMENT '请求参数摘要（SHA-256）',
+    status           TINYINT      NOT NULL DEFAULT 0 COMMENT '0处理中 1已完成',
+    response_code    INT          NULL COMMENT '响应码',
+    response_message VARCHAR(255) NULL COMMENT '响应信息',
+    response_data    TEXT         NULL COMMENT '响应数据（JSON）',
+    created_at       DATETIME     NOT NULL,
+    updated_at       DATETIME     NOT NULL,
+    expire_at        DATETIME     NOT NULL COMMENT '过期时间',
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_user_scope_key (user_id, scope, idem_key),
+    KEY idx_expire_at (expire_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='幂等请求记录';
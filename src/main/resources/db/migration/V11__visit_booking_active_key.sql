@@ -0,0 +1,10 @@
+-- 同一用户同一天只允许一个有效预约（已预约/已改签/已核验）
+-- active_key 仅对有效预约为 1，其余为 NULL；唯一索引中 NULL 互不冲突，取消、过期的历史预约不受限制
+-- 执行前请先确认没有重复的有效预约：
+--   SELECT user_id, visit_date, COUNT(*) FROM visit_booking
+--   WHERE deleted = 0 AND status IN (1, 3, 4) GROUP BY user_id, visit_date HAVING COUNT(*) > 1;
+ALTER TABLE visit_booking
+    ADD COLUMN active_key TINYINT
+        GENERATED ALWAYS AS (IF(deleted = 0 AND status IN (1, 3, 4), 1, NULL)) STORED
+        COMMENT '有效预约标记（生成列）',
+    ADD UNIQUE KEY uk_user_date_active (user_id, visit_date, active_key);
@@ -0,0 +1,19 @@
+-- 预约归档表：参观日期早于保留期、且已结束（取消/核验/过期/删除）的预约由归档任务分批迁入
+-- 主键沿用原预约ID，便于详情与候补记录关联
+CREATE TABLE IF NOT EXISTS visit_booking_archive (
+    id            BIGINT       NOT NULL COMMENT '原预约ID',
+    user_id       BIGINT       NOT NULL COMMENT '预约用户',
+    visit_date    DATE         NOT NULL COMMENT '参观日期',
+    timeslot_id   BIGINT       NULL COMMENT '预约时段ID',
+    ticket_code   VARCHAR(64)  NOT NULL COMMENT '票码',
+    status        TINYINT      NOT NULL COMMENT '1已预约 2已取消 3已改签 4已核验 5已过期',
+    cancel_reason VARCHAR(255) NULL COMMENT '取消原因',
+    verify_time   DATETIME     NULL COMMENT '核验时间',
+    deleted       TINYINT      NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    created_at    DATETIME     NOT NULL,
+    updated_at    DATETIME     NOT NULL,
+    archived_at   DATETIME     NOT NULL COMMENT '归档时间',
+    PRIMARY KEY (id),
+    KEY idx_user_created (user_id, created_at),
+    KEY idx_visit_date (visit_date)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='参观预约归档';
@@ -0,0 +1,11 @@
+-- HTTP 缓存校验：公开读接口的 ETag 由更新时间与行数计算
+-- 更新时间精确到毫秒，并由数据库在行变化时自动维护，绕过实体直接更新的语句（转码回写、恢复上架、逻辑删除等）同样生效
+ALTER TABLE exhibit_item
+    MODIFY updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+ALTER TABLE exhibit_comment
+    ADD COLUMN updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间' AFTER created_at,
+    ADD INDEX idx_item_updated (item_id, updated_at);
+
+ALTER TABLE exhibit_comment_like
+    MODIFY updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
@@ -0,0 +1,3 @@
+-- 热度快照保存各时段计数，重启后按原时段恢复衰减
+ALTER TABLE exhibit_popularity
+    ADD COLUMN bucket_counts TEXT NULL COMMENT '窗口内各时段计数：时段序号:浏览:评论:点赞，逗号分隔' AFTER like_count;
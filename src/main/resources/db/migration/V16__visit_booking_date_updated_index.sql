@@ -0,0 +1,3 @@
+-- 余量快照按参观日期统计有效预约，并按更新时间发现其他节点的变化
+ALTER TABLE visit_booking
+    ADD KEY idx_visit_date_updated (visit_date, updated_at);
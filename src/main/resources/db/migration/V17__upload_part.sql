@@ -0,0 +1,14 @@
+-- 分片改存到共享存储（OSS / 本地存储目录），多节点部署时分片与合并可落在不同节点
+CREATE TABLE IF NOT EXISTS upload_part (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    upload_id   VARCHAR(32)  NOT NULL COMMENT '上传ID',
+    part_number INT          NOT NULL COMMENT '分片序号（从1开始）',
+    object_name VARCHAR(512) NOT NULL COMMENT '分片在存储中的对象名',
+    size        BIGINT       NOT NULL COMMENT '分片大小（字节）',
+    created_at  DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_upload_part (upload_id, part_number)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='分片上传的已接收分片';
+
+ALTER TABLE upload_session
+    MODIFY COLUMN staging_path VARCHAR(512) NOT NULL COMMENT '分片对象名前缀';
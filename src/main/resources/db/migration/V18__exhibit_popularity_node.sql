@@ -0,0 +1,5 @@
+-- 热度快照按节点分行保存，多节点各自写入本节点的计数，互不覆盖
+ALTER TABLE exhibit_popularity
+    ADD COLUMN node_id VARCHAR(64) NOT NULL DEFAULT '' COMMENT '写入快照的节点（空串为升级前的旧快照）' AFTER item_id,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (item_id, node_id);
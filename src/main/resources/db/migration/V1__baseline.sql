@@ -0,0 +1,111 @@
+-- 基线表结构（项目初始版本）
+-- 已有库首次接入迁移时由 spring.flyway.baseline-on-migrate 标记为基线，不会重复执行
+-- 查询所需的组合索引由 V12 统一补齐，此处只保留主键与业务唯一约束
+
+CREATE TABLE IF NOT EXISTS sys_user (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    username        VARCHAR(64)  NOT NULL COMMENT '用户名',
+    password_hash   VARCHAR(128) NOT NULL COMMENT '密码摘要',
+    avatar_url      VARCHAR(512) NULL COMMENT '头像地址',
+    phone           VARCHAR(32)  NULL COMMENT '手机号',
+    qq_openid       VARCHAR(128) NULL,
+    wechat_openid   VARCHAR(128) NULL,
+    real_name       VARCHAR(64)  NULL COMMENT '真实姓名',
+    id_No           VARCHAR(32)  NULL COMMENT '身份证号',
+    allow_push      TINYINT      NOT NULL DEFAULT 0 COMMENT '0允许推送 1不允许',
+    allow_footprint TINYINT      NOT NULL DEFAULT 0 COMMENT '0显示足迹 1不显示',
+    status          TINYINT      NOT NULL DEFAULT 1 COMMENT '1正常 0禁用',
+    role            VARCHAR(16)  NOT NULL DEFAULT 'USER' COMMENT 'ADMIN/USER',
+    created_at      DATETIME     NOT NULL,
+    updated_at      DATETIME     NOT NULL,
+    deleted         TINYINT      NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_username (username)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='系统用户';
+
+CREATE TABLE IF NOT EXISTS exhibit_item (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    title       VARCHAR(255) NOT NULL COMMENT '展览标题/展品名称',
+    description TEXT         NULL COMMENT '简介/解说',
+    media_kind  VARCHAR(16)  NULL COMMENT 'IMAGE/VIDEO',
+    media_url   VARCHAR(512) NULL COMMENT '图片或视频OSS地址',
+    cover_url   VARCHAR(512) NULL COMMENT '封面图',
+    status      TINYINT      NOT NULL DEFAULT 0 COMMENT '0上架 1下架',
+    start_time  DATETIME     NULL COMMENT '展示周期开始',
+    end_time    DATETIME     NULL COMMENT '展示周期结束',
+    creator_id  BIGINT       NULL COMMENT '创建人(管理员ID)',
+    created_at  DATETIME     NOT NULL,
+    updated_at  DATETIME     NOT NULL,
+    deleted     TINYINT      NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='展品';
+
+CREATE TABLE IF NOT EXISTS exhibit_comment (
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    item_id    BIGINT        NOT NULL COMMENT '展品ID',
+    user_id    BIGINT        NOT NULL COMMENT '评论用户',
+    content    VARCHAR(1000) NOT NULL COMMENT '评论内容',
+    status     TINYINT       NOT NULL DEFAULT 1 COMMENT '1显示 0隐藏',
+    deleted    TINYINT       NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    created_at DATETIME      NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='展品评论';
+
+CREATE TABLE IF NOT EXISTS exhibit_comment_like (
+    id         BIGINT   NOT NULL AUTO_INCREMENT,
+    comment_id BIGINT   NOT NULL COMMENT '评论ID',
+    user_id    BIGINT   NOT NULL COMMENT '点赞用户',
+    status     TINYINT  NOT NULL DEFAULT 1 COMMENT '1点赞 0取消',
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='评论点赞';
+
+CREATE TABLE IF NOT EXISTS user_event (
+    id         BIGINT   NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT   NOT NULL COMMENT '用户ID',
+    item_id    BIGINT   NOT NULL COMMENT '浏览的展品ID',
+    deleted    TINYINT  NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    created_at DATETIME NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='用户浏览足迹';
+
+CREATE TABLE IF NOT EXISTS user_notice (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT       NOT NULL COMMENT '接收用户',
+    category   TINYINT      NOT NULL COMMENT '1预约 2公告 3活动 4讲座 5系统',
+    title      VARCHAR(255) NOT NULL,
+    content    TEXT         NULL,
+    read_flag  TINYINT      NOT NULL DEFAULT 0 COMMENT '0未读 1已读',
+    read_at    DATETIME     NULL,
+    deleted    TINYINT      NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    created_at DATETIME     NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='用户消息';
+
+CREATE TABLE IF NOT EXISTS visit_booking (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id       BIGINT       NOT NULL COMMENT '预约用户',
+    visit_date    DATE         NOT NULL COMMENT '参观日期',
+    ticket_code   VARCHAR(64)  NOT NULL COMMENT '票码',
+    status        TINYINT      NOT NULL DEFAULT 1 COMMENT '1已预约 2已取消 3已改签 4已核验 5已过期',
+    cancel_reason VARCHAR(255) NULL COMMENT '取消原因',
+    verify_time   DATETIME     NULL COMMENT '核验时间',
+    deleted       TINYINT      NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    created_at    DATETIME     NOT NULL,
+    updated_at    DATETIME     NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='参观预约';
+
+CREATE TABLE IF NOT EXISTS visit_day_quota (
+    id             BIGINT   NOT NULL AUTO_INCREMENT,
+    visit_date     DATE     NOT NULL COMMENT '参观日期',
+    capacity       INT      NOT NULL COMMENT '当日可预约名额',
+    reserved_count INT      NOT NULL DEFAULT 0 COMMENT '当日已占用名额',
+    status         TINYINT  NOT NULL DEFAULT 1 COMMENT '1可预约 0停止预约',
+    deleted        TINYINT  NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    created_at     DATETIME NOT NULL,
+    updated_at     DATETIME NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_visit_date (visit_date)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='参观日配额';
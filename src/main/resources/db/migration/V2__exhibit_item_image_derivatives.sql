@@ -0,0 +1,5 @@
+-- 展品展示图衍生尺寸地址（图片取 media_url，视频取 cover_url）
+ALTER TABLE exhibit_item
+    ADD COLUMN thumb_url  VARCHAR(512) NULL COMMENT '缩略图地址(200px)' AFTER cover_url,
+    ADD COLUMN list_url   VARCHAR(512) NULL COMMENT '列表图地址(480px)' AFTER thumb_url,
+    ADD COLUMN detail_url VARCHAR(512) NULL COMMENT '详情图地址(1080px)' AFTER list_url;
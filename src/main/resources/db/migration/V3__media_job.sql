@@ -0,0 +1,27 @@
+-- 视频转码任务表
+CREATE TABLE IF NOT EXISTS media_job (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    source_object VARCHAR(512) NOT NULL COMMENT '源文件对象名',
+    source_url    VARCHAR(512) NOT NULL COMMENT '源文件访问地址',
+    source_path   VARCHAR(512) NULL COMMENT '源文件本地暂存路径',
+    status        TINYINT      NOT NULL DEFAULT 0 COMMENT '0排队中 1处理中 2已完成 3失败',
+    progress      INT          NOT NULL DEFAULT 0 COMMENT '进度 0-100',
+    attempts      INT          NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+    hls_url       VARCHAR(512) NULL COMMENT 'HLS 主播放列表地址',
+    poster_url    VARCHAR(512) NULL COMMENT '封面帧地址',
+    error_msg     VARCHAR(512) NULL COMMENT '最近一次失败原因',
+    worker        VARCHAR(128) NULL COMMENT '处理节点标识',
+    created_at    DATETIME     NOT NULL,
+    started_at    DATETIME     NULL,
+    finished_at   DATETIME     NULL,
+    updated_at    DATETIME     NOT NULL COMMENT '心跳时间',
+    PRIMARY KEY (id),
+    KEY idx_status_id (status, id),
+    KEY idx_source_url (source_url(191))
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='视频转码任务';
+
+-- 展品视频转码状态
+ALTER TABLE exhibit_item
+    ADD COLUMN transcode_status   TINYINT      NULL COMMENT '0排队中 1处理中 2已完成 3失败' AFTER detail_url,
+    ADD COLUMN transcode_progress INT          NULL COMMENT '转码进度 0-100' AFTER transcode_status,
+    ADD COLUMN hls_url            VARCHAR(512) NULL COMMENT 'HLS 主播放列表地址' AFTER transcode_progress;
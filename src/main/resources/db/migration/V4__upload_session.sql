@@ -0,0 +1,22 @@
+-- 分片上传会话表
+CREATE TABLE IF NOT EXISTS upload_session (
+    id             VARCHAR(32)  NOT NULL COMMENT '上传ID',
+    creator_id     BIGINT       NOT NULL COMMENT '发起人(管理员ID)',
+    file_name      VARCHAR(255) NOT NULL COMMENT '原始文件名',
+    content_type   VARCHAR(128) NOT NULL,
+    media_kind     VARCHAR(16)  NOT NULL COMMENT 'IMAGE/VIDEO',
+    total_size     BIGINT       NOT NULL COMMENT '文件总大小（字节）',
+    part_size      BIGINT       NOT NULL COMMENT '分片大小（字节）',
+    part_count     INT          NOT NULL,
+    received_parts TEXT         NOT NULL COMMENT '分片接收位图',
+    staging_path   VARCHAR(512) NOT NULL COMMENT '本地暂存文件路径',
+    status         TINYINT      NOT NULL DEFAULT 0 COMMENT '0上传中 1合并中 2已完成 3合并失败',
+    object_name    VARCHAR(512) NULL,
+    url            VARCHAR(512) NULL,
+    error_msg      VARCHAR(512) NULL,
+    created_at     DATETIME     NOT NULL,
+    updated_at     DATETIME     NOT NULL,
+    expires_at     DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_expires_at (expires_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='分片上传会话';
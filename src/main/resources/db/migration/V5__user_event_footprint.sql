@@ -0,0 +1,3 @@
+-- 我的足迹按用户倒序分页
+ALTER TABLE user_event
+    ADD INDEX idx_user_id_id (user_id, id);
@@ -0,0 +1,11 @@
+-- 展品热度快照
+CREATE TABLE IF NOT EXISTS exhibit_popularity (
+    item_id       BIGINT   NOT NULL COMMENT '展品ID',
+    view_count    BIGINT   NOT NULL DEFAULT 0 COMMENT '统计窗口内浏览次数',
+    comment_count BIGINT   NOT NULL DEFAULT 0 COMMENT '统计窗口内评论次数',
+    like_count    BIGINT   NOT NULL DEFAULT 0 COMMENT '统计窗口内点赞次数',
+    score         DOUBLE   NOT NULL DEFAULT 0 COMMENT '时间衰减后的热度分',
+    updated_at    DATETIME NOT NULL,
+    PRIMARY KEY (item_id),
+    KEY idx_score (score)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='展品热度快照';
@@ -0,0 +1,8 @@
+-- 展品相似关系（每晚离线计算，每个展品保留前 K 个）
+CREATE TABLE IF NOT EXISTS exhibit_item_related (
+    item_id         BIGINT   NOT NULL COMMENT '展品ID',
+    rank_no         SMALLINT NOT NULL COMMENT '排名，从1开始',
+    related_item_id BIGINT   NOT NULL COMMENT '相似展品ID',
+    score           FLOAT    NOT NULL COMMENT '余弦相似度',
+    PRIMARY KEY (item_id, rank_no)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='展品相似关系';
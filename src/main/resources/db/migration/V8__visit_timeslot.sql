@@ -0,0 +1,19 @@
+-- 参观时段及时段级名额
+CREATE TABLE IF NOT EXISTS visit_timeslot (
+    id             BIGINT   NOT NULL AUTO_INCREMENT,
+    visit_date     DATE     NOT NULL COMMENT '参观日期',
+    start_time     TIME     NOT NULL COMMENT '时段开始时间',
+    end_time       TIME     NOT NULL COMMENT '时段结束时间',
+    capacity       INT      NOT NULL COMMENT '时段可预约名额',
+    reserved_count INT      NOT NULL DEFAULT 0 COMMENT '时段已占用名额',
+    status         TINYINT  NOT NULL DEFAULT 1 COMMENT '1可预约 0停用',
+    deleted        TINYINT  NOT NULL DEFAULT 0 COMMENT '0正常 1删除',
+    created_at     DATETIME NOT NULL,
+    updated_at     DATETIME NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_date_start (visit_date, start_time)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='参观时段';
+
+ALTER TABLE visit_booking
+    ADD COLUMN timeslot_id BIGINT NULL COMMENT '预约时段ID（为空表示整日预约）' AFTER visit_date,
+    ADD KEY idx_timeslot (timeslot_id);
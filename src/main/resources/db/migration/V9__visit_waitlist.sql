@@ -0,0 +1,15 @@
+-- 预约候补队列（按参观日期/时段先到先得）
+CREATE TABLE IF NOT EXISTS visit_waitlist (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id     BIGINT       NOT NULL COMMENT '候补用户',
+    visit_date  DATE         NOT NULL COMMENT '参观日期',
+    timeslot_id BIGINT       NULL COMMENT '参观时段ID（为空表示整日）',
+    status      TINYINT      NOT NULL DEFAULT 0 COMMENT '0候补中 1已转正 2已取消 3已过期 4转正失败',
+    booking_id  BIGINT       NULL COMMENT '转正后生成的预约ID',
+    fail_reason VARCHAR(255) NULL COMMENT '转正失败原因',
+    created_at  DATETIME     NOT NULL,
+    updated_at  DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_queue (visit_date, timeslot_id, status, id),
+    KEY idx_user (user_id, status)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT ='预约候补队列';
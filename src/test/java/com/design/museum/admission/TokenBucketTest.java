@@ -0,0 +1,48 @@
+package com.design.museum.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 令牌桶：突发容量、按速率补充与容量上限
+ */
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstThenRejects() {
+        // 速率极低，测试期间不会补充
+        TokenBucket bucket = new TokenBucket(0.001, 3);
+        assertEquals(3, bucket.available());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertEquals(0, bucket.available());
+    }
+
+    @Test
+    void refillsAtRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 1);
+        assertTrue(bucket.tryAcquire());
+        Thread.sleep(20);
+        // 20ms 按每秒 1000 个应补充约 20 个，受容量限制只有 1 个
+        assertTrue(bucket.tryAcquire());
+    }
+
+    @Test
+    void neverExceedsCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 5);
+        Thread.sleep(20);
+        assertEquals(5, bucket.available());
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
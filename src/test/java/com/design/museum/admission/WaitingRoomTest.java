@@ -0,0 +1,94 @@
+package com.design.museum.admission;
+
+import com.design.museum.common.ErrorCode;
+import com.design.museum.exception.BusinessException;
+import com.design.museum.vo.QueueTicketVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 预约候场室：直接放行、排队、按令牌放行与放弃清理
+ * 不调用 init()，由测试手动 drain() 并替换令牌桶控制放行名额
+ */
+class WaitingRoomTest {
+
+    /**
+     * 速率极低，测试期间不会补充令牌
+     */
+    private static final double NO_REFILL = 0.001;
+
+    private WaitingRoom newRoom(int tokens, int maxWaiting, int idleTimeoutSeconds) {
+        WaitingRoom room = new WaitingRoom();
+        ReflectionTestUtils.setField(room, "ratePerSecond", 50d);
+        ReflectionTestUtils.setField(room, "maxWaiting", maxWaiting);
+        ReflectionTestUtils.setField(room, "idleTimeoutSeconds", idleTimeoutSeconds);
+        ReflectionTestUtils.setField(room, "admitTtlSeconds", 60);
+        ReflectionTestUtils.setField(room, "bucket", new TokenBucket(NO_REFILL, tokens));
+        return room;
+    }
+
+    @Test
+    void admitsDirectlyWhileTokensLastThenQueues() {
+        WaitingRoom room = newRoom(1, 100, 30);
+        assertNull(room.tryEnter(1L));
+
+        QueueTicketVO ticket = room.tryEnter(2L);
+        assertEquals(Boolean.FALSE, ticket.getReady());
+        assertEquals(1L, (long) ticket.getPosition());
+
+        // 同一用户再次提交沿用原序号
+        assertEquals(ticket.getTicketNo(), room.tryEnter(2L).getTicketNo());
+    }
+
+    @Test
+    void drainAdmitsInArrivalOrder() {
+        WaitingRoom room = newRoom(1, 100, 30);
+        room.tryEnter(1L);
+        QueueTicketVO first = room.tryEnter(2L);
+        QueueTicketVO second = room.tryEnter(3L);
+        assertTrue(second.getTicketNo() > first.getTicketNo());
+
+        ReflectionTestUtils.setField(room, "bucket", new TokenBucket(NO_REFILL, 1));
+        room.drain();
+
+        assertEquals(Boolean.TRUE, room.status(2L).getReady());
+        QueueTicketVO stillWaiting = room.status(3L);
+        assertEquals(Boolean.FALSE, stillWaiting.getReady());
+        assertEquals(1L, (long) stillWaiting.getPosition());
+
+        // 已放行的用户重新提交即进入预约流程，序号随之释放
+        assertNull(room.tryEnter(2L));
+        BusinessException e = assertThrows(BusinessException.class, () -> room.status(2L));
+        assertEquals(ErrorCode.NOT_FOUND_ERROR.getCode(), e.getCode());
+    }
+
+    @Test
+    void rejectsWhenQueueFull() {
+        WaitingRoom room = newRoom(1, 1, 30);
+        room.tryEnter(1L);
+        room.tryEnter(2L);
+
+        BusinessException e = assertThrows(BusinessException.class, () -> room.tryEnter(3L));
+        assertEquals(ErrorCode.BOOKING_QUEUE_FULL.getCode(), e.getCode());
+    }
+
+    @Test
+    void idleTicketsAreDroppedWithoutConsumingTokens() throws InterruptedException {
+        WaitingRoom room = newRoom(1, 100, 0);
+        room.tryEnter(1L);
+        room.tryEnter(2L);
+
+        TokenBucket bucket = new TokenBucket(NO_REFILL, 1);
+        ReflectionTestUtils.setField(room, "bucket", bucket);
+        Thread.sleep(5);
+        room.drain();
+
+        assertThrows(BusinessException.class, () -> room.status(2L));
+        assertEquals(1, bucket.available());
+    }
+}
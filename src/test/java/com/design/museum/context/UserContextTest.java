@@ -0,0 +1,48 @@
+package com.design.museum.context;
+
+import com.design.museum.cache.SysUserCache;
+import com.design.museum.entity.SysUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 非请求线程（候补转正的异步监听、定时补偿）中的用户上下文
+ */
+class UserContextTest {
+
+    @Test
+    void resolvesUserOutsideRequestThread() throws Exception {
+        SysUser user = new SysUser();
+        user.setId(7L);
+        SysUserCache sysUserCache = new SysUserCache() {
+            @Override
+            public SysUser get(Long userId) {
+                return user.getId().equals(userId) ? user : null;
+            }
+        };
+
+        UserContext userContext = new UserContext();
+        ReflectionTestUtils.setField(userContext, "sysUserCache", sysUserCache);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Void> result = CompletableFuture.runAsync(() -> {
+                assertNull(RequestContextHolder.getRequestAttributes());
+                // 与 promoteFromWaitlist -> checkRealName 的调用一致，不应因缺少 Sa-Token 上下文而抛异常
+                assertNull(userContext.getLoginId());
+                assertSame(user, userContext.getUser(7L));
+            }, executor);
+            result.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.design.museum.footprint;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 足迹环形缓冲区：容量取整、满时丢弃、按序消费与多生产者并发写入
+ */
+class FootprintRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(8, new FootprintRingBuffer<Integer>(8).capacity());
+        assertEquals(128, new FootprintRingBuffer<Integer>(100).capacity());
+    }
+
+    @Test
+    void rejectsWhenFullAndAcceptsAfterDrain() {
+        FootprintRingBuffer<Integer> buffer = new FootprintRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(1, buffer.drainTo(drained, 1));
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    void drainsInOrderAcrossWrapAround() {
+        FootprintRingBuffer<Integer> buffer = new FootprintRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(buffer.offer(i));
+            if (i % 3 == 2) {
+                buffer.drainTo(drained, Integer.MAX_VALUE);
+            }
+        }
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void drainRespectsLimit() {
+        FootprintRingBuffer<Integer> buffer = new FootprintRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        FootprintRingBuffer<Integer> buffer = new FootprintRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> accepted = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                accepted.add(executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(base + i)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+
+            start.countDown();
+            Set<Integer> seen = new HashSet<>();
+            List<Integer> batch = new ArrayList<>();
+            while (!allDone(accepted) || buffer.size() > 0) {
+                batch.clear();
+                buffer.drainTo(batch, 256);
+                for (Integer element : batch) {
+                    // 每个元素只能被消费一次
+                    assertTrue(seen.add(element));
+                }
+            }
+
+            int total = 0;
+            for (Future<Integer> future : accepted) {
+                total += future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(total, seen.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean allDone(List<Future<Integer>> futures) {
+        for (Future<Integer> future : futures) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+package com.design.museum.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 展品热度滑动窗口：桶轮换、窗口过滤与时间衰减
+ */
+class SlidingWindowCounterTest {
+
+    private static final double[] WEIGHTS = {1, 5, 3};
+
+    @Test
+    void sumsSignalsWithinWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(4);
+        counter.add(10, SlidingWindowCounter.VIEW, 2);
+        counter.add(10, SlidingWindowCounter.COMMENT, 1);
+        counter.add(11, SlidingWindowCounter.LIKE, 1);
+
+        long[] totals = new long[3];
+        double score = counter.score(11, WEIGHTS, 0.5, totals);
+
+        assertArrayEquals(new long[]{2, 1, 1}, totals);
+        // 时段 10 衰减一次：(2*1 + 1*5) * 0.5 + 1*3
+        assertEquals(6.5, score, 1e-9);
+    }
+
+    @Test
+    void rolloverClearsReusedBucket() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(4);
+        counter.add(1, SlidingWindowCounter.VIEW, 5);
+        // 时段 5 与时段 1 落在同一个桶
+        counter.add(5, SlidingWindowCounter.VIEW, 2);
+
+        long[] totals = new long[3];
+        counter.score(5, WEIGHTS, 1, totals);
+        assertEquals(2, totals[SlidingWindowCounter.VIEW]);
+
+        List<long[]> exported = counter.export(5);
+        assertEquals(1, exported.size());
+        assertArrayEquals(new long[]{5, 2, 0, 0}, exported.get(0));
+    }
+
+    @Test
+    void ignoresOlderEpochWhenBucketAlreadyAdvanced() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(4);
+        counter.add(5, SlidingWindowCounter.VIEW, 2);
+        // 恢复历史数据时写入更早的时段，不能清掉或污染较新的计数
+        counter.add(1, SlidingWindowCounter.VIEW, 7);
+
+        long[] totals = new long[3];
+        counter.score(5, WEIGHTS, 1, totals);
+        assertEquals(2, totals[SlidingWindowCounter.VIEW]);
+    }
+
+    @Test
+    void bucketsOutsideWindowAreSkipped() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(4);
+        counter.add(1, SlidingWindowCounter.VIEW, 3);
+
+        assertFalse(counter.isEmpty(4));
+        assertTrue(counter.isEmpty(5));
+        assertTrue(counter.export(5).isEmpty());
+
+        long[] totals = new long[3];
+        assertEquals(0.0, counter.score(5, WEIGHTS, 0.5, totals), 0);
+        // 尚未到达的时段（当前时段早于桶时段）同样不计入
+        assertTrue(counter.isEmpty(0));
+    }
+
+    @Test
+    void newCounterIsEmpty() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(3);
+        assertTrue(counter.isEmpty(0));
+        assertTrue(counter.export(0).isEmpty());
+    }
+}
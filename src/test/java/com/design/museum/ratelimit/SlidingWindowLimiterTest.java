@@ -0,0 +1,84 @@
+package com.design.museum.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分段滑动窗口计数：窗口内限额、上一窗口加权、撤销与空闲清理
+ */
+class SlidingWindowLimiterTest {
+
+    private static final long WINDOW = 1000;
+
+    @Test
+    void allowsUpToLimitPerKey() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(4);
+        long now = 10_000;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("a", 3, WINDOW, now));
+        }
+        assertFalse(limiter.tryAcquire("a", 3, WINDOW, now));
+        // 其他键不受影响
+        assertTrue(limiter.tryAcquire("b", 3, WINDOW, now));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void weightsPreviousWindowByRemainingRatio() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(4);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("a", 10, WINDOW, 10_000));
+        }
+
+        // 下一窗口过半：上一窗口的 10 次按一半计入，还可以再放行 5 次
+        int allowed = 0;
+        while (limiter.tryAcquire("a", 10, WINDOW, 11_500)) {
+            allowed++;
+        }
+        assertEquals(5, allowed);
+    }
+
+    @Test
+    void resetsAfterMoreThanOneIdleWindow() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(4);
+        for (int i = 0; i < 2; i++) {
+            limiter.tryAcquire("a", 2, WINDOW, 10_000);
+        }
+        assertFalse(limiter.tryAcquire("a", 2, WINDOW, 10_999));
+
+        // 跨过两个窗口，上一窗口计数也清零
+        assertTrue(limiter.tryAcquire("a", 2, WINDOW, 12_000));
+        assertTrue(limiter.tryAcquire("a", 2, WINDOW, 12_000));
+        assertFalse(limiter.tryAcquire("a", 2, WINDOW, 12_000));
+    }
+
+    @Test
+    void releaseReturnsSlot() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(4);
+        assertTrue(limiter.tryAcquire("a", 1, WINDOW, 10_000));
+        assertFalse(limiter.tryAcquire("a", 1, WINDOW, 10_000));
+
+        limiter.release("a", WINDOW, 10_000);
+        assertTrue(limiter.tryAcquire("a", 1, WINDOW, 10_000));
+
+        // 未跟踪的键撤销不产生计数
+        limiter.release("missing", WINDOW, 10_000);
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void evictsIdleKeysAndClears() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(4);
+        limiter.tryAcquire("old", 5, WINDOW, 10_000);
+        limiter.tryAcquire("recent", 5, WINDOW, 20_000);
+
+        assertEquals(1, limiter.evictIdle(5_000, 21_000));
+        assertEquals(1, limiter.size());
+
+        limiter.clear();
+        assertEquals(0, limiter.size());
+    }
+}
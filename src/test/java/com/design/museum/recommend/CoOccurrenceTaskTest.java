@@ -0,0 +1,66 @@
+package com.design.museum.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 共现计数 fork/join：拆分合并后的结果与逐个篮子直接统计一致
+ */
+class CoOccurrenceTaskTest {
+
+    @Test
+    void countsItemsAndPairsInSmallInput() {
+        List<long[]> baskets = List.of(new long[]{1, 2, 3}, new long[]{2, 3}, new long[]{3});
+        CoOccurrenceTask.Counts counts = new CoOccurrenceTask(baskets, 0, baskets.size()).compute();
+
+        assertEquals(1, counts.items.get(1));
+        assertEquals(2, counts.items.get(2));
+        assertEquals(3, counts.items.get(3));
+        assertEquals(1, counts.pairs.get(CoOccurrenceTask.pairKey(1, 2)));
+        assertEquals(1, counts.pairs.get(CoOccurrenceTask.pairKey(1, 3)));
+        assertEquals(2, counts.pairs.get(CoOccurrenceTask.pairKey(2, 3)));
+        assertEquals(3, counts.pairs.size());
+    }
+
+    @Test
+    void splitResultMatchesDirectCount() {
+        Random random = new Random(11);
+        List<long[]> baskets = new ArrayList<>();
+        // 远超叶子阈值，保证任务被多次拆分
+        for (int b = 0; b < 5_000; b++) {
+            long[] items = random.longs(1 + random.nextInt(8), 1, 200).distinct().sorted().toArray();
+            baskets.add(items);
+        }
+
+        Map<Long, Integer> expectedItems = new HashMap<>();
+        Map<Long, Integer> expectedPairs = new HashMap<>();
+        for (long[] items : baskets) {
+            for (int i = 0; i < items.length; i++) {
+                expectedItems.merge(items[i], 1, Integer::sum);
+                for (int j = i + 1; j < items.length; j++) {
+                    expectedPairs.merge(CoOccurrenceTask.pairKey(items[i], items[j]), 1, Integer::sum);
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CoOccurrenceTask.Counts counts = pool.invoke(new CoOccurrenceTask(baskets, 0, baskets.size()));
+
+            assertEquals(expectedItems.size(), counts.items.size());
+            assertEquals(expectedPairs.size(), counts.pairs.size());
+            expectedItems.forEach((item, count) -> assertEquals((long) count, counts.items.get(item)));
+            expectedPairs.forEach((pair, count) -> assertEquals((long) count, counts.pairs.get(pair)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
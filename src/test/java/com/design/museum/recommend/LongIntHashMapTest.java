@@ -0,0 +1,87 @@
+package com.design.museum.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 开放寻址计数表：累加、零键、扩容与合并
+ */
+class LongIntHashMapTest {
+
+    @Test
+    void addsAndReadsCounts() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        assertEquals(3, map.addTo(42L, 3));
+        assertEquals(5, map.addTo(42L, 2));
+        assertEquals(-1, map.addTo(-7L, -1));
+
+        assertEquals(5, map.get(42L));
+        assertEquals(-1, map.get(-7L));
+        assertEquals(0, map.get(43L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void zeroKeyIsStoredSeparately() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        assertEquals(0, map.get(0L));
+        map.addTo(0L, 4);
+        map.addTo(0L, 1);
+        map.addTo(1L, 1);
+
+        assertEquals(5, map.get(0L));
+        assertEquals(2, map.size());
+        long[] keySum = {0};
+        int[] valueSum = {0};
+        map.forEach((key, value) -> {
+            keySum[0] += key;
+            valueSum[0] += value;
+        });
+        assertEquals(1, keySum[0]);
+        assertEquals(6, valueSum[0]);
+    }
+
+    @Test
+    void matchesHashMapAcrossRehash() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            // 打包键的分布与共现计数一致：高32位、低32位都是较小的展品ID
+            long key = CoOccurrenceTask.pairKey(random.nextInt(300), random.nextInt(300));
+            map.addTo(key, 1);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, count) -> assertEquals((long) count, map.get(key)));
+        int[] visited = {0};
+        map.forEach((key, value) -> {
+            assertEquals((long) expected.get(key), value);
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+    }
+
+    @Test
+    void addAllMergesCounts() {
+        LongIntHashMap left = new LongIntHashMap(4);
+        left.addTo(1L, 1);
+        left.addTo(2L, 2);
+        LongIntHashMap right = new LongIntHashMap(4);
+        right.addTo(2L, 3);
+        right.addTo(0L, 4);
+
+        left.addAll(right);
+
+        assertEquals(1, left.get(1L));
+        assertEquals(5, left.get(2L));
+        assertEquals(4, left.get(0L));
+        assertEquals(3, left.size());
+    }
+}